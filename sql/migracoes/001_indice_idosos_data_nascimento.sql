@@ -0,0 +1,3 @@
+-- Índice para o filtro por faixa etária (GET /api/idosos/idade)
+-- A busca por idade é convertida em intervalo de data_nascimento no service.
+CREATE INDEX IF NOT EXISTS idx_idosos_data_nascimento ON idosos (data_nascimento);
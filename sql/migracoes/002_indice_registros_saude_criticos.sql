@@ -0,0 +1,5 @@
+-- Índice para a busca de registros críticos (GET /api/saude/criticos)
+-- A consulta filtra por tipo e janela de registrado_em; o valor no índice permite
+-- descartar os registros dentro da faixa sem ler a tabela.
+CREATE INDEX IF NOT EXISTS idx_registros_saude_tipo_registrado_valor
+    ON registros_saude (tipo, registrado_em, valor);
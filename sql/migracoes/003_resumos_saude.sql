@@ -0,0 +1,16 @@
+-- Resumos horários e diários de registros de saúde (ResumoSaude)
+-- Após criar a tabela, popular com POST /api/admin/resumos-saude/reconstruir
+-- ou subindo a aplicação com saude.resumos.reconstruir-na-inicializacao=true.
+CREATE TABLE IF NOT EXISTS resumos_saude (
+    id             BIGSERIAL PRIMARY KEY,
+    idoso_id       BIGINT         NOT NULL REFERENCES idosos (id) ON DELETE CASCADE,
+    tipo           VARCHAR(30)    NOT NULL,
+    granularidade  VARCHAR(10)    NOT NULL,
+    inicio_periodo TIMESTAMP      NOT NULL,
+    quantidade     BIGINT         NOT NULL,
+    soma           NUMERIC(15, 2) NOT NULL,
+    minimo         NUMERIC(7, 2),
+    maximo         NUMERIC(7, 2),
+    atualizado_em  TIMESTAMP      NOT NULL,
+    CONSTRAINT uk_resumos_saude_periodo UNIQUE (idoso_id, tipo, granularidade, inicio_periodo)
+);
@@ -0,0 +1,6 @@
+-- RegistroSaude passa de IDENTITY para sequência com alocação em blocos de 50,
+-- permitindo lotes JDBC nas inserções (POST /api/saude/lote).
+-- A sequência começa acima do maior id existente; o default da coluna continua
+-- válido para inserções feitas fora da aplicação.
+CREATE SEQUENCE IF NOT EXISTS registros_saude_seq INCREMENT BY 50;
+SELECT setval('registros_saude_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM registros_saude));
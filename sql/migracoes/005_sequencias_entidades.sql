@@ -0,0 +1,41 @@
+-- Todas as entidades (exceto resumos_saude, gravada por lote JDBC) passam de
+-- IDENTITY para sequências com alocação em blocos (@SequenciaPooled), o que
+-- permite ao Hibernate agrupar os INSERTs em lotes JDBC.
+--
+-- O INCREMENT BY precisa coincidir com conecta-senior.id.allocation-size (padrão 50).
+-- Com o otimizador pooled-lo o valor da sequência é o primeiro id do bloco, então
+-- cada sequência recomeça logo acima do maior id já usado (da tabela ou do bloco
+-- já reservado em registros_saude_seq pela migração 004).
+-- O default da coluna passa a usar a mesma sequência: um nextval() avulso recebe
+-- o início de um bloco que nenhuma instância da aplicação vai reutilizar.
+
+CREATE SEQUENCE IF NOT EXISTS idosos_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS rotinas_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS registros_saude_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS execucoes_rotina_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS emergencias_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS contatos_emergencia_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS usuarios_seq INCREMENT BY 50;
+
+DO $$
+DECLARE
+    tabela TEXT;
+    sequencia TEXT;
+    proximo BIGINT;
+BEGIN
+    FOREACH tabela IN ARRAY ARRAY['idosos', 'rotinas', 'registros_saude', 'execucoes_rotina',
+                                  'emergencias', 'contatos_emergencia', 'usuarios']
+    LOOP
+        sequencia := tabela || '_seq';
+
+        EXECUTE format('SELECT GREATEST((SELECT COALESCE(MAX(id), 0) FROM %I), last_value) + 1 FROM %I',
+                       tabela, sequencia)
+            INTO proximo;
+        PERFORM setval(sequencia, proximo, false);
+
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', tabela);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', tabela, sequencia);
+        EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.id', sequencia, tabela);
+    END LOOP;
+END
+$$;
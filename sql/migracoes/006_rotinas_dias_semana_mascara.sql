@@ -0,0 +1,40 @@
+-- Dias da semana das rotinas passam de texto livre ("SEG,TER,QUA", "TODOS")
+-- para uma máscara de bits (DiasSemana): SEG = 1, TER = 2, QUA = 4, QUI = 8,
+-- SEX = 16, SAB = 32, DOM = 64; 127 = todos os dias.
+--
+-- A busca por dia passa a ser "dias_semana_mascara IN (máscaras com o bit do
+-- dia)", resolvida pelo índice (idoso_id, dias_semana_mascara) no lugar de
+-- LIKE '%...%' sobre o texto. Textos vazios, "TODOS" ou sem nenhum dia
+-- reconhecido viram 127, como a aplicação já os interpretava.
+
+ALTER TABLE rotinas ADD COLUMN IF NOT EXISTS dias_semana_mascara SMALLINT;
+
+UPDATE rotinas r
+SET dias_semana_mascara = CASE
+        WHEN d.texto ~ 'TODOS' OR d.mascara = 0 THEN 127
+        ELSE d.mascara
+    END
+FROM (
+    SELECT id,
+           texto,
+           (CASE WHEN texto ~ 'SEG' THEN 1 ELSE 0 END)
+         | (CASE WHEN texto ~ 'TER' THEN 2 ELSE 0 END)
+         | (CASE WHEN texto ~ 'QUA' THEN 4 ELSE 0 END)
+         | (CASE WHEN texto ~ 'QUI' THEN 8 ELSE 0 END)
+         | (CASE WHEN texto ~ 'SEX' THEN 16 ELSE 0 END)
+         | (CASE WHEN texto ~ 'S[AÁ]B' THEN 32 ELSE 0 END)
+         | (CASE WHEN texto ~ 'DOM' THEN 64 ELSE 0 END) AS mascara
+    FROM (SELECT id, upper(coalesce(dias_semana, '')) AS texto FROM rotinas) t
+) d
+WHERE r.id = d.id
+  AND r.dias_semana_mascara IS NULL;
+
+ALTER TABLE rotinas ALTER COLUMN dias_semana_mascara SET DEFAULT 127;
+ALTER TABLE rotinas ALTER COLUMN dias_semana_mascara SET NOT NULL;
+ALTER TABLE rotinas ADD CONSTRAINT ck_rotinas_dias_semana_mascara
+    CHECK (dias_semana_mascara BETWEEN 1 AND 127);
+
+CREATE INDEX IF NOT EXISTS idx_rotinas_idoso_dias_semana
+    ON rotinas (idoso_id, dias_semana_mascara);
+
+ALTER TABLE rotinas DROP COLUMN IF EXISTS dias_semana;
@@ -0,0 +1,5 @@
+-- Rotinas pendentes do dia (GET /api/rotinas/pendentes): o NOT EXISTS por rotina
+-- em execucoes_rotina vira uma busca por faixa neste índice, sem varrer as
+-- execuções de dias anteriores.
+CREATE INDEX IF NOT EXISTS idx_execucoes_rotina_rotina_executado
+    ON execucoes_rotina (rotina_id, executado_em);
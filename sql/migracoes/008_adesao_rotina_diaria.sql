@@ -0,0 +1,19 @@
+-- Contadores diários de execuções por rotina (AdesaoRotinaDiaria), base dos
+-- relatórios de adesão em janelas de 7/30/90 dias.
+-- Após criar a tabela, popular com POST /api/admin/adesao-rotinas/reconstruir
+-- ou subindo a aplicação com rotinas.adesao.reconstruir-na-inicializacao=true.
+CREATE TABLE IF NOT EXISTS adesao_rotina_diaria (
+    id            BIGSERIAL PRIMARY KEY,
+    rotina_id     BIGINT      NOT NULL REFERENCES rotinas (id) ON DELETE CASCADE,
+    idoso_id      BIGINT      NOT NULL REFERENCES idosos (id) ON DELETE CASCADE,
+    tipo          VARCHAR(20) NOT NULL,
+    dia           DATE        NOT NULL,
+    executadas    INTEGER     NOT NULL DEFAULT 0,
+    atrasadas     INTEGER     NOT NULL DEFAULT 0,
+    puladas       INTEGER     NOT NULL DEFAULT 0,
+    parciais      INTEGER     NOT NULL DEFAULT 0,
+    atualizado_em TIMESTAMP   NOT NULL,
+    CONSTRAINT uk_adesao_rotina_diaria UNIQUE (rotina_id, dia)
+);
+
+CREATE INDEX IF NOT EXISTS idx_adesao_rotina_diaria_idoso_dia ON adesao_rotina_diaria (idoso_id, dia);
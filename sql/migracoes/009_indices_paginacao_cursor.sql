@@ -0,0 +1,15 @@
+-- Índices das listagens por cursor (GET /api/saude/cursor, /api/saude/idoso/{id}/cursor,
+-- /api/idosos/cursor e /api/rotinas/cursor): cada página é uma busca por faixa a
+-- partir da chave (valor, id) da última linha entregue, na ordem do índice.
+CREATE INDEX IF NOT EXISTS idx_registros_saude_registrado_id
+    ON registros_saude (registrado_em, id);
+
+-- Substitui a busca por idoso_id seguida de ordenação em GET /api/saude/idoso/{id}
+CREATE INDEX IF NOT EXISTS idx_registros_saude_idoso_registrado_id
+    ON registros_saude (idoso_id, registrado_em, id);
+
+CREATE INDEX IF NOT EXISTS idx_idosos_nome_id
+    ON idosos (nome, id);
+
+CREATE INDEX IF NOT EXISTS idx_rotinas_ativo_titulo_id
+    ON rotinas (ativo, titulo, id);
@@ -0,0 +1,21 @@
+-- Busca de idosos por nome ou endereço (GET /api/idosos/busca): trigramas do texto
+-- sem acentos, caixa e pontuação, atendidos por índices GIN em vez do LIKE '%nome%'
+-- que percorria a tabela inteira. busca_normalizar() precisa dar o mesmo resultado
+-- que TextoBusca.normalizar() na aplicação.
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- unaccent() com dicionário explícito, para que a função possa ser IMMUTABLE e indexada
+CREATE OR REPLACE FUNCTION busca_normalizar(texto text) RETURNS text
+    LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE
+AS $$
+    SELECT trim(regexp_replace(lower(public.unaccent('public.unaccent'::regdictionary, texto)),
+                               '[^a-z0-9]+', ' ', 'g'))
+$$;
+
+-- Atendem LIKE '%termo%' e o operador <% (word_similarity) sobre o texto normalizado
+CREATE INDEX IF NOT EXISTS idx_idosos_nome_trgm
+    ON idosos USING gin (busca_normalizar(nome) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_idosos_endereco_trgm
+    ON idosos USING gin (busca_normalizar(endereco) gin_trgm_ops);
@@ -0,0 +1,8 @@
+-- Versão dos tokens JWT por usuário (Usuario.versaoToken): troca de senha e
+-- desativação incrementam a versão, e tokens emitidos com uma versão anterior
+-- são recusados, inclusive depois de um restart ou em outro nó.
+ALTER TABLE usuarios ADD COLUMN IF NOT EXISTS versao_token INTEGER NOT NULL DEFAULT 0;
+
+-- Usuários com tokens revogados, carregados na inicialização e na sincronização
+CREATE INDEX IF NOT EXISTS idx_usuarios_versao_token
+    ON usuarios (id, versao_token) WHERE versao_token > 0;
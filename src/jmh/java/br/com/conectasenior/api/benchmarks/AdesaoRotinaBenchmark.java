@@ -0,0 +1,106 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.dtos.RelatorioAdesaoDTO;
+import br.com.conectasenior.api.entities.Usuario;
+import br.com.conectasenior.api.services.AdesaoRotinaBackfillService;
+import br.com.conectasenior.api.services.AdesaoRotinaService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Benchmark da adesão às rotinas dos idosos de um cuidador em 90 dias: contadores
+ * diários (adesao_rotina_diaria) contra agregação sobre execucoes_rotina; e a
+ * reconstrução dos contadores com 1 ou mais threads
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="AdesaoRotinaBenchmark -p threads=1,8"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdesaoRotinaBenchmark {
+
+    private static final int IDOSOS = 1_000;
+    private static final int ROTINAS = 10_000;
+    private static final int DIAS = 90;
+    private static final int IDOSOS_POR_CUIDADOR = 20;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private ConfigurableApplicationContext contexto;
+    private AdesaoRotinaService adesaoRotinaService;
+    private AdesaoRotinaBackfillService adesaoRotinaBackfillService;
+    private JdbcTemplate jdbc;
+    private Long[] cuidadores;
+    private int proximo;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = ContextoBenchmark.iniciar("adesao_rotina_" + threads, "rotinas.lembretes.habilitado=false",
+                "rotinas.adesao.backfill.threads=" + threads);
+        ContextoBenchmark.popularIdosos(contexto, IDOSOS);
+        ContextoBenchmark.popularRotinas(contexto, ROTINAS, IDOSOS);
+        ContextoBenchmark.popularExecucoesRotina(contexto, LocalDate.now(), DIAS, 5);
+
+        // Cuidadores alternados para que o H2 não reaproveite o resultado anterior
+        cuidadores = new Long[4];
+        for (int i = 0; i < cuidadores.length; i++) {
+            Usuario cuidador = ContextoBenchmark.criarUsuario(contexto, "adesao" + i + "@benchmark.com");
+            long primeiro = (long) i * IDOSOS_POR_CUIDADOR + 1;
+            ContextoBenchmark.vincularIdosos(contexto, cuidador.getId(),
+                    LongStream.range(primeiro, primeiro + IDOSOS_POR_CUIDADOR).boxed().toList());
+            cuidadores[i] = cuidador.getId();
+        }
+
+        adesaoRotinaService = contexto.getBean(AdesaoRotinaService.class);
+        adesaoRotinaBackfillService = contexto.getBean(AdesaoRotinaBackfillService.class);
+        jdbc = contexto.getBean(JdbcTemplate.class);
+        adesaoRotinaBackfillService.reconstruirTodos();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    private Long proximoCuidador() {
+        proximo = (proximo + 1) % cuidadores.length;
+        return cuidadores[proximo];
+    }
+
+    @Benchmark
+    public RelatorioAdesaoDTO contadoresDiarios() {
+        return adesaoRotinaService.relatorioPorCuidador(proximoCuidador(), DIAS);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> execucoesBrutas() {
+        LocalDate hoje = LocalDate.now();
+        return jdbc.queryForList("SELECT e.rotina_id, COUNT(DISTINCT CAST(e.executado_em AS DATE)), COUNT(*) "
+                        + "FROM execucoes_rotina e JOIN rotinas r ON r.id = e.rotina_id "
+                        + "WHERE r.idoso_id IN (SELECT idoso_id FROM usuario_idoso WHERE usuario_id = ?) "
+                        + "AND e.executado_em >= ? AND e.executado_em < ? GROUP BY e.rotina_id",
+                proximoCuidador(), Timestamp.valueOf(hoje.minusDays(DIAS - 1L).atStartOfDay()),
+                Timestamp.valueOf(hoje.plusDays(1).atStartOfDay()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public AdesaoRotinaBackfillService.Resultado reconstrucao() {
+        return adesaoRotinaBackfillService.reconstruirTodos();
+    }
+}
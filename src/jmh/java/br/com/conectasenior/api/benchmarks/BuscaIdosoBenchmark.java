@@ -0,0 +1,103 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.dtos.IdosoDTO;
+import br.com.conectasenior.api.dtos.ResultadoBuscaIdosoDTO;
+import br.com.conectasenior.api.services.BuscaIdosoService;
+import br.com.conectasenior.api.services.IdosoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da busca de idosos: índice de trigramas em memória (GET /api/idosos/busca)
+ * contra o LIKE '%nome%' de GET /api/idosos/buscar
+ *
+ * Os idosos recebem nomes e endereços sintéticos com acentos; "termo" cobre um nome
+ * exato, um prefixo, um erro de digitação e um trecho de endereço:
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="BuscaIdosoBenchmark -p idosos=500000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class BuscaIdosoBenchmark {
+
+    private static final String[] PRENOMES = {
+        "José", "João", "Antônio", "Francisco", "Luís", "Sebastião", "Benedito", "Raimundo", "Joaquim", "Inácio",
+        "Maria", "Ana", "Conceição", "Terezinha", "Luíza", "Aparecida", "Irene", "Glória", "Lúcia", "Zélia"
+    };
+    private static final String[] SOBRENOMES = {
+        "Silva", "Santos", "Oliveira", "Souza", "Conceição", "Pereira", "Araújo", "Gonçalves", "Simões", "Assunção",
+        "Magalhães", "Brandão", "Guimarães", "Peçanha", "Damasceno", "Albuquerque", "Fontes", "Vieira", "Brito", "Lima"
+    };
+    private static final String[] LOGRADOUROS = {
+        "Rua São João", "Avenida Paulista", "Rua das Flores", "Travessa Ipê", "Rua Tiradentes", "Avenida Brasil",
+        "Rua Conselheiro Crispiniano", "Alameda Santos", "Rua Jaraguá", "Praça da Sé"
+    };
+    private static final String[] CIDADES = {
+        "São Paulo", "Ribeirão Preto", "Florianópolis", "Maringá", "Niterói", "Goiânia", "Belém", "Uberlândia"
+    };
+
+    @Param({"500000"})
+    public int idosos;
+
+    @Param({"Luíza Magalhães", "Sebas", "Gonçalvez", "ribeirao preto"})
+    public String termo;
+
+    private ConfigurableApplicationContext contexto;
+    private BuscaIdosoService buscaIdosoService;
+    private IdosoService idosoService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = ContextoBenchmark.iniciar("busca_idosos");
+        ContextoBenchmark.popularIdosos(contexto, idosos);
+        nomear(contexto.getBean(JdbcTemplate.class), idosos);
+        buscaIdosoService = contexto.getBean(BuscaIdosoService.class);
+        buscaIdosoService.reconstruir();
+        idosoService = contexto.getBean(IdosoService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<ResultadoBuscaIdosoDTO> indiceTrigramas() {
+        return buscaIdosoService.buscar(termo, 20);
+    }
+
+    @Benchmark
+    public Page<IdosoDTO> like() {
+        return idosoService.findByNome(termo, PageRequest.of(0, 20, Sort.by("nome")));
+    }
+
+    private static void nomear(JdbcTemplate jdbc, int quantidade) {
+        Random random = new Random(42);
+        List<Object[]> lote = new ArrayList<>(1_000);
+        for (int i = 1; i <= quantidade; i++) {
+            String nome = PRENOMES[random.nextInt(PRENOMES.length)]
+                    + " " + SOBRENOMES[random.nextInt(SOBRENOMES.length)]
+                    + " " + SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+            String endereco = LOGRADOUROS[random.nextInt(LOGRADOUROS.length)] + ", " + (1 + random.nextInt(3000))
+                    + " - " + CIDADES[random.nextInt(CIDADES.length)];
+            lote.add(new Object[] {nome, endereco, (long) i});
+            if (lote.size() == 1_000 || i == quantidade) {
+                jdbc.batchUpdate("UPDATE idosos SET nome = ?, endereco = ? WHERE id = ?", lote);
+                lote.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.dtos.IdosoDTO;
+import br.com.conectasenior.api.entities.Usuario;
+import br.com.conectasenior.api.repositories.UsuarioRepository;
+import br.com.conectasenior.api.services.IdosoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark das leituras de cadastro com e sem o cache de segundo nível: idoso por
+ * id e por CPF (IdosoService, uma transação por chamada) e usuário por email
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="CacheSegundoNivelBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheSegundoNivelBenchmark {
+
+    private static final int IDOSOS = 20_000;
+    private static final int IDOSOS_CONSULTADOS = 2_000;
+    private static final int USUARIOS = 50;
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    private ConfigurableApplicationContext contexto;
+    private IdosoService idosoService;
+    private UsuarioRepository usuarioRepository;
+    private int proximoIdoso;
+    private int proximoUsuario;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = ContextoBenchmark.iniciar("cache_segundo_nivel_" + cache,
+                "rotinas.lembretes.habilitado=false", "cache.segundo-nivel.habilitado=" + cache);
+        ContextoBenchmark.popularIdosos(contexto, IDOSOS);
+        for (int i = 0; i < USUARIOS; i++) {
+            ContextoBenchmark.criarUsuario(contexto, "cache" + i + "@benchmark.com");
+        }
+        idosoService = contexto.getBean(IdosoService.class);
+        usuarioRepository = contexto.getBean(UsuarioRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    /**
+     * Percorre um conjunto quente de idosos, como os atendidos em um turno
+     */
+    private long proximoIdoso() {
+        proximoIdoso = (proximoIdoso + 1) % IDOSOS_CONSULTADOS;
+        return proximoIdoso + 1L;
+    }
+
+    @Benchmark
+    public IdosoDTO idosoPorId() {
+        return idosoService.findById(proximoIdoso());
+    }
+
+    @Benchmark
+    public IdosoDTO idosoPorCpf() {
+        return idosoService.findByCpf(String.format("%011d", proximoIdoso()));
+    }
+
+    @Benchmark
+    public Optional<Usuario> usuarioPorEmail() {
+        proximoUsuario = (proximoUsuario + 1) % USUARIOS;
+        return usuarioRepository.findByEmail("cache" + proximoUsuario + "@benchmark.com");
+    }
+}
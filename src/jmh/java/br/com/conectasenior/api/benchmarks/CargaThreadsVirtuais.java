@@ -0,0 +1,230 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.entities.Usuario;
+import br.com.conectasenior.api.repositories.UsuarioRepository;
+import br.com.conectasenior.api.security.JwtService;
+import br.com.conectasenior.api.services.ThreadsVirtuaisMonitor;
+import org.h2.api.Trigger;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Teste de carga do modo de execução: a mesma carga HTTP contra a aplicação com
+ * threads de plataforma (Tomcat, 200 threads) e com threads virtuais, comparando
+ * vazão e latência (p50, p99, máxima)
+ *
+ * Não é um benchmark JMH: mede a aplicação de fora, com clientes concorrentes em
+ * ciclo fechado. Dois grupos rodam juntos:
+ *   - banco: GET /api/rotinas/{id}; cada SELECT em rotinas espera latencia-ms dentro
+ *     do H2 para simular a ida ao Postgres, com o pool do Hikari em 20 conexões
+ *   - leves: GET /api/admin/threads, que não usa o banco (jwt.stateless=true)
+ * Com threads de plataforma as requisições leves esperam atrás das que ocupam os
+ * 200 threads aguardando conexão; com threads virtuais não há essa fila.
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec \
+ *       -Dexec.args="-classpath %classpath br.com.conectasenior.api.benchmarks.CargaThreadsVirtuais 400 40 20 50"
+ *
+ * Argumentos: clientes do banco, clientes leves, segundos de medição por modo,
+ * latência do banco em ms.
+ */
+public final class CargaThreadsVirtuais {
+
+    private static final int IDOSOS = 1_000;
+    private static final int ROTINAS = 10_000;
+    private static final int SEGUNDOS_AQUECIMENTO = 5;
+
+    private CargaThreadsVirtuais() {
+    }
+
+    /**
+     * Latência artificial do banco, disparada antes de cada SELECT na tabela
+     */
+    public static class LatenciaBanco implements Trigger {
+
+        static volatile long latenciaMs;
+
+        @Override
+        public void fire(Connection conexao, Object[] antes, Object[] depois) {
+            try {
+                Thread.sleep(latenciaMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private record Resultado(String modo, String grupo, int clientes, long requisicoes, long erros, double vazao,
+                             double p50, double p99, double maxima) {
+
+        @Override
+        public String toString() {
+            return String.format("%-10s %-6s clientes=%d requisicoes=%d erros=%d vazao=%.0f req/s p50=%.1fms p99=%.1fms max=%.1fms",
+                    modo, grupo, clientes, requisicoes, erros, vazao, p50, p99, maxima);
+        }
+    }
+
+    /**
+     * Latências de um grupo de clientes, um vetor por cliente
+     */
+    private static final class Medicao {
+
+        private final long[][] latencias;
+        private final int[] quantidades;
+        private final AtomicLong erros = new AtomicLong();
+
+        Medicao(int clientes) {
+            latencias = new long[clientes][];
+            quantidades = new int[clientes];
+        }
+
+        Resultado resultado(String modo, String grupo, int segundos) {
+            long[] todas = new long[Arrays.stream(quantidades).sum()];
+            int posicao = 0;
+            for (int c = 0; c < latencias.length; c++) {
+                if (latencias[c] != null) {
+                    System.arraycopy(latencias[c], 0, todas, posicao, quantidades[c]);
+                    posicao += quantidades[c];
+                }
+            }
+            Arrays.sort(todas);
+            return new Resultado(modo, grupo, latencias.length, todas.length, erros.get(), todas.length / (double) segundos,
+                    percentil(todas, 0.50), percentil(todas, 0.99),
+                    todas.length == 0 ? 0 : todas[todas.length - 1] / 1e6);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clientesBanco = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        int clientesLeves = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        LatenciaBanco.latenciaMs = args.length > 3 ? Long.parseLong(args[3]) : 50;
+
+        List<Resultado> resultados = new ArrayList<>();
+        for (boolean virtuais : new boolean[] {false, true}) {
+            resultados.addAll(executar(virtuais, clientesBanco, clientesLeves, segundos));
+        }
+        System.out.println();
+        resultados.forEach(System.out::println);
+    }
+
+    private static List<Resultado> executar(boolean virtuais, int clientesBanco, int clientesLeves, int segundos)
+            throws Exception {
+        ConfigurableApplicationContext contexto = ContextoBenchmark.iniciar("carga_" + virtuais,
+                "rotinas.lembretes.habilitado=false",
+                "jwt.stateless=true",
+                "spring.threads.virtual.enabled=" + virtuais,
+                "spring.datasource.hikari.maximum-pool-size=20",
+                "logging.level.br.com.conectasenior.api.services.ThreadsVirtuaisMonitor=INFO");
+        try {
+            ContextoBenchmark.popularIdosos(contexto, IDOSOS);
+            ContextoBenchmark.popularRotinas(contexto, ROTINAS, IDOSOS);
+            JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+            // Ids de rotinas_seq não são contíguos (alocação em blocos)
+            long[] rotinaIds = jdbc.queryForList("SELECT id FROM rotinas", Long.class).stream()
+                    .mapToLong(Long::longValue).toArray();
+            jdbc.execute("CREATE TRIGGER latencia_rotinas BEFORE SELECT ON rotinas CALL '"
+                    + LatenciaBanco.class.getName() + "'");
+
+            Usuario usuario = ContextoBenchmark.criarUsuario(contexto, "carga@benchmark.com");
+            usuario.setTipo(Usuario.TipoUsuario.ADMINISTRADOR);
+            usuario = contexto.getBean(UsuarioRepository.class).save(usuario);
+            String authorization = "Bearer " + contexto.getBean(JwtService.class).generateToken(usuario);
+            String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+
+            Supplier<URI> banco = () -> URI.create(base + "/api/rotinas/"
+                    + rotinaIds[ThreadLocalRandom.current().nextInt(rotinaIds.length)]);
+            URI leve = URI.create(base + "/api/admin/threads");
+
+            carga(banco, () -> leve, authorization, clientesBanco, clientesLeves, SEGUNDOS_AQUECIMENTO);
+            Medicao[] medicoes = carga(banco, () -> leve, authorization, clientesBanco, clientesLeves, segundos);
+
+            String modo = virtuais ? "virtuais" : "plataforma";
+            List<Resultado> resultados = List.of(medicoes[0].resultado(modo, "banco", segundos),
+                    medicoes[1].resultado(modo, "leves", segundos));
+            resultados.forEach(System.out::println);
+            System.out.println("  " + contexto.getBean(ThreadsVirtuaisMonitor.class).estatisticas());
+            return resultados;
+        } finally {
+            contexto.close();
+        }
+    }
+
+    /**
+     * Os dois grupos de clientes enviam requisições até o fim do prazo, uma por vez cada
+     */
+    private static Medicao[] carga(Supplier<URI> banco, Supplier<URI> leve, String authorization,
+                                   int clientesBanco, int clientesLeves, int segundos) throws InterruptedException {
+        long fim = System.nanoTime() + Duration.ofSeconds(segundos).toNanos();
+        Medicao medicaoBanco = new Medicao(clientesBanco);
+        Medicao medicaoLeve = new Medicao(clientesLeves);
+
+        // Clientes em threads virtuais; o HttpClient mantém o próprio executor
+        try (HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(30))
+                     .build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clientesBanco + clientesLeves; c++) {
+                boolean ehBanco = c < clientesBanco;
+                Medicao medicao = ehBanco ? medicaoBanco : medicaoLeve;
+                int indice = ehBanco ? c : c - clientesBanco;
+                Supplier<URI> destino = ehBanco ? banco : leve;
+                executor.submit(() -> cliente(http, destino, authorization, fim, medicao, indice));
+            }
+            executor.shutdown();
+            executor.awaitTermination(segundos + 120L, TimeUnit.SECONDS);
+        }
+        return new Medicao[] {medicaoBanco, medicaoLeve};
+    }
+
+    private static void cliente(HttpClient http, Supplier<URI> destino, String authorization, long fim,
+                                Medicao medicao, int indice) {
+        long[] latencias = new long[1024];
+        int n = 0;
+        while (System.nanoTime() < fim) {
+            HttpRequest requisicao = HttpRequest.newBuilder(destino.get())
+                    .header("Authorization", authorization)
+                    .timeout(Duration.ofSeconds(60))
+                    .build();
+            long inicio = System.nanoTime();
+            try {
+                if (http.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                    medicao.erros.incrementAndGet();
+                    continue;
+                }
+            } catch (Exception e) {
+                medicao.erros.incrementAndGet();
+                continue;
+            }
+            if (n == latencias.length) {
+                latencias = Arrays.copyOf(latencias, n * 2);
+            }
+            latencias[n++] = System.nanoTime() - inicio;
+        }
+        medicao.latencias[indice] = latencias;
+        medicao.quantidades[indice] = n;
+    }
+
+    private static double percentil(long[] ordenadas, double fracao) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        return ordenadas[Math.min(ordenadas.length - 1, (int) Math.ceil(fracao * ordenadas.length) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,216 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.ConectaSeniorApiApplication;
+import br.com.conectasenior.api.entities.DiasSemana;
+import br.com.conectasenior.api.entities.Emergencia;
+import br.com.conectasenior.api.entities.RegistroSaude;
+import br.com.conectasenior.api.entities.Rotina;
+import br.com.conectasenior.api.entities.SequenciaPooledGenerator;
+import br.com.conectasenior.api.entities.Usuario;
+import br.com.conectasenior.api.repositories.UsuarioRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Inicializa a aplicação para os benchmarks JMH
+ *
+ * Sobe o contexto Spring com o perfil de teste (H2 em memória), sem logs de SQL,
+ * e oferece utilitários para popular o banco com massas sintéticas via JDBC.
+ */
+public final class ContextoBenchmark {
+
+    private static final int TAMANHO_LOTE = 1_000;
+
+    private ContextoBenchmark() {
+    }
+
+    /**
+     * Sobe a aplicação com o banco H2 informado; propriedades extras no formato chave=valor
+     */
+    public static ConfigurableApplicationContext iniciar(String banco, String... propriedadesExtras) {
+        String[] argumentos = {
+            "--spring.profiles.active=test",
+            "--spring.datasource.url=jdbc:h2:mem:" + banco + ";DB_CLOSE_DELAY=-1",
+            "--server.port=0",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN",
+            "--logging.level.org.hibernate.SQL=WARN",
+            "--logging.level.br.com.conectasenior=WARN",
+            "--logging.level.org.springframework.security=WARN"
+        };
+        String[] extras = Arrays.stream(propriedadesExtras).map(p -> "--" + p).toArray(String[]::new);
+
+        return SpringApplication.run(ConectaSeniorApiApplication.class,
+                Stream.concat(Arrays.stream(argumentos), Arrays.stream(extras)).toArray(String[]::new));
+    }
+
+    /**
+     * Insere idosos sintéticos (ids 1..quantidade) com datas de nascimento distribuídas
+     * entre 60 e 105 anos
+     */
+    public static void popularIdosos(ConfigurableApplicationContext contexto, int quantidade) {
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        LocalDate hoje = LocalDate.now();
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> lote = new ArrayList<>(TAMANHO_LOTE);
+        for (int i = 1; i <= quantidade; i++) {
+            LocalDate nascimento = hoje.minusYears(60 + (i % 46)).minusDays(i % 365);
+            lote.add(new Object[] {
+                (long) i, "Idoso " + i, Date.valueOf(nascimento), String.format("%011d", i), agora
+            });
+            if (lote.size() == TAMANHO_LOTE || i == quantidade) {
+                jdbc.batchUpdate("INSERT INTO idosos (id, nome, data_nascimento, cpf, criado_em) VALUES (?, ?, ?, ?, ?)", lote);
+                lote.clear();
+            }
+        }
+        reiniciarSequencia(contexto, "idosos_seq", quantidade);
+    }
+
+    /**
+     * Insere registros de saúde sintéticos distribuídos entre os idosos já existentes
+     * (ids 1..idosos) e os tipos de registro; cerca de 1 em cada 10 pressões arteriais
+     * fica fora da faixa normal.
+     */
+    public static void popularRegistrosSaude(ConfigurableApplicationContext contexto, int quantidade, int idosos) {
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        RegistroSaude.TipoRegistro[] tipos = RegistroSaude.TipoRegistro.values();
+        LocalDateTime inicio = LocalDateTime.now().minusDays(365);
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> lote = new ArrayList<>(TAMANHO_LOTE);
+        for (int i = 1; i <= quantidade; i++) {
+            RegistroSaude.TipoRegistro tipo = tipos[i % tipos.length];
+            BigDecimal valor = BigDecimal.valueOf(i % 10 == 0 ? 160 + (i % 30) : 100 + (i % 35));
+            lote.add(new Object[] {
+                tipo.name(), valor, Timestamp.valueOf(inicio.plusMinutes(i)), agora, (long) (i % idosos) + 1
+            });
+            if (lote.size() == TAMANHO_LOTE || i == quantidade) {
+                jdbc.batchUpdate("INSERT INTO registros_saude (id, tipo, valor, registrado_em, criado_em, idoso_id) "
+                        + "VALUES (NEXT VALUE FOR registros_saude_seq, ?, ?, ?, ?, ?)", lote);
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Insere rotinas ativas sintéticas distribuídas entre os idosos já existentes
+     * (ids 1..idosos), com horários em minutos cheios ao longo do dia e dias da
+     * semana variados
+     */
+    public static void popularRotinas(ConfigurableApplicationContext contexto, int quantidade, int idosos) {
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        Rotina.TipoRotina[] tipos = Rotina.TipoRotina.values();
+        int[] dias = {DiasSemana.TODOS, DiasSemana.mascara("SEG,QUA,SEX"), DiasSemana.mascara("TER,QUI"),
+                DiasSemana.mascara("SAB,DOM")};
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> lote = new ArrayList<>(TAMANHO_LOTE);
+        for (int i = 1; i <= quantidade; i++) {
+            LocalTime horario = LocalTime.of(6 + (i % 16), (i * 7) % 60);
+            lote.add(new Object[] {
+                "Rotina " + i, tipos[i % tipos.length].name(), Time.valueOf(horario), dias[i % dias.length],
+                true, agora, (long) (i % idosos) + 1
+            });
+            if (lote.size() == TAMANHO_LOTE || i == quantidade) {
+                jdbc.batchUpdate("INSERT INTO rotinas (id, titulo, tipo, horario, dias_semana_mascara, ativo, criado_em, idoso_id) "
+                        + "VALUES (NEXT VALUE FOR rotinas_seq, ?, ?, ?, ?, ?, ?, ?)", lote);
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Insere emergências sintéticas distribuídas entre os idosos já existentes (ids 1..idosos);
+     * uma a cada "emAndamentoACada" fica ativa ou em atendimento e as demais, resolvidas
+     */
+    public static void popularEmergencias(ConfigurableApplicationContext contexto, int quantidade, int idosos,
+                                          int emAndamentoACada) {
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        Emergencia.TipoEmergencia[] tipos = Emergencia.TipoEmergencia.values();
+        Emergencia.NivelGravidade[] gravidades = Emergencia.NivelGravidade.values();
+        LocalDateTime inicio = LocalDateTime.now().minusDays(365);
+
+        List<Object[]> lote = new ArrayList<>(TAMANHO_LOTE);
+        for (int i = 1; i <= quantidade; i++) {
+            Emergencia.StatusEmergencia status = i % emAndamentoACada != 0
+                    ? Emergencia.StatusEmergencia.RESOLVIDA
+                    : (i / emAndamentoACada) % 2 == 0 ? Emergencia.StatusEmergencia.ATIVA : Emergencia.StatusEmergencia.EM_ATENDIMENTO;
+            Timestamp criadoEm = Timestamp.valueOf(inicio.plusMinutes(i));
+            lote.add(new Object[] {
+                tipos[i % tipos.length].name(), "Emergência sintética " + i, gravidades[i % gravidades.length].name(),
+                status.name(), criadoEm, criadoEm, (long) (i % idosos) + 1
+            });
+            if (lote.size() == TAMANHO_LOTE || i == quantidade) {
+                jdbc.batchUpdate("INSERT INTO emergencias (id, tipo, descricao, gravidade, status, criado_em, atualizado_em, idoso_id) "
+                        + "VALUES (NEXT VALUE FOR emergencias_seq, ?, ?, ?, ?, ?, ?, ?)", lote);
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Registra, para cada um dos "dias" dias até "ate" (inclusive), uma execução ao
+     * meio-dia de cada rotina, exceto de uma a cada "pendenteACada" (que fica pendente)
+     */
+    public static void popularExecucoesRotina(ConfigurableApplicationContext contexto, LocalDate ate, int dias,
+                                              int pendenteACada) {
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        for (int dia = 0; dia < dias; dia++) {
+            jdbc.update("INSERT INTO execucoes_rotina (id, executado_em, status, criado_em, rotina_id) "
+                    + "SELECT NEXT VALUE FOR execucoes_rotina_seq, ?, 'EXECUTADA', ?, id FROM rotinas "
+                    + "WHERE MOD(id / 50 + ?, ?) <> 0",
+                    Timestamp.valueOf(ate.minusDays(dia).atTime(12, 0)), agora, dia, pendenteACada);
+        }
+    }
+
+    /**
+     * Vincula o usuário aos idosos informados (usuario_idoso)
+     */
+    public static void vincularIdosos(ConfigurableApplicationContext contexto, Long usuarioId, List<Long> idosoIds) {
+        contexto.getBean(JdbcTemplate.class).batchUpdate("INSERT INTO usuario_idoso (usuario_id, idoso_id) VALUES (?, ?)",
+                idosoIds.stream().map(idosoId -> new Object[] {usuarioId, idosoId}).toList());
+    }
+
+    /**
+     * Reposiciona a sequência acima do maior id inserido diretamente, deixando um bloco
+     * de folga para que tanto pooled quanto pooled-lo gerem ids livres
+     */
+    private static void reiniciarSequencia(ConfigurableApplicationContext contexto, String sequencia, long maiorId) {
+        int alocacao = contexto.getEnvironment().getProperty("spring.jpa.properties." + SequenciaPooledGenerator.ALOCACAO_PARAM,
+                Integer.class, SequenciaPooledGenerator.ALOCACAO_PADRAO);
+        contexto.getBean(JdbcTemplate.class)
+                .execute("ALTER SEQUENCE " + sequencia + " RESTART WITH " + (maiorId + alocacao + 1));
+    }
+
+    /**
+     * Cria (uma única vez) o usuário usado nos benchmarks de autenticação
+     */
+    public static Usuario criarUsuario(ConfigurableApplicationContext contexto, String email) {
+        UsuarioRepository usuarioRepository = contexto.getBean(UsuarioRepository.class);
+        return usuarioRepository.findByEmail(email).orElseGet(() -> {
+            Usuario usuario = new Usuario();
+            usuario.setNome("Usuário Benchmark");
+            usuario.setEmail(email);
+            usuario.setSenha(contexto.getBean(PasswordEncoder.class).encode("benchmark123"));
+            usuario.setTipo(Usuario.TipoUsuario.CUIDADOR);
+            usuario.setAtivo(true);
+            return usuarioRepository.save(usuario);
+        });
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.entities.Emergencia;
+import br.com.conectasenior.api.repositories.EmergenciaRepository;
+import br.com.conectasenior.api.services.EmergenciaAtivaIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de "quem está em emergência agora": índice em memória
+ * (GET /api/emergencias/em-andamento) contra a consulta por status na tabela emergencias
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="EmergenciaAtivaBenchmark -p emergencias=500000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmergenciaAtivaBenchmark {
+
+    private static final int IDOSOS = 2_000;
+    private static final int EM_ANDAMENTO_A_CADA = 500;
+
+    @Param({"100000"})
+    public int emergencias;
+
+    private ConfigurableApplicationContext contexto;
+    private EmergenciaRepository emergenciaRepository;
+    private EmergenciaAtivaIndex emergenciaAtivaIndex;
+    private boolean alternar;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = ContextoBenchmark.iniciar("emergencias_ativas");
+        ContextoBenchmark.popularIdosos(contexto, IDOSOS);
+        ContextoBenchmark.popularEmergencias(contexto, emergencias, IDOSOS, EM_ANDAMENTO_A_CADA);
+        emergenciaRepository = contexto.getBean(EmergenciaRepository.class);
+        emergenciaAtivaIndex = contexto.getBean(EmergenciaAtivaIndex.class);
+        emergenciaAtivaIndex.reconstruir();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<EmergenciaAtivaIndex.EmergenciaAtiva> indice() {
+        return emergenciaAtivaIndex.listar(null);
+    }
+
+    /**
+     * Alterna o status consultado para que o H2 não reaproveite o resultado anterior
+     */
+    @Benchmark
+    public List<Emergencia> consultaPorStatus() {
+        alternar = !alternar;
+        return emergenciaRepository.findByStatusOrderByCriadoEmDesc(alternar
+                ? Emergencia.StatusEmergencia.ATIVA
+                : Emergencia.StatusEmergencia.EM_ATENDIMENTO);
+    }
+}
@@ -0,0 +1,129 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.entities.ExecucaoRotina;
+import br.com.conectasenior.api.entities.Rotina;
+import br.com.conectasenior.api.repositories.ExecucaoRotinaRepository;
+import br.com.conectasenior.api.services.AdesaoRotinaContadores;
+import br.com.conectasenior.api.services.ExecucaoRotinaBuffer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do registro de execuções de rotina
+ *
+ * Rodada: uma rajada de execuções (a medicação das 08:00 de uma instituição) gravada
+ * uma por transação, como faria cada requisição, contra o ExecucaoRotinaBuffer, medida
+ * até a última execução estar no banco. Adesão: COUNT em execucoes_rotina contra os
+ * contadores em memória.
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="ExecucaoRotinaBenchmark -p execucoes=5000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecucaoRotinaBenchmark {
+
+    private static final int IDOSOS = 500;
+    private static final int ROTINAS = 2_000;
+    private static final int EXECUCOES_INICIAIS = 200_000;
+
+    @Param({"1000"})
+    public int execucoes;
+
+    private ConfigurableApplicationContext contexto;
+    private EntityManager em;
+    private TransactionTemplate transacao;
+    private ExecucaoRotinaBuffer buffer;
+    private ExecucaoRotinaRepository execucaoRotinaRepository;
+    private AdesaoRotinaContadores adesaoRotinaContadores;
+    private List<Long> rotinaIds;
+    private int proxima;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = ContextoBenchmark.iniciar("execucoes_rotina",
+                "rotinas.lembretes.habilitado=false", "rotinas.execucoes.intervalo-descarga=5ms");
+        ContextoBenchmark.popularIdosos(contexto, IDOSOS);
+        ContextoBenchmark.popularRotinas(contexto, ROTINAS, IDOSOS);
+        rotinaIds = contexto.getBean(JdbcTemplate.class).queryForList("SELECT id FROM rotinas ORDER BY id", Long.class);
+
+        em = SharedEntityManagerCreator.createSharedEntityManager(contexto.getBean(EntityManagerFactory.class));
+        transacao = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        buffer = contexto.getBean(ExecucaoRotinaBuffer.class);
+        execucaoRotinaRepository = contexto.getBean(ExecucaoRotinaRepository.class);
+        adesaoRotinaContadores = contexto.getBean(AdesaoRotinaContadores.class);
+
+        for (int i = 0; i < EXECUCOES_INICIAIS; i++) {
+            buffer.registrar(pendente(i));
+        }
+        buffer.descarregar();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    private ExecucaoRotinaBuffer.Pendente pendente(int i) {
+        return new ExecucaoRotinaBuffer.Pendente(rotinaIds.get(i % rotinaIds.size()),
+                ExecucaoRotina.StatusExecucao.values()[i % 3], LocalDateTime.now(), null);
+    }
+
+    /**
+     * Alterna as rotinas para que o H2 não reaproveite o resultado anterior
+     */
+    private Long proximaRotina() {
+        proxima = (proxima + 1) % rotinaIds.size();
+        return rotinaIds.get(proxima);
+    }
+
+    @Benchmark
+    public int rodadaTransacaoPorExecucao() {
+        for (int i = 0; i < execucoes; i++) {
+            ExecucaoRotinaBuffer.Pendente pendente = pendente(i);
+            transacao.executeWithoutResult(status -> {
+                ExecucaoRotina execucao = new ExecucaoRotina();
+                execucao.setRotina(em.getReference(Rotina.class, pendente.rotinaId()));
+                execucao.setStatus(pendente.status());
+                execucao.setExecutadoEm(pendente.executadoEm());
+                em.persist(execucao);
+            });
+        }
+        return execucoes;
+    }
+
+    @Benchmark
+    public long rodadaBuffer() {
+        long alvo = buffer.totalGravadas() + execucoes;
+        for (int i = 0; i < execucoes; i++) {
+            buffer.registrar(pendente(i));
+        }
+        while (buffer.totalGravadas() < alvo) {
+            Thread.onSpinWait();
+        }
+        return alvo;
+    }
+
+    @Benchmark
+    public Long adesaoConsulta() {
+        return execucaoRotinaRepository.countExecucoesRealizadas(proximaRotina());
+    }
+
+    @Benchmark
+    public long adesaoContadores() {
+        return adesaoRotinaContadores.contar(proximaRotina(), ExecucaoRotina.StatusExecucao.EXECUTADA);
+    }
+}
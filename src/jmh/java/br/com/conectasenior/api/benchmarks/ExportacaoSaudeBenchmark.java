@@ -0,0 +1,70 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.dtos.RegistroSaudeDTO;
+import br.com.conectasenior.api.services.ExportacaoSaudeService;
+import br.com.conectasenior.api.services.SaudeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do relatório de saúde de um idoso: lista materializada
+ * (GET /api/saude/relatorio) contra exportação em streaming (GET /api/saude/exportar)
+ *
+ * Com -prof gc a diferença aparece em gc.alloc.rate.norm; para observar o pico de
+ * heap, rodar com -jvmArgs -Xmx256m e aumentar "registros".
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="ExportacaoSaudeBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExportacaoSaudeBenchmark {
+
+    private static final long IDOSO_ID = 1L;
+
+    @Param({"50000"})
+    public int registros;
+
+    private ConfigurableApplicationContext contexto;
+    private SaudeService saudeService;
+    private ExportacaoSaudeService exportacaoSaudeService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = ContextoBenchmark.iniciar("exportacao_saude");
+        ContextoBenchmark.popularIdosos(contexto, 1);
+        ContextoBenchmark.popularRegistrosSaude(contexto, registros, 1);
+        saudeService = contexto.getBean(SaudeService.class);
+        exportacaoSaudeService = contexto.getBean(ExportacaoSaudeService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<RegistroSaudeDTO> relatorioMaterializado() {
+        return saudeService.gerarRelatorio(IDOSO_ID, 366);
+    }
+
+    @Benchmark
+    public long exportarNdjson() {
+        return exportacaoSaudeService.exportar(IDOSO_ID, LocalDateTime.now().minusDays(366), LocalDateTime.now(),
+                ExportacaoSaudeService.Formato.NDJSON, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public long exportarCsv() {
+        return exportacaoSaudeService.exportar(IDOSO_ID, LocalDateTime.now().minusDays(366), LocalDateTime.now(),
+                ExportacaoSaudeService.Formato.CSV, OutputStream.nullOutputStream());
+    }
+}
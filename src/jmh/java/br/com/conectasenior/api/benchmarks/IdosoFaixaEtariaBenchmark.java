@@ -0,0 +1,58 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.dtos.IdosoDTO;
+import br.com.conectasenior.api.services.IdosoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da busca por faixa etária (GET /api/idosos/idade)
+ *
+ * Executar com o profiler de GC para comparar a alocação por operação
+ * (gc.alloc.rate.norm) conforme a tabela cresce:
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="IdosoFaixaEtaria -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdosoFaixaEtariaBenchmark {
+
+    @Param({"10000", "50000", "200000"})
+    public int idosos;
+
+    private ConfigurableApplicationContext contexto;
+    private IdosoService idosoService;
+    private PageRequest primeiraPagina;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = ContextoBenchmark.iniciar("faixa_etaria");
+        ContextoBenchmark.popularIdosos(contexto, idosos);
+        idosoService = contexto.getBean(IdosoService.class);
+        primeiraPagina = PageRequest.of(0, 20, Sort.by("nome"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Page<IdosoDTO> buscarPorFaixaEtaria() {
+        return idosoService.findByIdadeEntre(65, 80, primeiraPagina);
+    }
+
+    @Benchmark
+    public long contarPorFaixaEtaria() {
+        return idosoService.countIdososPorFaixaEtaria(65, 80);
+    }
+}
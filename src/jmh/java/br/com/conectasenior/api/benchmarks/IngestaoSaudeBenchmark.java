@@ -0,0 +1,77 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.dtos.RegistroSaudeCreateDTO;
+import br.com.conectasenior.api.dtos.responses.RegistroSaudeLoteResponse;
+import br.com.conectasenior.api.entities.RegistroSaude;
+import br.com.conectasenior.api.services.IngestaoSaudeService;
+import br.com.conectasenior.api.services.SaudeService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da gravação de leituras de dispositivos: uma chamada a
+ * SaudeService.create por leitura (POST /api/saude) contra o lote em uma única
+ * transação (POST /api/saude/lote)
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="IngestaoSaudeBenchmark -p leituras=5000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngestaoSaudeBenchmark {
+
+    private static final int IDOSOS = 20;
+
+    @Param({"1000"})
+    public int leituras;
+
+    private ConfigurableApplicationContext contexto;
+    private SaudeService saudeService;
+    private IngestaoSaudeService ingestaoSaudeService;
+    private List<RegistroSaudeCreateDTO> lote;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = ContextoBenchmark.iniciar("ingestao_saude");
+        ContextoBenchmark.popularIdosos(contexto, IDOSOS);
+        saudeService = contexto.getBean(SaudeService.class);
+        ingestaoSaudeService = contexto.getBean(IngestaoSaudeService.class);
+
+        RegistroSaude.TipoRegistro[] tipos = RegistroSaude.TipoRegistro.values();
+        lote = new ArrayList<>(leituras);
+        for (int i = 0; i < leituras; i++) {
+            RegistroSaudeCreateDTO dto = new RegistroSaudeCreateDTO();
+            dto.setTipo(tipos[i % tipos.length]);
+            dto.setValor(BigDecimal.valueOf(100 + i % 40));
+            dto.setUnidade("un");
+            dto.setIdosoId((long) (i % IDOSOS) + 1);
+            lote.add(dto);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public void umaPorRequisicao(Blackhole blackhole) {
+        for (RegistroSaudeCreateDTO dto : lote) {
+            blackhole.consume(saudeService.create(dto));
+        }
+    }
+
+    @Benchmark
+    public RegistroSaudeLoteResponse emLote() {
+        return ingestaoSaudeService.registrarLote(lote);
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.entities.ExecucaoRotina;
+import br.com.conectasenior.api.entities.Idoso;
+import br.com.conectasenior.api.entities.RegistroSaude;
+import br.com.conectasenior.api.entities.Rotina;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Benchmark de vazão de INSERTs via JPA com ids de sequência em blocos (@SequenciaPooled)
+ *
+ * Persiste leituras de saúde e execuções de rotina em uma transação, com flush/clear
+ * a cada 50 entidades; lotes=1 desliga o agrupamento JDBC (um INSERT por ida ao banco)
+ * e lotes=50 usa o valor configurado da aplicação.
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="InsercaoEmLoteBenchmark -p linhas=5000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsercaoEmLoteBenchmark {
+
+    private static final int FLUSH_A_CADA = 50;
+    private static final long IDOSO_ID = 1L;
+
+    @Param({"1", "50"})
+    public int lotes;
+
+    @Param({"1000"})
+    public int linhas;
+
+    private ConfigurableApplicationContext contexto;
+    private EntityManager em;
+    private TransactionTemplate transacao;
+    private Rotina rotina;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = ContextoBenchmark.iniciar("insercao_lote_" + lotes,
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + lotes);
+        ContextoBenchmark.popularIdosos(contexto, 1);
+        em = SharedEntityManagerCreator.createSharedEntityManager(
+                contexto.getBean(EntityManagerFactory.class));
+        transacao = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+
+        rotina = transacao.execute(status -> {
+            Rotina nova = new Rotina();
+            nova.setTitulo("Rotina Benchmark");
+            nova.setTipo(Rotina.TipoRotina.values()[0]);
+            nova.setHorario(LocalTime.of(8, 0));
+            nova.setIdoso(em.getReference(Idoso.class, IDOSO_ID));
+            em.persist(nova);
+            return nova;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int registrosSaude() {
+        LocalDateTime agora = LocalDateTime.now();
+        return persistir(i -> {
+            RegistroSaude registro = new RegistroSaude();
+            registro.setTipo(RegistroSaude.TipoRegistro.values()[i % RegistroSaude.TipoRegistro.values().length]);
+            registro.setValor(BigDecimal.valueOf(100 + i % 40));
+            registro.setRegistradoEm(agora.minusMinutes(i));
+            registro.setIdoso(em.getReference(Idoso.class, IDOSO_ID));
+            return registro;
+        });
+    }
+
+    @Benchmark
+    public int execucoesRotina() {
+        LocalDateTime agora = LocalDateTime.now();
+        return persistir(i -> {
+            ExecucaoRotina execucao = new ExecucaoRotina();
+            execucao.setExecutadoEm(agora.minusMinutes(i));
+            execucao.setStatus(ExecucaoRotina.StatusExecucao.values()[0]);
+            execucao.setRotina(em.getReference(Rotina.class, rotina.getId()));
+            return execucao;
+        });
+    }
+
+    private int persistir(IntFunction<Object> criar) {
+        return transacao.execute(status -> {
+            for (int i = 0; i < linhas; i++) {
+                em.persist(criar.apply(i));
+                if ((i + 1) % FLUSH_A_CADA == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            em.flush();
+            em.clear();
+            return linhas;
+        });
+    }
+}
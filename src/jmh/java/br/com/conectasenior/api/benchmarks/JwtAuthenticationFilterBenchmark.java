@@ -0,0 +1,67 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.entities.Usuario;
+import br.com.conectasenior.api.security.JwtAuthenticationFilter;
+import br.com.conectasenior.api.security.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de uma requisição autenticada passando pelo JwtAuthenticationFilter
+ *
+ * Mede o custo completo de autenticação por requisição (parse do token,
+ * carga do usuário e montagem do contexto de segurança), com e sem a
+ * consulta ao banco (jwt.stateless) e com e sem o cache de tokens verificados.
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="JwtAuthenticationFilterBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"false", "true"})
+    private boolean stateless;
+
+    @Param({"false", "true"})
+    private boolean cache;
+
+    private ConfigurableApplicationContext contexto;
+    private JwtAuthenticationFilter filtro;
+    private String authorization;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = ContextoBenchmark.iniciar("filtro_jwt", "jwt.stateless=" + stateless,
+                "jwt.cache.enabled=" + cache);
+        filtro = contexto.getBean(JwtAuthenticationFilter.class);
+        Usuario usuario = ContextoBenchmark.criarUsuario(contexto, "filtro@benchmark.com");
+        authorization = "Bearer " + contexto.getBean(JwtService.class).generateToken(usuario);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Object autenticarRequisicao() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/idosos");
+        request.addHeader("Authorization", authorization);
+        try {
+            filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
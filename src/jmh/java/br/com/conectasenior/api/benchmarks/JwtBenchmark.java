@@ -0,0 +1,78 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.entities.Usuario;
+import br.com.conectasenior.api.security.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da geração e validação de tokens no JwtService
+ *
+ * verificarTokenSemCache reproduz a verificação antiga (chave e parser
+ * recriados a cada chamada) para comparação com verificarToken.
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="JwtBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private ConfigurableApplicationContext contexto;
+    private JwtService jwtService;
+    private Usuario usuario;
+    private String token;
+    private String segredo;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = ContextoBenchmark.iniciar("jwt");
+        jwtService = contexto.getBean(JwtService.class);
+        usuario = ContextoBenchmark.criarUsuario(contexto, "jwt@benchmark.com");
+        token = jwtService.generateToken(usuario);
+        segredo = contexto.getEnvironment().getRequiredProperty("jwt.secret");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public String gerarToken() {
+        return jwtService.generateToken(usuario);
+    }
+
+    @Benchmark
+    public String extrairUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean validarToken() {
+        return jwtService.validateToken(token, usuario);
+    }
+
+    @Benchmark
+    public Claims verificarToken() {
+        return jwtService.parseToken(token);
+    }
+
+    @Benchmark
+    public Claims verificarTokenSemCache() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(segredo.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.entities.Rotina;
+import br.com.conectasenior.api.repositories.RotinaRepository;
+import br.com.conectasenior.api.services.LembreteRotinaScheduler;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da verificação de lembretes de um minuto: índice em memória do
+ * LembreteRotinaScheduler contra a consulta findRotinasNoHorario no banco
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="LembreteRotinaBenchmark -p rotinas=500000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LembreteRotinaBenchmark {
+
+    private static final int IDOSOS = 2_000;
+
+    @Param({"100000"})
+    public int rotinas;
+
+    private ConfigurableApplicationContext contexto;
+    private RotinaRepository rotinaRepository;
+    private LembreteRotinaScheduler lembreteRotinaScheduler;
+    private int minuto;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = ContextoBenchmark.iniciar("lembretes_rotina", "rotinas.lembretes.habilitado=false");
+        ContextoBenchmark.popularIdosos(contexto, IDOSOS);
+        ContextoBenchmark.popularRotinas(contexto, rotinas, IDOSOS);
+        rotinaRepository = contexto.getBean(RotinaRepository.class);
+        lembreteRotinaScheduler = contexto.getBean(LembreteRotinaScheduler.class);
+        lembreteRotinaScheduler.reconstruir();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    /**
+     * Percorre os minutos do dia para que o H2 não reaproveite o resultado anterior
+     */
+    private LocalTime proximoMinuto() {
+        minuto = (minuto + 1) % (24 * 60);
+        return LocalTime.of(minuto / 60, minuto % 60);
+    }
+
+    @Benchmark
+    public Collection<LembreteRotinaScheduler.Agendamento> indice() {
+        return lembreteRotinaScheduler.previstas(DayOfWeek.WEDNESDAY, proximoMinuto());
+    }
+
+    @Benchmark
+    public List<Rotina> consultaPorHorario() {
+        return rotinaRepository.findRotinasNoHorario(proximoMinuto());
+    }
+}
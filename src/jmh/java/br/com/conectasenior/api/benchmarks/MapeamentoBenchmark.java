@@ -0,0 +1,171 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.config.ModelMapperConfig;
+import br.com.conectasenior.api.dtos.EmergenciaDTO;
+import br.com.conectasenior.api.dtos.IdosoDTO;
+import br.com.conectasenior.api.dtos.RegistroSaudeDTO;
+import br.com.conectasenior.api.dtos.RotinaDTO;
+import br.com.conectasenior.api.dtos.UsuarioDTO;
+import br.com.conectasenior.api.entities.DiasSemana;
+import br.com.conectasenior.api.entities.Emergencia;
+import br.com.conectasenior.api.entities.Idoso;
+import br.com.conectasenior.api.entities.RegistroSaude;
+import br.com.conectasenior.api.entities.Rotina;
+import br.com.conectasenior.api.entities.Usuario;
+import br.com.conectasenior.api.mappers.EmergenciaMapper;
+import br.com.conectasenior.api.mappers.IdosoMapper;
+import br.com.conectasenior.api.mappers.RegistroSaudeMapper;
+import br.com.conectasenior.api.mappers.RotinaMapper;
+import br.com.conectasenior.api.mappers.UsuarioMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o ModelMapper (configuração de ModelMapperConfig) com os mappers explícitos
+ * na conversão entidade -> DTO dos cinco tipos de DTO da API.
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="MapeamentoBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeamentoBenchmark {
+
+    private ModelMapper modelMapper;
+    private IdosoMapper idosoMapper;
+    private RotinaMapper rotinaMapper;
+    private RegistroSaudeMapper registroSaudeMapper;
+    private UsuarioMapper usuarioMapper;
+    private EmergenciaMapper emergenciaMapper;
+
+    private Idoso idoso;
+    private Rotina rotina;
+    private RegistroSaude registro;
+    private Usuario usuario;
+    private Emergencia emergencia;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        modelMapper = new ModelMapperConfig().modelMapper();
+        idosoMapper = new IdosoMapper();
+        rotinaMapper = new RotinaMapper();
+        registroSaudeMapper = new RegistroSaudeMapper();
+        usuarioMapper = new UsuarioMapper();
+        emergenciaMapper = new EmergenciaMapper();
+
+        LocalDateTime agora = LocalDateTime.now();
+
+        idoso = new Idoso();
+        idoso.setId(1L);
+        idoso.setNome("José da Silva");
+        idoso.setDataNascimento(LocalDate.of(1940, 5, 15));
+        idoso.setCpf("12345678901");
+        idoso.setEmail("jose.silva@email.com");
+        idoso.setTelefone("11666666666");
+        idoso.setEndereco("Rua das Flores, 123 - São Paulo/SP");
+        idoso.setObservacoes("Diabético, hipertenso.");
+        idoso.setCriadoEm(agora);
+        idoso.setAtualizadoEm(agora);
+
+        rotina = new Rotina();
+        rotina.setId(10L);
+        rotina.setTitulo("Losartana 50mg");
+        rotina.setDescricao("Tomar após o café da manhã");
+        rotina.setTipo(Rotina.TipoRotina.MEDICAMENTO);
+        rotina.setHorario(LocalTime.of(8, 0));
+        rotina.setDiasSemanaMascara(DiasSemana.TODOS);
+        rotina.setObservacoes("Com água");
+        rotina.setCriadoEm(agora);
+        rotina.setIdoso(idoso);
+
+        registro = new RegistroSaude();
+        registro.setId(100L);
+        registro.setTipo(RegistroSaude.TipoRegistro.PRESSAO_ARTERIAL);
+        registro.setDescricao("Aferição matinal");
+        registro.setValor(new BigDecimal("128.50"));
+        registro.setUnidade("mmHg");
+        registro.setObservacoes("Sentado, braço esquerdo");
+        registro.setRegistradoEm(agora);
+        registro.setCriadoEm(agora);
+        registro.setIdoso(idoso);
+
+        usuario = new Usuario();
+        usuario.setId(5L);
+        usuario.setNome("Maria Silva");
+        usuario.setEmail("cuidador@conectasenior.com");
+        usuario.setSenha("$2a$10$abcdefghijklmnopqrstuuabcdefghijklmnopqrstuvwxyz01234");
+        usuario.setTipo(Usuario.TipoUsuario.CUIDADOR);
+        usuario.setTelefone("11888888888");
+        usuario.setCriadoEm(agora);
+        usuario.setAtualizadoEm(agora);
+
+        emergencia = new Emergencia();
+        emergencia.setId(50L);
+        emergencia.setTipo(Emergencia.TipoEmergencia.QUEDA);
+        emergencia.setDescricao("Queda no banheiro durante a madrugada");
+        emergencia.setGravidade(Emergencia.NivelGravidade.ALTA);
+        emergencia.setStatus(Emergencia.StatusEmergencia.ATIVA);
+        emergencia.setLocalizacao("Banheiro");
+        emergencia.setCriadoEm(agora);
+        emergencia.setIdoso(idoso);
+    }
+
+    @Benchmark
+    public IdosoDTO idosoModelMapper() {
+        return modelMapper.map(idoso, IdosoDTO.class);
+    }
+
+    @Benchmark
+    public IdosoDTO idosoMapper() {
+        return idosoMapper.toDTO(idoso);
+    }
+
+    @Benchmark
+    public RotinaDTO rotinaModelMapper() {
+        return modelMapper.map(rotina, RotinaDTO.class);
+    }
+
+    @Benchmark
+    public RotinaDTO rotinaMapper() {
+        return rotinaMapper.toDTO(rotina);
+    }
+
+    @Benchmark
+    public RegistroSaudeDTO registroSaudeModelMapper() {
+        return modelMapper.map(registro, RegistroSaudeDTO.class);
+    }
+
+    @Benchmark
+    public RegistroSaudeDTO registroSaudeMapper() {
+        return registroSaudeMapper.toDTO(registro);
+    }
+
+    @Benchmark
+    public UsuarioDTO usuarioModelMapper() {
+        return modelMapper.map(usuario, UsuarioDTO.class);
+    }
+
+    @Benchmark
+    public UsuarioDTO usuarioMapper() {
+        return usuarioMapper.toDTO(usuario);
+    }
+
+    @Benchmark
+    public EmergenciaDTO emergenciaModelMapper() {
+        return modelMapper.map(emergencia, EmergenciaDTO.class);
+    }
+
+    @Benchmark
+    public EmergenciaDTO emergenciaMapper() {
+        return emergenciaMapper.toDTO(emergencia);
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.entities.RegistroSaude;
+import br.com.conectasenior.api.repositories.RegistroSaudeRepository;
+import br.com.conectasenior.api.services.ResumoSaudeBackfillService;
+import br.com.conectasenior.api.services.ResumoSaudeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da média de um tipo de registro em um período: AVG sobre os registros
+ * brutos contra a combinação de resumos diários/horários (ResumoSaude)
+ *
+ * A massa é carregada direto no banco e os resumos são montados pela reconstrução
+ * em lote; o setup confere que as duas médias coincidem. O fim do intervalo alterna
+ * entre dois valores a cada chamada porque o H2 reaproveita o resultado de uma
+ * consulta repetida com os mesmos parâmetros.
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="MediaSaudeBenchmark -p registros=500000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MediaSaudeBenchmark {
+
+    private static final long IDOSO_ID = 1L;
+    private static final RegistroSaude.TipoRegistro TIPO = RegistroSaude.TipoRegistro.PRESSAO_ARTERIAL;
+
+    @Param({"100000"})
+    public int registros;
+
+    @Param({"7", "90"})
+    public int dias;
+
+    private ConfigurableApplicationContext contexto;
+    private RegistroSaudeRepository registroSaudeRepository;
+    private ResumoSaudeService resumoSaudeService;
+    private LocalDateTime inicio;
+    private LocalDateTime[] fins;
+    private int chamada;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = ContextoBenchmark.iniciar("media_saude");
+        ContextoBenchmark.popularIdosos(contexto, 1);
+        ContextoBenchmark.popularRegistrosSaude(contexto, registros, 1);
+        contexto.getBean(ResumoSaudeBackfillService.class).reconstruirTodos();
+
+        registroSaudeRepository = contexto.getBean(RegistroSaudeRepository.class);
+        resumoSaudeService = contexto.getBean(ResumoSaudeService.class);
+
+        // A massa começa um ano atrás, um registro por minuto; o intervalo não cai em horas cheias
+        LocalDateTime fim = LocalDateTime.now().minusDays(365).plusMinutes(registros).minusMinutes(17);
+        inicio = fim.minusDays(dias).plusMinutes(41);
+        fins = new LocalDateTime[] {fim, fim.minusMinutes(1)};
+
+        Double bruta = mediaBruta();
+        chamada = 0;
+        Double resumida = mediaResumida();
+        if (bruta == null || Math.abs(bruta - resumida) > 1e-6) {
+            throw new IllegalStateException("Médias divergentes: bruta=" + bruta + ", resumos=" + resumida);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Double mediaBruta() {
+        return registroSaudeRepository.findMediaValoresPorTipoEPeriodo(IDOSO_ID, TIPO, inicio, proximoFim());
+    }
+
+    @Benchmark
+    public Double mediaResumida() {
+        return resumoSaudeService.calcularMedia(IDOSO_ID, TIPO, inicio, proximoFim());
+    }
+
+    private LocalDateTime proximoFim() {
+        return fins[chamada++ & 1];
+    }
+}
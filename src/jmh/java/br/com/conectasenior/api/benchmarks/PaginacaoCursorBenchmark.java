@@ -0,0 +1,93 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.dtos.RegistroSaudeDTO;
+import br.com.conectasenior.api.dtos.responses.PaginaCursorResponse;
+import br.com.conectasenior.api.services.SaudeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da listagem de registros de saúde: OFFSET com COUNT (GET /api/saude)
+ * contra cursor (GET /api/saude/cursor), na mesma ordem e na mesma profundidade
+ *
+ * "profundidade" é a fração da listagem já percorrida (0 = primeira página). Cada
+ * chamada lê uma de 16 páginas consecutivas naquela altura, para que o H2 não
+ * devolva um resultado reaproveitado:
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec \
+ *       -Djmh.args="PaginacaoCursorBenchmark -p registros=500000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaginacaoCursorBenchmark {
+
+    private static final int TAMANHO = 50;
+    private static final int PAGINAS = 16;
+
+    @Param({"200000"})
+    public int registros;
+
+    @Param({"500"})
+    public int idosos;
+
+    @Param({"0", "0.5", "0.99"})
+    public double profundidade;
+
+    private ConfigurableApplicationContext contexto;
+    private SaudeService saudeService;
+    private final List<String> cursores = new ArrayList<>();
+    private int primeiraPagina;
+    private int chamada;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = ContextoBenchmark.iniciar("paginacao_cursor");
+        ContextoBenchmark.popularIdosos(contexto, idosos);
+        ContextoBenchmark.popularRegistrosSaude(contexto, registros, idosos);
+        saudeService = contexto.getBean(SaudeService.class);
+
+        primeiraPagina = (int) (registros / TAMANHO * profundidade);
+        primeiraPagina = Math.min(primeiraPagina, registros / TAMANHO - PAGINAS);
+        // Percorre a listagem até a profundidade, guardando o cursor de cada uma das páginas medidas
+        String cursor = null;
+        for (int pagina = 0; pagina < primeiraPagina + PAGINAS; pagina++) {
+            if (pagina >= primeiraPagina) {
+                cursores.add(cursor);
+            }
+            cursor = saudeService.findAllCursor(cursor, TAMANHO, false).getProximoCursor();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Page<RegistroSaudeDTO> offset() {
+        int pagina = primeiraPagina + (chamada++ % PAGINAS);
+        return saudeService.findAll(PageRequest.of(pagina, TAMANHO,
+                Sort.by(Sort.Direction.DESC, "registradoEm", "id")));
+    }
+
+    @Benchmark
+    public PaginaCursorResponse<RegistroSaudeDTO> cursor() {
+        return saudeService.findAllCursor(cursores.get(chamada++ % PAGINAS), TAMANHO, false);
+    }
+
+    @Benchmark
+    public PaginaCursorResponse<RegistroSaudeDTO> cursorComTotal() {
+        return saudeService.findAllCursor(cursores.get(chamada++ % PAGINAS), TAMANHO, true);
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.entities.DiasSemana;
+import br.com.conectasenior.api.entities.ExecucaoRotina;
+import br.com.conectasenior.api.entities.Rotina;
+import br.com.conectasenior.api.entities.Usuario;
+import br.com.conectasenior.api.repositories.ExecucaoRotinaRepository;
+import br.com.conectasenior.api.repositories.RotinaRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Benchmark das rotinas pendentes no dia de um cuidador (troca de turno): consulta
+ * única com anti-join e paginação contra carregar as rotinas de cada idoso e consultar
+ * as execuções do dia rotina a rotina
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="RotinasPendentesBenchmark -p rotinas=200000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RotinasPendentesBenchmark {
+
+    private static final int IDOSOS = 2_000;
+    private static final int IDOSOS_POR_CUIDADOR = 20;
+    private static final int DIAS_HISTORICO = 30;
+    private static final Pageable PAGINA = PageRequest.of(0, 50, Sort.by("horario", "id"));
+
+    @Param({"50000"})
+    public int rotinas;
+
+    private ConfigurableApplicationContext contexto;
+    private RotinaRepository rotinaRepository;
+    private ExecucaoRotinaRepository execucaoRotinaRepository;
+    private Long cuidadorId;
+    private List<Long> idososDoCuidador;
+    private LocalDate hoje;
+    private int deslocamento;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = ContextoBenchmark.iniciar("rotinas_pendentes", "rotinas.lembretes.habilitado=false");
+        ContextoBenchmark.popularIdosos(contexto, IDOSOS);
+        ContextoBenchmark.popularRotinas(contexto, rotinas, IDOSOS);
+        hoje = LocalDate.now();
+        ContextoBenchmark.popularExecucoesRotina(contexto, hoje, DIAS_HISTORICO, 3);
+
+        Usuario cuidador = ContextoBenchmark.criarUsuario(contexto, "pendentes@benchmark.com");
+        cuidadorId = cuidador.getId();
+        idososDoCuidador = LongStream.rangeClosed(1, IDOSOS_POR_CUIDADOR).boxed().toList();
+        ContextoBenchmark.vincularIdosos(contexto, cuidadorId, idososDoCuidador);
+
+        rotinaRepository = contexto.getBean(RotinaRepository.class);
+        execucaoRotinaRepository = contexto.getBean(ExecucaoRotinaRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    /**
+     * Alterna os dias consultados para que o H2 não reaproveite o resultado anterior
+     */
+    private LocalDate proximoDia() {
+        deslocamento = (deslocamento + 1) % DIAS_HISTORICO;
+        return hoje.minusDays(deslocamento);
+    }
+
+    @Benchmark
+    public Page<Rotina> antiJoinPorCuidador() {
+        LocalDate dia = proximoDia();
+        return rotinaRepository.findPendentesPorUsuario(cuidadorId,
+                DiasSemana.mascarasQueIntersectam(DiasSemana.bit(dia.getDayOfWeek())),
+                dia.atStartOfDay(), dia.plusDays(1).atStartOfDay(), PAGINA);
+    }
+
+    @Benchmark
+    public List<Rotina> rotinaARotinaPorCuidador() {
+        LocalDate dia = proximoDia();
+        LocalDateTime inicio = dia.atStartOfDay();
+        LocalDateTime fim = dia.plusDays(1).atStartOfDay().minusNanos(1);
+        List<Rotina> pendentes = new ArrayList<>();
+        for (Long idosoId : idososDoCuidador) {
+            for (Rotina rotina : rotinaRepository.findByIdosoIdAndAtivoTrueOrderByHorarioAsc(idosoId)) {
+                if (!DiasSemana.contem(rotina.getDiasSemanaMascara(), dia.getDayOfWeek())) {
+                    continue;
+                }
+                List<ExecucaoRotina> execucoes = execucaoRotinaRepository.findExecucoesPorPeriodo(rotina.getId(), inicio, fim);
+                if (execucoes.isEmpty()) {
+                    pendentes.add(rotina);
+                }
+            }
+        }
+        return pendentes;
+    }
+}
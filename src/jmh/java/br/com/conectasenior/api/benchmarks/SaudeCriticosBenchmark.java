@@ -0,0 +1,58 @@
+package br.com.conectasenior.api.benchmarks;
+
+import br.com.conectasenior.api.dtos.RegistroSaudeDTO;
+import br.com.conectasenior.api.services.SaudeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da busca de registros críticos (GET /api/saude/criticos)
+ *
+ * A massa sintética cobre um registro por minuto a partir de um ano atrás;
+ * "horas" define a janela consultada. O volume é configurável pelos parâmetros JMH:
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec \
+ *       -Djmh.args="SaudeCriticosBenchmark -p registros=500000 -p idosos=2000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaudeCriticosBenchmark {
+
+    @Param({"10000", "100000"})
+    public int registros;
+
+    @Param({"500"})
+    public int idosos;
+
+    @Param({"24", "8760"})
+    public int horas;
+
+    private ConfigurableApplicationContext contexto;
+    private SaudeService saudeService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = ContextoBenchmark.iniciar("saude_criticos");
+        ContextoBenchmark.popularIdosos(contexto, idosos);
+        ContextoBenchmark.popularRegistrosSaude(contexto, registros, idosos);
+        saudeService = contexto.getBean(SaudeService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Page<RegistroSaudeDTO> buscarRegistrosCriticos() {
+        return saudeService.findRegistrosCriticos(null, horas, PageRequest.of(0, 50));
+    }
+}
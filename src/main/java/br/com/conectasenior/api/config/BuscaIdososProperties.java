@@ -0,0 +1,40 @@
+package br.com.conectasenior.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Busca de idosos por nome e endereço (BuscaIdosoService)
+ *
+ *   busca.idosos.modo=AUTOMATICO
+ *   busca.idosos.limiar-similaridade=0.5
+ *   busca.idosos.limite-maximo=50
+ */
+@Data
+@ConfigurationProperties(prefix = "busca.idosos")
+public class BuscaIdososProperties {
+
+    /**
+     * POSTGRES usa os índices de trigramas de sql/migracoes/010; MEMORIA mantém um
+     * índice de trigramas na aplicação; AUTOMATICO escolhe POSTGRES quando a migração
+     * foi aplicada
+     */
+    private Modo modo = Modo.AUTOMATICO;
+
+    /**
+     * Fração mínima dos trigramas do termo presentes no nome ou endereço (0 a 1);
+     * menor tolera mais erros de digitação e traz mais ruído
+     */
+    private double limiarSimilaridade = 0.5;
+
+    /**
+     * Máximo de resultados por busca
+     */
+    private int limiteMaximo = 50;
+
+    public enum Modo {
+        AUTOMATICO,
+        POSTGRES,
+        MEMORIA
+    }
+}
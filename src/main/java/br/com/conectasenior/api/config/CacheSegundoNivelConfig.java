@@ -0,0 +1,86 @@
+package br.com.conectasenior.api.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.OptionalLong;
+
+/**
+ * Cache de segundo nível do Hibernate com JCache sobre Caffeine
+ *
+ * Cada região é um cache Caffeine local, limitado em entradas e com expiração
+ * após a escrita. As entidades usam READ_WRITE, então alterações feitas pela
+ * aplicação atualizam o cache no commit; o limite de validade cobre o que muda
+ * por fora (outras instâncias, scripts).
+ *
+ * As regiões são criadas aqui a partir de CacheSegundoNivelProperties; uma
+ * região ausente faz o Hibernate falhar na inicialização em vez de criar um
+ * cache sem limite.
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class CacheSegundoNivelConfig {
+
+    private final CacheSegundoNivelProperties properties;
+
+    /**
+     * Provider próprio por contexto: o CacheManager padrão do JCache é único por
+     * class loader e seria compartilhado entre contextos na mesma JVM
+     */
+    @Bean(destroyMethod = "close")
+    public CaffeineCachingProvider cacheSegundoNivelProvider() {
+        return new CaffeineCachingProvider();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheSegundoNivelManager(CaffeineCachingProvider cacheSegundoNivelProvider) {
+        CacheManager cacheManager = cacheSegundoNivelProvider.getCacheManager();
+        properties.getRegioes().forEach((regiao, maxEntradas) ->
+                cacheManager.createCache(regiao, configuracao(maxEntradas, true)));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                configuracao(properties.getMaxConsultas(), true));
+        // Um registro por tabela; não pode expirar nem ser descartado antes dos resultados que valida
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                configuracao(null, false));
+        log.info("Cache de segundo nível {}: regiões {}", properties.isHabilitado() ? "habilitado" : "desabilitado",
+                cacheManager.getCacheNames());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelHibernate(CacheManager cacheSegundoNivelManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, properties.isHabilitado());
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, properties.isHabilitado());
+            if (properties.isHabilitado()) {
+                hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+                hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheSegundoNivelManager);
+                hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            }
+        };
+    }
+
+    private CaffeineConfiguration<Object, Object> configuracao(Long maxEntradas, boolean expira) {
+        CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+        // As entradas do Hibernate já são cópias desmontadas e imutáveis; copiar de novo só custa
+        configuracao.setStoreByValue(false);
+        configuracao.setNativeStatisticsEnabled(true);
+        if (maxEntradas != null) {
+            configuracao.setMaximumSize(OptionalLong.of(maxEntradas));
+        }
+        if (expira) {
+            configuracao.setExpireAfterWrite(OptionalLong.of(properties.getExpiracao().toNanos()));
+        }
+        return configuracao;
+    }
+}
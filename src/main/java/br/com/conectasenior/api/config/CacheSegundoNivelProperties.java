@@ -0,0 +1,46 @@
+package br.com.conectasenior.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache de segundo nível do Hibernate (CacheSegundoNivelConfig)
+ *
+ *   cache.segundo-nivel.habilitado=true
+ *   cache.segundo-nivel.expiracao=30m
+ *   cache.segundo-nivel.regioes.idosos=20000
+ *   cache.segundo-nivel.regioes.contatos-emergencia=50000
+ *   cache.segundo-nivel.regioes.usuarios=10000
+ *   cache.segundo-nivel.max-consultas=10000
+ */
+@Data
+@ConfigurationProperties(prefix = "cache.segundo-nivel")
+public class CacheSegundoNivelProperties {
+
+    private boolean habilitado = true;
+
+    /**
+     * Validade de cada entrada depois de gravada; o cache é local a cada
+     * instância, então este é o atraso máximo para enxergar alterações feitas
+     * por outra instância ou direto no banco
+     */
+    private Duration expiracao = Duration.ofMinutes(30);
+
+    /**
+     * Máximo de entradas por região (o nome usado em @Cache nas entidades);
+     * entidade com região fora desta lista impede a inicialização
+     */
+    private Map<String, Long> regioes = new LinkedHashMap<>(Map.of(
+            "idosos", 20_000L,
+            "contatos-emergencia", 50_000L,
+            "usuarios", 10_000L));
+
+    /**
+     * Máximo de resultados guardados das consultas marcadas como cacheáveis
+     */
+    private long maxConsultas = 10_000;
+}
@@ -0,0 +1,74 @@
+package br.com.conectasenior.api.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Conta as consultas SQL de cada requisição
+ *
+ * Registra no log as requisições acima de consultas-sql.limite-por-requisicao e as
+ * que repetem um mesmo comando consultas-sql.limite-repeticoes vezes ou mais (N+1),
+ * e publica a distribuição em conecta.requisicoes.consultas (tags method e uri).
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class ConsultasPorRequisicaoFilter extends OncePerRequestFilter {
+
+    private static final int TAMANHO_MAXIMO_LOG = 300;
+
+    private final ConsultasSqlProperties propriedades;
+    private final ObjectProvider<MeterRegistry> registry;
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        ConsultasSql.Medicao medicao = ConsultasSql.medir();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            medicao.close();
+            avaliar(request, medicao);
+        }
+    }
+
+    private void avaliar(HttpServletRequest request, ConsultasSql.Medicao medicao) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = padrao != null ? padrao.toString() : "UNKNOWN";
+
+        MeterRegistry meterRegistry = registry.getIfAvailable();
+        if (meterRegistry != null) {
+            DistributionSummary.builder("conecta.requisicoes.consultas")
+                    .description("Consultas SQL por requisição")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(medicao.total());
+        }
+
+        Map.Entry<String, Integer> repetida = medicao.maisRepetida();
+        boolean excedeu = medicao.total() > propriedades.getLimitePorRequisicao();
+        boolean repetiu = repetida != null && repetida.getValue() >= propriedades.getLimiteRepeticoes();
+        if (excedeu || repetiu) {
+            String sql = repetida.getKey();
+            log.warn("{} {}: {} consultas SQL em {}ms (limite {}); mais repetida {}x: {}",
+                    request.getMethod(), request.getRequestURI(), medicao.total(), medicao.tempo().toMillis(),
+                    propriedades.getLimitePorRequisicao(), repetida.getValue(),
+                    sql.length() > TAMANHO_MAXIMO_LOG ? sql.substring(0, TAMANHO_MAXIMO_LOG) + "..." : sql);
+        }
+    }
+}
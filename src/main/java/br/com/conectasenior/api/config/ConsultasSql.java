@@ -0,0 +1,147 @@
+package br.com.conectasenior.api.config;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Consultas SQL executadas pela thread atual (ConsultasSqlDataSource)
+ *
+ * Uma medição conta os comandos enviados ao banco entre medir() e close(), tanto os
+ * do Hibernate quanto os do JdbcTemplate; um lote JDBC conta como um comando.
+ * Medições podem ser aninhadas: cada comando conta em todas as abertas na thread.
+ * Trabalho feito em outras threads (@Async, buffers) não entra na contagem.
+ *
+ * Nos testes de integração:
+ *
+ *   try (ConsultasSql.Medicao medicao = ConsultasSql.medir()) {
+ *       mockMvc.perform(get("/api/rotinas"));
+ *       medicao.verificarMaximo(3).verificarRepeticoes(1);
+ *   }
+ */
+public final class ConsultasSql {
+
+    private static final ThreadLocal<Medicao> MEDICAO = new ThreadLocal<>();
+    private static final ThreadLocal<String> REPOSITORIO = new ThreadLocal<>();
+
+    private ConsultasSql() {
+    }
+
+    /**
+     * Inicia uma medição na thread atual; encerrada por close()
+     */
+    public static Medicao medir() {
+        Medicao medicao = new Medicao(MEDICAO.get());
+        MEDICAO.set(medicao);
+        return medicao;
+    }
+
+    /**
+     * Método de repositório em execução na thread ("IdosoRepository.findByCpf"), ou null
+     */
+    public static String repositorioAtual() {
+        return REPOSITORIO.get();
+    }
+
+    static String entrarRepositorio(String metodo) {
+        String anterior = REPOSITORIO.get();
+        REPOSITORIO.set(metodo);
+        return anterior;
+    }
+
+    static void sairRepositorio(String anterior) {
+        if (anterior == null) {
+            REPOSITORIO.remove();
+        } else {
+            REPOSITORIO.set(anterior);
+        }
+    }
+
+    static void registrar(String sql, long nanos) {
+        for (Medicao medicao = MEDICAO.get(); medicao != null; medicao = medicao.externa) {
+            medicao.acumular(sql, nanos);
+        }
+    }
+
+    public static final class Medicao implements AutoCloseable {
+
+        private final Medicao externa;
+        private final Map<String, Integer> porSql = new LinkedHashMap<>();
+        private int total;
+        private long nanos;
+
+        private Medicao(Medicao externa) {
+            this.externa = externa;
+        }
+
+        public int total() {
+            return total;
+        }
+
+        public Duration tempo() {
+            return Duration.ofNanos(nanos);
+        }
+
+        /**
+         * Execuções de cada comando, na ordem da primeira execução
+         */
+        public Map<String, Integer> porSql() {
+            return Collections.unmodifiableMap(porSql);
+        }
+
+        /**
+         * Comando executado mais vezes, ou null se nenhum foi executado
+         */
+        public Map.Entry<String, Integer> maisRepetida() {
+            return porSql.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+        }
+
+        /**
+         * Falha (AssertionError) se a medição passou de "maximo" comandos
+         */
+        public Medicao verificarMaximo(int maximo) {
+            if (total > maximo) {
+                throw new AssertionError("Esperado no máximo " + maximo + " consultas SQL, executadas " + total
+                        + ":\n" + descrever());
+            }
+            return this;
+        }
+
+        /**
+         * Falha (AssertionError) se algum comando foi executado mais de "maximo" vezes (N+1)
+         */
+        public Medicao verificarRepeticoes(int maximo) {
+            Map.Entry<String, Integer> repetida = maisRepetida();
+            if (repetida != null && repetida.getValue() > maximo) {
+                throw new AssertionError("Consulta executada " + repetida.getValue() + " vezes (máximo " + maximo
+                        + "): " + repetida.getKey() + "\n" + descrever());
+            }
+            return this;
+        }
+
+        public String descrever() {
+            StringBuilder descricao = new StringBuilder();
+            porSql.forEach((sql, vezes) -> descricao.append("  ").append(vezes).append("x ").append(sql).append('\n'));
+            return descricao.toString();
+        }
+
+        @Override
+        public void close() {
+            if (MEDICAO.get() != this) {
+                return;
+            }
+            if (externa == null) {
+                MEDICAO.remove();
+            } else {
+                MEDICAO.set(externa);
+            }
+        }
+
+        private void acumular(String sql, long duracao) {
+            total++;
+            nanos += duracao;
+            porSql.merge(sql, 1, Integer::sum);
+        }
+    }
+}
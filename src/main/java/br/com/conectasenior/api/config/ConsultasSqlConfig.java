@@ -0,0 +1,79 @@
+package br.com.conectasenior.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Instrumentação das consultas SQL (consultas-sql.*)
+ *
+ * - o DataSource é envolvido por ConsultasSqlDataSource, que conta e cronometra cada comando
+ * - os repositórios anotam a thread com o método em execução, usado no log de consultas lentas
+ * - ConsultasPorRequisicaoFilter fecha a contagem de cada requisição; roda antes da
+ *   cadeia do Spring Security para incluir a carga do usuário autenticado
+ */
+@Configuration
+@ConditionalOnProperty(name = "consultas-sql.habilitado", havingValue = "true", matchIfMissing = true)
+public class ConsultasSqlConfig {
+
+    @Bean
+    public static BeanPostProcessor consultasSqlPostProcessor(ObjectProvider<ConsultasSqlProperties> propriedades) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositorio) {
+                    repositorio.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxy, informacao) -> proxy.addAdvice(
+                                    anotarRepositorio(informacao.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConsultasSqlDataSource)) {
+                    return new ConsultasSqlDataSource(dataSource, propriedades.getObject().getLimiarLenta());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConsultasPorRequisicaoFilter> consultasPorRequisicaoFilter(
+            ConsultasSqlProperties propriedades, ObjectProvider<MeterRegistry> registry) {
+        FilterRegistrationBean<ConsultasPorRequisicaoFilter> registro =
+                new FilterRegistrationBean<>(new ConsultasPorRequisicaoFilter(propriedades, registry));
+        registro.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registro;
+    }
+
+    private static MethodInterceptor anotarRepositorio(String repositorio) {
+        Map<Method, String> nomes = new ConcurrentHashMap<>();
+        return invocacao -> {
+            Method metodo = invocacao.getMethod();
+            String nome = nomes.get(metodo);
+            if (nome == null) {
+                nome = nomes.computeIfAbsent(metodo, m -> repositorio + "." + m.getName());
+            }
+            String anterior = ConsultasSql.entrarRepositorio(nome);
+            try {
+                return invocacao.proceed();
+            } finally {
+                ConsultasSql.sairRepositorio(anterior);
+            }
+        };
+    }
+}
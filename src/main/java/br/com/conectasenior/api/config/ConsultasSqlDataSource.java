@@ -0,0 +1,103 @@
+package br.com.conectasenior.api.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * DataSource que mede cada comando SQL enviado ao banco
+ *
+ * Conexões e statements passam por proxies que cronometram os métodos execute*;
+ * cada comando é contado nas medições abertas da thread (ConsultasSql) e os que
+ * passam de consultas-sql.limiar-lenta vão para o log junto com o método de
+ * repositório que os disparou. Comandos fora de um repositório costumam ser
+ * carregamento lazy, a origem típica de N+1.
+ */
+@Slf4j
+public class ConsultasSqlDataSource extends DelegatingDataSource {
+
+    private static final int TAMANHO_MAXIMO_LOG = 500;
+
+    private final long limiarLentaNanos;
+
+    public ConsultasSqlDataSource(DataSource dataSource, Duration limiarLenta) {
+        super(dataSource);
+        this.limiarLentaNanos = limiarLenta.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return medir(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return medir(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection medir(Connection conexao) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, metodo, argumentos) -> switch (metodo.getName()) {
+                    case "equals" -> proxy == argumentos[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "createStatement", "prepareStatement", "prepareCall" -> {
+                        Statement statement = (Statement) invocar(conexao, metodo, argumentos);
+                        String sql = argumentos != null && argumentos.length > 0 && argumentos[0] instanceof String texto
+                                ? texto
+                                : null;
+                        yield medir(statement, metodo.getReturnType(), sql);
+                    }
+                    default -> invocar(conexao, metodo, argumentos);
+                });
+    }
+
+    private Object medir(Statement statement, Class<?> tipo, String sqlPreparado) {
+        return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {tipo},
+                (proxy, metodo, argumentos) -> {
+                    String nome = metodo.getName();
+                    if (!nome.startsWith("execute")) {
+                        return switch (nome) {
+                            case "equals" -> proxy == argumentos[0];
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            default -> invocar(statement, metodo, argumentos);
+                        };
+                    }
+                    // Statement simples traz o SQL no próprio execute; lote sem SQL preparado fica genérico
+                    String sql = argumentos != null && argumentos.length > 0 && argumentos[0] instanceof String texto
+                            ? texto
+                            : sqlPreparado != null ? sqlPreparado : "(lote)";
+                    long inicio = System.nanoTime();
+                    try {
+                        return invocar(statement, metodo, argumentos);
+                    } finally {
+                        registrar(sql, System.nanoTime() - inicio);
+                    }
+                });
+    }
+
+    private void registrar(String sql, long nanos) {
+        ConsultasSql.registrar(sql, nanos);
+        if (nanos >= limiarLentaNanos) {
+            String repositorio = ConsultasSql.repositorioAtual();
+            log.warn("Consulta lenta ({}ms) em {}: {}", nanos / 1_000_000,
+                    repositorio != null ? repositorio : "(fora de repositório)",
+                    sql.length() > TAMANHO_MAXIMO_LOG ? sql.substring(0, TAMANHO_MAXIMO_LOG) + "..." : sql);
+        }
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] argumentos) throws Throwable {
+        try {
+            return metodo.invoke(alvo, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.conectasenior.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Contagem de consultas SQL por requisição e registro de consultas lentas
+ * (ConsultasSqlConfig)
+ *
+ *   consultas-sql.habilitado=true
+ *   consultas-sql.limite-por-requisicao=25
+ *   consultas-sql.limite-repeticoes=10
+ *   consultas-sql.limiar-lenta=200ms
+ */
+@Data
+@ConfigurationProperties(prefix = "consultas-sql")
+public class ConsultasSqlProperties {
+
+    private boolean habilitado = true;
+
+    /**
+     * Requisições com mais consultas que isso são registradas no log
+     */
+    private int limitePorRequisicao = 25;
+
+    /**
+     * A mesma consulta executada tantas vezes em uma requisição indica um N+1
+     */
+    private int limiteRepeticoes = 10;
+
+    /**
+     * Consultas que demoram mais que isso são registradas com o método de repositório
+     */
+    private Duration limiarLenta = Duration.ofMillis(200);
+}
@@ -0,0 +1,36 @@
+package br.com.conectasenior.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Canal SSE de emergências (GET /api/emergencias/stream)
+ *
+ *   emergencias.stream.timeout-ms=1800000
+ *   emergencias.stream.heartbeat-ms=25000
+ *   emergencias.stream.capacidade-fila=64
+ */
+@Data
+@ConfigurationProperties(prefix = "emergencias.stream")
+public class EmergenciaStreamProperties {
+
+    /**
+     * Duração máxima de uma conexão; o EventSource do navegador reconecta sozinho
+     * e a reconexão atualiza os idosos vinculados ao usuário
+     */
+    private long timeoutMs = 1_800_000;
+
+    /**
+     * Intervalo sem envios após o qual a conexão recebe um comentário de heartbeat,
+     * mantendo proxies abertos e detectando clientes desconectados
+     */
+    private long heartbeatMs = 25_000;
+
+    /**
+     * Eventos pendentes por assinante; ao estourar, a fila é descartada e o
+     * assinante recebe um novo snapshot das emergências em andamento
+     */
+    private int capacidadeFila = 64;
+
+    private int maxAssinantes = 10_000;
+}
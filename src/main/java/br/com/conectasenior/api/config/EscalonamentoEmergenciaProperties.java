@@ -0,0 +1,47 @@
+package br.com.conectasenior.api.config;
+
+import br.com.conectasenior.api.entities.Emergencia;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Prazos do escalonamento automático de emergências não resolvidas
+ *
+ * Uma emergência ativa ou em atendimento que fica sem mudanças pelo prazo da sua
+ * gravidade é escalonada (próximo contato de emergência ou gravidade maior).
+ * Exemplo de configuração:
+ *
+ *   emergencias.escalonamento.habilitado=true
+ *   emergencias.escalonamento.prazos.CRITICA=2m
+ *   emergencias.escalonamento.prazos.BAIXA=30m
+ */
+@Data
+@ConfigurationProperties(prefix = "emergencias.escalonamento")
+public class EscalonamentoEmergenciaProperties {
+
+    private boolean habilitado = true;
+
+    private Map<Emergencia.NivelGravidade, Duration> prazos = prazosPadrao();
+
+    /**
+     * Espera antes de tentar de novo quando o escalonamento falha
+     */
+    private Duration intervaloNovaTentativa = Duration.ofSeconds(30);
+
+    public Duration prazo(Emergencia.NivelGravidade gravidade) {
+        return prazos.getOrDefault(gravidade, prazosPadrao().get(gravidade));
+    }
+
+    private static Map<Emergencia.NivelGravidade, Duration> prazosPadrao() {
+        Map<Emergencia.NivelGravidade, Duration> prazos = new EnumMap<>(Emergencia.NivelGravidade.class);
+        prazos.put(Emergencia.NivelGravidade.CRITICA, Duration.ofMinutes(2));
+        prazos.put(Emergencia.NivelGravidade.ALTA, Duration.ofMinutes(5));
+        prazos.put(Emergencia.NivelGravidade.MEDIA, Duration.ofMinutes(15));
+        prazos.put(Emergencia.NivelGravidade.BAIXA, Duration.ofMinutes(30));
+        return prazos;
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.conectasenior.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Registro de execuções de rotina (ExecucaoRotinaBuffer)
+ *
+ *   rotinas.execucoes.tolerancia-atraso=30m
+ *   rotinas.execucoes.capacidade-buffer=10000
+ *   rotinas.execucoes.tamanho-lote=500
+ *   rotinas.execucoes.intervalo-descarga=500ms
+ *   rotinas.execucoes.espera-maxima-reenvio=30s
+ */
+@Data
+@ConfigurationProperties(prefix = "rotinas.execucoes")
+public class ExecucaoRotinaProperties {
+
+    /**
+     * Execuções informadas sem status são ATRASADA quando ocorrem depois do
+     * horário da rotina mais essa tolerância
+     */
+    private Duration toleranciaAtraso = Duration.ofMinutes(30);
+
+    /**
+     * Execuções aguardando gravação; com o buffer cheio a requisição grava o
+     * que estiver pendente antes de enfileirar
+     */
+    private int capacidadeBuffer = 10_000;
+
+    /**
+     * Máximo de execuções gravadas por transação
+     */
+    private int tamanhoLote = 500;
+
+    /**
+     * Quanto a primeira execução de uma rajada espera pelas seguintes antes da
+     * gravação; é também a janela de perda em caso de queda do processo
+     */
+    private Duration intervaloDescarga = Duration.ofMillis(500);
+
+    /**
+     * Teto da espera entre tentativas de gravar um lote que falhou por
+     * indisponibilidade do banco; a espera começa em intervalo-descarga e dobra
+     */
+    private Duration esperaMaximaReenvio = Duration.ofSeconds(30);
+}
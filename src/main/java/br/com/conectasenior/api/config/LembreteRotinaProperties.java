@@ -0,0 +1,31 @@
+package br.com.conectasenior.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.ZoneId;
+
+/**
+ * Disparo de lembretes de rotina (LembreteRotinaScheduler)
+ *
+ *   rotinas.lembretes.habilitado=true
+ *   rotinas.lembretes.fuso=America/Sao_Paulo
+ *   rotinas.lembretes.recuperacao-maxima-minutos=30
+ */
+@Data
+@ConfigurationProperties(prefix = "rotinas.lembretes")
+public class LembreteRotinaProperties {
+
+    private boolean habilitado = true;
+
+    /**
+     * Fuso em que os horários das rotinas são interpretados
+     */
+    private ZoneId fuso = ZoneId.of("America/Sao_Paulo");
+
+    /**
+     * Minutos perdidos (pausas longas, atraso do agendador) disparados na
+     * verificação seguinte; os mais antigos que isso são descartados
+     */
+    private int recuperacaoMaximaMinutos = 30;
+}
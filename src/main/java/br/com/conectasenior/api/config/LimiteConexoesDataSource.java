@@ -0,0 +1,113 @@
+package br.com.conectasenior.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DataSource que limita quantas threads usam conexões JDBC ao mesmo tempo
+ *
+ * Com threads virtuais o Tomcat deixa de ser o limite de concorrência: um pico
+ * de requisições vira milhares de threads disputando o pool do Hikari, que não
+ * garante ordem e faz cada uma esperar até connection-timeout. Aqui a espera
+ * acontece antes, em um semáforo justo do tamanho do pool, onde a thread virtual
+ * estaciona sem ocupar um carrier; a permissão volta quando a conexão é fechada.
+ */
+public class LimiteConexoesDataSource extends DelegatingDataSource {
+
+    private final Semaphore permissoes;
+    private final int limite;
+    private final Duration espera;
+    private final LongAdder recusadas = new LongAdder();
+
+    public LimiteConexoesDataSource(DataSource dataSource, int limite, Duration espera) {
+        super(dataSource);
+        this.limite = limite > 0 ? limite : tamanhoDoPool(dataSource);
+        this.permissoes = new Semaphore(this.limite, true);
+        this.espera = espera;
+    }
+
+    public record Estatisticas(int limite, int emUso, int aguardando, long recusadas) {
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return liberarAoFechar(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return liberarAoFechar(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    public Estatisticas estatisticas() {
+        return new Estatisticas(limite, limite - permissoes.availablePermits(), permissoes.getQueueLength(),
+                recusadas.sum());
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permissoes.tryAcquire(espera.toMillis(), TimeUnit.MILLISECONDS)) {
+                recusadas.increment();
+                throw new SQLTransientConnectionException(
+                        "Nenhuma conexão liberada em " + espera.toMillis() + "ms (limite " + limite + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando conexão", e);
+        }
+    }
+
+    private Connection liberarAoFechar(Connection conexao) {
+        AtomicBoolean liberada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, metodo, argumentos) -> switch (metodo.getName()) {
+                    case "equals" -> proxy == argumentos[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        try {
+                            conexao.close();
+                        } finally {
+                            if (liberada.compareAndSet(false, true)) {
+                                permissoes.release();
+                            }
+                        }
+                        yield null;
+                    }
+                    default -> {
+                        try {
+                            yield metodo.invoke(conexao, argumentos);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+
+    private static int tamanhoDoPool(DataSource dataSource) {
+        return dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+    }
+}
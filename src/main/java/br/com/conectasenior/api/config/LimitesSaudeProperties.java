@@ -0,0 +1,52 @@
+package br.com.conectasenior.api.config;
+
+import br.com.conectasenior.api.entities.RegistroSaude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Faixas de normalidade usadas na busca de registros críticos
+ *
+ * Um registro é crítico quando o valor fica abaixo do mínimo ou acima do máximo
+ * da faixa do seu tipo; tipos sem faixa configurada não são considerados.
+ * Exemplo de configuração:
+ *
+ *   saude.criticos.janela-padrao-horas=24
+ *   saude.criticos.faixas.GLICEMIA.minimo=70
+ *   saude.criticos.faixas.GLICEMIA.maximo=180
+ */
+@Data
+@ConfigurationProperties(prefix = "saude.criticos")
+public class LimitesSaudeProperties {
+
+    /**
+     * Janela (em horas) usada quando a requisição não informa uma
+     */
+    private int janelaPadraoHoras = 24;
+
+    private Map<RegistroSaude.TipoRegistro, Faixa> faixas = faixasPadrao();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Faixa {
+        private BigDecimal minimo;
+        private BigDecimal maximo;
+    }
+
+    private static Map<RegistroSaude.TipoRegistro, Faixa> faixasPadrao() {
+        Map<RegistroSaude.TipoRegistro, Faixa> faixas = new EnumMap<>(RegistroSaude.TipoRegistro.class);
+        faixas.put(RegistroSaude.TipoRegistro.PRESSAO_ARTERIAL, new Faixa(new BigDecimal("90"), new BigDecimal("140")));
+        faixas.put(RegistroSaude.TipoRegistro.GLICEMIA, new Faixa(new BigDecimal("70"), new BigDecimal("180")));
+        faixas.put(RegistroSaude.TipoRegistro.TEMPERATURA, new Faixa(new BigDecimal("35"), new BigDecimal("37.8")));
+        faixas.put(RegistroSaude.TipoRegistro.FREQUENCIA_CARDIACA, new Faixa(new BigDecimal("50"), new BigDecimal("120")));
+        faixas.put(RegistroSaude.TipoRegistro.SATURACAO_OXIGENIO, new Faixa(new BigDecimal("92"), new BigDecimal("100")));
+        return faixas;
+    }
+}
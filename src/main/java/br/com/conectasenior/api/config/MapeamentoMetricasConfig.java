@@ -0,0 +1,87 @@
+package br.com.conectasenior.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo dos mappers (timer conecta.mapeamento, tags class e method)
+ *
+ * Os mappers rodam uma vez por linha na exportação e na ingestão em lote, onde o
+ * mapeamento em si custa ~10ns: medir toda chamada custaria ~240ns cada. Só 1 a cada
+ * conecta.metricas.mapeamento-amostragem chamadas é cronometrada; a tag amostragem
+ * informa o fator para estimar o volume total a partir do count do timer.
+ * Desligado com conecta.metricas.mapeamento=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "conecta.metricas.mapeamento", havingValue = "true", matchIfMissing = true)
+public class MapeamentoMetricasConfig {
+
+    private static final String PACOTE_MAPPERS = "br.com.conectasenior.api.mappers";
+
+    /**
+     * Contagem sem sincronização: perder um incremento só desloca a amostra
+     */
+    private static final class Amostra {
+        private final Timer timer;
+        private int chamadas;
+
+        private Amostra(Timer timer) {
+            this.timer = timer;
+        }
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor mapeamentoMetricasAdvisor(ObjectProvider<MeterRegistry> registry,
+                                                    @Value("${conecta.metricas.mapeamento-amostragem:16}") int amostragem) {
+        int fator = Math.max(1, amostragem);
+        Map<Method, Amostra> amostras = new ConcurrentHashMap<>();
+        MethodInterceptor interceptor = invocacao -> {
+            Method metodo = invocacao.getMethod();
+            Amostra amostra = amostras.get(metodo);
+            if (amostra == null) {
+                amostra = amostras.computeIfAbsent(metodo, m -> new Amostra(Timer.builder("conecta.mapeamento")
+                        .description("Tempo das chamadas amostradas aos mappers")
+                        .tag("class", m.getDeclaringClass().getSimpleName())
+                        .tag("method", m.getName())
+                        .tag("amostragem", String.valueOf(fator))
+                        .register(registry.getObject())));
+            }
+            if (++amostra.chamadas % fator != 0) {
+                return invocacao.proceed();
+            }
+            long inicio = System.nanoTime();
+            try {
+                return invocacao.proceed();
+            } finally {
+                amostra.timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            }
+        };
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return PACOTE_MAPPERS.equals(targetClass.getPackageName())
+                        && Modifier.isPublic(method.getModifiers())
+                        && method.getDeclaringClass() != Object.class;
+            }
+        };
+        return new DefaultPointcutAdvisor(pointcut, interceptor);
+    }
+}
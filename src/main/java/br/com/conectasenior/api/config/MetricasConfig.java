@@ -0,0 +1,117 @@
+package br.com.conectasenior.api.config;
+
+import br.com.conectasenior.api.security.TokenVerificadoCache;
+import br.com.conectasenior.api.services.CacheSegundoNivelService;
+import br.com.conectasenior.api.services.EmergenciaStreamService;
+import br.com.conectasenior.api.services.EscalonamentoEmergenciaService;
+import br.com.conectasenior.api.services.ExecucaoRotinaBuffer;
+import br.com.conectasenior.api.services.ThreadsVirtuaisMonitor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Métricas dos componentes internos, expostas em /actuator/prometheus
+ *
+ * Os mesmos números de /api/admin/cache e /api/admin/threads, lidos a cada coleta:
+ * - conecta.execucoes.*: fila e totais do buffer de execuções de rotina
+ * - conecta.tokens.cache.*: cache de tokens verificados
+ * - cache.*{cache=regiao}: regiões do cache de segundo nível (Caffeine)
+ * - conecta.emergencias.*: assinantes do stream e escalonamentos agendados
+ * - conecta.threads.*: carriers e fixações, somente com threads virtuais
+ *
+ * Pool de conexões (hikaricp.*), requisições HTTP, repositórios e JVM já vêm do Spring Boot.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public MeterBinder execucaoRotinaMetricas(ExecucaoRotinaBuffer buffer) {
+        return registry -> {
+            Gauge.builder("conecta.execucoes.pendentes", buffer, ExecucaoRotinaBuffer::pendentes)
+                    .description("Execuções de rotina aguardando gravação")
+                    .register(registry);
+            FunctionCounter.builder("conecta.execucoes.gravadas", buffer, ExecucaoRotinaBuffer::totalGravadas)
+                    .description("Execuções de rotina gravadas pelo buffer")
+                    .register(registry);
+            FunctionCounter.builder("conecta.execucoes.descartadas", buffer, ExecucaoRotinaBuffer::totalDescartadas)
+                    .description("Execuções de rotina descartadas por falha de gravação")
+                    .register(registry);
+            FunctionCounter.builder("conecta.execucoes.reenvios", buffer, ExecucaoRotinaBuffer::totalReenvios)
+                    .description("Lotes de execuções de rotina regravados após falha transitória do banco")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder tokenVerificadoMetricas(TokenVerificadoCache cache) {
+        return registry -> {
+            Gauge.builder("conecta.tokens.cache.entradas", cache, c -> c.estatisticas().entradas())
+                    .register(registry);
+            contador(registry, "conecta.tokens.cache.acertos", cache, c -> c.estatisticas().acertos());
+            contador(registry, "conecta.tokens.cache.falhas", cache, c -> c.estatisticas().falhas());
+            contador(registry, "conecta.tokens.cache.descartes", cache, c -> c.estatisticas().descartes());
+        };
+    }
+
+    @Bean
+    public MeterBinder cacheSegundoNivelMetricas(CacheManager cacheSegundoNivelManager,
+                                                 CacheSegundoNivelService cacheSegundoNivelService) {
+        return registry -> {
+            for (String regiao : cacheSegundoNivelManager.getCacheNames()) {
+                CaffeineCacheMetrics.monitor(registry, cacheSegundoNivelService.caffeine(regiao), regiao,
+                        "cacheManager", "segundo-nivel");
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder emergenciaMetricas(EmergenciaStreamService emergenciaStreamService,
+                                          EscalonamentoEmergenciaService escalonamentoEmergenciaService) {
+        return registry -> {
+            Gauge.builder("conecta.emergencias.assinantes", emergenciaStreamService, EmergenciaStreamService::totalAssinantes)
+                    .description("Conexões abertas no stream de emergências")
+                    .register(registry);
+            Gauge.builder("conecta.emergencias.escalonamentos", escalonamentoEmergenciaService,
+                            EscalonamentoEmergenciaService::totalAgendados)
+                    .description("Escalonamentos de emergência agendados")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder threadsVirtuaisMetricas(ThreadsVirtuaisMonitor monitor) {
+        return registry -> {
+            if (!monitor.isVirtuais()) {
+                return;
+            }
+            Gauge.builder("conecta.threads.carriers", monitor, m -> valor(m.estatisticas().carriers()))
+                    .register(registry);
+            Gauge.builder("conecta.threads.montadas", monitor, m -> valor(m.estatisticas().threadsMontadas()))
+                    .register(registry);
+            Gauge.builder("conecta.threads.fila", monitor, m -> valor(m.estatisticas().threadsNaFila()))
+                    .register(registry);
+            contador(registry, "conecta.threads.fixacoes", monitor, m -> m.estatisticas().fixacoes());
+            Gauge.builder("conecta.threads.conexoes.aguardando", monitor, m -> m.estatisticas().conexoes() == null
+                            ? Double.NaN
+                            : m.estatisticas().conexoes().aguardando())
+                    .description("Threads aguardando uma das conexões limitadas")
+                    .register(registry);
+        };
+    }
+
+    private static <T> void contador(MeterRegistry registry, String nome, T objeto, ToDoubleFunction<T> funcao) {
+        FunctionCounter.builder(nome, objeto, funcao).register(registry);
+    }
+
+    private static double valor(Number numero) {
+        return numero == null ? Double.NaN : numero.doubleValue();
+    }
+}
@@ -15,6 +15,10 @@ import org.springframework.context.annotation.Configuration;
  * - Estratégia STRICT: evita mapeamentos ambíguos
  * - Skip null values: não sobrescreve campos com valores nulos
  * - Field matching: permite mapear campos privados
+ *
+ * Os services usam os mappers explícitos do pacote mappers, que seguem a mesma
+ * semântica skip-null sem reflexão; este bean permanece para conversões pontuais
+ * e como referência no MapeamentoBenchmark.
  */
 @Configuration
 public class ModelMapperConfig {
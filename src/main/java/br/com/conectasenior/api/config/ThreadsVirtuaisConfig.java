@@ -0,0 +1,38 @@
+package br.com.conectasenior.api.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Ajustes do modo em threads virtuais (spring.threads.virtual.enabled=true)
+ *
+ * O próprio Spring Boot passa o Tomcat, o executor de @Async e o agendador de
+ * @Scheduled para threads virtuais; aqui o DataSource ganha a fila de
+ * LimiteConexoesDataSource, que substitui o limite que os 200 threads do
+ * Tomcat impunham ao pool de conexões.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ThreadsVirtuaisConfig {
+
+    @Bean
+    public static BeanPostProcessor limiteConexoesPostProcessor(ObjectProvider<ThreadsVirtuaisProperties> propriedades) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof LimiteConexoesDataSource)) {
+                    ThreadsVirtuaisProperties configuracao = propriedades.getObject();
+                    return new LimiteConexoesDataSource(dataSource, configuracao.getLimiteConexoes(),
+                            configuracao.getEsperaConexao());
+                }
+                return bean;
+            }
+        };
+    }
+}
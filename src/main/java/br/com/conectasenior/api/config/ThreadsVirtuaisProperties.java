@@ -0,0 +1,38 @@
+package br.com.conectasenior.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Modo de execução em threads virtuais, ligado por spring.threads.virtual.enabled
+ * (ThreadsVirtuaisConfig e ThreadsVirtuaisMonitor)
+ *
+ *   threads.virtuais.limite-conexoes=0
+ *   threads.virtuais.espera-conexao=20s
+ *   threads.virtuais.monitorar-fixacao=true
+ *   threads.virtuais.limiar-fixacao=20ms
+ */
+@Data
+@ConfigurationProperties(prefix = "threads.virtuais")
+public class ThreadsVirtuaisProperties {
+
+    /**
+     * Máximo de threads com conexão JDBC ao mesmo tempo; 0 usa o tamanho do pool
+     * do Hikari. As demais aguardam em fila, na ordem de chegada
+     */
+    private int limiteConexoes = 0;
+
+    /**
+     * Espera máxima na fila por uma conexão antes de a requisição falhar
+     */
+    private Duration esperaConexao = Duration.ofSeconds(20);
+
+    /**
+     * Registra (JFR) as threads virtuais presas ao carrier por mais que limiar-fixacao
+     */
+    private boolean monitorarFixacao = true;
+
+    private Duration limiarFixacao = Duration.ofMillis(20);
+}
@@ -0,0 +1,111 @@
+package br.com.conectasenior.api.controllers;
+
+import br.com.conectasenior.api.security.TokenVerificadoCache;
+import br.com.conectasenior.api.services.AdesaoRotinaBackfillService;
+import br.com.conectasenior.api.services.AuthService;
+import br.com.conectasenior.api.services.BuscaIdosoService;
+import br.com.conectasenior.api.services.CacheSegundoNivelService;
+import br.com.conectasenior.api.services.ResumoSaudeBackfillService;
+import br.com.conectasenior.api.services.ThreadsVirtuaisMonitor;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controller REST para operações administrativas e diagnóstico
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Administração", description = "API para diagnóstico e operações administrativas")
+@PreAuthorize("hasRole('ADMINISTRADOR')")
+public class AdminController {
+
+    private final TokenVerificadoCache tokenVerificadoCache;
+    private final ResumoSaudeBackfillService resumoSaudeBackfillService;
+    private final AdesaoRotinaBackfillService adesaoRotinaBackfillService;
+    private final CacheSegundoNivelService cacheSegundoNivelService;
+    private final ThreadsVirtuaisMonitor threadsVirtuaisMonitor;
+    private final BuscaIdosoService buscaIdosoService;
+    private final AuthService authService;
+
+    @Operation(summary = "Desativa um usuário e revoga os tokens já emitidos para ele")
+    @PatchMapping("/usuarios/{id}/desativar")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void desativarUsuario(@PathVariable Long id) {
+        log.info("PATCH /api/admin/usuarios/{}/desativar", id);
+        authService.desativarUsuario(id);
+    }
+
+    @Operation(summary = "Estatísticas do cache de tokens verificados")
+    @GetMapping("/cache/tokens")
+    public TokenVerificadoCache.Estatisticas estatisticasCacheTokens() {
+        log.info("GET /api/admin/cache/tokens");
+        return tokenVerificadoCache.estatisticas();
+    }
+
+    @Operation(summary = "Esvazia o cache de tokens verificados")
+    @DeleteMapping("/cache/tokens")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void limparCacheTokens() {
+        log.info("DELETE /api/admin/cache/tokens");
+        tokenVerificadoCache.limpar();
+    }
+
+    @Operation(summary = "Estatísticas do cache de segundo nível (entidades e consultas)")
+    @GetMapping("/cache/entidades")
+    public List<CacheSegundoNivelService.Estatisticas> estatisticasCacheEntidades() {
+        log.info("GET /api/admin/cache/entidades");
+        return cacheSegundoNivelService.estatisticas();
+    }
+
+    @Operation(summary = "Esvazia o cache de segundo nível")
+    @DeleteMapping("/cache/entidades")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void limparCacheEntidades() {
+        log.info("DELETE /api/admin/cache/entidades");
+        cacheSegundoNivelService.limpar();
+    }
+
+    @Operation(summary = "Modo de execução (threads virtuais ou de plataforma), carriers, fixações e fila de conexões")
+    @GetMapping("/threads")
+    public ThreadsVirtuaisMonitor.Estatisticas estatisticasThreads() {
+        log.info("GET /api/admin/threads");
+        return threadsVirtuaisMonitor.estatisticas();
+    }
+
+    @Operation(summary = "Reconstrói os resumos de saúde a partir dos registros brutos")
+    @PostMapping("/resumos-saude/reconstruir")
+    public ResumoSaudeBackfillService.Resultado reconstruirResumosSaude() {
+        log.info("POST /api/admin/resumos-saude/reconstruir");
+        return resumoSaudeBackfillService.reconstruirTodos();
+    }
+
+    @Operation(summary = "Reconstrói os contadores diários de adesão às rotinas a partir das execuções")
+    @PostMapping("/adesao-rotinas/reconstruir")
+    public AdesaoRotinaBackfillService.Resultado reconstruirAdesaoRotinas() {
+        log.info("POST /api/admin/adesao-rotinas/reconstruir");
+        return adesaoRotinaBackfillService.reconstruirTodos();
+    }
+
+    @Operation(summary = "Modo da busca de idosos (Postgres ou índice em memória) e idosos indexados")
+    @GetMapping("/busca-idosos")
+    public BuscaIdosoService.Estado estadoBuscaIdosos() {
+        log.info("GET /api/admin/busca-idosos");
+        return buscaIdosoService.estado();
+    }
+
+    @Operation(summary = "Recarrega do banco o índice em memória da busca de idosos")
+    @PostMapping("/busca-idosos/reconstruir")
+    public BuscaIdosoService.Estado reconstruirBuscaIdosos() {
+        log.info("POST /api/admin/busca-idosos/reconstruir");
+        return buscaIdosoService.reconstruir();
+    }
+}
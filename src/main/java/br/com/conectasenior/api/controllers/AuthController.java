@@ -1,6 +1,7 @@
 package br.com.conectasenior.api.controllers;
 
 import br.com.conectasenior.api.dtos.UsuarioDTO;
+import br.com.conectasenior.api.dtos.requests.AlteracaoSenhaRequest;
 import br.com.conectasenior.api.dtos.requests.LoginRequest;
 import br.com.conectasenior.api.dtos.requests.RegistroRequest;
 import br.com.conectasenior.api.dtos.responses.LoginResponse;
@@ -63,4 +64,27 @@ public class AuthController {
 
         return authService.refreshToken(token);
     }
+
+    @Operation(summary = "Troca de senha",
+               description = "Altera a senha do usuário do token, revoga os tokens anteriores e devolve um novo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Senha alterada"),
+        @ApiResponse(responseCode = "400", description = "Senha atual incorreta ou token inválido")
+    })
+    @PostMapping("/senha")
+    public TokenResponse alterarSenha(@RequestHeader("Authorization") String token,
+                                      @Valid @RequestBody AlteracaoSenhaRequest request) {
+        log.info("POST /api/auth/senha - Troca de senha");
+
+        return authService.alterarSenha(token, request);
+    }
+
+    @Operation(summary = "Logout", description = "Revoga o token informado até a sua expiração")
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logout(@RequestHeader("Authorization") String token) {
+        log.info("POST /api/auth/logout - Logout");
+
+        authService.logout(token);
+    }
 }
@@ -0,0 +1,125 @@
+package br.com.conectasenior.api.controllers;
+
+import br.com.conectasenior.api.dtos.EmergenciaCreateDTO;
+import br.com.conectasenior.api.dtos.EmergenciaDTO;
+import br.com.conectasenior.api.dtos.requests.EmergenciaAtendimentoRequest;
+import br.com.conectasenior.api.dtos.requests.EmergenciaResolucaoRequest;
+import br.com.conectasenior.api.entities.Emergencia;
+import br.com.conectasenior.api.services.EmergenciaAtivaIndex;
+import br.com.conectasenior.api.security.UsuarioAutenticado;
+import br.com.conectasenior.api.services.EmergenciaService;
+import br.com.conectasenior.api.services.EmergenciaStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller REST para operações com Emergências
+ */
+@RestController
+@RequestMapping("/api/emergencias")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Emergências", description = "API para abertura e acompanhamento de emergências dos idosos")
+public class EmergenciaController {
+
+    private final EmergenciaService emergenciaService;
+    private final EmergenciaStreamService emergenciaStreamService;
+
+    @Operation(summary = "Abre uma emergência")
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO', 'FAMILIAR')")
+    public EmergenciaDTO abrir(@Valid @RequestBody EmergenciaCreateDTO createDTO) {
+        log.info("POST /api/emergencias - Idoso ID: {}, Tipo: {}", createDTO.getIdosoId(), createDTO.getTipo());
+        return emergenciaService.abrir(createDTO);
+    }
+
+    @Operation(summary = "Busca emergência por ID")
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO', 'FAMILIAR')")
+    public EmergenciaDTO findById(@Parameter(description = "ID da emergência") @PathVariable Long id) {
+        log.info("GET /api/emergencias/{}", id);
+        return emergenciaService.findById(id);
+    }
+
+    @Operation(summary = "Histórico de emergências de um idoso")
+    @GetMapping("/idoso/{idosoId}")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO', 'FAMILIAR')")
+    public Page<EmergenciaDTO> findByIdoso(@Parameter(description = "ID do idoso") @PathVariable Long idosoId,
+                                           @PageableDefault(size = 20) Pageable pageable) {
+        log.info("GET /api/emergencias/idoso/{}", idosoId);
+        return emergenciaService.findByIdoso(idosoId, pageable);
+    }
+
+    @Operation(summary = "Emergências em andamento",
+               description = "Ativas ou em atendimento, das mais graves para as menos graves, consultadas em memória")
+    @GetMapping("/em-andamento")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
+    public List<EmergenciaAtivaIndex.EmergenciaAtiva> findEmAndamento(
+            @Parameter(description = "Filtra por idoso") @RequestParam(required = false) Long idosoId,
+            @Parameter(description = "Gravidade mínima") @RequestParam(required = false) Emergencia.NivelGravidade gravidadeMinima) {
+        log.info("GET /api/emergencias/em-andamento?idosoId={}&gravidadeMinima={}", idosoId, gravidadeMinima);
+        return emergenciaService.findEmAndamento(idosoId, gravidadeMinima);
+    }
+
+    @Operation(summary = "Quantidade de emergências em andamento por gravidade")
+    @GetMapping("/em-andamento/total")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
+    public Map<Emergencia.NivelGravidade, Integer> contarEmAndamento() {
+        log.info("GET /api/emergencias/em-andamento/total");
+        return emergenciaService.contarEmAndamentoPorGravidade();
+    }
+
+    @Operation(summary = "Acompanha emergências em tempo real (Server-Sent Events)",
+               description = "Envia um evento 'snapshot' com as emergências em andamento e, em seguida, eventos "
+                       + "'emergencia' a cada abertura ou mudança de estado e 'lembrete' a cada lembrete de "
+                       + "rotina dos idosos vinculados ao usuário")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO', 'FAMILIAR')")
+    public SseEmitter acompanhar(@AuthenticationPrincipal UsuarioAutenticado usuario) {
+        log.info("GET /api/emergencias/stream - Usuário ID: {}", usuario.id());
+        return emergenciaStreamService.assinar(usuario);
+    }
+
+    @Operation(summary = "Eleva a gravidade da emergência em um nível")
+    @PatchMapping("/{id}/escalar")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
+    public EmergenciaDTO escalar(@Parameter(description = "ID da emergência") @PathVariable Long id) {
+        log.info("PATCH /api/emergencias/{}/escalar", id);
+        return emergenciaService.escalar(id);
+    }
+
+    @Operation(summary = "Inicia o atendimento da emergência")
+    @PatchMapping("/{id}/atender")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
+    public EmergenciaDTO atender(@Parameter(description = "ID da emergência") @PathVariable Long id,
+                                 @Valid @RequestBody(required = false) EmergenciaAtendimentoRequest request) {
+        log.info("PATCH /api/emergencias/{}/atender", id);
+        return emergenciaService.atender(id, request != null ? request.getContatoAcionado() : null);
+    }
+
+    @Operation(summary = "Resolve a emergência")
+    @PatchMapping("/{id}/resolver")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
+    public EmergenciaDTO resolver(@Parameter(description = "ID da emergência") @PathVariable Long id,
+                                  @Valid @RequestBody EmergenciaResolucaoRequest request) {
+        log.info("PATCH /api/emergencias/{}/resolver", id);
+        return emergenciaService.resolver(id, request.getResolucao());
+    }
+}
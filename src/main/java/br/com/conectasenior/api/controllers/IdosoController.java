@@ -1,6 +1,9 @@
 package br.com.conectasenior.api.controllers;
 
 import br.com.conectasenior.api.dtos.IdosoDTO;
+import br.com.conectasenior.api.dtos.ResultadoBuscaIdosoDTO;
+import br.com.conectasenior.api.dtos.responses.PaginaCursorResponse;
+import br.com.conectasenior.api.services.BuscaIdosoService;
 import br.com.conectasenior.api.services.IdosoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -33,6 +36,7 @@ import java.util.List;
 public class IdosoController {
 
     private final IdosoService idosoService;
+    private final BuscaIdosoService buscaIdosoService;
 
     @Operation(summary = "Lista todos os idosos", description = "Retorna lista paginada de todos os idosos cadastrados")
     @ApiResponses(value = {
@@ -46,6 +50,18 @@ public class IdosoController {
         return idosoService.findAll(pageable);
     }
 
+    @Operation(summary = "Lista os idosos por cursor, em ordem de nome",
+               description = "Cada página custa o mesmo que a primeira; siga proximoCursor até ele vir nulo")
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
+    public PaginaCursorResponse<IdosoDTO> findAllCursor(
+            @Parameter(description = "Cursor devolvido pela página anterior (vazio na primeira)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Itens por página (máximo 200)") @RequestParam(defaultValue = "50") int tamanho,
+            @Parameter(description = "Inclui o total de idosos (COUNT adicional)") @RequestParam(defaultValue = "false") boolean total) {
+        log.info("GET /api/idosos/cursor - Tamanho: {}", tamanho);
+        return idosoService.findAllCursor(cursor, tamanho, total);
+    }
+
     @Operation(summary = "Busca idoso por ID", description = "Retorna um idoso específico pelo seu ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Idoso encontrado"),
@@ -72,7 +88,25 @@ public class IdosoController {
         return idosoService.findByCpf(cpf);
     }
 
-    @Operation(summary = "Busca idosos por nome", description = "Retorna lista paginada de idosos que contenham o nome especificado")
+    @Operation(summary = "Busca idosos por nome, endereço ou parte deles",
+               description = "Ignora acentos e caixa, aceita prefixos e pequenos erros de digitação; "
+                       + "os mais relevantes primeiro")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Termo ou limite inválidos"),
+        @ApiResponse(responseCode = "403", description = "Acesso negado")
+    })
+    @GetMapping("/busca")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
+    public List<ResultadoBuscaIdosoDTO> buscar(
+            @Parameter(description = "Termo de busca (ao menos 2 letras ou dígitos)") @RequestParam String termo,
+            @Parameter(description = "Máximo de resultados") @RequestParam(defaultValue = "20") int limite) {
+        log.info("GET /api/idosos/busca?termo={}", termo);
+        return buscaIdosoService.buscar(termo, limite);
+    }
+
+    @Operation(summary = "Busca idosos por nome", description = "Retorna lista paginada de idosos que contenham o nome especificado. "
+               + "Percorre a tabela inteira; use GET /api/idosos/busca", deprecated = true)
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso"),
         @ApiResponse(responseCode = "403", description = "Acesso negado")
@@ -130,18 +164,33 @@ public class IdosoController {
         idosoService.delete(id);
     }
 
-    @Operation(summary = "Busca idosos por faixa etária", description = "Retorna idosos dentro de uma faixa etária específica")
+    @Operation(summary = "Busca idosos por faixa etária", description = "Retorna lista paginada de idosos dentro de uma faixa etária específica")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso"),
         @ApiResponse(responseCode = "403", description = "Acesso negado")
     })
     @GetMapping("/idade")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
-    public List<IdosoDTO> findByIdadeEntre(
+    public Page<IdosoDTO> findByIdadeEntre(
             @Parameter(description = "Idade mínima") @RequestParam int idadeMinima,
-            @Parameter(description = "Idade máxima") @RequestParam int idadeMaxima) {
+            @Parameter(description = "Idade máxima") @RequestParam int idadeMaxima,
+            @PageableDefault(size = 20, sort = "nome") Pageable pageable) {
         log.info("GET /api/idosos/idade?idadeMinima={}&idadeMaxima={}", idadeMinima, idadeMaxima);
-        return idosoService.findByIdadeEntre(idadeMinima, idadeMaxima);
+        return idosoService.findByIdadeEntre(idadeMinima, idadeMaxima, pageable);
+    }
+
+    @Operation(summary = "Conta idosos por faixa etária", description = "Retorna a quantidade de idosos dentro de uma faixa etária específica")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Contagem retornada com sucesso"),
+        @ApiResponse(responseCode = "403", description = "Acesso negado")
+    })
+    @GetMapping("/idade/total")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
+    public long countByIdadeEntre(
+            @Parameter(description = "Idade mínima") @RequestParam int idadeMinima,
+            @Parameter(description = "Idade máxima") @RequestParam int idadeMaxima) {
+        log.info("GET /api/idosos/idade/total?idadeMinima={}&idadeMaxima={}", idadeMinima, idadeMaxima);
+        return idosoService.countIdososPorFaixaEtaria(idadeMinima, idadeMaxima);
     }
 
     @Operation(summary = "Busca idosos com emergências ativas", description = "Retorna idosos que possuem emergências em andamento")
@@ -1,6 +1,12 @@
 package br.com.conectasenior.api.controllers;
 
+import br.com.conectasenior.api.dtos.AdesaoRotinaDTO;
+import br.com.conectasenior.api.dtos.ExecucaoRotinaDTO;
+import br.com.conectasenior.api.dtos.RelatorioAdesaoDTO;
 import br.com.conectasenior.api.dtos.RotinaDTO;
+import br.com.conectasenior.api.dtos.requests.ExecucaoRotinaRequest;
+import br.com.conectasenior.api.dtos.responses.PaginaCursorResponse;
+import br.com.conectasenior.api.services.AdesaoRotinaService;
 import br.com.conectasenior.api.services.RotinaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,10 +17,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -28,15 +36,28 @@ import java.util.List;
 public class RotinaController {
 
     private final RotinaService rotinaService;
+    private final AdesaoRotinaService adesaoRotinaService;
 
     @Operation(summary = "Lista todas as rotinas")
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
-    public Page<RotinaDTO> findAll(@PageableDefault(size = 20, sort = "nome") Pageable pageable) {
+    public Page<RotinaDTO> findAll(@PageableDefault(size = 20, sort = "titulo") Pageable pageable) {
         log.info("GET /api/rotinas - Página: {}, Tamanho: {}", pageable.getPageNumber(), pageable.getPageSize());
         return rotinaService.findAll(pageable);
     }
 
+    @Operation(summary = "Lista as rotinas ativas por cursor, em ordem de nome",
+               description = "Cada página custa o mesmo que a primeira; siga proximoCursor até ele vir nulo")
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
+    public PaginaCursorResponse<RotinaDTO> findAllCursor(
+            @Parameter(description = "Cursor devolvido pela página anterior (vazio na primeira)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Itens por página (máximo 200)") @RequestParam(defaultValue = "50") int tamanho,
+            @Parameter(description = "Inclui o total de rotinas ativas (COUNT adicional)") @RequestParam(defaultValue = "false") boolean total) {
+        log.info("GET /api/rotinas/cursor - Tamanho: {}", tamanho);
+        return rotinaService.findAllCursor(cursor, tamanho, total);
+    }
+
     @Operation(summary = "Busca rotina por ID")
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO', 'FAMILIAR')")
@@ -53,6 +74,15 @@ public class RotinaController {
         return rotinaService.findByIdoso(idosoId);
     }
 
+    @Operation(summary = "Busca rotinas do idoso que ocorrem nos dias informados (ex.: SEG ou SAB,DOM)")
+    @GetMapping("/idoso/{idosoId}/dias/{diasSemana}")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO', 'FAMILIAR')")
+    public List<RotinaDTO> findByIdosoEDiasSemana(@Parameter(description = "ID do idoso") @PathVariable Long idosoId,
+                                                  @Parameter(description = "Dias da semana") @PathVariable String diasSemana) {
+        log.info("GET /api/rotinas/idoso/{}/dias/{}", idosoId, diasSemana);
+        return rotinaService.findRotinasPorDiaSemana(idosoId, diasSemana);
+    }
+
     @Operation(summary = "Busca rotinas por tipo")
     @GetMapping("/tipo/{tipo}")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
@@ -88,19 +118,59 @@ public class RotinaController {
         rotinaService.delete(id);
     }
 
-    @Operation(summary = "Marca execução de rotina")
+    @Operation(summary = "Marca execução de rotina (gravada em lote logo em seguida)")
     @PostMapping("/{id}/executar")
+    @ResponseStatus(HttpStatus.ACCEPTED)
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'FAMILIAR')")
-    public void marcarExecucao(@Parameter(description = "ID da rotina") @PathVariable Long id) {
+    public ExecucaoRotinaDTO marcarExecucao(@Parameter(description = "ID da rotina") @PathVariable Long id,
+                                            @Valid @RequestBody(required = false) ExecucaoRotinaRequest request) {
         log.info("POST /api/rotinas/{}/executar", id);
-        rotinaService.marcarExecucao(id);
+        return rotinaService.marcarExecucao(id, request != null ? request : new ExecucaoRotinaRequest());
+    }
+
+    @Operation(summary = "Lista execuções gravadas da rotina")
+    @GetMapping("/{id}/execucoes")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO', 'FAMILIAR')")
+    public List<ExecucaoRotinaDTO> findExecucoes(@Parameter(description = "ID da rotina") @PathVariable Long id) {
+        log.info("GET /api/rotinas/{}/execucoes", id);
+        return rotinaService.findExecucoes(id);
+    }
+
+    @Operation(summary = "Quantidade de execuções da rotina por status")
+    @GetMapping("/{id}/adesao")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO', 'FAMILIAR')")
+    public AdesaoRotinaDTO findAdesao(@Parameter(description = "ID da rotina") @PathVariable Long id) {
+        log.info("GET /api/rotinas/{}/adesao", id);
+        return rotinaService.findAdesao(id);
+    }
+
+    @Operation(summary = "Adesão às rotinas de um idoso nos últimos dias (ex.: 7, 30, 90)")
+    @GetMapping("/adesao/idoso/{idosoId}")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO', 'FAMILIAR')")
+    public RelatorioAdesaoDTO relatorioAdesaoPorIdoso(@Parameter(description = "ID do idoso") @PathVariable Long idosoId,
+                                                      @RequestParam(defaultValue = "30") int dias) {
+        log.info("GET /api/rotinas/adesao/idoso/{}?dias={}", idosoId, dias);
+        return adesaoRotinaService.relatorioPorIdoso(idosoId, dias);
+    }
+
+    @Operation(summary = "Adesão às rotinas dos idosos vinculados a um cuidador nos últimos dias")
+    @GetMapping("/adesao/cuidador/{usuarioId}")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
+    public RelatorioAdesaoDTO relatorioAdesaoPorCuidador(@Parameter(description = "ID do usuário cuidador") @PathVariable Long usuarioId,
+                                                         @RequestParam(defaultValue = "30") int dias) {
+        log.info("GET /api/rotinas/adesao/cuidador/{}?dias={}", usuarioId, dias);
+        return adesaoRotinaService.relatorioPorCuidador(usuarioId, dias);
     }
 
-    @Operation(summary = "Busca rotinas pendentes por data")
+    @Operation(summary = "Busca rotinas previstas para a data ainda sem execução, opcionalmente de um idoso ou cuidador")
     @GetMapping("/pendentes")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
-    public List<RotinaDTO> findRotinasPendentes(@RequestParam String data) {
-        log.info("GET /api/rotinas/pendentes?data={}", data);
-        return rotinaService.findRotinasPendentes(data);
+    public Page<RotinaDTO> findRotinasPendentes(
+            @Parameter(description = "Data (yyyy-MM-dd)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data,
+            @Parameter(description = "ID do idoso") @RequestParam(required = false) Long idosoId,
+            @Parameter(description = "ID do cuidador (usuário vinculado aos idosos)") @RequestParam(required = false) Long cuidadorId,
+            @PageableDefault(size = 50, sort = {"horario", "id"}) Pageable pageable) {
+        log.info("GET /api/rotinas/pendentes?data={}&idosoId={}&cuidadorId={}", data, idosoId, cuidadorId);
+        return rotinaService.findRotinasPendentes(data, idosoId, cuidadorId, pageable);
     }
 }
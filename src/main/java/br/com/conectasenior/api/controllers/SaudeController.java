@@ -1,6 +1,16 @@
 package br.com.conectasenior.api.controllers;
 
 import br.com.conectasenior.api.dtos.RegistroSaudeDTO;
+import br.com.conectasenior.api.dtos.ResumoSaudeDTO;
+import br.com.conectasenior.api.dtos.requests.RegistroSaudeLoteRequest;
+import br.com.conectasenior.api.dtos.responses.PaginaCursorResponse;
+import br.com.conectasenior.api.dtos.responses.RegistroSaudeLoteResponse;
+import br.com.conectasenior.api.entities.RegistroSaude;
+import br.com.conectasenior.api.entities.ResumoSaude;
+import br.com.conectasenior.api.exceptions.BusinessException;
+import br.com.conectasenior.api.services.ExportacaoSaudeService;
+import br.com.conectasenior.api.services.IngestaoSaudeService;
+import br.com.conectasenior.api.services.ResumoSaudeService;
 import br.com.conectasenior.api.services.SaudeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,10 +21,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -28,15 +44,30 @@ import java.util.List;
 public class SaudeController {
 
     private final SaudeService saudeService;
+    private final ExportacaoSaudeService exportacaoSaudeService;
+    private final ResumoSaudeService resumoSaudeService;
+    private final IngestaoSaudeService ingestaoSaudeService;
 
     @Operation(summary = "Lista todos os registros de saúde")
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
-    public Page<RegistroSaudeDTO> findAll(@PageableDefault(size = 20, sort = "dataRegistro") Pageable pageable) {
+    public Page<RegistroSaudeDTO> findAll(@PageableDefault(size = 20, sort = "registradoEm") Pageable pageable) {
         log.info("GET /api/saude - Página: {}, Tamanho: {}", pageable.getPageNumber(), pageable.getPageSize());
         return saudeService.findAll(pageable);
     }
 
+    @Operation(summary = "Lista os registros de saúde por cursor, do mais recente ao mais antigo",
+               description = "Cada página custa o mesmo que a primeira; siga proximoCursor até ele vir nulo")
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
+    public PaginaCursorResponse<RegistroSaudeDTO> findAllCursor(
+            @Parameter(description = "Cursor devolvido pela página anterior (vazio na primeira)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Itens por página (máximo 200)") @RequestParam(defaultValue = "50") int tamanho,
+            @Parameter(description = "Inclui o total de registros (COUNT adicional)") @RequestParam(defaultValue = "false") boolean total) {
+        log.info("GET /api/saude/cursor - Tamanho: {}", tamanho);
+        return saudeService.findAllCursor(cursor, tamanho, total);
+    }
+
     @Operation(summary = "Busca registro de saúde por ID")
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO', 'FAMILIAR')")
@@ -50,11 +81,23 @@ public class SaudeController {
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO', 'FAMILIAR')")
     public Page<RegistroSaudeDTO> findByIdoso(
             @Parameter(description = "ID do idoso") @PathVariable Long idosoId,
-            @PageableDefault(size = 50, sort = "dataRegistro") Pageable pageable) {
+            @PageableDefault(size = 50, sort = "registradoEm") Pageable pageable) {
         log.info("GET /api/saude/idoso/{}", idosoId);
         return saudeService.findByIdoso(idosoId, pageable);
     }
 
+    @Operation(summary = "Lista os registros de saúde de um idoso por cursor, do mais recente ao mais antigo")
+    @GetMapping("/idoso/{idosoId}/cursor")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO', 'FAMILIAR')")
+    public PaginaCursorResponse<RegistroSaudeDTO> findByIdosoCursor(
+            @Parameter(description = "ID do idoso") @PathVariable Long idosoId,
+            @Parameter(description = "Cursor devolvido pela página anterior (vazio na primeira)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Itens por página (máximo 200)") @RequestParam(defaultValue = "50") int tamanho,
+            @Parameter(description = "Inclui o total de registros do idoso (COUNT adicional)") @RequestParam(defaultValue = "false") boolean total) {
+        log.info("GET /api/saude/idoso/{}/cursor - Tamanho: {}", idosoId, tamanho);
+        return saudeService.findByIdosoCursor(idosoId, cursor, tamanho, total);
+    }
+
     @Operation(summary = "Busca registros por tipo")
     @GetMapping("/tipo/{tipo}")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
@@ -72,6 +115,15 @@ public class SaudeController {
         return saudeService.create(registroSaudeDTO);
     }
 
+    @Operation(summary = "Cria registros de saúde em lote",
+               description = "Recebe até saude.lote.max-registros leituras de dispositivos; cada item é validado e tem seu próprio resultado")
+    @PostMapping("/lote")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
+    public RegistroSaudeLoteResponse createLote(@Valid @RequestBody RegistroSaudeLoteRequest request) {
+        log.info("POST /api/saude/lote - Recebendo {} registros", request.getRegistros().size());
+        return ingestaoSaudeService.registrarLote(request.getRegistros());
+    }
+
     @Operation(summary = "Atualiza registro de saúde")
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
@@ -101,12 +153,16 @@ public class SaudeController {
         return saudeService.findByPeriodo(dataInicio, dataFim, idosoId);
     }
 
-    @Operation(summary = "Busca registros críticos")
+    @Operation(summary = "Busca registros críticos",
+               description = "Registros fora da faixa de normalidade do tipo nas últimas horas (padrão configurável)")
     @GetMapping("/criticos")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
-    public List<RegistroSaudeDTO> findRegistrosCriticos() {
-        log.info("GET /api/saude/criticos");
-        return saudeService.findRegistrosCriticos();
+    public Page<RegistroSaudeDTO> findRegistrosCriticos(
+            @RequestParam(required = false) RegistroSaude.TipoRegistro tipo,
+            @RequestParam(required = false) Integer horas,
+            @PageableDefault(size = 50) Pageable pageable) {
+        log.info("GET /api/saude/criticos?tipo={}&horas={} - Página: {}", tipo, horas, pageable.getPageNumber());
+        return saudeService.findRegistrosCriticos(tipo, horas, pageable);
     }
 
     @Operation(summary = "Gera relatório de saúde")
@@ -117,4 +173,72 @@ public class SaudeController {
         log.info("GET /api/saude/relatorio/{}?dias={}", idosoId, dias);
         return saudeService.gerarRelatorio(idosoId, dias);
     }
+
+    @Operation(summary = "Resumo do relatório de saúde",
+               description = "Quantidade, média, mínimo e máximo por tipo nos últimos dias, a partir dos resumos diários")
+    @GetMapping("/relatorio/{idosoId}/resumo")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
+    public List<ResumoSaudeDTO> resumirRelatorio(@Parameter(description = "ID do idoso") @PathVariable Long idosoId,
+                                                 @RequestParam(defaultValue = "30") int dias) {
+        log.info("GET /api/saude/relatorio/{}/resumo?dias={}", idosoId, dias);
+        return resumoSaudeService.resumirPorTipo(idosoId, dias);
+    }
+
+    @Operation(summary = "Média de um tipo de registro no período")
+    @GetMapping("/media/{idosoId}")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO', 'FAMILIAR')")
+    public Double calcularMedia(
+            @Parameter(description = "ID do idoso") @PathVariable Long idosoId,
+            @RequestParam String tipo,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
+        log.info("GET /api/saude/media/{}?tipo={}&inicio={}&fim={}", idosoId, tipo, inicio, fim);
+        return saudeService.calcularMediaPorTipoEPeriodo(idosoId, tipo, inicio, fim);
+    }
+
+    @Operation(summary = "Tendência de um tipo de registro",
+               description = "Série de resumos por hora ou por dia (quantidade, média, mínimo e máximo)")
+    @GetMapping("/resumos/{idosoId}")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO', 'FAMILIAR')")
+    public List<ResumoSaudeDTO> listarResumos(
+            @Parameter(description = "ID do idoso") @PathVariable Long idosoId,
+            @RequestParam RegistroSaude.TipoRegistro tipo,
+            @RequestParam(defaultValue = "DIA") ResumoSaude.Granularidade granularidade,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
+        log.info("GET /api/saude/resumos/{}?tipo={}&granularidade={}", idosoId, tipo, granularidade);
+        return resumoSaudeService.listarResumos(idosoId, tipo, granularidade, inicio, fim);
+    }
+
+    @Operation(summary = "Exporta registros de saúde em streaming",
+               description = "Escreve os registros do período (padrão: últimos 30 dias) em NDJSON ou CSV à medida que são lidos do banco")
+    @GetMapping("/exportar/{idosoId}")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'CUIDADOR', 'MEDICO')")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @Parameter(description = "ID do idoso") @PathVariable Long idosoId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(defaultValue = "ndjson") String formato) {
+        log.info("GET /api/saude/exportar/{}?inicio={}&fim={}&formato={}", idosoId, inicio, fim, formato);
+
+        ExportacaoSaudeService.Formato formatoExportacao;
+        try {
+            formatoExportacao = ExportacaoSaudeService.Formato.valueOf(formato.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Formato de exportação inválido: " + formato);
+        }
+
+        LocalDateTime fimPeriodo = fim != null ? fim : LocalDateTime.now();
+        LocalDateTime inicioPeriodo = inicio != null ? inicio : fimPeriodo.minusDays(30);
+        exportacaoSaudeService.validarIdoso(idosoId);
+
+        StreamingResponseBody corpo = saida ->
+                exportacaoSaudeService.exportar(idosoId, inicioPeriodo, fimPeriodo, formatoExportacao, saida);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formatoExportacao.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"registros-saude-" + idosoId + "." + formatoExportacao.getExtensao() + "\"")
+                .body(corpo);
+    }
 }
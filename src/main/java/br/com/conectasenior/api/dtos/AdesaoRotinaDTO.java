@@ -0,0 +1,19 @@
+package br.com.conectasenior.api.dtos;
+
+import br.com.conectasenior.api.entities.ExecucaoRotina;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * DTO com a quantidade de execuções de uma rotina por status
+ */
+@Data
+public class AdesaoRotinaDTO {
+
+    private Long rotinaId;
+
+    private Map<ExecucaoRotina.StatusExecucao, Long> execucoesPorStatus;
+
+    private long total;
+}
@@ -0,0 +1,28 @@
+package br.com.conectasenior.api.dtos;
+
+import br.com.conectasenior.api.entities.Emergencia;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+/**
+ * DTO para abertura de Emergência
+ */
+@Data
+public class EmergenciaCreateDTO {
+
+    @NotNull(message = "Tipo de emergência é obrigatório")
+    private Emergencia.TipoEmergencia tipo;
+
+    @NotBlank(message = "Descrição é obrigatória")
+    @Size(min = 10, max = 1000, message = "Descrição deve ter entre 10 e 1000 caracteres")
+    private String descricao;
+
+    @NotNull(message = "Nível de gravidade é obrigatório")
+    private Emergencia.NivelGravidade gravidade;
+
+    @Size(max = 100, message = "Localização deve ter no máximo 100 caracteres")
+    private String localizacao;
+
+    @NotNull(message = "ID do idoso é obrigatório")
+    private Long idosoId;
+}
@@ -0,0 +1,26 @@
+package br.com.conectasenior.api.dtos;
+
+import br.com.conectasenior.api.entities.ExecucaoRotina;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de leitura das execuções de rotina
+ *
+ * O id fica nulo na resposta do registro: a execução é gravada logo em seguida,
+ * em lote, pelo ExecucaoRotinaBuffer.
+ */
+@Data
+public class ExecucaoRotinaDTO {
+
+    private Long id;
+
+    private Long rotinaId;
+
+    private ExecucaoRotina.StatusExecucao status;
+
+    private LocalDateTime executadoEm;
+
+    private String observacoes;
+}
@@ -4,11 +4,13 @@ import br.com.conectasenior.api.entities.RegistroSaude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 /**
  * DTO para criação de Registros de Saúde
@@ -38,4 +40,8 @@ public class RegistroSaudeCreateDTO {
     @Schema(description = "Observações adicionais", example = "Medição realizada em jejum")
     @Size(max = 500, message = "Observações devem ter no máximo 500 caracteres")
     private String observacoes;
+
+    @Schema(description = "Data/hora da medição; quando omitida, usa o momento do recebimento", example = "2024-05-10T08:30:00")
+    @PastOrPresent(message = "Data/hora do registro não pode estar no futuro")
+    private LocalDateTime dataRegistro;
 }
@@ -0,0 +1,39 @@
+package br.com.conectasenior.api.dtos;
+
+import br.com.conectasenior.api.entities.Rotina;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * DTO do relatório de adesão às rotinas em uma janela de dias
+ *
+ * Para cada recorte (geral, por tipo de rotina e por idoso), "previstas" é o número
+ * de dias-rotina programados na janela e "cumpridas" os dias-rotina com ao menos
+ * uma execução EXECUTADA ou ATRASADA; o percentual é cumpridas / previstas.
+ */
+@Data
+public class RelatorioAdesaoDTO {
+
+    private LocalDate inicio;
+
+    private LocalDate fim;
+
+    private Indicador geral;
+
+    private Map<Rotina.TipoRotina, Indicador> porTipo;
+
+    private Map<Long, Indicador> porIdoso;
+
+    @Data
+    public static class Indicador {
+        private long previstas;
+        private long cumpridas;
+        private long executadas;
+        private long atrasadas;
+        private long puladas;
+        private long parciais;
+        private Double percentual;
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.conectasenior.api.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de um idoso encontrado pela busca por nome ou endereço
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoBuscaIdosoDTO {
+
+    private Long id;
+
+    private String nome;
+
+    private String endereco;
+
+    /**
+     * Similaridade com o termo, de 0 a 1 (endereço pesa 0,8)
+     */
+    private double relevancia;
+}
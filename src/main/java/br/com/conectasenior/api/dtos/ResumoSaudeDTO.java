@@ -0,0 +1,31 @@
+package br.com.conectasenior.api.dtos;
+
+import br.com.conectasenior.api.entities.RegistroSaude;
+import br.com.conectasenior.api.entities.ResumoSaude;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO de leitura dos resumos (mínimo, máximo, média e quantidade) de registros de saúde
+ */
+@Data
+public class ResumoSaudeDTO {
+
+    private Long idosoId;
+
+    private RegistroSaude.TipoRegistro tipo;
+
+    private ResumoSaude.Granularidade granularidade;
+
+    private LocalDateTime inicioPeriodo;
+
+    private Long quantidade;
+
+    private BigDecimal media;
+
+    private BigDecimal minimo;
+
+    private BigDecimal maximo;
+}
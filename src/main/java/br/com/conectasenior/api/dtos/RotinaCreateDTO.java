@@ -29,6 +29,10 @@ public class RotinaCreateDTO {
     @NotNull(message = "Horário é obrigatório")
     private LocalDateTime horario;
 
+    @Schema(description = "Dias da semana em que a rotina ocorre; vazio equivale a todos os dias", example = "SEG,QUA,SEX")
+    @Size(max = 200, message = "Dias da semana deve ter no máximo 200 caracteres")
+    private String diasSemana;
+
     @Schema(description = "Tipo da rotina", example = "MEDICACAO")
     @NotNull(message = "Tipo é obrigatório")
     private Rotina.TipoRotina tipo;
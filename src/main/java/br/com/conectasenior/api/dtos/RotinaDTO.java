@@ -28,6 +28,9 @@ public class RotinaDTO {
     @NotNull(message = "Horário é obrigatório")
     private LocalDateTime horario;
 
+    @Size(max = 200, message = "Dias da semana deve ter no máximo 200 caracteres")
+    private String diasSemana; // Ex: "SEG,TER,QUA" ou "TODOS"
+
     private Boolean recorrente;
     private Boolean ativa;
 
@@ -0,0 +1,16 @@
+package br.com.conectasenior.api.dtos.requests;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class AlteracaoSenhaRequest {
+
+    @NotBlank(message = "Senha atual é obrigatória")
+    private String senhaAtual;
+
+    @NotBlank(message = "Nova senha é obrigatória")
+    @Size(min = 6, max = 50, message = "Senha deve ter entre 6 e 50 caracteres")
+    private String novaSenha;
+}
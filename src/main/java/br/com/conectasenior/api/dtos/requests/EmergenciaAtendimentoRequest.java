@@ -0,0 +1,17 @@
+package br.com.conectasenior.api.dtos.requests;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * Início do atendimento de uma emergência
+ */
+@Data
+@Schema(description = "Dados do atendimento de uma emergência")
+public class EmergenciaAtendimentoRequest {
+
+    @Schema(description = "Contato acionado para o atendimento", example = "SAMU 192")
+    @Size(max = 100, message = "Contato acionado deve ter no máximo 100 caracteres")
+    private String contatoAcionado;
+}
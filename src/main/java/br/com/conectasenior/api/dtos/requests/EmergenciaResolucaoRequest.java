@@ -0,0 +1,19 @@
+package br.com.conectasenior.api.dtos.requests;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * Encerramento de uma emergência
+ */
+@Data
+@Schema(description = "Dados da resolução de uma emergência")
+public class EmergenciaResolucaoRequest {
+
+    @Schema(description = "Como a emergência foi resolvida", example = "Idoso atendido no local, sem necessidade de remoção")
+    @NotBlank(message = "Resolução é obrigatória")
+    @Size(max = 500, message = "Resolução deve ter no máximo 500 caracteres")
+    private String resolucao;
+}
@@ -0,0 +1,29 @@
+package br.com.conectasenior.api.dtos.requests;
+
+import br.com.conectasenior.api.entities.ExecucaoRotina;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro da execução de uma rotina; todos os campos são opcionais
+ */
+@Data
+@Schema(description = "Dados da execução de uma rotina")
+public class ExecucaoRotinaRequest {
+
+    @Schema(description = "Status da execução; quando omitido, EXECUTADA ou ATRASADA conforme o horário da rotina",
+            example = "EXECUTADA")
+    private ExecucaoRotina.StatusExecucao status;
+
+    @Schema(description = "Momento da execução; quando omitido, o momento da requisição", example = "2024-01-01T08:05:00")
+    @PastOrPresent(message = "Data/hora de execução não pode estar no futuro")
+    private LocalDateTime executadoEm;
+
+    @Schema(description = "Observações sobre a execução", example = "Tomou com suco")
+    @Size(max = 300, message = "Observações devem ter no máximo 300 caracteres")
+    private String observacoes;
+}
@@ -0,0 +1,22 @@
+package br.com.conectasenior.api.dtos.requests;
+
+import br.com.conectasenior.api.dtos.RegistroSaudeCreateDTO;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Lote de registros de saúde enviado por dispositivos
+ *
+ * Os itens não são validados na entrada: cada um é validado no service e
+ * recebe seu próprio resultado, sem invalidar o restante do lote.
+ */
+@Data
+@Schema(description = "Lote de registros de saúde")
+public class RegistroSaudeLoteRequest {
+
+    @NotEmpty(message = "O lote deve conter ao menos um registro")
+    private List<RegistroSaudeCreateDTO> registros;
+}
@@ -0,0 +1,21 @@
+package br.com.conectasenior.api.dtos.responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Página de uma listagem por cursor: proximoCursor é nulo na última página e total
+ * só vem quando pedido (total=true)
+ */
+@Data
+@AllArgsConstructor
+public class PaginaCursorResponse<T> {
+    private List<T> conteudo;
+    private int tamanho;
+    private String proximoCursor;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long total;
+}
@@ -0,0 +1,27 @@
+package br.com.conectasenior.api.dtos.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class RegistroSaudeLoteResponse {
+    private int recebidos;
+    private int aceitos;
+    private int rejeitados;
+    private List<Item> resultados;
+
+    /**
+     * Resultado de um item do lote, na mesma posição (indice) em que foi enviado
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Item {
+        private int indice;
+        private Long id;
+        private boolean aceito;
+        private List<String> erros;
+    }
+}
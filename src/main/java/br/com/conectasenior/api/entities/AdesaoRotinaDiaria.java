@@ -0,0 +1,66 @@
+package br.com.conectasenior.api.entities;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entidade AdesaoRotinaDiaria - Execuções de uma rotina em um dia, por status
+ *
+ * Mantida incrementalmente a cada lote de execuções gravado e reconstruível a
+ * partir de execucoes_rotina. O idoso e o tipo da rotina são copiados para que os
+ * relatórios de adesão por idoso, tipo ou cuidador somem poucas linhas sem
+ * consultar as execuções.
+ */
+@Entity
+@Table(name = "adesao_rotina_diaria",
+    uniqueConstraints = @UniqueConstraint(name = "uk_adesao_rotina_diaria", columnNames = {"rotina_id", "dia"}),
+    indexes = @Index(name = "idx_adesao_rotina_diaria_idoso_dia", columnList = "idoso_id, dia"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdesaoRotinaDiaria {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "rotina_id", nullable = false)
+    private Long rotinaId;
+
+    @NotNull
+    @Column(name = "idoso_id", nullable = false)
+    private Long idosoId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Rotina.TipoRotina tipo;
+
+    @NotNull
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Column(nullable = false)
+    private Integer executadas;
+
+    @Column(nullable = false)
+    private Integer atrasadas;
+
+    @Column(nullable = false)
+    private Integer puladas;
+
+    @Column(nullable = false)
+    private Integer parciais;
+
+    @UpdateTimestamp
+    @Column(name = "atualizado_em", nullable = false)
+    private LocalDateTime atualizadoEm;
+}
@@ -5,6 +5,8 @@ import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -17,13 +19,14 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "contatos_emergencia")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contatos-emergencia")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ContatoEmergencia {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenciaPooled("contatos_emergencia_seq")
     private Long id;
 
     @NotBlank(message = "Nome do contato é obrigatório")
@@ -0,0 +1,136 @@
+package br.com.conectasenior.api.entities;
+
+import java.text.Normalizer;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Conversão entre o texto de dias da semana exposto pela API ("SEG,TER,QUA",
+ * "TODOS") e a máscara de bits gravada em Rotina.diasSemanaMascara
+ *
+ * Cada dia ocupa um bit, de segunda (bit 0) a domingo (bit 6). Aceita siglas
+ * ou nomes por extenso, com ou sem acento; valor vazio equivale a todos os dias.
+ * Termos que não são dias recusam o texto inteiro, para "SEG,XYZ" não virar só SEG.
+ */
+public final class DiasSemana {
+
+    public static final int NENHUM = 0;
+    public static final int TODOS = 0b111_1111;
+
+    private static final String[] SIGLAS = {"SEG", "TER", "QUA", "QUI", "SEX", "SAB", "DOM"};
+
+    private DiasSemana() {
+    }
+
+    public static int bit(DayOfWeek dia) {
+        return 1 << (dia.getValue() - 1);
+    }
+
+    public static boolean contem(int mascara, DayOfWeek dia) {
+        return (mascara & bit(dia)) != 0;
+    }
+
+    /**
+     * Máscara dos dias descritos no texto
+     *
+     * @throws IllegalArgumentException com os termos não reconhecidos, se houver algum
+     */
+    public static int mascara(String diasSemana) {
+        if (diasSemana == null || diasSemana.isBlank()) {
+            return TODOS;
+        }
+
+        int mascara = NENHUM;
+        List<String> invalidos = new ArrayList<>();
+        for (String termo : diasSemana.trim().split("[,;\\s]+")) {
+            if (termo.isEmpty()) {
+                continue;
+            }
+            int dia = dia(normalizar(termo));
+            if (dia == NENHUM) {
+                invalidos.add(termo);
+            }
+            mascara |= dia;
+        }
+        if (!invalidos.isEmpty()) {
+            throw new IllegalArgumentException("Dias da semana não reconhecidos: " + String.join(", ", invalidos));
+        }
+        return mascara;
+    }
+
+    /**
+     * Quantidade de dias do intervalo [de, ate] que caem nos dias da máscara
+     */
+    public static long contarDias(int mascara, LocalDate de, LocalDate ate) {
+        if (ate.isBefore(de)) {
+            return NENHUM;
+        }
+        long total = ChronoUnit.DAYS.between(de, ate) + 1;
+        long semanas = total / 7;
+        long dias = semanas * Integer.bitCount(mascara & TODOS);
+        for (LocalDate dia = de.plusDays(semanas * 7); !dia.isAfter(ate); dia = dia.plusDays(1)) {
+            if (contem(mascara, dia.getDayOfWeek())) {
+                dias++;
+            }
+        }
+        return dias;
+    }
+
+    /**
+     * Todas as máscaras válidas que têm algum dia em comum com a informada
+     *
+     * Permite filtrar por dia com "mascara IN (...)", que o banco resolve pelo
+     * índice em vez de avaliar uma operação bit a bit em cada linha.
+     */
+    public static List<Integer> mascarasQueIntersectam(int mascara) {
+        List<Integer> mascaras = new ArrayList<>();
+        for (int candidata = 1; candidata <= TODOS; candidata++) {
+            if ((candidata & mascara) != 0) {
+                mascaras.add(candidata);
+            }
+        }
+        return mascaras;
+    }
+
+    /**
+     * Texto canônico da máscara ("TODOS" ou siglas separadas por vírgula)
+     */
+    public static String descrever(int mascara) {
+        if ((mascara & TODOS) == TODOS) {
+            return "TODOS";
+        }
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < SIGLAS.length; i++) {
+            if ((mascara & (1 << i)) != 0) {
+                texto.append(texto.isEmpty() ? "" : ",").append(SIGLAS[i]);
+            }
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Bits de um termo já normalizado: TODOS, sigla ou nome por extenso
+     */
+    private static int dia(String termo) {
+        if (termo.startsWith("TODOS")) {
+            return TODOS;
+        }
+        for (int i = 0; i < SIGLAS.length; i++) {
+            if (termo.startsWith(SIGLAS[i])) {
+                return 1 << i;
+            }
+        }
+        return NENHUM;
+    }
+
+    private static String normalizar(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toUpperCase(Locale.ROOT)
+                .trim();
+    }
+}
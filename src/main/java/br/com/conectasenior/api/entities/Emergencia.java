@@ -24,7 +24,7 @@ import java.time.LocalDateTime;
 public class Emergencia {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenciaPooled("emergencias_seq")
     private Long id;
 
     @NotNull(message = "Tipo de emergência é obrigatório")
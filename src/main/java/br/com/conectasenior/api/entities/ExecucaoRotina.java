@@ -16,14 +16,16 @@ import java.time.LocalDateTime;
  * padrões de adesão e possíveis problemas no seguimento do tratamento.
  */
 @Entity
-@Table(name = "execucoes_rotina")
+@Table(name = "execucoes_rotina", indexes = {
+    @Index(name = "idx_execucoes_rotina_rotina_executado", columnList = "rotina_id, executado_em")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ExecucaoRotina {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenciaPooled("execucoes_rotina_seq")
     private Long id;
 
     @NotNull(message = "Data/hora de execução é obrigatória")
@@ -5,6 +5,8 @@ import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -20,14 +22,18 @@ import java.util.List;
  * Esta é a entidade principal do domínio, conectada a rotinas, saúde e emergências.
  */
 @Entity
-@Table(name = "idosos")
+@Table(name = "idosos", indexes = {
+    @Index(name = "idx_idosos_data_nascimento", columnList = "data_nascimento"),
+    @Index(name = "idx_idosos_nome_id", columnList = "nome, id")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "idosos")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Idoso {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenciaPooled("idosos_seq")
     private Long id;
 
     @NotBlank(message = "Nome é obrigatório")
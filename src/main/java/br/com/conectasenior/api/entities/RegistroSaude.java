@@ -17,14 +17,18 @@ import java.time.LocalDateTime;
  * e sintomas relatados pelo idoso ou cuidador.
  */
 @Entity
-@Table(name = "registros_saude")
+@Table(name = "registros_saude", indexes = {
+    @Index(name = "idx_registros_saude_tipo_registrado_valor", columnList = "tipo, registrado_em, valor"),
+    @Index(name = "idx_registros_saude_registrado_id", columnList = "registrado_em, id"),
+    @Index(name = "idx_registros_saude_idoso_registrado_id", columnList = "idoso_id, registrado_em, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class RegistroSaude {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenciaPooled("registros_saude_seq")
     private Long id;
 
     @NotNull(message = "Tipo de registro é obrigatório")
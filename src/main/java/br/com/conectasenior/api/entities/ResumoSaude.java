@@ -0,0 +1,85 @@
+package br.com.conectasenior.api.entities;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Entidade ResumoSaude - Agregado de registros de saúde por período
+ *
+ * Guarda quantidade, soma, mínimo e máximo dos valores de um tipo de registro
+ * de um idoso em uma hora ou em um dia, permitindo calcular médias e tendências
+ * sem percorrer os registros brutos. É mantido incrementalmente a cada novo
+ * registro e pode ser reconstruído a partir de registros_saude.
+ */
+@Entity
+@Table(name = "resumos_saude",
+    uniqueConstraints = @UniqueConstraint(name = "uk_resumos_saude_periodo",
+        columnNames = {"idoso_id", "tipo", "granularidade", "inicio_periodo"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoSaude {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "idoso_id", nullable = false)
+    private Long idosoId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private RegistroSaude.TipoRegistro tipo;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Granularidade granularidade;
+
+    @NotNull
+    @Column(name = "inicio_periodo", nullable = false)
+    private LocalDateTime inicioPeriodo;
+
+    @Column(nullable = false)
+    private Long quantidade;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal soma;
+
+    @Column(precision = 7, scale = 2)
+    private BigDecimal minimo;
+
+    @Column(precision = 7, scale = 2)
+    private BigDecimal maximo;
+
+    @UpdateTimestamp
+    @Column(name = "atualizado_em", nullable = false)
+    private LocalDateTime atualizadoEm;
+
+    /**
+     * Tamanho do período agregado
+     */
+    public enum Granularidade {
+        HORA,
+        DIA;
+
+        /**
+         * Início do período (hora ou dia) que contém o instante informado
+         */
+        public LocalDateTime inicioDoPeriodo(LocalDateTime instante) {
+            return this == HORA
+                    ? instante.truncatedTo(ChronoUnit.HOURS)
+                    : instante.truncatedTo(ChronoUnit.DAYS);
+        }
+    }
+}
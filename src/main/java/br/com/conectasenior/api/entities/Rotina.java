@@ -6,7 +6,9 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -20,14 +22,17 @@ import java.util.List;
  * atividades importantes para o bem-estar do idoso.
  */
 @Entity
-@Table(name = "rotinas")
+@Table(name = "rotinas", indexes = {
+    @Index(name = "idx_rotinas_idoso_dias_semana", columnList = "idoso_id, dias_semana_mascara"),
+    @Index(name = "idx_rotinas_ativo_titulo_id", columnList = "ativo, titulo, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Rotina {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenciaPooled("rotinas_seq")
     private Long id;
 
     @NotBlank(message = "Título da rotina é obrigatório")
@@ -48,9 +53,12 @@ public class Rotina {
     @Column(nullable = false)
     private LocalTime horario;
 
-    @Size(max = 200, message = "Dias da semana deve ter no máximo 200 caracteres")
-    @Column(name = "dias_semana", length = 200)
-    private String diasSemana; // Ex: "SEG,TER,QUA" ou "TODOS"
+    @NotNull(message = "Dias da semana são obrigatórios")
+    @Min(value = 1, message = "A rotina deve ocorrer em pelo menos um dia da semana")
+    @Max(value = DiasSemana.TODOS, message = "Máscara de dias da semana inválida")
+    @JdbcTypeCode(SqlTypes.SMALLINT)
+    @Column(name = "dias_semana_mascara", nullable = false)
+    private Integer diasSemanaMascara = DiasSemana.TODOS; // Bits de DiasSemana: SEG = 1 ... DOM = 64
 
     @NotNull(message = "Status ativo é obrigatório")
     @Column(nullable = false)
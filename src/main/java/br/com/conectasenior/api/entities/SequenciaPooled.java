@@ -0,0 +1,28 @@
+package br.com.conectasenior.api.entities;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Gera o id da entidade a partir de uma sequência do banco com alocação em blocos
+ *
+ * O tamanho do bloco vem de {@code conecta-senior.id.allocation-size} (padrão 50) e o
+ * otimizador (pooled ou pooled-lo) de {@code hibernate.id.optimizer.pooled.preferred}.
+ * Sem ida ao banco por linha, os INSERTs podem ser agrupados em lotes JDBC.
+ */
+@IdGeneratorType(SequenciaPooledGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface SequenciaPooled {
+
+    /**
+     * Nome da sequência no banco (ex.: "idosos_seq")
+     */
+    String value();
+}
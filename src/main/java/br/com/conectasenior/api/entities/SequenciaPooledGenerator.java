@@ -0,0 +1,45 @@
+package br.com.conectasenior.api.entities;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+/**
+ * Gerador de ids de {@link SequenciaPooled}
+ *
+ * Reaproveita o SequenceStyleGenerator do Hibernate, fixando o nome da sequência e
+ * lendo o tamanho do bloco das propriedades da aplicação. O valor precisa coincidir
+ * com o INCREMENT BY da sequência no banco (ver sql/migracoes/005_sequencias_entidades.sql).
+ */
+public class SequenciaPooledGenerator extends SequenceStyleGenerator {
+
+    public static final String ALOCACAO_PARAM = "conecta-senior.id.allocation-size";
+    public static final int ALOCACAO_PADRAO = 50;
+
+    private final String sequencia;
+
+    public SequenciaPooledGenerator(SequenciaPooled config, Member member, CustomIdGeneratorCreationContext context) {
+        this.sequencia = config.value();
+    }
+
+    @Override
+    public void configure(Type type, Properties parametros, ServiceRegistry serviceRegistry) throws MappingException {
+        Integer alocacao = serviceRegistry.requireService(ConfigurationService.class)
+            .getSetting(ALOCACAO_PARAM, StandardConverters.INTEGER, ALOCACAO_PADRAO);
+        if (alocacao < 1) {
+            throw new MappingException(ALOCACAO_PARAM + " deve ser maior que zero: " + alocacao);
+        }
+
+        parametros.setProperty(SEQUENCE_PARAM, sequencia);
+        parametros.setProperty(INCREMENT_PARAM, String.valueOf(alocacao));
+        parametros.setProperty(INITIAL_PARAM, "1");
+        super.configure(type, parametros, serviceRegistry);
+    }
+}
@@ -5,6 +5,8 @@ import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
@@ -23,13 +25,14 @@ import java.util.List;
  */
 @Entity
 @Table(name = "usuarios")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuarios")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Usuario implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenciaPooled("usuarios_seq")
     private Long id;
 
     @NotBlank(message = "Nome é obrigatório")
@@ -56,6 +59,14 @@ public class Usuario implements UserDetails {
     @Column(nullable = false)
     private Boolean ativo = true;
 
+    /**
+     * Versão dos tokens do usuário: incrementada a cada revogação (troca de senha,
+     * desativação) e levada no token; só tokens da versão atual são aceitos
+     */
+    @NotNull
+    @Column(name = "versao_token", nullable = false)
+    private Integer versaoToken = 0;
+
     @Pattern(regexp = "\\d{10,11}", message = "Telefone deve conter 10 ou 11 dígitos")
     @Column(length = 11)
     private String telefone;
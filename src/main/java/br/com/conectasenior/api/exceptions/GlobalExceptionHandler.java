@@ -12,6 +12,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -89,6 +90,23 @@ public class GlobalExceptionHandler {
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * Trata violações de regras de negócio
+     */
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<ApiError> handleBusiness(BusinessException ex, HttpServletRequest request) {
+        log.warn("Regra de negócio violada: {}", ex.getMessage());
+
+        ApiError error = new ApiError(
+            HttpStatus.BAD_REQUEST.value(),
+            "Requisição Inválida",
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+
+        return ResponseEntity.badRequest().body(error);
+    }
+
     /**
      * Trata violações de integridade de dados
      */
@@ -147,6 +165,15 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
     }
 
+    /**
+     * Cliente desconectado de uma resposta assíncrona (SSE, exportação em streaming):
+     * não há para quem responder
+     */
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void handleClienteDesconectado(AsyncRequestNotUsableException ex) {
+        log.debug("Cliente desconectado: {}", ex.getMessage());
+    }
+
     /**
      * Trata exceções gerais não mapeadas
      */
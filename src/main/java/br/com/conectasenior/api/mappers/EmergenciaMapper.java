@@ -0,0 +1,67 @@
+package br.com.conectasenior.api.mappers;
+
+import br.com.conectasenior.api.dtos.EmergenciaDTO;
+import br.com.conectasenior.api.entities.Emergencia;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conversões entre Emergencia e EmergenciaDTO
+ */
+@Component
+public class EmergenciaMapper {
+
+    public EmergenciaDTO toDTO(Emergencia emergencia) {
+        EmergenciaDTO dto = new EmergenciaDTO();
+        dto.setId(emergencia.getId());
+        dto.setTipo(emergencia.getTipo());
+        dto.setDescricao(emergencia.getDescricao());
+        dto.setGravidade(emergencia.getGravidade());
+        dto.setStatus(emergencia.getStatus());
+        dto.setLocalizacao(emergencia.getLocalizacao());
+        dto.setContatoAcionado(emergencia.getContatoAcionado());
+        dto.setResolvidoEm(emergencia.getResolvidoEm());
+        dto.setResolucao(emergencia.getResolucao());
+        if (emergencia.getIdoso() != null) {
+            dto.setIdosoId(emergencia.getIdoso().getId());
+        }
+        dto.setCriadoEm(emergencia.getCriadoEm());
+        dto.setAtualizadoEm(emergencia.getAtualizadoEm());
+        return dto;
+    }
+
+    public Emergencia toEntity(EmergenciaDTO dto) {
+        Emergencia emergencia = new Emergencia();
+        updateEntity(dto, emergencia);
+        return emergencia;
+    }
+
+    /**
+     * Copia para a entidade apenas os campos não nulos do DTO
+     */
+    public void updateEntity(EmergenciaDTO dto, Emergencia emergencia) {
+        if (dto.getTipo() != null) {
+            emergencia.setTipo(dto.getTipo());
+        }
+        if (dto.getDescricao() != null) {
+            emergencia.setDescricao(dto.getDescricao());
+        }
+        if (dto.getGravidade() != null) {
+            emergencia.setGravidade(dto.getGravidade());
+        }
+        if (dto.getStatus() != null) {
+            emergencia.setStatus(dto.getStatus());
+        }
+        if (dto.getLocalizacao() != null) {
+            emergencia.setLocalizacao(dto.getLocalizacao());
+        }
+        if (dto.getContatoAcionado() != null) {
+            emergencia.setContatoAcionado(dto.getContatoAcionado());
+        }
+        if (dto.getResolvidoEm() != null) {
+            emergencia.setResolvidoEm(dto.getResolvidoEm());
+        }
+        if (dto.getResolucao() != null) {
+            emergencia.setResolucao(dto.getResolucao());
+        }
+    }
+}
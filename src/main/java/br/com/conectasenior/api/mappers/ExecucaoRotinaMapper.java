@@ -0,0 +1,24 @@
+package br.com.conectasenior.api.mappers;
+
+import br.com.conectasenior.api.dtos.ExecucaoRotinaDTO;
+import br.com.conectasenior.api.entities.ExecucaoRotina;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conversões entre ExecucaoRotina e ExecucaoRotinaDTO
+ */
+@Component
+public class ExecucaoRotinaMapper {
+
+    public ExecucaoRotinaDTO toDTO(ExecucaoRotina execucao) {
+        ExecucaoRotinaDTO dto = new ExecucaoRotinaDTO();
+        dto.setId(execucao.getId());
+        if (execucao.getRotina() != null) {
+            dto.setRotinaId(execucao.getRotina().getId());
+        }
+        dto.setStatus(execucao.getStatus());
+        dto.setExecutadoEm(execucao.getExecutadoEm());
+        dto.setObservacoes(execucao.getObservacoes());
+        return dto;
+    }
+}
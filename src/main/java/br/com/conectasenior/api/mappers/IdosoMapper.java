@@ -0,0 +1,66 @@
+package br.com.conectasenior.api.mappers;
+
+import br.com.conectasenior.api.dtos.IdosoDTO;
+import br.com.conectasenior.api.entities.Idoso;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conversões entre Idoso e IdosoDTO
+ *
+ * Mapeamento explícito, sem reflexão. Na cópia DTO -> entidade campos nulos
+ * são ignorados, mantendo a semântica skip-null do ModelMapperConfig.
+ */
+@Component
+public class IdosoMapper {
+
+    public IdosoDTO toDTO(Idoso idoso) {
+        IdosoDTO dto = new IdosoDTO();
+        dto.setId(idoso.getId());
+        dto.setNome(idoso.getNome());
+        dto.setDataNascimento(idoso.getDataNascimento());
+        dto.setCpf(idoso.getCpf());
+        dto.setEmail(idoso.getEmail());
+        dto.setTelefone(idoso.getTelefone());
+        dto.setEndereco(idoso.getEndereco());
+        dto.setObservacoes(idoso.getObservacoes());
+        dto.setCriadoEm(idoso.getCriadoEm());
+        dto.setAtualizadoEm(idoso.getAtualizadoEm());
+        if (idoso.getDataNascimento() != null) {
+            dto.setIdade(idoso.getIdade());
+        }
+        return dto;
+    }
+
+    public Idoso toEntity(IdosoDTO dto) {
+        Idoso idoso = new Idoso();
+        updateEntity(dto, idoso);
+        return idoso;
+    }
+
+    /**
+     * Copia para a entidade apenas os campos não nulos do DTO
+     */
+    public void updateEntity(IdosoDTO dto, Idoso idoso) {
+        if (dto.getNome() != null) {
+            idoso.setNome(dto.getNome());
+        }
+        if (dto.getDataNascimento() != null) {
+            idoso.setDataNascimento(dto.getDataNascimento());
+        }
+        if (dto.getCpf() != null) {
+            idoso.setCpf(dto.getCpf());
+        }
+        if (dto.getEmail() != null) {
+            idoso.setEmail(dto.getEmail());
+        }
+        if (dto.getTelefone() != null) {
+            idoso.setTelefone(dto.getTelefone());
+        }
+        if (dto.getEndereco() != null) {
+            idoso.setEndereco(dto.getEndereco());
+        }
+        if (dto.getObservacoes() != null) {
+            idoso.setObservacoes(dto.getObservacoes());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.conectasenior.api.mappers;
+
+import br.com.conectasenior.api.dtos.RegistroSaudeCreateDTO;
+import br.com.conectasenior.api.dtos.RegistroSaudeDTO;
+import br.com.conectasenior.api.entities.RegistroSaude;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conversões entre RegistroSaude e seus DTOs
+ *
+ * O vínculo com o idoso não é resolvido aqui: o service associa a referência
+ * a partir do idosoId, sem consulta extra ao banco.
+ */
+@Component
+public class RegistroSaudeMapper {
+
+    public RegistroSaudeDTO toDTO(RegistroSaude registro) {
+        RegistroSaudeDTO dto = new RegistroSaudeDTO();
+        dto.setId(registro.getId());
+        dto.setTipo(registro.getTipo());
+        dto.setDescricao(registro.getDescricao());
+        dto.setValor(registro.getValor());
+        dto.setUnidade(registro.getUnidade());
+        dto.setObservacoes(registro.getObservacoes());
+        dto.setDataRegistro(registro.getRegistradoEm());
+        if (registro.getIdoso() != null) {
+            dto.setIdosoId(registro.getIdoso().getId());
+        }
+        dto.setCriadoEm(registro.getCriadoEm());
+        return dto;
+    }
+
+    public RegistroSaude toEntity(RegistroSaudeDTO dto) {
+        RegistroSaude registro = new RegistroSaude();
+        updateEntity(dto, registro);
+        return registro;
+    }
+
+    public RegistroSaude toEntity(RegistroSaudeCreateDTO dto) {
+        RegistroSaude registro = new RegistroSaude();
+        registro.setTipo(dto.getTipo());
+        registro.setValor(dto.getValor());
+        registro.setUnidade(dto.getUnidade());
+        registro.setObservacoes(dto.getObservacoes());
+        registro.setRegistradoEm(dto.getDataRegistro());
+        return registro;
+    }
+
+    /**
+     * Copia para a entidade apenas os campos não nulos do DTO
+     */
+    public void updateEntity(RegistroSaudeDTO dto, RegistroSaude registro) {
+        if (dto.getTipo() != null) {
+            registro.setTipo(dto.getTipo());
+        }
+        if (dto.getDescricao() != null) {
+            registro.setDescricao(dto.getDescricao());
+        }
+        if (dto.getValor() != null) {
+            registro.setValor(dto.getValor());
+        }
+        if (dto.getUnidade() != null) {
+            registro.setUnidade(dto.getUnidade());
+        }
+        if (dto.getObservacoes() != null) {
+            registro.setObservacoes(dto.getObservacoes());
+        }
+        if (dto.getDataRegistro() != null) {
+            registro.setRegistradoEm(dto.getDataRegistro());
+        }
+    }
+}
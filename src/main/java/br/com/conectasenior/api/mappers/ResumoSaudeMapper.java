@@ -0,0 +1,35 @@
+package br.com.conectasenior.api.mappers;
+
+import br.com.conectasenior.api.dtos.ResumoSaudeDTO;
+import br.com.conectasenior.api.entities.ResumoSaude;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversões de ResumoSaude para DTO; a média é derivada de soma e quantidade
+ */
+@Component
+public class ResumoSaudeMapper {
+
+    public ResumoSaudeDTO toDTO(ResumoSaude resumo) {
+        ResumoSaudeDTO dto = new ResumoSaudeDTO();
+        dto.setIdosoId(resumo.getIdosoId());
+        dto.setTipo(resumo.getTipo());
+        dto.setGranularidade(resumo.getGranularidade());
+        dto.setInicioPeriodo(resumo.getInicioPeriodo());
+        dto.setQuantidade(resumo.getQuantidade());
+        dto.setMedia(media(resumo.getSoma(), resumo.getQuantidade()));
+        dto.setMinimo(resumo.getMinimo());
+        dto.setMaximo(resumo.getMaximo());
+        return dto;
+    }
+
+    public static BigDecimal media(BigDecimal soma, Long quantidade) {
+        if (soma == null || quantidade == null || quantidade == 0) {
+            return null;
+        }
+        return soma.divide(BigDecimal.valueOf(quantidade), 2, RoundingMode.HALF_UP);
+    }
+}
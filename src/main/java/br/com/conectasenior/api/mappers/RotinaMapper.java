@@ -0,0 +1,102 @@
+package br.com.conectasenior.api.mappers;
+
+import br.com.conectasenior.api.dtos.RotinaCreateDTO;
+import br.com.conectasenior.api.dtos.RotinaDTO;
+import br.com.conectasenior.api.entities.DiasSemana;
+import br.com.conectasenior.api.entities.Rotina;
+import br.com.conectasenior.api.exceptions.BusinessException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Conversões entre Rotina e seus DTOs
+ *
+ * Os DTOs expõem "nome" e um horário com data; a entidade guarda "titulo"
+ * e apenas a hora do dia. Os dias da semana trafegam como texto ("SEG,QUA")
+ * e são gravados como máscara de bits (DiasSemana).
+ */
+@Component
+public class RotinaMapper {
+
+    public RotinaDTO toDTO(Rotina rotina) {
+        RotinaDTO dto = new RotinaDTO();
+        dto.setId(rotina.getId());
+        dto.setNome(rotina.getTitulo());
+        dto.setDescricao(rotina.getDescricao());
+        dto.setTipo(rotina.getTipo());
+        if (rotina.getHorario() != null) {
+            dto.setHorario(LocalDate.now().atTime(rotina.getHorario()));
+        }
+        if (rotina.getDiasSemanaMascara() != null) {
+            dto.setDiasSemana(DiasSemana.descrever(rotina.getDiasSemanaMascara()));
+        }
+        dto.setAtiva(rotina.getAtivo());
+        dto.setObservacoes(rotina.getObservacoes());
+        if (rotina.getIdoso() != null) {
+            dto.setIdosoId(rotina.getIdoso().getId());
+        }
+        dto.setDataCriacao(rotina.getCriadoEm());
+        return dto;
+    }
+
+    public Rotina toEntity(RotinaDTO dto) {
+        Rotina rotina = new Rotina();
+        updateEntity(dto, rotina);
+        return rotina;
+    }
+
+    public Rotina toEntity(RotinaCreateDTO dto) {
+        Rotina rotina = new Rotina();
+        rotina.setTitulo(dto.getNome());
+        rotina.setDescricao(dto.getDescricao());
+        rotina.setTipo(dto.getTipo());
+        if (dto.getHorario() != null) {
+            rotina.setHorario(dto.getHorario().toLocalTime());
+        }
+        rotina.setDiasSemanaMascara(mascaraDiasSemana(dto.getDiasSemana()));
+        rotina.setAtivo(dto.isAtiva());
+        rotina.setObservacoes(dto.getObservacoes());
+        return rotina;
+    }
+
+    /**
+     * Copia para a entidade apenas os campos não nulos do DTO
+     */
+    public void updateEntity(RotinaDTO dto, Rotina rotina) {
+        if (dto.getNome() != null) {
+            rotina.setTitulo(dto.getNome());
+        }
+        if (dto.getDescricao() != null) {
+            rotina.setDescricao(dto.getDescricao());
+        }
+        if (dto.getTipo() != null) {
+            rotina.setTipo(dto.getTipo());
+        }
+        if (dto.getHorario() != null) {
+            rotina.setHorario(dto.getHorario().toLocalTime());
+        }
+        if (dto.getDiasSemana() != null) {
+            rotina.setDiasSemanaMascara(mascaraDiasSemana(dto.getDiasSemana()));
+        }
+        if (dto.getAtiva() != null) {
+            rotina.setAtivo(dto.getAtiva());
+        }
+        if (dto.getObservacoes() != null) {
+            rotina.setObservacoes(dto.getObservacoes());
+        }
+    }
+
+    private int mascaraDiasSemana(String diasSemana) {
+        int mascara;
+        try {
+            mascara = DiasSemana.mascara(diasSemana);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(e.getMessage());
+        }
+        if (mascara == DiasSemana.NENHUM) {
+            throw new BusinessException("Dias da semana inválidos: " + diasSemana);
+        }
+        return mascara;
+    }
+}
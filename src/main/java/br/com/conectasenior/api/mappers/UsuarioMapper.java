@@ -0,0 +1,48 @@
+package br.com.conectasenior.api.mappers;
+
+import br.com.conectasenior.api.dtos.UsuarioDTO;
+import br.com.conectasenior.api.entities.Usuario;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conversões entre Usuario e UsuarioDTO
+ *
+ * A senha nunca é copiada para o DTO.
+ */
+@Component
+public class UsuarioMapper {
+
+    public UsuarioDTO toDTO(Usuario usuario) {
+        UsuarioDTO dto = new UsuarioDTO();
+        dto.setId(usuario.getId());
+        dto.setNome(usuario.getNome());
+        dto.setEmail(usuario.getEmail());
+        dto.setTipo(usuario.getTipo());
+        dto.setAtivo(usuario.getAtivo());
+        dto.setTelefone(usuario.getTelefone());
+        dto.setCriadoEm(usuario.getCriadoEm());
+        dto.setAtualizadoEm(usuario.getAtualizadoEm());
+        return dto;
+    }
+
+    /**
+     * Copia para a entidade apenas os campos não nulos do DTO
+     */
+    public void updateEntity(UsuarioDTO dto, Usuario usuario) {
+        if (dto.getNome() != null) {
+            usuario.setNome(dto.getNome());
+        }
+        if (dto.getEmail() != null) {
+            usuario.setEmail(dto.getEmail());
+        }
+        if (dto.getTipo() != null) {
+            usuario.setTipo(dto.getTipo());
+        }
+        if (dto.getAtivo() != null) {
+            usuario.setAtivo(dto.getAtivo());
+        }
+        if (dto.getTelefone() != null) {
+            usuario.setTelefone(dto.getTelefone());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.conectasenior.api.repositories;
+
+import br.com.conectasenior.api.entities.AdesaoRotinaDiaria;
+import br.com.conectasenior.api.entities.Rotina;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório para operações com a entidade AdesaoRotinaDiaria
+ */
+@Repository
+public interface AdesaoRotinaDiariaRepository extends JpaRepository<AdesaoRotinaDiaria, Long> {
+
+    /**
+     * Totais de uma rotina no intervalo de dias; cumpridos conta os dias com ao menos
+     * uma execução EXECUTADA ou ATRASADA
+     */
+    record Totais(Long rotinaId, Long executadas, Long atrasadas, Long puladas, Long parciais, Long cumpridos) {
+    }
+
+    /**
+     * Rotina considerada no denominador da adesão (quantos dias ela estava prevista)
+     */
+    record RotinaPrevista(Long rotinaId, Long idosoId, Rotina.TipoRotina tipo,
+                          Integer diasSemanaMascara, LocalDateTime criadoEm, Boolean ativo, LocalDateTime atualizadoEm) {
+    }
+
+    String TOTAIS = "SELECT new br.com.conectasenior.api.repositories.AdesaoRotinaDiariaRepository$Totais("
+            + "a.rotinaId, SUM(a.executadas), SUM(a.atrasadas), SUM(a.puladas), SUM(a.parciais), "
+            + "SUM(CASE WHEN a.executadas + a.atrasadas > 0 THEN 1 ELSE 0 END)) "
+            + "FROM AdesaoRotinaDiaria a WHERE a.dia >= :de AND a.dia <= :ate";
+
+    String ROTINAS_PREVISTAS = "SELECT new br.com.conectasenior.api.repositories.AdesaoRotinaDiariaRepository$RotinaPrevista("
+            + "r.id, r.idoso.id, r.tipo, r.diasSemanaMascara, r.criadoEm, r.ativo, r.atualizadoEm) "
+            + "FROM Rotina r WHERE (r.ativo = true OR r.atualizadoEm >= :desde)";
+
+    /**
+     * Totais por rotina dos dias [de, ate] de um idoso
+     */
+    @Query(TOTAIS + " AND a.idosoId = :idosoId GROUP BY a.rotinaId")
+    List<Totais> totalizarPorIdoso(@Param("idosoId") Long idosoId,
+                                   @Param("de") LocalDate de,
+                                   @Param("ate") LocalDate ate);
+
+    /**
+     * Totais por rotina dos dias [de, ate] de um conjunto de idosos
+     */
+    @Query(TOTAIS + " AND a.idosoId IN :idosoIds GROUP BY a.rotinaId")
+    List<Totais> totalizarPorIdosos(@Param("idosoIds") Collection<Long> idosoIds,
+                                    @Param("de") LocalDate de,
+                                    @Param("ate") LocalDate ate);
+
+    /**
+     * Rotinas de um idoso ativas ou desativadas depois de "desde"
+     */
+    @Query(ROTINAS_PREVISTAS + " AND r.idoso.id = :idosoId")
+    List<RotinaPrevista> findRotinasPrevistasPorIdoso(@Param("idosoId") Long idosoId,
+                                                      @Param("desde") LocalDateTime desde);
+
+    /**
+     * Rotinas de um conjunto de idosos ativas ou desativadas depois de "desde"
+     */
+    @Query(ROTINAS_PREVISTAS + " AND r.idoso.id IN :idosoIds")
+    List<RotinaPrevista> findRotinasPrevistasPorIdosos(@Param("idosoIds") Collection<Long> idosoIds,
+                                                       @Param("desde") LocalDateTime desde);
+
+    @Modifying
+    @Query("DELETE FROM AdesaoRotinaDiaria a WHERE a.rotinaId = :rotinaId")
+    int deleteByRotinaId(@Param("rotinaId") Long rotinaId);
+}
@@ -1,8 +1,11 @@
 package br.com.conectasenior.api.repositories;
 
 import br.com.conectasenior.api.entities.ContatoEmergencia;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -17,7 +20,9 @@ public interface ContatoEmergenciaRepository extends JpaRepository<ContatoEmerge
     /**
      * Busca contatos de emergência por idoso, ordenados por prioridade
      */
-    List<ContatoEmergencia> findByIdosoIdOrderByPrioridadeAsc(Long idosoId);
+    @Query("SELECT c FROM ContatoEmergencia c WHERE c.idoso.id = :idosoId ORDER BY c.prioridade ASC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<ContatoEmergencia> findByIdosoIdOrderByPrioridadeAsc(@Param("idosoId") Long idosoId);
 
     /**
      * Busca contatos por telefone
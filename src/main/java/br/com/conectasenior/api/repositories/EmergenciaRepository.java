@@ -1,15 +1,18 @@
 package br.com.conectasenior.api.repositories;
 
 import br.com.conectasenior.api.entities.Emergencia;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositório para operações com a entidade Emergencia
@@ -17,6 +20,14 @@ import java.util.List;
 @Repository
 public interface EmergenciaRepository extends JpaRepository<Emergencia, Long> {
 
+    /**
+     * Busca a emergência bloqueando a linha até o fim da transação, para que
+     * mudanças de estado concorrentes sejam aplicadas uma de cada vez
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Emergencia e WHERE e.id = :id")
+    Optional<Emergencia> findByIdParaAtualizacao(@Param("id") Long id);
+
     /**
      * Busca emergências ativas
      */
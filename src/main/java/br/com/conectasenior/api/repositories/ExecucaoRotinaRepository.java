@@ -38,4 +38,11 @@ public interface ExecucaoRotinaRepository extends JpaRepository<ExecucaoRotina,
      */
     @Query("SELECT COUNT(e) FROM ExecucaoRotina e WHERE e.rotina.id = :rotinaId AND e.status = 'EXECUTADA'")
     Long countExecucoesRealizadas(@Param("rotinaId") Long rotinaId);
+
+    /**
+     * Quantidade de execuções por rotina e status (rotinaId, status, quantidade),
+     * usada para carregar os contadores de adesão na inicialização
+     */
+    @Query("SELECT e.rotina.id, e.status, COUNT(e) FROM ExecucaoRotina e GROUP BY e.rotina.id, e.status")
+    List<Object[]> contarPorRotinaEStatus();
 }
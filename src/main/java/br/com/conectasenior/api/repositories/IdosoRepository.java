@@ -1,47 +1,95 @@
 package br.com.conectasenior.api.repositories;
 
 import br.com.conectasenior.api.entities.Idoso;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repositório para operações com a entidade Idoso
  *
  * Inclui consultas customizadas para busca por nome, CPF, idade
  * e relatórios específicos do domínio.
+ *
+ * As buscas por CPF e email são JPQL fixo (plano reaproveitado, ao contrário das
+ * consultas derivadas, montadas via Criteria a cada chamada) e usam o cache de
+ * consultas do Hibernate, invalidado a cada escrita na tabela idosos.
  */
 @Repository
 public interface IdosoRepository extends JpaRepository<Idoso, Long> {
 
+    /**
+     * Busca o idoso travando a linha contra remoção até o fim da transação, para
+     * vincular um registro novo a ele: uma remoção em andamento termina antes (e o
+     * idoso não é encontrado) ou espera o vínculo ser gravado
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT i FROM Idoso i WHERE i.id = :id")
+    Optional<Idoso> findByIdParaVinculo(@Param("id") Long id);
+
     /**
      * Busca idoso por CPF (campo único)
      */
-    Optional<Idoso> findByCpf(String cpf);
+    @Query("SELECT i FROM Idoso i WHERE i.cpf = :cpf")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<Idoso> findByCpf(@Param("cpf") String cpf);
 
     /**
      * Busca idosos por nome (busca parcial e case-insensitive)
      */
     Page<Idoso> findByNomeContainingIgnoreCase(String nome, Pageable pageable);
 
+    /**
+     * Primeira página por cursor dos idosos, por nome
+     */
+    @Query("SELECT i FROM Idoso i ORDER BY i.nome, i.id")
+    List<Idoso> findPaginaPorNome(Pageable limite);
+
+    /**
+     * Página por cursor seguinte a (nome, id); o ">=" redundante delimita a faixa em
+     * idx_idosos_nome_id
+     */
+    @Query("SELECT i FROM Idoso i WHERE i.nome >= :nome AND (i.nome > :nome OR i.id > :id) ORDER BY i.nome, i.id")
+    List<Idoso> findPaginaPorNomeApos(@Param("nome") String nome, @Param("id") Long id, Pageable limite);
+
     /**
      * Busca idosos por email
      */
-    Optional<Idoso> findByEmail(String email);
+    @Query("SELECT i FROM Idoso i WHERE i.email = :email")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<Idoso> findByEmail(@Param("email") String email);
 
     /**
      * Busca idosos nascidos entre determinadas datas (para filtro por idade)
+     *
+     * Filtra pela coluna indexada data_nascimento, sem carregar a tabela inteira.
+     */
+    @Query(value = "SELECT i FROM Idoso i WHERE i.dataNascimento BETWEEN :dataInicio AND :dataFim",
+           countQuery = "SELECT COUNT(i) FROM Idoso i WHERE i.dataNascimento BETWEEN :dataInicio AND :dataFim")
+    Page<Idoso> findByIdadeEntre(@Param("dataInicio") LocalDate dataInicio,
+                                 @Param("dataFim") LocalDate dataFim,
+                                 Pageable pageable);
+
+    /**
+     * Conta idosos nascidos entre determinadas datas
      */
-    @Query("SELECT i FROM Idoso i WHERE i.dataNascimento BETWEEN :dataInicio AND :dataFim")
-    List<Idoso> findByIdadeEntre(@Param("dataInicio") LocalDate dataInicio,
-                                 @Param("dataFim") LocalDate dataFim);
+    @Query("SELECT COUNT(i) FROM Idoso i WHERE i.dataNascimento BETWEEN :dataInicio AND :dataFim")
+    long countByIdadeEntre(@Param("dataInicio") LocalDate dataInicio,
+                           @Param("dataFim") LocalDate dataFim);
 
     /**
      * Busca idosos que possuem emergências ativas
@@ -56,8 +104,14 @@ public interface IdosoRepository extends JpaRepository<Idoso, Long> {
     List<Idoso> findIdososSemContatosEmergencia();
 
     /**
-     * Busca idosos por cidade (extraindo do endereço)
+     * Ids de todos os idosos, para processamentos em lote
+     */
+    @Query("SELECT i.id FROM Idoso i ORDER BY i.id")
+    List<Long> findAllIds();
+
+    /**
+     * Entre os ids informados, retorna os que pertencem a idosos cadastrados
      */
-    @Query("SELECT i FROM Idoso i WHERE LOWER(i.endereco) LIKE LOWER(CONCAT('%', :cidade, '%'))")
-    List<Idoso> findByEnderecoContainingCidade(@Param("cidade") String cidade);
+    @Query("SELECT i.id FROM Idoso i WHERE i.id IN :ids")
+    Set<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
 }
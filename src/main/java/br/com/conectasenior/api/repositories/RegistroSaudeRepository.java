@@ -1,28 +1,68 @@
 package br.com.conectasenior.api.repositories;
 
 import br.com.conectasenior.api.entities.RegistroSaude;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositório para operações com a entidade RegistroSaude
  */
 @Repository
-public interface RegistroSaudeRepository extends JpaRepository<RegistroSaude, Long> {
+public interface RegistroSaudeRepository extends JpaRepository<RegistroSaude, Long>, JpaSpecificationExecutor<RegistroSaude> {
 
     /**
      * Busca registros de saúde de um idoso, ordenados por data
      */
     Page<RegistroSaude> findByIdosoIdOrderByRegistradoEmDesc(Long idosoId, Pageable pageable);
 
+    /**
+     * Primeira página por cursor de todos os registros, do mais recente (limite: CursorPaginacao)
+     */
+    @Query("SELECT r FROM RegistroSaude r ORDER BY r.registradoEm DESC, r.id DESC")
+    List<RegistroSaude> findPaginaPorData(Pageable limite);
+
+    /**
+     * Página por cursor seguinte a (registradoEm, id); o "<=" redundante delimita a
+     * faixa em idx_registros_saude_registrado_id
+     */
+    @Query("SELECT r FROM RegistroSaude r WHERE r.registradoEm <= :registradoEm "
+            + "AND (r.registradoEm < :registradoEm OR r.id < :id) ORDER BY r.registradoEm DESC, r.id DESC")
+    List<RegistroSaude> findPaginaPorDataApos(@Param("registradoEm") LocalDateTime registradoEm,
+                                              @Param("id") Long id,
+                                              Pageable limite);
+
+    /**
+     * Primeira página por cursor dos registros de um idoso, do mais recente
+     */
+    @Query("SELECT r FROM RegistroSaude r WHERE r.idoso.id = :idosoId ORDER BY r.registradoEm DESC, r.id DESC")
+    List<RegistroSaude> findPaginaPorIdoso(@Param("idosoId") Long idosoId, Pageable limite);
+
+    /**
+     * Página por cursor seguinte a (registradoEm, id) dos registros de um idoso
+     * (idx_registros_saude_idoso_registrado_id)
+     */
+    @Query("SELECT r FROM RegistroSaude r WHERE r.idoso.id = :idosoId AND r.registradoEm <= :registradoEm "
+            + "AND (r.registradoEm < :registradoEm OR r.id < :id) ORDER BY r.registradoEm DESC, r.id DESC")
+    List<RegistroSaude> findPaginaPorIdosoApos(@Param("idosoId") Long idosoId,
+                                               @Param("registradoEm") LocalDateTime registradoEm,
+                                               @Param("id") Long id,
+                                               Pageable limite);
+
+    long countByIdosoId(Long idosoId);
+
     /**
      * Busca registros por tipo específico
      */
@@ -36,6 +76,28 @@ public interface RegistroSaudeRepository extends JpaRepository<RegistroSaude, Lo
                                                @Param("inicio") LocalDateTime inicio,
                                                @Param("fim") LocalDateTime fim);
 
+    /**
+     * Percorre os registros de um período em ordem cronológica, lidos do banco em lotes
+     * (fetch size) e sem snapshot para dirty checking. Deve ser consumido dentro de uma
+     * transação e fechado ao final.
+     */
+    @Query("SELECT r FROM RegistroSaude r WHERE r.idoso.id = :idosoId AND r.registradoEm BETWEEN :inicio AND :fim ORDER BY r.registradoEm ASC, r.id ASC")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<RegistroSaude> streamRegistrosPorPeriodo(@Param("idosoId") Long idosoId,
+                                                   @Param("inicio") LocalDateTime inicio,
+                                                   @Param("fim") LocalDateTime fim);
+
+    /**
+     * Percorre tipo, data e valor dos registros com valor de um idoso (reconstrução dos resumos)
+     */
+    @Query("SELECT r.tipo, r.registradoEm, r.valor FROM RegistroSaude r WHERE r.idoso.id = :idosoId AND r.valor IS NOT NULL")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamValoresPorIdoso(@Param("idosoId") Long idosoId);
+
     /**
      * Busca último registro de um tipo específico
      */
@@ -0,0 +1,86 @@
+package br.com.conectasenior.api.repositories;
+
+import br.com.conectasenior.api.entities.RegistroSaude;
+import br.com.conectasenior.api.entities.ResumoSaude;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório para operações com a entidade ResumoSaude
+ */
+@Repository
+public interface ResumoSaudeRepository extends JpaRepository<ResumoSaude, Long> {
+
+    /**
+     * Soma e quantidade de um conjunto de períodos (ou de registros brutos)
+     */
+    record Agregado(BigDecimal soma, Long quantidade) {
+        public Agregado {
+            soma = soma != null ? soma : BigDecimal.ZERO;
+            quantidade = quantidade != null ? quantidade : 0L;
+        }
+    }
+
+    /**
+     * Soma e quantidade dos resumos com início no intervalo [de, ate)
+     */
+    @Query("SELECT new br.com.conectasenior.api.repositories.ResumoSaudeRepository$Agregado(SUM(r.soma), SUM(r.quantidade)) " +
+           "FROM ResumoSaude r WHERE r.idosoId = :idosoId AND r.tipo = :tipo AND r.granularidade = :granularidade " +
+           "AND r.inicioPeriodo >= :de AND r.inicioPeriodo < :ate")
+    Agregado agregarResumos(@Param("idosoId") Long idosoId,
+                            @Param("tipo") RegistroSaude.TipoRegistro tipo,
+                            @Param("granularidade") ResumoSaude.Granularidade granularidade,
+                            @Param("de") LocalDateTime de,
+                            @Param("ate") LocalDateTime ate);
+
+    /**
+     * Soma e quantidade dos registros brutos com valor em [de, ate)
+     */
+    @Query("SELECT new br.com.conectasenior.api.repositories.ResumoSaudeRepository$Agregado(SUM(r.valor), COUNT(r.valor)) " +
+           "FROM RegistroSaude r WHERE r.idoso.id = :idosoId AND r.tipo = :tipo " +
+           "AND r.registradoEm >= :de AND r.registradoEm < :ate")
+    Agregado agregarRegistros(@Param("idosoId") Long idosoId,
+                              @Param("tipo") RegistroSaude.TipoRegistro tipo,
+                              @Param("de") LocalDateTime de,
+                              @Param("ate") LocalDateTime ate);
+
+    /**
+     * Recalcula a partir dos registros brutos (quantidade, soma, mínimo, máximo) de um período
+     */
+    @Query("SELECT COUNT(r.valor), SUM(r.valor), MIN(r.valor), MAX(r.valor) FROM RegistroSaude r " +
+           "WHERE r.idoso.id = :idosoId AND r.tipo = :tipo AND r.registradoEm >= :de AND r.registradoEm < :ate")
+    List<Object[]> calcularPeriodo(@Param("idosoId") Long idosoId,
+                                   @Param("tipo") RegistroSaude.TipoRegistro tipo,
+                                   @Param("de") LocalDateTime de,
+                                   @Param("ate") LocalDateTime ate);
+
+    List<ResumoSaude> findByIdosoIdAndTipoAndGranularidadeAndInicioPeriodoBetweenOrderByInicioPeriodo(
+            Long idosoId, RegistroSaude.TipoRegistro tipo, ResumoSaude.Granularidade granularidade,
+            LocalDateTime inicio, LocalDateTime fim);
+
+    Optional<ResumoSaude> findByIdosoIdAndTipoAndGranularidadeAndInicioPeriodo(
+            Long idosoId, RegistroSaude.TipoRegistro tipo, ResumoSaude.Granularidade granularidade,
+            LocalDateTime inicioPeriodo);
+
+    /**
+     * Resumo por tipo (quantidade, soma, mínimo, máximo) a partir dos resumos diários do intervalo
+     */
+    @Query("SELECT r.tipo, SUM(r.quantidade), SUM(r.soma), MIN(r.minimo), MAX(r.maximo) FROM ResumoSaude r " +
+           "WHERE r.idosoId = :idosoId AND r.granularidade = 'DIA' AND r.inicioPeriodo >= :de AND r.inicioPeriodo < :ate " +
+           "GROUP BY r.tipo")
+    List<Object[]> resumirPorTipo(@Param("idosoId") Long idosoId,
+                                  @Param("de") LocalDateTime de,
+                                  @Param("ate") LocalDateTime ate);
+
+    @Modifying
+    @Query("DELETE FROM ResumoSaude r WHERE r.idosoId = :idosoId")
+    int deleteByIdosoId(@Param("idosoId") Long idosoId);
+}
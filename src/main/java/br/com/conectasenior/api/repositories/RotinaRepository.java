@@ -8,7 +8,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -17,6 +19,16 @@ import java.util.List;
 @Repository
 public interface RotinaRepository extends JpaRepository<Rotina, Long> {
 
+    /**
+     * Rotinas ativas, previstas para o dia (máscaras de DiasSemana.mascarasQueIntersectam),
+     * já existentes no fim do dia e sem execução registrada entre inicio e fim
+     * (anti-join por NOT EXISTS, resolvido pelo índice idx_execucoes_rotina_rotina_executado)
+     */
+    String PENDENTES_NO_DIA = "SELECT r FROM Rotina r WHERE r.ativo = true"
+            + " AND r.diasSemanaMascara IN :mascaras AND r.criadoEm < :fim"
+            + " AND NOT EXISTS (SELECT 1 FROM ExecucaoRotina e WHERE e.rotina = r"
+            + " AND e.executadoEm >= :inicio AND e.executadoEm < :fim)";
+
     /**
      * Busca rotinas ativas de um idoso
      */
@@ -41,16 +53,33 @@ public interface RotinaRepository extends JpaRepository<Rotina, Long> {
                                                @Param("horarioFim") LocalTime horarioFim);
 
     /**
-     * Busca rotinas que contêm um dia específico da semana
+     * Busca rotinas cuja máscara de dias está entre as informadas
+     * (ver DiasSemana.mascarasQueIntersectam); usa idx_rotinas_idoso_dias_semana
      */
-    @Query("SELECT r FROM Rotina r WHERE r.idoso.id = :idosoId AND (r.diasSemana LIKE '%TODOS%' OR r.diasSemana LIKE %:diaSemana%) AND r.ativo = true")
-    List<Rotina> findRotinasPorDiaSemana(@Param("idosoId") Long idosoId, @Param("diaSemana") String diaSemana);
+    @Query("SELECT r FROM Rotina r WHERE r.idoso.id = :idosoId AND r.diasSemanaMascara IN :mascaras AND r.ativo = true")
+    List<Rotina> findRotinasPorDiasSemana(@Param("idosoId") Long idosoId, @Param("mascaras") Collection<Integer> mascaras);
 
     /**
      * Busca todas as rotinas ativas paginadas
      */
     Page<Rotina> findByAtivoTrue(Pageable pageable);
 
+    /**
+     * Primeira página por cursor das rotinas ativas, por título
+     */
+    @Query("SELECT r FROM Rotina r WHERE r.ativo = true ORDER BY r.titulo, r.id")
+    List<Rotina> findAtivasPaginaPorTitulo(Pageable limite);
+
+    /**
+     * Página por cursor seguinte a (titulo, id) das rotinas ativas; o ">=" redundante
+     * delimita a faixa em idx_rotinas_ativo_titulo_id
+     */
+    @Query("SELECT r FROM Rotina r WHERE r.ativo = true AND r.titulo >= :titulo "
+            + "AND (r.titulo > :titulo OR r.id > :id) ORDER BY r.titulo, r.id")
+    List<Rotina> findAtivasPaginaPorTituloApos(@Param("titulo") String titulo, @Param("id") Long id, Pageable limite);
+
+    long countByAtivoTrue();
+
     /**
      * Conta rotinas ativas por idoso
      */
@@ -61,4 +90,34 @@ public interface RotinaRepository extends JpaRepository<Rotina, Long> {
      */
     @Query("SELECT r FROM Rotina r WHERE r.horario = :horario AND r.ativo = true ORDER BY r.idoso.nome")
     List<Rotina> findRotinasNoHorario(@Param("horario") LocalTime horario);
+
+    /**
+     * Rotinas pendentes no dia de todos os idosos
+     */
+    @Query(PENDENTES_NO_DIA)
+    Page<Rotina> findPendentes(@Param("mascaras") Collection<Integer> mascaras,
+                               @Param("inicio") LocalDateTime inicio,
+                               @Param("fim") LocalDateTime fim,
+                               Pageable pageable);
+
+    /**
+     * Rotinas pendentes no dia de um idoso
+     */
+    @Query(PENDENTES_NO_DIA + " AND r.idoso.id = :idosoId")
+    Page<Rotina> findPendentesPorIdoso(@Param("idosoId") Long idosoId,
+                                       @Param("mascaras") Collection<Integer> mascaras,
+                                       @Param("inicio") LocalDateTime inicio,
+                                       @Param("fim") LocalDateTime fim,
+                                       Pageable pageable);
+
+    /**
+     * Rotinas pendentes no dia dos idosos vinculados a um usuário (cuidador ou familiar)
+     */
+    @Query(PENDENTES_NO_DIA + " AND r.idoso.id IN"
+            + " (SELECT i.id FROM Usuario u JOIN u.idososVinculados i WHERE u.id = :usuarioId)")
+    Page<Rotina> findPendentesPorUsuario(@Param("usuarioId") Long usuarioId,
+                                         @Param("mascaras") Collection<Integer> mascaras,
+                                         @Param("inicio") LocalDateTime inicio,
+                                         @Param("fim") LocalDateTime fim,
+                                         Pageable pageable);
 }
@@ -1,26 +1,41 @@
 package br.com.conectasenior.api.repositories;
 
 import br.com.conectasenior.api.entities.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repositório para operações com a entidade Usuario
+ *
+ * A busca por email (autenticação) e os vínculos com idosos usam o cache de
+ * consultas do Hibernate.
  */
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
+    /**
+     * Versão atual dos tokens de um usuário
+     */
+    record VersaoToken(Long usuarioId, Integer versao) {
+    }
+
     /**
      * Busca usuário por email (usado para autenticação)
      */
-    Optional<Usuario> findByEmail(String email);
+    @Query("SELECT u FROM Usuario u WHERE u.email = :email")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<Usuario> findByEmail(@Param("email") String email);
 
     /**
      * Busca usuários ativos
@@ -38,6 +53,21 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     @Query("SELECT u FROM Usuario u JOIN u.idososVinculados i WHERE i.id = :idosoId AND u.ativo = true")
     List<Usuario> findUsuariosVinculadosAoIdoso(@Param("idosoId") Long idosoId);
 
+    /**
+     * Ids dos idosos vinculados ao usuário
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT i.id FROM Usuario u JOIN u.idososVinculados i WHERE u.id = :usuarioId")
+    Set<Long> findIdososVinculadosIds(@Param("usuarioId") Long usuarioId);
+
+    /**
+     * Versões dos usuários que já tiveram tokens revogados (versão maior que zero);
+     * usa idx_usuarios_versao_token
+     */
+    @Query("SELECT new br.com.conectasenior.api.repositories.UsuarioRepository$VersaoToken(u.id, u.versaoToken) "
+            + "FROM Usuario u WHERE u.versaoToken > 0")
+    List<VersaoToken> findVersoesTokenRevogadas();
+
     /**
      * Verifica se email já existe
      */
@@ -1,11 +1,14 @@
 package br.com.conectasenior.api.security;
 
+import br.com.conectasenior.api.entities.Usuario;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,6 +24,12 @@ import java.io.IOException;
  *
  * Intercepta requisições HTTP para validar tokens JWT e configurar
  * o contexto de segurança do Spring Security.
+ *
+ * O token é verificado uma única vez por requisição. Com jwt.stateless=true,
+ * papel, id e status do usuário vêm das claims assinadas e a requisição é
+ * autenticada sem acesso ao banco; a revogação é consultada em memória.
+ * Tokens sem essas claims (ou o modo desligado) carregam o usuário do banco.
+ * Tokens repetidos são resolvidos pelo TokenVerificadoCache, sem novo parse.
  */
 @Component
 @RequiredArgsConstructor
@@ -29,6 +38,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevogacaoService tokenRevogacaoService;
+    private final TokenVerificadoCache tokenVerificadoCache;
+
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(
@@ -38,7 +52,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
 
         // Verifica se existe header Authorization com Bearer token
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -50,25 +63,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            userEmail = jwtService.extractUsername(jwt);
-
-            // Se existe email no token e usuário não está autenticado
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            // Se usuário ainda não está autenticado
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Verifica assinatura e expiração (único parse do token, reaproveitado em chamadas seguintes)
+                TokenVerificadoCache.TokenVerificado verificado = tokenVerificadoCache.verificar(jwt);
+                Claims claims = verificado.claims();
 
-                // Valida o token
-                if (jwtService.validateToken(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                if (tokenRevogacaoService.isRevogado(claims)) {
+                    log.debug("Token revogado para usuário: {}", claims.getSubject());
+                } else {
+                    UsuarioAutenticado usuario = autenticar(verificado);
+                    if (usuario != null) {
+                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                                usuario,
+                                null,
+                                usuario.authorities()
+                        );
+                        authToken.setDetails(
+                                new WebAuthenticationDetailsSource().buildDetails(request)
+                        );
+                        SecurityContextHolder.getContext().setAuthentication(authToken);
 
-                    log.debug("Usuário autenticado: {}", userEmail);
+                        log.debug("Usuário autenticado: {}", usuario.email());
+                    }
                 }
             }
         } catch (Exception e) {
@@ -77,4 +94,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private UsuarioAutenticado autenticar(TokenVerificadoCache.TokenVerificado verificado) {
+        Claims claims = verificado.claims();
+        if (stateless) {
+            UsuarioAutenticado usuario = verificado.usuario();
+            if (usuario != null) {
+                return jwtService.isUsuarioAtivo(claims) ? usuario : null;
+            }
+        }
+
+        // Modo com consulta ao banco (ou token emitido sem as claims de usuário)
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        if (!userDetails.isEnabled() || !jwtService.validateClaims(claims, userDetails.getUsername())) {
+            return null;
+        }
+        return userDetails instanceof Usuario entidade && entidade.getVersaoToken() == JwtService.versaoToken(claims)
+                ? UsuarioAutenticado.de(entidade)
+                : null;
+    }
 }
@@ -2,8 +2,13 @@ package br.com.conectasenior.api.security;
 
 import br.com.conectasenior.api.entities.Usuario;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,21 +16,90 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
+/**
+ * Emissão e verificação de tokens JWT
+ *
+ * A chave de assinatura e o parser são montados uma única vez na inicialização
+ * (JwtParser é imutável e thread-safe). Tokens são assinados com a chave atual e
+ * levam o seu identificador no header "kid"; durante uma rotação, as chaves
+ * anteriores informadas em jwt.previous-keys ("kid:segredo", separadas por
+ * vírgula) continuam aceitas na verificação até os tokens antigos expirarem.
+ */
 @Service
 @Slf4j
 public class JwtService {
 
+    public static final String CLAIM_USUARIO_ID = "uid";
+    public static final String CLAIM_PAPEL = "papel";
+    public static final String CLAIM_ATIVO = "ativo";
+    /**
+     * Versão dos tokens do usuário na emissão (Usuario.versaoToken); tokens sem a
+     * claim contam como versão 0
+     */
+    public static final String CLAIM_VERSAO_TOKEN = "ver";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.key-id:v1}")
+    private String keyId;
+
+    @Value("${jwt.previous-keys:}")
+    private String previousKeys;
+
+    private SecretKey signingKey;
+    private Map<String, SecretKey> verificationKeys;
+    private JwtParser parser;
+
+    @PostConstruct
+    void inicializarChaves() {
+        signingKey = toSecretKey(secretKey);
+
+        Map<String, SecretKey> chaves = new HashMap<>();
+        chaves.put(keyId, signingKey);
+        for (String entrada : previousKeys.split(",")) {
+            if (entrada.isBlank()) {
+                continue;
+            }
+            int separador = entrada.indexOf(':');
+            if (separador <= 0) {
+                throw new IllegalStateException("Entrada inválida em jwt.previous-keys, esperado kid:segredo");
+            }
+            chaves.putIfAbsent(entrada.substring(0, separador).trim(), toSecretKey(entrada.substring(separador + 1).trim()));
+        }
+        verificationKeys = Map.copyOf(chaves);
+
+        parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(ProtectedHeader header) {
+                        String kid = header.getKeyId();
+                        // Tokens emitidos antes da rotação não têm kid: usam a chave atual
+                        if (kid == null) {
+                            return signingKey;
+                        }
+                        SecretKey chave = verificationKeys.get(kid);
+                        if (chave == null) {
+                            throw new SignatureException("Chave de assinatura desconhecida: " + kid);
+                        }
+                        return chave;
+                    }
+                })
+                .build();
+
+        log.info("Chaves JWT carregadas: atual={}, aceitas={}", keyId, verificationKeys.keySet());
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -39,29 +113,41 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifica assinatura e expiração do token uma única vez e retorna suas claims
+     */
+    public Claims parseToken(String token) {
+        return extractAllClaims(token);
+    }
+
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return parser.parseSignedClaims(token).getPayload();
         } catch (Exception e) {
             log.error("Erro ao extrair claims do token: {}", e.getMessage());
             throw new RuntimeException("Token JWT inválido", e);
         }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     public String generateToken(UserDetails userDetails) {
         return createToken(new HashMap<>(), userDetails.getUsername());
     }
 
+    /**
+     * Gera token com id, papel e status do usuário como claims assinadas,
+     * permitindo autenticar requisições sem consultar o banco
+     */
     public String generateToken(Usuario usuario) {
-        return createToken(new HashMap<>(), usuario.getEmail());
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USUARIO_ID, usuario.getId());
+        claims.put(CLAIM_PAPEL, usuario.getTipo().name());
+        claims.put(CLAIM_ATIVO, usuario.getAtivo());
+        claims.put(CLAIM_VERSAO_TOKEN, usuario.getVersaoToken());
+        return createToken(claims, usuario.getEmail());
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -73,26 +159,60 @@ public class JwtService {
         Date expiryDate = new Date(now.getTime() + expiration);
 
         return Jwts.builder()
+                .header().keyId(keyId).and()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        return validateClaims(extractAllClaims(token), userDetails.getUsername());
     }
 
     public boolean validateToken(String token, Usuario usuario) {
-        final String username = extractUsername(token);
-        return username.equals(usuario.getEmail()) && !isTokenExpired(token);
+        return validateClaims(extractAllClaims(token), usuario.getEmail());
+    }
+
+    /**
+     * Valida claims já extraídas, sem novo parse do token
+     */
+    public boolean validateClaims(Claims claims, String username) {
+        return username.equals(claims.getSubject()) && !isTokenExpired(claims);
+    }
+
+    /**
+     * Monta o usuário autenticado a partir das claims, ou retorna null para
+     * tokens emitidos sem as claims de usuário (exigem consulta ao banco)
+     */
+    public UsuarioAutenticado toUsuarioAutenticado(Claims claims) {
+        Long usuarioId = claims.get(CLAIM_USUARIO_ID, Long.class);
+        String papel = claims.get(CLAIM_PAPEL, String.class);
+        if (usuarioId == null || papel == null) {
+            return null;
+        }
+        return new UsuarioAutenticado(usuarioId, claims.getSubject(), Usuario.TipoUsuario.valueOf(papel));
+    }
+
+    /**
+     * Indica se o usuário estava ativo quando o token foi emitido
+     */
+    public boolean isUsuarioAtivo(Claims claims) {
+        return Boolean.TRUE.equals(claims.get(CLAIM_ATIVO, Boolean.class));
+    }
+
+    /**
+     * Versão dos tokens do usuário quando o token foi emitido
+     */
+    public static int versaoToken(Claims claims) {
+        Integer versao = claims.get(CLAIM_VERSAO_TOKEN, Integer.class);
+        return versao == null ? 0 : versao;
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static SecretKey toSecretKey(String segredo) {
+        return Keys.hmacShaKeyFor(segredo.getBytes(StandardCharsets.UTF_8));
     }
 }
@@ -1,22 +1,29 @@
 package br.com.conectasenior.api.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -40,6 +47,42 @@ public class SecurityConfig {
     @Value("${cors.allowed-origins:http://localhost:3000}")
     private String allowedOrigins;
 
+    @Value("${metricas.scraper.usuario:prometheus}")
+    private String scraperUsuario;
+
+    @Value("${metricas.scraper.senha:}")
+    private String scraperSenha;
+
+    /**
+     * Métricas no formato Prometheus (/actuator/prometheus): HTTP Basic com a
+     * credencial do scraper (metricas.scraper.*), que não expira como os tokens de
+     * usuário e não dá acesso a mais nada. Tokens JWT não são aceitos aqui; sem
+     * senha configurada o endpoint fica fechado.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metricasFilterChain(HttpSecurity http) throws Exception {
+        List<UserDetails> scraper = scraperSenha.isBlank()
+                ? List.of()
+                : List.of(User.withUsername(scraperUsuario)
+                        .password(passwordEncoder().encode(scraperSenha))
+                        .roles("METRICAS")
+                        .build());
+        DaoAuthenticationProvider scraperProvider = new DaoAuthenticationProvider();
+        scraperProvider.setUserDetailsService(new InMemoryUserDetailsManager(scraper));
+        scraperProvider.setPasswordEncoder(passwordEncoder());
+
+        http
+            .securityMatcher("/actuator/prometheus")
+            .csrf(AbstractHttpConfigurer::disable)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(auth -> auth.anyRequest().hasRole("METRICAS"))
+            .authenticationManager(new ProviderManager(scraperProvider))
+            .httpBasic(Customizer.withDefaults());
+
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -47,9 +90,14 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Despacho de conclusão de respostas assíncronas (SSE, exportações em streaming):
+                // a requisição original já foi autorizada
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
-                .requestMatchers("/actuator/**").permitAll()
+                // Healthcheck do Docker; /actuator/prometheus tem a cadeia própria acima
+                .requestMatchers("/actuator/health/**", "/actuator/info").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMINISTRADOR")
                 .requestMatchers("/api/**").authenticated()
                 .anyRequest().authenticated()
             )
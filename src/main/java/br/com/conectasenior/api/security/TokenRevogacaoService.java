@@ -0,0 +1,114 @@
+package br.com.conectasenior.api.security;
+
+import br.com.conectasenior.api.entities.Usuario;
+import br.com.conectasenior.api.repositories.UsuarioRepository;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revogação de tokens JWT
+ *
+ * Mantém dois controles, ambos consultados em memória a cada requisição:
+ * - lista de negação por jti (logout de um token específico), com entradas
+ *   descartadas assim que o token expiraria de qualquer forma; vale só nesta instância;
+ * - versão dos tokens por usuário (Usuario.versaoToken, persistida): desativação e
+ *   troca de senha incrementam a versão, e tokens com outra versão são recusados.
+ *
+ * As versões maiores que zero são carregadas do banco antes de o servidor aceitar
+ * requisições e sincronizadas a cada jwt.revogacao.sincronizacao-ms, então um
+ * restart ou outro nó do cluster também recusa os tokens revogados.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevogacaoService {
+
+    private static final int LIMITE_LIMPEZA = 10_000;
+
+    private final UsuarioRepository usuarioRepository;
+
+    private final Map<String, Instant> tokensRevogados = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> versoes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void carregar() {
+        sincronizar();
+        log.info("Versões de token carregadas para {} usuários com tokens revogados", versoes.size());
+    }
+
+    /**
+     * Traz as revogações feitas por outros nós; a versão só cresce, então uma
+     * leitura anterior a uma revogação local não a desfaz
+     */
+    @Scheduled(fixedDelayString = "${jwt.revogacao.sincronizacao-ms:30000}",
+            initialDelayString = "${jwt.revogacao.sincronizacao-ms:30000}")
+    public void sincronizar() {
+        for (UsuarioRepository.VersaoToken versao : usuarioRepository.findVersoesTokenRevogadas()) {
+            versoes.merge(versao.usuarioId(), versao.versao(), Math::max);
+        }
+    }
+
+    /**
+     * Revoga um token específico até a sua expiração
+     */
+    public void revogarToken(String jti, Instant expiraEm) {
+        if (jti == null || expiraEm == null) {
+            return;
+        }
+        tokensRevogados.put(jti, expiraEm);
+        if (tokensRevogados.size() > LIMITE_LIMPEZA) {
+            removerExpirados();
+        }
+        log.debug("Token revogado: {}", jti);
+    }
+
+    /**
+     * Revoga todos os tokens emitidos até agora para o usuário, incrementando a versão
+     * na entidade (gravada pela transação do chamador); tokens gerados depois para a
+     * mesma entidade já levam a versão nova. A versão passa a valer nesta instância
+     * quando a transação confirma.
+     */
+    public void revogarTokensDoUsuario(Usuario usuario) {
+        int versao = usuario.getVersaoToken() + 1;
+        usuario.setVersaoToken(versao);
+
+        Long usuarioId = usuario.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versoes.merge(usuarioId, versao, Math::max);
+                }
+            });
+        } else {
+            versoes.merge(usuarioId, versao, Math::max);
+        }
+        log.info("Tokens do usuário ID: {} revogados (versão {})", usuarioId, versao);
+    }
+
+    public boolean isRevogado(Claims claims) {
+        String jti = claims.getId();
+        if (jti != null && tokensRevogados.containsKey(jti)) {
+            return true;
+        }
+
+        Long usuarioId = claims.get(JwtService.CLAIM_USUARIO_ID, Long.class);
+        Integer versaoAtual = usuarioId == null ? null : versoes.get(usuarioId);
+        return versaoAtual != null && versaoAtual != JwtService.versaoToken(claims);
+    }
+
+    private void removerExpirados() {
+        Instant agora = Instant.now();
+        tokensRevogados.values().removeIf(expiraEm -> expiraEm.isBefore(agora));
+    }
+}
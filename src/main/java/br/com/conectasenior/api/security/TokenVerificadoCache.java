@@ -0,0 +1,148 @@
+package br.com.conectasenior.api.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache em memória de tokens JWT já verificados
+ *
+ * Clientes reutilizam o mesmo token por horas; a assinatura e as claims são
+ * verificadas apenas na primeira vez e as chamadas seguintes consultam o
+ * resultado pelo SHA-256 do token (o token em si não fica retido).
+ *
+ * O cache é limitado por jwt.cache.max-entries, com descarte na ordem de
+ * inserção, e cada entrada vale somente até a expiração do próprio token.
+ * A revogação não é guardada aqui: continua sendo consultada a cada requisição.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenVerificadoCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    });
+
+    private final JwtService jwtService;
+
+    @Value("${jwt.cache.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${jwt.cache.max-entries:10000}")
+    private int maxEntradas;
+
+    private final Map<String, TokenVerificado> entradas = new ConcurrentHashMap<>();
+    private final Queue<String> ordemInsercao = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder descartes = new LongAdder();
+
+    /**
+     * Token verificado: claims e, quando o token traz as claims de usuário, o principal já montado
+     */
+    public record TokenVerificado(Claims claims, UsuarioAutenticado usuario, long expiraEmMillis) {
+
+        boolean isExpirado(long agora) {
+            return expiraEmMillis <= agora;
+        }
+    }
+
+    public record Estatisticas(boolean habilitado, int entradas, int capacidade,
+                               long acertos, long falhas, long descartes, double taxaAcerto) {
+    }
+
+    /**
+     * Retorna o token verificado, reaproveitando uma verificação anterior quando possível
+     *
+     * @throws RuntimeException se o token for inválido ou estiver expirado
+     */
+    public TokenVerificado verificar(String token) {
+        if (!habilitado) {
+            return novaEntrada(jwtService.parseToken(token));
+        }
+
+        String chave = digest(token);
+        long agora = System.currentTimeMillis();
+
+        TokenVerificado entrada = entradas.get(chave);
+        if (entrada != null) {
+            if (!entrada.isExpirado(agora)) {
+                acertos.increment();
+                return entrada;
+            }
+            entradas.remove(chave, entrada);
+        }
+
+        falhas.increment();
+        entrada = novaEntrada(jwtService.parseToken(token));
+        if (entradas.put(chave, entrada) == null) {
+            ordemInsercao.add(chave);
+            descartarExcedentes(agora);
+        }
+        return entrada;
+    }
+
+    public Estatisticas estatisticas() {
+        long totalAcertos = acertos.sum();
+        long total = totalAcertos + falhas.sum();
+        return new Estatisticas(habilitado, entradas.size(), maxEntradas, totalAcertos, falhas.sum(),
+                descartes.sum(), total == 0 ? 0.0 : (double) totalAcertos / total);
+    }
+
+    public void limpar() {
+        entradas.clear();
+        ordemInsercao.clear();
+    }
+
+    private TokenVerificado novaEntrada(Claims claims) {
+        return new TokenVerificado(claims, jwtService.toUsuarioAutenticado(claims), claims.getExpiration().getTime());
+    }
+
+    private void descartarExcedentes(long agora) {
+        while (entradas.size() > maxEntradas) {
+            String maisAntiga = ordemInsercao.poll();
+            if (maisAntiga == null) {
+                return;
+            }
+            if (entradas.remove(maisAntiga) != null) {
+                descartes.increment();
+            }
+        }
+
+        // Remove do início da fila entradas já expiradas, sem varrer o mapa inteiro
+        String chave;
+        while ((chave = ordemInsercao.peek()) != null) {
+            TokenVerificado entrada = entradas.get(chave);
+            if (entrada != null && !entrada.isExpirado(agora)) {
+                return;
+            }
+            if (ordemInsercao.remove(chave) && entrada != null && entradas.remove(chave, entrada)) {
+                descartes.increment();
+            }
+        }
+    }
+
+    private static String digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        sha256.reset();
+        return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
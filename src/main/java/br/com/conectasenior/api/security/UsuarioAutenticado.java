@@ -0,0 +1,30 @@
+package br.com.conectasenior.api.security;
+
+import br.com.conectasenior.api.entities.Usuario;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Principal de uma requisição autenticada por JWT
+ *
+ * Contém apenas o necessário para autorização (id, email e papel), podendo ser
+ * montado diretamente das claims assinadas do token, sem consultar o banco.
+ */
+public record UsuarioAutenticado(Long id, String email, Usuario.TipoUsuario tipo) implements AuthenticatedPrincipal {
+
+    public static UsuarioAutenticado de(Usuario usuario) {
+        return new UsuarioAutenticado(usuario.getId(), usuario.getEmail(), usuario.getTipo());
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + tipo.name()));
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
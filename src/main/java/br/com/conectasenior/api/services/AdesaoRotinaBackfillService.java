@@ -0,0 +1,150 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.exceptions.BusinessException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reconstrução por faixas dos contadores diários de adesão (adesao_rotina_diaria)
+ *
+ * As rotinas são divididas em faixas de ids; cada faixa é recalculada em sua própria
+ * transação com um único INSERT ... SELECT agrupado sobre execucoes_rotina, e as
+ * faixas rodam em rotinas.adesao.backfill.threads threads (padrão 1: com mais
+ * threads as faixas disputam o banco e a reconstrução fica mais lenta). Com
+ * rotinas.adesao.reconstruir-na-inicializacao=true roda ao subir a aplicação.
+ *
+ * A gravação do ExecucaoRotinaBuffer fica suspensa durante a reconstrução: um lote
+ * gravado entre o DELETE e o INSERT ... SELECT de uma faixa seria contado duas vezes,
+ * ou perdido.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdesaoRotinaBackfillService implements ApplicationRunner {
+
+    private static final String RECALCULAR_FAIXA =
+            "INSERT INTO adesao_rotina_diaria (rotina_id, idoso_id, tipo, dia, executadas, atrasadas, puladas, "
+            + "parciais, atualizado_em) "
+            + "SELECT e.rotina_id, r.idoso_id, r.tipo, CAST(e.executado_em AS DATE), "
+            + "SUM(CASE WHEN e.status = 'EXECUTADA' THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN e.status = 'ATRASADA' THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN e.status = 'PULADA' THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN e.status = 'PARCIALMENTE_EXECUTADA' THEN 1 ELSE 0 END), "
+            + "CURRENT_TIMESTAMP "
+            + "FROM execucoes_rotina e JOIN rotinas r ON r.id = e.rotina_id "
+            + "WHERE e.rotina_id BETWEEN ? AND ? "
+            + "GROUP BY e.rotina_id, r.idoso_id, r.tipo, CAST(e.executado_em AS DATE)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ExecucaoRotinaBuffer execucaoRotinaBuffer;
+
+    @Value("${rotinas.adesao.reconstruir-na-inicializacao:false}")
+    private boolean reconstruirNaInicializacao;
+
+    @Value("${rotinas.adesao.backfill.threads:1}")
+    private int threads;
+
+    @Value("${rotinas.adesao.backfill.rotinas-por-faixa:2000}")
+    private int rotinasPorFaixa;
+
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+
+    /**
+     * Resultado de uma reconstrução
+     */
+    public record Resultado(int rotinas, int faixas, long dias, long duracaoMs) {
+    }
+
+    private record Faixa(long primeiroId, long ultimoId) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (reconstruirNaInicializacao) {
+            reconstruirTodos();
+        }
+    }
+
+    /**
+     * Recalcula os contadores diários de todas as rotinas a partir de execucoes_rotina
+     *
+     * @throws BusinessException se outra reconstrução já estiver em andamento
+     */
+    public Resultado reconstruirTodos() {
+        if (!emExecucao.compareAndSet(false, true)) {
+            throw new BusinessException("Reconstrução da adesão às rotinas já em andamento");
+        }
+        try {
+            return execucaoRotinaBuffer.comGravacaoSuspensa(this::reconstruirFaixas);
+        } finally {
+            emExecucao.set(false);
+        }
+    }
+
+    private Resultado reconstruirFaixas() {
+        AtomicInteger contador = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), tarefa -> {
+            Thread thread = new Thread(tarefa, "adesao-backfill-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            long inicio = System.currentTimeMillis();
+            List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM rotinas ORDER BY id", Long.class);
+            List<Faixa> faixas = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i += rotinasPorFaixa) {
+                faixas.add(new Faixa(ids.get(i), ids.get(Math.min(i + rotinasPorFaixa, ids.size()) - 1)));
+            }
+            log.info("Reconstruindo adesão de {} rotinas em {} faixas ({} threads)", ids.size(), faixas.size(), threads);
+
+            // Contadores de rotinas que não existem mais
+            jdbcTemplate.update("DELETE FROM adesao_rotina_diaria WHERE rotina_id NOT IN (SELECT id FROM rotinas)");
+
+            TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+            List<Future<Integer>> pendentes = new ArrayList<>(faixas.size());
+            for (Faixa faixa : faixas) {
+                pendentes.add(executor.submit(() -> transacao.execute(status -> recalcular(faixa))));
+            }
+            long dias = 0;
+            for (Future<Integer> pendente : pendentes) {
+                dias += pendente.get();
+            }
+
+            Resultado resultado = new Resultado(ids.size(), faixas.size(), dias, System.currentTimeMillis() - inicio);
+            log.info("Reconstrução da adesão às rotinas concluída: {}", resultado);
+            return resultado;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Reconstrução da adesão às rotinas interrompida");
+        } catch (ExecutionException e) {
+            throw new BusinessException("Falha na reconstrução da adesão às rotinas", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int recalcular(Faixa faixa) {
+        jdbcTemplate.update("DELETE FROM adesao_rotina_diaria WHERE rotina_id BETWEEN ? AND ?",
+                faixa.primeiroId(), faixa.ultimoId());
+        int dias = jdbcTemplate.update(RECALCULAR_FAIXA, faixa.primeiroId(), faixa.ultimoId());
+        log.debug("Adesão das rotinas {} a {} reconstruída ({} dias)", faixa.primeiroId(), faixa.ultimoId(), dias);
+        return dias;
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.entities.ExecucaoRotina;
+import br.com.conectasenior.api.repositories.ExecucaoRotinaRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contadores em memória de execuções por rotina e status
+ *
+ * Carregados na criação do bean com uma única consulta agrupada e incrementados no
+ * momento do registro (antes da gravação em lote), de modo que a adesão de uma
+ * rotina é lida sem COUNT na tabela execucoes_rotina. Execuções descartadas pelo
+ * ExecucaoRotinaBuffer são descontadas.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdesaoRotinaContadores {
+
+    private static final ExecucaoRotina.StatusExecucao[] STATUS = ExecucaoRotina.StatusExecucao.values();
+
+    private final ExecucaoRotinaRepository execucaoRotinaRepository;
+
+    private final Map<Long, AtomicLongArray> porRotina = new ConcurrentHashMap<>();
+
+    /**
+     * Carrega os contadores na criação do bean, antes de o servidor web aceitar
+     * requisições: nenhuma execução é registrada durante a carga e contada duas vezes
+     */
+    @PostConstruct
+    public void carregar() {
+        List<Object[]> contagens = execucaoRotinaRepository.contarPorRotinaEStatus();
+        for (Object[] linha : contagens) {
+            adicionar((Long) linha[0], (ExecucaoRotina.StatusExecucao) linha[1], (Long) linha[2]);
+        }
+        log.info("Contadores de adesão carregados: {} rotinas com execuções", porRotina.size());
+    }
+
+    public void registrar(Long rotinaId, ExecucaoRotina.StatusExecucao status) {
+        adicionar(rotinaId, status, 1);
+    }
+
+    public void descontar(Long rotinaId, ExecucaoRotina.StatusExecucao status) {
+        AtomicLongArray contadores = porRotina.get(rotinaId);
+        if (contadores != null) {
+            contadores.decrementAndGet(status.ordinal());
+        }
+    }
+
+    public long contar(Long rotinaId, ExecucaoRotina.StatusExecucao status) {
+        AtomicLongArray contadores = porRotina.get(rotinaId);
+        return contadores == null ? 0 : contadores.get(status.ordinal());
+    }
+
+    public Map<ExecucaoRotina.StatusExecucao, Long> contagens(Long rotinaId) {
+        Map<ExecucaoRotina.StatusExecucao, Long> contagens = new EnumMap<>(ExecucaoRotina.StatusExecucao.class);
+        for (ExecucaoRotina.StatusExecucao status : STATUS) {
+            contagens.put(status, contar(rotinaId, status));
+        }
+        return contagens;
+    }
+
+    /**
+     * Rotina removida: as execuções foram apagadas em cascata
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarRotina(RotinaAlteradaEvent evento) {
+        if (evento.idosoId() == null) {
+            porRotina.remove(evento.rotinaId());
+        }
+    }
+
+    private void adicionar(Long rotinaId, ExecucaoRotina.StatusExecucao status, long quantidade) {
+        porRotina.computeIfAbsent(rotinaId, id -> new AtomicLongArray(STATUS.length))
+                .addAndGet(status.ordinal(), quantidade);
+    }
+}
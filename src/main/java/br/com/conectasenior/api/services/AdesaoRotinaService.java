@@ -0,0 +1,217 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.config.LembreteRotinaProperties;
+import br.com.conectasenior.api.dtos.RelatorioAdesaoDTO;
+import br.com.conectasenior.api.entities.DiasSemana;
+import br.com.conectasenior.api.entities.ExecucaoRotina;
+import br.com.conectasenior.api.entities.Rotina;
+import br.com.conectasenior.api.exceptions.BusinessException;
+import br.com.conectasenior.api.repositories.AdesaoRotinaDiariaRepository;
+import br.com.conectasenior.api.repositories.AdesaoRotinaDiariaRepository.RotinaPrevista;
+import br.com.conectasenior.api.repositories.AdesaoRotinaDiariaRepository.Totais;
+import br.com.conectasenior.api.repositories.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Service para a adesão às rotinas em janelas de dias (7, 30, 90...)
+ *
+ * Os contadores diários por rotina (adesao_rotina_diaria) são atualizados na mesma
+ * transação que grava cada lote de execuções (ExecucaoRotinaBuffer): um upsert por
+ * rotina e dia tocados pelo lote (INSERT ... ON CONFLICT no Postgres, MERGE no H2). Os
+ * relatórios somam esses contadores e calculam os dias previstos a partir da máscara
+ * de dias de cada rotina, sem ler execucoes_rotina.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class AdesaoRotinaService {
+
+    public static final int MAX_DIAS_JANELA = 366;
+
+    /**
+     * Soma as execuções do lote ao contador da rotina no dia, criando-o se ainda não
+     * existir; idoso e tipo são copiados da rotina, e rotina já removida não gera linha.
+     * Parâmetros: executadas, atrasadas, puladas, parciais, atualizado_em, dia, rotina_id
+     */
+    private static final String ACRESCENTAR_POSTGRES =
+            "INSERT INTO adesao_rotina_diaria (executadas, atrasadas, puladas, parciais, atualizado_em, "
+            + "dia, rotina_id, idoso_id, tipo) "
+            + "SELECT ?, ?, ?, ?, ?, ?, r.id, r.idoso_id, r.tipo FROM rotinas r WHERE r.id = ? "
+            + "ON CONFLICT (rotina_id, dia) DO UPDATE SET "
+            + "executadas = adesao_rotina_diaria.executadas + EXCLUDED.executadas, "
+            + "atrasadas = adesao_rotina_diaria.atrasadas + EXCLUDED.atrasadas, "
+            + "puladas = adesao_rotina_diaria.puladas + EXCLUDED.puladas, "
+            + "parciais = adesao_rotina_diaria.parciais + EXCLUDED.parciais, "
+            + "atualizado_em = EXCLUDED.atualizado_em";
+
+    private static final String ACRESCENTAR_H2 =
+            "MERGE INTO adesao_rotina_diaria a USING (SELECT CAST(? AS INTEGER) AS executadas, "
+            + "CAST(? AS INTEGER) AS atrasadas, CAST(? AS INTEGER) AS puladas, CAST(? AS INTEGER) AS parciais, "
+            + "CAST(? AS TIMESTAMP) AS atualizado_em, CAST(? AS DATE) AS dia, r.id AS rotina_id, r.idoso_id, r.tipo "
+            + "FROM rotinas r WHERE r.id = ?) n "
+            + "ON a.rotina_id = n.rotina_id AND a.dia = n.dia "
+            + "WHEN MATCHED THEN UPDATE SET executadas = a.executadas + n.executadas, "
+            + "atrasadas = a.atrasadas + n.atrasadas, puladas = a.puladas + n.puladas, "
+            + "parciais = a.parciais + n.parciais, atualizado_em = n.atualizado_em "
+            + "WHEN NOT MATCHED THEN INSERT (executadas, atrasadas, puladas, parciais, atualizado_em, dia, "
+            + "rotina_id, idoso_id, tipo) VALUES (n.executadas, n.atrasadas, n.puladas, n.parciais, "
+            + "n.atualizado_em, n.dia, n.rotina_id, n.idoso_id, n.tipo)";
+
+    private static final Comparator<ChaveDia> ORDEM_DIA = Comparator.comparing(ChaveDia::rotinaId)
+            .thenComparing(ChaveDia::dia);
+
+    private final AdesaoRotinaDiariaRepository adesaoRotinaDiariaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final DialetoBanco dialetoBanco;
+    private final LembreteRotinaProperties lembreteRotinaProperties;
+
+    private record ChaveDia(Long rotinaId, LocalDate dia) {
+    }
+
+    /**
+     * Acrescenta um lote de execuções aos contadores diários; deve ser chamado na
+     * transação que grava as execuções
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarLote(Collection<ExecucaoRotinaBuffer.Pendente> execucoes) {
+        Map<ChaveDia, int[]> parciais = new HashMap<>();
+        for (ExecucaoRotinaBuffer.Pendente execucao : execucoes) {
+            parciais.computeIfAbsent(new ChaveDia(execucao.rotinaId(), execucao.executadoEm().toLocalDate()),
+                    chave -> new int[ExecucaoRotina.StatusExecucao.values().length])[execucao.status().ordinal()]++;
+        }
+        if (parciais.isEmpty()) {
+            return;
+        }
+
+        // Sempre na mesma ordem: lotes simultâneos com dias em comum não travam um ao outro
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        dialetoBanco.upsert(ACRESCENTAR_POSTGRES, ACRESCENTAR_H2, parciais.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(ORDEM_DIA))
+                .map(dia -> parametros(dia, agora))
+                .toList());
+    }
+
+    /**
+     * Adesão das rotinas de um idoso nos últimos "dias" dias (incluindo hoje)
+     */
+    public RelatorioAdesaoDTO relatorioPorIdoso(Long idosoId, int dias) {
+        log.debug("Calculando adesão do idoso ID: {} em {} dias", idosoId, dias);
+        LocalDate fim = LocalDate.now(lembreteRotinaProperties.getFuso());
+        LocalDate inicio = inicioDaJanela(fim, dias);
+        return montar(inicio, fim,
+                adesaoRotinaDiariaRepository.findRotinasPrevistasPorIdoso(idosoId, inicio.atStartOfDay()),
+                adesaoRotinaDiariaRepository.totalizarPorIdoso(idosoId, inicio, fim));
+    }
+
+    /**
+     * Adesão das rotinas dos idosos vinculados a um cuidador nos últimos "dias" dias
+     */
+    public RelatorioAdesaoDTO relatorioPorCuidador(Long usuarioId, int dias) {
+        log.debug("Calculando adesão dos idosos do usuário ID: {} em {} dias", usuarioId, dias);
+        LocalDate fim = LocalDate.now(lembreteRotinaProperties.getFuso());
+        LocalDate inicio = inicioDaJanela(fim, dias);
+        // Ids resolvidos antes: a lista literal no IN é bem mais barata que a subconsulta em usuario_idoso
+        Set<Long> idosoIds = usuarioRepository.findIdososVinculadosIds(usuarioId);
+        if (idosoIds.isEmpty()) {
+            return montar(inicio, fim, List.of(), List.of());
+        }
+        return montar(inicio, fim,
+                adesaoRotinaDiariaRepository.findRotinasPrevistasPorIdosos(idosoIds, inicio.atStartOfDay()),
+                adesaoRotinaDiariaRepository.totalizarPorIdosos(idosoIds, inicio, fim));
+    }
+
+    private LocalDate inicioDaJanela(LocalDate fim, int dias) {
+        if (dias < 1 || dias > MAX_DIAS_JANELA) {
+            throw new BusinessException("A janela deve ter entre 1 e " + MAX_DIAS_JANELA + " dias");
+        }
+        return fim.minusDays(dias - 1L);
+    }
+
+    private RelatorioAdesaoDTO montar(LocalDate inicio, LocalDate fim, List<RotinaPrevista> rotinas, List<Totais> totais) {
+        Map<Long, Totais> totaisPorRotina = new HashMap<>();
+        totais.forEach(total -> totaisPorRotina.put(total.rotinaId(), total));
+
+        RelatorioAdesaoDTO.Indicador geral = new RelatorioAdesaoDTO.Indicador();
+        Map<Rotina.TipoRotina, RelatorioAdesaoDTO.Indicador> porTipo = new EnumMap<>(Rotina.TipoRotina.class);
+        Map<Long, RelatorioAdesaoDTO.Indicador> porIdoso = new TreeMap<>();
+
+        for (RotinaPrevista rotina : rotinas) {
+            LocalDate primeiroDia = rotina.criadoEm() != null && rotina.criadoEm().toLocalDate().isAfter(inicio)
+                    ? rotina.criadoEm().toLocalDate()
+                    : inicio;
+            // Rotina desativada: prevista até o dia da última alteração
+            LocalDate ultimoDia = !Boolean.TRUE.equals(rotina.ativo()) && rotina.atualizadoEm() != null
+                    && rotina.atualizadoEm().toLocalDate().isBefore(fim)
+                    ? rotina.atualizadoEm().toLocalDate()
+                    : fim;
+            long previstas = DiasSemana.contarDias(rotina.diasSemanaMascara(), primeiroDia, ultimoDia);
+            Totais total = totaisPorRotina.get(rotina.rotinaId());
+
+            acumular(geral, previstas, total);
+            acumular(porTipo.computeIfAbsent(rotina.tipo(), tipo -> new RelatorioAdesaoDTO.Indicador()), previstas, total);
+            acumular(porIdoso.computeIfAbsent(rotina.idosoId(), id -> new RelatorioAdesaoDTO.Indicador()), previstas, total);
+        }
+
+        geral.setPercentual(percentual(geral));
+        porTipo.values().forEach(indicador -> indicador.setPercentual(percentual(indicador)));
+        porIdoso.values().forEach(indicador -> indicador.setPercentual(percentual(indicador)));
+
+        RelatorioAdesaoDTO relatorio = new RelatorioAdesaoDTO();
+        relatorio.setInicio(inicio);
+        relatorio.setFim(fim);
+        relatorio.setGeral(geral);
+        relatorio.setPorTipo(porTipo);
+        relatorio.setPorIdoso(porIdoso);
+        return relatorio;
+    }
+
+    private static void acumular(RelatorioAdesaoDTO.Indicador indicador, long previstas, Totais total) {
+        indicador.setPrevistas(indicador.getPrevistas() + previstas);
+        if (total == null) {
+            return;
+        }
+        indicador.setCumpridas(indicador.getCumpridas() + total.cumpridos());
+        indicador.setExecutadas(indicador.getExecutadas() + total.executadas());
+        indicador.setAtrasadas(indicador.getAtrasadas() + total.atrasadas());
+        indicador.setPuladas(indicador.getPuladas() + total.puladas());
+        indicador.setParciais(indicador.getParciais() + total.parciais());
+    }
+
+    private static Double percentual(RelatorioAdesaoDTO.Indicador indicador) {
+        if (indicador.getPrevistas() == 0) {
+            return null;
+        }
+        // Execuções em dias fora da programação não elevam a adesão acima de 100%
+        double percentual = Math.min(100.0, indicador.getCumpridas() * 100.0 / indicador.getPrevistas());
+        return Math.round(percentual * 10) / 10.0;
+    }
+
+    private static Object[] parametros(Map.Entry<ChaveDia, int[]> dia, Timestamp agora) {
+        int[] contagens = dia.getValue();
+        return new Object[] {
+                contagens[ExecucaoRotina.StatusExecucao.EXECUTADA.ordinal()],
+                contagens[ExecucaoRotina.StatusExecucao.ATRASADA.ordinal()],
+                contagens[ExecucaoRotina.StatusExecucao.PULADA.ordinal()],
+                contagens[ExecucaoRotina.StatusExecucao.PARCIALMENTE_EXECUTADA.ordinal()],
+                agora, Date.valueOf(dia.getKey().dia()), dia.getKey().rotinaId()
+        };
+    }
+}
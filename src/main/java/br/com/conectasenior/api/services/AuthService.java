@@ -1,17 +1,22 @@
 package br.com.conectasenior.api.services;
 
 import br.com.conectasenior.api.dtos.UsuarioDTO;
+import br.com.conectasenior.api.dtos.requests.AlteracaoSenhaRequest;
 import br.com.conectasenior.api.dtos.requests.LoginRequest;
 import br.com.conectasenior.api.dtos.requests.RegistroRequest;
 import br.com.conectasenior.api.dtos.responses.LoginResponse;
 import br.com.conectasenior.api.dtos.responses.TokenResponse;
 import br.com.conectasenior.api.entities.Usuario;
 import br.com.conectasenior.api.exceptions.BusinessException;
+import br.com.conectasenior.api.exceptions.ResourceNotFoundException;
+import br.com.conectasenior.api.mappers.UsuarioMapper;
 import br.com.conectasenior.api.repositories.UsuarioRepository;
 import br.com.conectasenior.api.security.JwtService;
+import br.com.conectasenior.api.security.TokenRevogacaoService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -25,6 +30,7 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed("conecta.servicos")
 @Transactional
 public class AuthService {
 
@@ -32,7 +38,8 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
-    private final ModelMapper modelMapper;
+    private final UsuarioMapper usuarioMapper;
+    private final TokenRevogacaoService tokenRevogacaoService;
 
     @Value("${jwt.expiration}")
     private Long jwtExpiration;
@@ -83,7 +90,7 @@ public class AuthService {
         Usuario usuarioSalvo = usuarioRepository.save(novoUsuario);
         log.info("Usuário registrado com sucesso: {}", usuarioSalvo.getEmail());
 
-        return modelMapper.map(usuarioSalvo, UsuarioDTO.class);
+        return usuarioMapper.toDTO(usuarioSalvo);
     }
 
     /**
@@ -92,21 +99,80 @@ public class AuthService {
     public TokenResponse refreshToken(String authorizationHeader) {
         log.info("Renovando token JWT");
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
-            throw new BusinessException("Token inválido");
-        }
-
-        String token = authorizationHeader.substring(7);
-        String username = jwtService.extractUsername(token);
+        Claims claims = extrairClaims(authorizationHeader);
 
-        Usuario usuario = usuarioRepository.findByEmail(username)
+        Usuario usuario = usuarioRepository.findByEmail(claims.getSubject())
                 .orElseThrow(() -> new BusinessException("Usuário não encontrado"));
 
-        if (jwtService.validateToken(token, usuario)) {
+        if (usuario.isEnabled() && jwtService.validateClaims(claims, usuario.getEmail())
+                && usuario.getVersaoToken() == JwtService.versaoToken(claims)) {
             String novoToken = jwtService.generateToken(usuario);
             return new TokenResponse(novoToken, "Bearer", jwtExpiration);
         }
 
         throw new BusinessException("Token inválido ou expirado");
     }
+
+    /**
+     * Encerra a sessão revogando o token informado até a sua expiração
+     */
+    public void logout(String authorizationHeader) {
+        Claims claims = extrairClaims(authorizationHeader);
+        tokenRevogacaoService.revogarToken(claims.getId(), claims.getExpiration().toInstant());
+        log.info("Logout realizado para usuário: {}", claims.getSubject());
+    }
+
+    /**
+     * Troca a senha do usuário do token e revoga todos os tokens emitidos para ele
+     * até agora; devolve um token novo para a sessão atual
+     */
+    public TokenResponse alterarSenha(String authorizationHeader, AlteracaoSenhaRequest request) {
+        Claims claims = extrairClaims(authorizationHeader);
+
+        Usuario usuario = usuarioRepository.findByEmail(claims.getSubject())
+                .orElseThrow(() -> new BusinessException("Usuário não encontrado"));
+        if (!passwordEncoder.matches(request.getSenhaAtual(), usuario.getSenha())) {
+            throw new BusinessException("Senha atual incorreta");
+        }
+
+        usuario.setSenha(passwordEncoder.encode(request.getNovaSenha()));
+        tokenRevogacaoService.revogarTokensDoUsuario(usuario);
+        usuarioRepository.save(usuario);
+        log.info("Senha alterada para usuário: {}", usuario.getEmail());
+
+        return new TokenResponse(jwtService.generateToken(usuario), "Bearer", jwtExpiration);
+    }
+
+    /**
+     * Desativa o usuário e revoga os tokens já emitidos para ele; no modo
+     * jwt.stateless o claim "ativo" dos tokens antigos continuaria valendo
+     * sem a troca de versão
+     */
+    public void desativarUsuario(Long id) {
+        Usuario usuario = usuarioRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com ID: " + id));
+
+        usuario.setAtivo(false);
+        tokenRevogacaoService.revogarTokensDoUsuario(usuario);
+        usuarioRepository.save(usuario);
+        log.info("Usuário ID: {} desativado", id);
+    }
+
+    private Claims extrairClaims(String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            throw new BusinessException("Token inválido");
+        }
+
+        Claims claims;
+        try {
+            claims = jwtService.parseToken(authorizationHeader.substring(7));
+        } catch (RuntimeException e) {
+            throw new BusinessException("Token inválido ou expirado");
+        }
+
+        if (tokenRevogacaoService.isRevogado(claims)) {
+            throw new BusinessException("Token revogado");
+        }
+        return claims;
+    }
 }
@@ -0,0 +1,195 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.config.BuscaIdososProperties;
+import br.com.conectasenior.api.dtos.ResultadoBuscaIdosoDTO;
+import br.com.conectasenior.api.exceptions.BusinessException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Busca de idosos por nome ou endereço, sem acentos, tolerante a prefixos e erros
+ * de digitação, em ordem de relevância
+ *
+ * Termo e textos são comparados por trigramas depois de normalizados (TextoBusca).
+ * No Postgres com sql/migracoes/010 aplicada, a busca usa os índices GIN de
+ * trigramas sobre busca_normalizar(nome) e busca_normalizar(endereco); nos demais
+ * bancos (H2 em desenvolvimento e testes) usa o IndiceBuscaIdosos, carregado quando
+ * a aplicação sobe e mantido pelos eventos do IdosoService após o commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BuscaIdosoService {
+
+    static final int TAMANHO_MINIMO_TERMO = 2;
+    static final int TAMANHO_MAXIMO_TERMO = 100;
+
+    static final String BUSCAR_POSTGRES =
+            "SELECT id, nome, endereco, GREATEST(word_similarity(?, busca_normalizar(nome)), "
+            + IndiceBuscaIdosos.PESO_ENDERECO + " * word_similarity(?, coalesce(busca_normalizar(endereco), ''))) "
+            + "AS relevancia FROM idosos "
+            + "WHERE busca_normalizar(nome) LIKE ? OR ? <% busca_normalizar(nome) "
+            + "OR busca_normalizar(endereco) LIKE ? OR ? <% busca_normalizar(endereco) "
+            + "ORDER BY relevancia DESC, nome, id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final BuscaIdososProperties properties;
+
+    private final ReentrantLock atualizacao = new ReentrantLock();
+    private volatile BuscaIdososProperties.Modo modo;
+    private volatile IndiceBuscaIdosos indice = new IndiceBuscaIdosos();
+
+    /**
+     * Modo em uso e tamanho do índice em memória
+     */
+    public record Estado(BuscaIdososProperties.Modo modo, int indexados, long duracaoMs) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (modo() == BuscaIdososProperties.Modo.MEMORIA) {
+            reconstruir();
+        }
+    }
+
+    /**
+     * Idosos cujo nome ou endereço mais se parecem com o termo
+     *
+     * @throws BusinessException se o termo tiver menos de 2 letras ou dígitos, ou o
+     *         limite estiver fora de 1 a busca.idosos.limite-maximo
+     */
+    public List<ResultadoBuscaIdosoDTO> buscar(String termo, int limite) {
+        String normalizado = TextoBusca.normalizar(termo);
+        if (normalizado.length() < TAMANHO_MINIMO_TERMO || normalizado.length() > TAMANHO_MAXIMO_TERMO) {
+            throw new BusinessException("O termo de busca deve ter entre " + TAMANHO_MINIMO_TERMO + " e "
+                    + TAMANHO_MAXIMO_TERMO + " letras ou dígitos");
+        }
+        if (limite < 1 || limite > properties.getLimiteMaximo()) {
+            throw new BusinessException("O limite da busca deve estar entre 1 e " + properties.getLimiteMaximo());
+        }
+        log.debug("Buscando idosos por '{}' ({})", normalizado, modo());
+
+        if (modo() == BuscaIdososProperties.Modo.POSTGRES) {
+            return buscarPostgres(normalizado, limite);
+        }
+        return indice.buscar(normalizado, limite, properties.getLimiarSimilaridade());
+    }
+
+    /**
+     * Recarrega do banco o índice em memória
+     *
+     * @throws BusinessException se a busca estiver usando os índices do Postgres
+     */
+    public Estado reconstruir() {
+        if (modo() == BuscaIdososProperties.Modo.POSTGRES) {
+            throw new BusinessException("A busca de idosos usa os índices do Postgres; não há índice em memória");
+        }
+        atualizacao.lock();
+        try {
+            long inicio = System.currentTimeMillis();
+            IndiceBuscaIdosos novo = new IndiceBuscaIdosos();
+            novo.indexar(jdbcTemplate.query("SELECT id, nome, endereco FROM idosos",
+                    (rs, linha) -> new IndiceBuscaIdosos.Linha(rs.getLong("id"), rs.getString("nome"),
+                            rs.getString("endereco"))));
+            indice = novo;
+
+            Estado estado = new Estado(BuscaIdososProperties.Modo.MEMORIA, novo.tamanho(),
+                    System.currentTimeMillis() - inicio);
+            log.info("Índice de busca de idosos reconstruído: {}", estado);
+            return estado;
+        } finally {
+            atualizacao.unlock();
+        }
+    }
+
+    public Estado estado() {
+        return new Estado(modo(), modo() == BuscaIdososProperties.Modo.MEMORIA ? indice.tamanho() : 0, 0);
+    }
+
+    /**
+     * Reindexa o idoso criado, alterado ou removido
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarIdoso(IdosoAlteradoEvent evento) {
+        if (modo() != BuscaIdososProperties.Modo.MEMORIA) {
+            return;
+        }
+        atualizacao.lock();
+        try {
+            if (evento.removido()) {
+                indice.remover(evento.idosoId());
+            } else {
+                jdbcTemplate.query("SELECT nome, endereco FROM idosos WHERE id = ?",
+                        (RowCallbackHandler) rs -> indice.indexar(evento.idosoId(), rs.getString("nome"),
+                                rs.getString("endereco")),
+                        evento.idosoId());
+            }
+        } finally {
+            atualizacao.unlock();
+        }
+        if (indice.fragmentado()) {
+            reconstruir();
+        }
+    }
+
+    private List<ResultadoBuscaIdosoDTO> buscarPostgres(String termo, int limite) {
+        String contem = "%" + termo + "%";
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(true);
+        return transacao.execute(status -> {
+            // Limiar do operador <%, que os índices GIN de trigramas atendem
+            jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)",
+                    String.class, String.valueOf(properties.getLimiarSimilaridade()));
+            return jdbcTemplate.query(BUSCAR_POSTGRES,
+                    (rs, linha) -> new ResultadoBuscaIdosoDTO(rs.getLong("id"), rs.getString("nome"),
+                            rs.getString("endereco"), Math.round(rs.getDouble("relevancia") * 1000) / 1000.0),
+                    termo, termo, contem, termo, contem, termo, limite);
+        });
+    }
+
+    private BuscaIdososProperties.Modo modo() {
+        BuscaIdososProperties.Modo atual = modo;
+        if (atual == null) {
+            atual = modo = detectarModo();
+            log.info("Busca de idosos no modo {}", atual);
+        }
+        return atual;
+    }
+
+    /**
+     * AUTOMATICO vira POSTGRES quando o banco é Postgres com a função busca_normalizar
+     * (migração 010), e MEMORIA nos demais casos
+     */
+    private BuscaIdososProperties.Modo detectarModo() {
+        if (properties.getModo() != BuscaIdososProperties.Modo.AUTOMATICO) {
+            return properties.getModo();
+        }
+        String banco = jdbcTemplate.execute((ConnectionCallback<String>) conexao ->
+                conexao.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(banco)) {
+            return BuscaIdososProperties.Modo.MEMORIA;
+        }
+        Boolean migrada = jdbcTemplate.queryForObject(
+                "SELECT to_regprocedure('busca_normalizar(text)') IS NOT NULL", Boolean.class);
+        if (!Boolean.TRUE.equals(migrada)) {
+            log.warn("Migração sql/migracoes/010_busca_idosos_trigramas.sql não aplicada: "
+                    + "busca de idosos com índice em memória");
+            return BuscaIdososProperties.Modo.MEMORIA;
+        }
+        return BuscaIdososProperties.Modo.POSTGRES;
+    }
+}
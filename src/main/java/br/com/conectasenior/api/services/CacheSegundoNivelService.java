@@ -0,0 +1,83 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.entities.ContatoEmergencia;
+import br.com.conectasenior.api.entities.Idoso;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estatísticas e descarte do cache de segundo nível (CacheSegundoNivelConfig)
+ *
+ * As alterações feitas por entidades gerenciadas já atualizam o cache no commit;
+ * o descarte explícito cobre o que o Hibernate não acompanha entidade por
+ * entidade, como a remoção de um idoso com seus contatos em cascata.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CacheSegundoNivelService {
+
+    private final CacheManager cacheSegundoNivelManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public record Estatisticas(String regiao, long entradas, long capacidade,
+                               long acertos, long falhas, long descartes, double taxaAcerto) {
+    }
+
+    /**
+     * Entradas, capacidade e contadores de cada região
+     */
+    public List<Estatisticas> estatisticas() {
+        List<Estatisticas> estatisticas = new ArrayList<>();
+        for (String regiao : cacheSegundoNivelManager.getCacheNames()) {
+            Cache<?, ?> cache = caffeine(regiao);
+            CacheStats stats = cache.stats();
+            long capacidade = cache.policy().eviction().map(Policy.Eviction::getMaximum).orElse(-1L);
+            estatisticas.add(new Estatisticas(regiao, cache.estimatedSize(), capacidade,
+                    stats.hitCount(), stats.missCount(), stats.evictionCount(), stats.hitRate()));
+        }
+        return estatisticas;
+    }
+
+    /**
+     * Cache Caffeine de uma região, para estatísticas e métricas
+     */
+    public Cache<?, ?> caffeine(String regiao) {
+        return cacheSegundoNivelManager.getCache(regiao).unwrap(Cache.class);
+    }
+
+    /**
+     * Esvazia todas as regiões, inclusive os resultados de consultas
+     */
+    public void limpar() {
+        log.info("Esvaziando o cache de segundo nível");
+        sessionFactory().getCache().evictAllRegions();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarIdoso(IdosoAlteradoEvent evento) {
+        org.hibernate.Cache cache = sessionFactory().getCache();
+        cache.evictEntityData(Idoso.class, evento.idosoId());
+        if (evento.removido()) {
+            // Ids dos contatos removidos em cascata não chegam até aqui
+            cache.evictEntityData(ContatoEmergencia.class);
+            cache.evictDefaultQueryRegion();
+        }
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
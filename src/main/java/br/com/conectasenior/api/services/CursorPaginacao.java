@@ -0,0 +1,105 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.dtos.responses.PaginaCursorResponse;
+import br.com.conectasenior.api.exceptions.BusinessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Paginação por cursor (keyset) das listagens grandes
+ *
+ * A página seguinte começa depois da última linha entregue, comparando a chave de
+ * ordenação (valor, id) em vez de pular OFFSET linhas: com um índice na mesma ordem
+ * (sql/migracoes/009) qualquer página custa o mesmo que a primeira, e o COUNT(*) só
+ * roda quando o cliente pede o total. O cursor é opaco para o cliente: Base64 do
+ * escopo da listagem, do id e do valor da última linha.
+ */
+final class CursorPaginacao {
+
+    static final int TAMANHO_MAXIMO = 200;
+
+    private CursorPaginacao() {
+    }
+
+    /**
+     * Chave da última linha entregue
+     */
+    record Posicao(Long id, String valor) {
+
+        LocalDateTime valorDataHora() {
+            try {
+                return LocalDateTime.parse(valor);
+            } catch (DateTimeParseException e) {
+                throw cursorInvalido();
+            }
+        }
+    }
+
+    /**
+     * Posição codificada no cursor, ou null para a primeira página
+     *
+     * @throws BusinessException se o cursor não for desta listagem ou estiver corrompido
+     */
+    static Posicao decodificar(String escopo, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] partes;
+        try {
+            partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n", 3);
+        } catch (IllegalArgumentException e) {
+            throw cursorInvalido();
+        }
+        if (partes.length != 3 || !partes[0].equals(escopo)) {
+            throw cursorInvalido();
+        }
+        try {
+            return new Posicao(Long.valueOf(partes[1]), partes[2]);
+        } catch (NumberFormatException e) {
+            throw cursorInvalido();
+        }
+    }
+
+    /**
+     * Limite da consulta: uma linha além do tamanho, para saber se há próxima página
+     */
+    static Pageable limite(int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO) {
+            throw new BusinessException("O tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO);
+        }
+        return PageRequest.ofSize(tamanho + 1);
+    }
+
+    /**
+     * Monta a página a partir das linhas lidas com limite(tamanho)
+     */
+    static <E, D> PaginaCursorResponse<D> pagina(String escopo, List<E> linhas, int tamanho,
+                                                 Function<E, Long> id, Function<E, Object> valor,
+                                                 Function<E, D> conversor, Long total) {
+        boolean temProxima = linhas.size() > tamanho;
+        List<E> conteudo = temProxima ? linhas.subList(0, tamanho) : linhas;
+        String proximoCursor = null;
+        if (temProxima) {
+            E ultima = conteudo.get(conteudo.size() - 1);
+            proximoCursor = codificar(escopo, id.apply(ultima), valor.apply(ultima));
+        }
+        return new PaginaCursorResponse<>(conteudo.stream().map(conversor).toList(), conteudo.size(),
+                proximoCursor, total);
+    }
+
+    private static String codificar(String escopo, Long id, Object valor) {
+        String texto = escopo + "\n" + id + "\n" + valor;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static BusinessException cursorInvalido() {
+        return new BusinessException("Cursor de paginação inválido");
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.conectasenior.api.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Upsert de contadores agregados no banco em uso
+ *
+ * No Postgres (produção) o comando é INSERT ... ON CONFLICT DO UPDATE, atômico
+ * contra gravações simultâneas da mesma chave. No H2 (desenvolvimento, testes e
+ * benchmarks) é MERGE, que não é: quando duas transações criam a mesma linha, a
+ * segunda falha na restrição única (depois de esperar o commit da primeira). O H2
+ * desfaz só o comando que falhou, então a linha recusada é repetida e, com a linha
+ * da outra transação já gravada, vira UPDATE.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class DialetoBanco {
+
+    private static final int TENTATIVAS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    boolean postgres() {
+        Boolean atual = postgres;
+        if (atual == null) {
+            atual = postgres = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) conexao ->
+                    conexao.getMetaData().getDatabaseProductName()));
+        }
+        return atual;
+    }
+
+    /**
+     * Executa o upsert para cada linha de parâmetros, na ordem recebida; os dois
+     * comandos recebem os mesmos parâmetros na mesma ordem
+     */
+    void upsert(String comandoPostgres, String comandoH2, List<Object[]> linhas) {
+        if (postgres()) {
+            jdbcTemplate.batchUpdate(comandoPostgres, linhas);
+            return;
+        }
+        // Uma linha por vez: o lote do H2 segue adiante depois de uma linha recusada, e
+        // repeti-la no fim, fora de ordem, pode travar com outra transação
+        for (Object[] parametros : linhas) {
+            executar(comandoH2, parametros);
+        }
+    }
+
+    private void executar(String comando, Object[] parametros) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                jdbcTemplate.update(comando, parametros);
+                return;
+            } catch (DuplicateKeyException e) {
+                if (tentativa == TENTATIVAS) {
+                    throw e;
+                }
+                log.debug("Upsert concorrente na mesma chave; repetindo ({}ª tentativa)", tentativa + 1);
+            }
+        }
+    }
+}
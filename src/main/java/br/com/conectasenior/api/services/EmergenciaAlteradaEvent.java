@@ -0,0 +1,31 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.entities.Emergencia;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento publicado pelo EmergenciaService a cada abertura ou mudança de estado de
+ * uma emergência; os ouvintes o recebem após o commit da transação
+ */
+public record EmergenciaAlteradaEvent(Long emergenciaId,
+                                      Long idosoId,
+                                      Emergencia.TipoEmergencia tipo,
+                                      Emergencia.NivelGravidade gravidade,
+                                      Emergencia.StatusEmergencia status,
+                                      LocalDateTime criadoEm,
+                                      LocalDateTime atualizadoEm) {
+
+    public static EmergenciaAlteradaEvent de(Emergencia emergencia) {
+        return new EmergenciaAlteradaEvent(emergencia.getId(), emergencia.getIdoso().getId(),
+                emergencia.getTipo(), emergencia.getGravidade(), emergencia.getStatus(), emergencia.getCriadoEm(),
+                emergencia.getAtualizadoEm());
+    }
+
+    /**
+     * Ativa ou em atendimento, ou seja, ainda não encerrada
+     */
+    public boolean isEmAndamento() {
+        return EmergenciaService.EM_ANDAMENTO.contains(status);
+    }
+}
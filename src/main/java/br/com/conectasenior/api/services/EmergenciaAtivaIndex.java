@@ -0,0 +1,201 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.entities.Emergencia;
+import br.com.conectasenior.api.repositories.EmergenciaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice em memória das emergências em andamento (ativas ou em atendimento)
+ *
+ * Responde "quem está em emergência agora" sem consultar a tabela emergencias.
+ * É reconstruído na inicialização e mantido pelos eventos do EmergenciaService e
+ * do IdosoService, aplicados após o commit. As leituras não bloqueiam; as escritas são serializadas,
+ * já que emergências mudam de estado raramente.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmergenciaAtivaIndex implements ApplicationRunner {
+
+    private static final Comparator<EmergenciaAtiva> MAIS_GRAVES_PRIMEIRO =
+            Comparator.comparing(EmergenciaAtiva::gravidade).reversed()
+                    .thenComparing(EmergenciaAtiva::criadoEm, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final EmergenciaRepository emergenciaRepository;
+
+    private final Map<Long, EmergenciaAtiva> porId = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> porIdoso = new ConcurrentHashMap<>();
+    private final Map<Emergencia.NivelGravidade, Set<Long>> porGravidade = criarIndiceGravidade();
+
+    /**
+     * Emergência em andamento, como mantida no índice
+     */
+    public record EmergenciaAtiva(Long id,
+                                  Long idosoId,
+                                  Emergencia.TipoEmergencia tipo,
+                                  Emergencia.NivelGravidade gravidade,
+                                  Emergencia.StatusEmergencia status,
+                                  LocalDateTime criadoEm,
+                                  LocalDateTime atualizadoEm) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        reconstruir();
+    }
+
+    /**
+     * Recarrega o índice a partir do banco
+     *
+     * @return quantidade de emergências em andamento
+     */
+    public synchronized int reconstruir() {
+        List<Emergencia> emAndamento = new ArrayList<>();
+        for (Emergencia.StatusEmergencia status : EmergenciaService.EM_ANDAMENTO) {
+            emAndamento.addAll(emergenciaRepository.findByStatusOrderByCriadoEmDesc(status));
+        }
+
+        porId.clear();
+        porIdoso.clear();
+        porGravidade.values().forEach(Set::clear);
+        emAndamento.forEach(emergencia -> incluir(EmergenciaAlteradaEvent.de(emergencia)));
+
+        log.info("Índice de emergências reconstruído: {} em andamento", porId.size());
+        return porId.size();
+    }
+
+    /**
+     * Aplica a mudança de estado de uma emergência, ignorando eventos mais antigos
+     * que a versão já indexada
+     */
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public synchronized void aoAlterarEmergencia(EmergenciaAlteradaEvent evento) {
+        EmergenciaAtiva atual = porId.get(evento.emergenciaId());
+        if (atual != null && atual.atualizadoEm() != null && evento.atualizadoEm() != null
+                && evento.atualizadoEm().isBefore(atual.atualizadoEm())) {
+            return;
+        }
+
+        if (!evento.isEmAndamento()) {
+            remover(evento.emergenciaId());
+            return;
+        }
+
+        // Inclui antes de limpar a gravidade anterior, para que a emergência não
+        // desapareça momentaneamente das leituras concorrentes
+        incluir(evento);
+        if (atual != null && atual.gravidade() != evento.gravidade()) {
+            porGravidade.get(atual.gravidade()).remove(atual.id());
+        }
+    }
+
+    /**
+     * Idoso removido: as emergências dele foram apagadas em cascata, sem eventos próprios
+     */
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public synchronized void aoAlterarIdoso(IdosoAlteradoEvent evento) {
+        if (!evento.removido()) {
+            return;
+        }
+        Set<Long> ids = porIdoso.get(evento.idosoId());
+        if (ids != null) {
+            List.copyOf(ids).forEach(this::remover);
+        }
+    }
+
+    public boolean isEmEmergencia(Long idosoId) {
+        return porIdoso.containsKey(idosoId);
+    }
+
+    /**
+     * Ids dos idosos com ao menos uma emergência em andamento
+     */
+    public Set<Long> idososEmEmergencia() {
+        return Set.copyOf(porIdoso.keySet());
+    }
+
+    /**
+     * Emergências em andamento com gravidade a partir da informada (todas, se nula),
+     * das mais graves para as menos graves e, dentro da mesma gravidade, das mais antigas
+     */
+    public List<EmergenciaAtiva> listar(Emergencia.NivelGravidade gravidadeMinima) {
+        List<EmergenciaAtiva> resultado = new ArrayList<>();
+        for (Map.Entry<Emergencia.NivelGravidade, Set<Long>> entrada : porGravidade.entrySet()) {
+            if (gravidadeMinima == null || entrada.getKey().compareTo(gravidadeMinima) >= 0) {
+                coletar(entrada.getValue(), resultado);
+            }
+        }
+        resultado.sort(MAIS_GRAVES_PRIMEIRO);
+        return resultado;
+    }
+
+    /**
+     * Emergências em andamento de um idoso
+     */
+    public List<EmergenciaAtiva> listarPorIdoso(Long idosoId) {
+        List<EmergenciaAtiva> resultado = new ArrayList<>();
+        coletar(porIdoso.getOrDefault(idosoId, Set.of()), resultado);
+        resultado.sort(MAIS_GRAVES_PRIMEIRO);
+        return resultado;
+    }
+
+    public Map<Emergencia.NivelGravidade, Integer> contarPorGravidade() {
+        Map<Emergencia.NivelGravidade, Integer> contagem = new EnumMap<>(Emergencia.NivelGravidade.class);
+        porGravidade.forEach((gravidade, ids) -> contagem.put(gravidade, ids.size()));
+        return contagem;
+    }
+
+    public int tamanho() {
+        return porId.size();
+    }
+
+    private void coletar(Set<Long> ids, List<EmergenciaAtiva> destino) {
+        for (Long id : ids) {
+            EmergenciaAtiva emergencia = porId.get(id);
+            if (emergencia != null) {
+                destino.add(emergencia);
+            }
+        }
+    }
+
+    private void incluir(EmergenciaAlteradaEvent evento) {
+        EmergenciaAtiva emergencia = new EmergenciaAtiva(evento.emergenciaId(), evento.idosoId(), evento.tipo(),
+                evento.gravidade(), evento.status(), evento.criadoEm(), evento.atualizadoEm());
+        porId.put(emergencia.id(), emergencia);
+        porIdoso.computeIfAbsent(emergencia.idosoId(), id -> ConcurrentHashMap.newKeySet()).add(emergencia.id());
+        porGravidade.get(emergencia.gravidade()).add(emergencia.id());
+    }
+
+    private void remover(Long emergenciaId) {
+        EmergenciaAtiva anterior = porId.remove(emergenciaId);
+        if (anterior == null) {
+            return;
+        }
+        porGravidade.get(anterior.gravidade()).remove(emergenciaId);
+        porIdoso.computeIfPresent(anterior.idosoId(), (idosoId, ids) -> {
+            ids.remove(emergenciaId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static Map<Emergencia.NivelGravidade, Set<Long>> criarIndiceGravidade() {
+        Map<Emergencia.NivelGravidade, Set<Long>> indice = new EnumMap<>(Emergencia.NivelGravidade.class);
+        for (Emergencia.NivelGravidade gravidade : Emergencia.NivelGravidade.values()) {
+            indice.put(gravidade, ConcurrentHashMap.newKeySet());
+        }
+        return indice;
+    }
+}
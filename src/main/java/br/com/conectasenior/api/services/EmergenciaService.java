@@ -0,0 +1,246 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.dtos.EmergenciaCreateDTO;
+import br.com.conectasenior.api.dtos.EmergenciaDTO;
+import br.com.conectasenior.api.entities.ContatoEmergencia;
+import br.com.conectasenior.api.entities.Emergencia;
+import br.com.conectasenior.api.entities.Idoso;
+import br.com.conectasenior.api.exceptions.BusinessException;
+import br.com.conectasenior.api.exceptions.ResourceNotFoundException;
+import br.com.conectasenior.api.mappers.EmergenciaMapper;
+import br.com.conectasenior.api.repositories.ContatoEmergenciaRepository;
+import br.com.conectasenior.api.repositories.EmergenciaRepository;
+import br.com.conectasenior.api.repositories.IdosoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service para operações com Emergências
+ *
+ * Ciclo de vida: ATIVA -> EM_ATENDIMENTO -> RESOLVIDA, podendo ser resolvida
+ * direto de ATIVA e escalada de gravidade enquanto estiver em andamento.
+ * Cada mudança publica um EmergenciaAlteradaEvent, que mantém o EmergenciaAtivaIndex
+ * e reagenda o escalonamento automático (EscalonamentoEmergenciaService).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class EmergenciaService {
+
+    /**
+     * Status de emergências ainda não encerradas
+     */
+    public static final Set<Emergencia.StatusEmergencia> EM_ANDAMENTO =
+            EnumSet.of(Emergencia.StatusEmergencia.ATIVA, Emergencia.StatusEmergencia.EM_ATENDIMENTO);
+
+    private final EmergenciaRepository emergenciaRepository;
+    private final IdosoRepository idosoRepository;
+    private final ContatoEmergenciaRepository contatoEmergenciaRepository;
+    private final EmergenciaMapper emergenciaMapper;
+    private final EmergenciaAtivaIndex emergenciaAtivaIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EmergenciaDTO findById(Long id) {
+        log.debug("Buscando emergência por ID: {}", id);
+        return emergenciaMapper.toDTO(buscar(id));
+    }
+
+    public Page<EmergenciaDTO> findByIdoso(Long idosoId, Pageable pageable) {
+        log.debug("Buscando emergências do idoso ID: {}", idosoId);
+        return emergenciaRepository.findByIdosoIdOrderByCriadoEmDesc(idosoId, pageable)
+                .map(emergenciaMapper::toDTO);
+    }
+
+    /**
+     * Emergências em andamento, consultadas no índice em memória
+     */
+    public List<EmergenciaAtivaIndex.EmergenciaAtiva> findEmAndamento(Long idosoId, Emergencia.NivelGravidade gravidadeMinima) {
+        if (idosoId == null) {
+            return emergenciaAtivaIndex.listar(gravidadeMinima);
+        }
+        return emergenciaAtivaIndex.listarPorIdoso(idosoId).stream()
+                .filter(e -> gravidadeMinima == null || e.gravidade().compareTo(gravidadeMinima) >= 0)
+                .toList();
+    }
+
+    public Map<Emergencia.NivelGravidade, Integer> contarEmAndamentoPorGravidade() {
+        return emergenciaAtivaIndex.contarPorGravidade();
+    }
+
+    @Transactional
+    public EmergenciaDTO abrir(EmergenciaCreateDTO createDTO) {
+        log.debug("Abrindo emergência para idoso ID: {}", createDTO.getIdosoId());
+
+        // Idoso removido antes ou durante a abertura: 404, e não violação de FK (409) no flush
+        Idoso idoso = idosoRepository.findByIdParaVinculo(createDTO.getIdosoId())
+                .orElseThrow(() -> new ResourceNotFoundException("Idoso não encontrado com ID: " + createDTO.getIdosoId()));
+
+        Emergencia emergencia = new Emergencia();
+        emergencia.setTipo(createDTO.getTipo());
+        emergencia.setDescricao(createDTO.getDescricao());
+        emergencia.setGravidade(createDTO.getGravidade());
+        emergencia.setLocalizacao(createDTO.getLocalizacao());
+        emergencia.setStatus(Emergencia.StatusEmergencia.ATIVA);
+        emergencia.setIdoso(idoso);
+
+        Emergencia salva = salvarEPublicar(emergencia);
+        log.warn("Emergência {} ({}) aberta com ID: {} para idoso ID: {}",
+                salva.getTipo(), salva.getGravidade(), salva.getId(), createDTO.getIdosoId());
+        return emergenciaMapper.toDTO(salva);
+    }
+
+    /**
+     * Eleva a gravidade da emergência em um nível
+     */
+    @Transactional
+    public EmergenciaDTO escalar(Long id) {
+        Emergencia emergencia = buscarParaAtualizacao(id);
+        exigirEmAndamento(emergencia);
+
+        Emergencia.NivelGravidade[] niveis = Emergencia.NivelGravidade.values();
+        int atual = emergencia.getGravidade().ordinal();
+        if (atual == niveis.length - 1) {
+            throw new BusinessException("Emergência já está na gravidade máxima: " + emergencia.getGravidade());
+        }
+        emergencia.setGravidade(niveis[atual + 1]);
+
+        log.warn("Emergência ID: {} escalada para {}", id, emergencia.getGravidade());
+        return emergenciaMapper.toDTO(salvarEPublicar(emergencia));
+    }
+
+    @Transactional
+    public EmergenciaDTO atender(Long id, String contatoAcionado) {
+        Emergencia emergencia = buscarParaAtualizacao(id);
+        if (emergencia.getStatus() != Emergencia.StatusEmergencia.ATIVA) {
+            throw new BusinessException("Apenas emergências ativas podem entrar em atendimento. Status atual: "
+                    + emergencia.getStatus());
+        }
+        emergencia.setStatus(Emergencia.StatusEmergencia.EM_ATENDIMENTO);
+        if (contatoAcionado != null && !contatoAcionado.isBlank()) {
+            emergencia.setContatoAcionado(contatoAcionado);
+        }
+
+        log.info("Emergência ID: {} em atendimento", id);
+        return emergenciaMapper.toDTO(salvarEPublicar(emergencia));
+    }
+
+    @Transactional
+    public EmergenciaDTO resolver(Long id, String resolucao) {
+        Emergencia emergencia = buscarParaAtualizacao(id);
+        exigirEmAndamento(emergencia);
+        emergencia.setStatus(Emergencia.StatusEmergencia.RESOLVIDA);
+        emergencia.setResolucao(resolucao);
+        emergencia.setResolvidoEm(LocalDateTime.now());
+
+        log.info("Emergência ID: {} resolvida", id);
+        return emergenciaMapper.toDTO(salvarEPublicar(emergencia));
+    }
+
+    /**
+     * Escalonamento automático de uma emergência que passou do prazo sem mudanças:
+     * aciona o próximo contato de emergência por prioridade e, quando todos já foram
+     * acionados, eleva a gravidade e recomeça pelo primeiro contato
+     *
+     * @param versao atualizadoEm conhecido no agendamento
+     * @return false se a emergência mudou desde o agendamento, foi encerrada ou
+     *         não há mais como escalonar
+     */
+    @Transactional
+    public boolean escalarPorPrazo(Long id, LocalDateTime versao) {
+        Emergencia emergencia = emergenciaRepository.findByIdParaAtualizacao(id).orElse(null);
+        if (emergencia == null || !EM_ANDAMENTO.contains(emergencia.getStatus())
+                || !mesmaVersao(emergencia.getAtualizadoEm(), versao)) {
+            return false;
+        }
+
+        List<ContatoEmergencia> contatos =
+                contatoEmergenciaRepository.findByIdosoIdOrderByPrioridadeAsc(emergencia.getIdoso().getId());
+        int ultimoAcionado = -1;
+        for (int i = 0; i < contatos.size(); i++) {
+            if (descreverContato(contatos.get(i)).equals(emergencia.getContatoAcionado())) {
+                ultimoAcionado = i;
+                break;
+            }
+        }
+
+        Emergencia.NivelGravidade[] niveis = Emergencia.NivelGravidade.values();
+        boolean gravidadeMaxima = emergencia.getGravidade().ordinal() == niveis.length - 1;
+        if (ultimoAcionado + 1 < contatos.size()) {
+            emergencia.setContatoAcionado(descreverContato(contatos.get(ultimoAcionado + 1)));
+        } else if (!gravidadeMaxima) {
+            emergencia.setGravidade(niveis[emergencia.getGravidade().ordinal() + 1]);
+            if (!contatos.isEmpty()) {
+                emergencia.setContatoAcionado(descreverContato(contatos.get(0)));
+            }
+        } else if (!contatos.isEmpty()) {
+            emergencia.setContatoAcionado(descreverContato(contatos.get(0)));
+        } else {
+            log.error("Emergência ID: {} crítica sem resolução e idoso ID: {} sem contatos de emergência",
+                    id, emergencia.getIdoso().getId());
+            return false;
+        }
+
+        log.warn("Emergência ID: {} escalonada por prazo - Gravidade: {}, Contato acionado: {}",
+                id, emergencia.getGravidade(), emergencia.getContatoAcionado());
+        // Reacionar o mesmo contato não altera nenhum campo; a nova versão conta o prazo de novo
+        emergencia.setAtualizadoEm(LocalDateTime.now());
+        salvarEPublicar(emergencia);
+        return true;
+    }
+
+    private Emergencia buscar(Long id) {
+        return emergenciaRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Emergência não encontrada com ID: " + id));
+    }
+
+    private Emergencia buscarParaAtualizacao(Long id) {
+        return emergenciaRepository.findByIdParaAtualizacao(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Emergência não encontrada com ID: " + id));
+    }
+
+    private void exigirEmAndamento(Emergencia emergencia) {
+        if (!EM_ANDAMENTO.contains(emergencia.getStatus())) {
+            throw new BusinessException("Emergência já encerrada. Status atual: " + emergencia.getStatus());
+        }
+    }
+
+    /**
+     * Identificação do contato gravada em contatoAcionado (até 100 caracteres)
+     */
+    static String descreverContato(ContatoEmergencia contato) {
+        String telefone = " (" + contato.getTelefone() + ")";
+        String nome = contato.getNome();
+        int maximo = 100 - telefone.length();
+        return (nome.length() > maximo ? nome.substring(0, maximo) : nome) + telefone;
+    }
+
+    /**
+     * Compara versões em milissegundos, já que o banco pode arredondar a precisão
+     */
+    private static boolean mesmaVersao(LocalDateTime atual, LocalDateTime esperada) {
+        return atual != null && esperada != null
+                && atual.truncatedTo(ChronoUnit.MILLIS).equals(esperada.truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    /**
+     * Grava com flush, para que os timestamps de auditoria já estejam no evento
+     */
+    private Emergencia salvarEPublicar(Emergencia emergencia) {
+        Emergencia salva = emergenciaRepository.saveAndFlush(emergencia);
+        eventPublisher.publishEvent(EmergenciaAlteradaEvent.de(salva));
+        return salva;
+    }
+}
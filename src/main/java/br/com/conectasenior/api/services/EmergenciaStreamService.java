@@ -0,0 +1,246 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.config.EmergenciaStreamProperties;
+import br.com.conectasenior.api.entities.Usuario;
+import br.com.conectasenior.api.exceptions.BusinessException;
+import br.com.conectasenior.api.repositories.UsuarioRepository;
+import br.com.conectasenior.api.security.UsuarioAutenticado;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Envio em tempo real de emergências por Server-Sent Events
+ *
+ * Cada assinante recebe um snapshot das emergências em andamento ao conectar e,
+ * depois, os eventos "emergencia" e os lembretes de rotina ("lembrete") dos idosos
+ * vinculados a ele (administradores recebem todos). Conexões ociosas não ocupam threads: os eventos vão para uma
+ * fila limitada por assinante, esvaziada por uma thread virtual do próprio assinante
+ * enquanto houver o que enviar. Um cliente que para de ler bloqueia só a sua thread
+ * virtual, sem atrasar os demais. Se a fila estourar, ela é descartada e substituída
+ * por um novo snapshot.
+ */
+@Service
+@Slf4j
+public class EmergenciaStreamService {
+
+    static final String EVENTO_SNAPSHOT = "snapshot";
+    static final String EVENTO_EMERGENCIA = "emergencia";
+    static final String EVENTO_LEMBRETE = "lembrete";
+
+    private final UsuarioRepository usuarioRepository;
+    private final EmergenciaAtivaIndex emergenciaAtivaIndex;
+    private final EmergenciaStreamProperties propriedades;
+    private final ExecutorService envio;
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final Set<Assinante> assinantesGlobais = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Assinante>> assinantesPorIdoso = new ConcurrentHashMap<>();
+
+    public EmergenciaStreamService(UsuarioRepository usuarioRepository,
+                                   EmergenciaAtivaIndex emergenciaAtivaIndex,
+                                   EmergenciaStreamProperties propriedades) {
+        this.usuarioRepository = usuarioRepository;
+        this.emergenciaAtivaIndex = emergenciaAtivaIndex;
+        this.propriedades = propriedades;
+        // A marcação agendado garante no máximo uma thread por assinante, mantendo a ordem dos eventos
+        this.envio = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("emergencia-sse-", 1).factory());
+    }
+
+    /**
+     * Abre a conexão SSE do usuário, com escopo nos idosos vinculados a ele
+     *
+     * @throws BusinessException se o limite de conexões simultâneas foi atingido
+     */
+    public SseEmitter assinar(UsuarioAutenticado usuario) {
+        if (assinantes.size() >= propriedades.getMaxAssinantes()) {
+            throw new BusinessException("Limite de conexões de acompanhamento de emergências atingido");
+        }
+
+        Set<Long> escopo = usuario.tipo() == Usuario.TipoUsuario.ADMINISTRADOR
+                ? null
+                : usuarioRepository.findIdososVinculadosIds(usuario.id());
+        SseEmitter emitter = new SseEmitter(propriedades.getTimeoutMs());
+        Assinante assinante = new Assinante(usuario.id(), escopo, emitter, propriedades.getCapacidadeFila());
+
+        emitter.onCompletion(() -> remover(assinante));
+        emitter.onTimeout(() -> remover(assinante));
+        emitter.onError(erro -> remover(assinante));
+        registrar(assinante);
+
+        log.debug("Assinatura SSE do usuário ID: {} ({} idosos, {} conexões)",
+                usuario.id(), escopo == null ? "todos os" : escopo.size(), assinantes.size());
+        agendarEnvio(assinante);
+        return emitter;
+    }
+
+    /**
+     * Encaminha a mudança de estado aos assinantes interessados no idoso
+     */
+    @Order(1)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarEmergencia(EmergenciaAlteradaEvent evento) {
+        publicar(evento.idosoId(), new Mensagem(EVENTO_EMERGENCIA, evento));
+    }
+
+    /**
+     * Encaminha o lembrete de rotina disparado pelo LembreteRotinaScheduler aos
+     * assinantes interessados no idoso
+     */
+    @EventListener
+    public void aoDispararLembrete(LembreteRotinaEvent evento) {
+        publicar(evento.idosoId(), new Mensagem(EVENTO_LEMBRETE, evento));
+    }
+
+    /**
+     * Envia um heartbeat às conexões sem envios recentes; falhas de escrita
+     * removem o assinante
+     */
+    @Scheduled(fixedRateString = "${emergencias.stream.heartbeat-ms:25000}")
+    public void enviarHeartbeats() {
+        long limite = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(propriedades.getHeartbeatMs());
+        for (Assinante assinante : assinantes) {
+            if (assinante.ultimoEnvio - limite <= 0 && assinante.fila.offer(Mensagem.HEARTBEAT)) {
+                agendarEnvio(assinante);
+            }
+        }
+    }
+
+    public int totalAssinantes() {
+        return assinantes.size();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        assinantes.forEach(assinante -> assinante.emitter.complete());
+        envio.shutdownNow();
+    }
+
+    private void publicar(Long idosoId, Mensagem mensagem) {
+        assinantesGlobais.forEach(assinante -> entregar(assinante, mensagem));
+        assinantesPorIdoso.getOrDefault(idosoId, Set.of())
+                .forEach(assinante -> entregar(assinante, mensagem));
+    }
+
+    private void entregar(Assinante assinante, Mensagem mensagem) {
+        if (!assinante.fila.offer(mensagem)) {
+            // Cliente lento: em vez de acumular eventos, reenvia o estado atual
+            assinante.fila.clear();
+            assinante.precisaSnapshot.set(true);
+        }
+        agendarEnvio(assinante);
+    }
+
+    private void agendarEnvio(Assinante assinante) {
+        if (assinante.agendado.compareAndSet(false, true)) {
+            try {
+                envio.execute(() -> esvaziar(assinante));
+            } catch (RejectedExecutionException e) {
+                assinante.agendado.set(false);
+            }
+        }
+    }
+
+    /**
+     * Escreve tudo o que estiver pendente; ao terminar, confere se algo chegou
+     * depois de liberar a marcação, para não deixar eventos parados na fila
+     */
+    private void esvaziar(Assinante assinante) {
+        try {
+            do {
+                if (assinante.precisaSnapshot.getAndSet(false)) {
+                    enviar(assinante, SseEmitter.event().name(EVENTO_SNAPSHOT).data(snapshot(assinante)));
+                }
+                Mensagem mensagem;
+                while (!assinante.precisaSnapshot.get() && (mensagem = assinante.fila.poll()) != null) {
+                    enviar(assinante, mensagem == Mensagem.HEARTBEAT
+                            ? SseEmitter.event().comment("heartbeat")
+                            : SseEmitter.event().name(mensagem.evento()).data(mensagem.dados()));
+                }
+                assinante.agendado.set(false);
+            } while ((assinante.precisaSnapshot.get() || !assinante.fila.isEmpty())
+                    && assinante.agendado.compareAndSet(false, true));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Conexão SSE do usuário ID: {} encerrada: {}", assinante.usuarioId, e.getMessage());
+            remover(assinante);
+        }
+    }
+
+    private void enviar(Assinante assinante, SseEmitter.SseEventBuilder evento) throws IOException {
+        assinante.emitter.send(evento);
+        assinante.ultimoEnvio = System.nanoTime();
+    }
+
+    private List<EmergenciaAtivaIndex.EmergenciaAtiva> snapshot(Assinante assinante) {
+        if (assinante.escopo == null) {
+            return emergenciaAtivaIndex.listar(null);
+        }
+        return emergenciaAtivaIndex.listar(null).stream()
+                .filter(emergencia -> assinante.escopo.contains(emergencia.idosoId()))
+                .toList();
+    }
+
+    private void registrar(Assinante assinante) {
+        assinantes.add(assinante);
+        if (assinante.escopo == null) {
+            assinantesGlobais.add(assinante);
+            return;
+        }
+        for (Long idosoId : assinante.escopo) {
+            assinantesPorIdoso.computeIfAbsent(idosoId, id -> ConcurrentHashMap.newKeySet()).add(assinante);
+        }
+    }
+
+    private void remover(Assinante assinante) {
+        if (!assinantes.remove(assinante)) {
+            return;
+        }
+        if (assinante.escopo == null) {
+            assinantesGlobais.remove(assinante);
+            return;
+        }
+        for (Long idosoId : assinante.escopo) {
+            assinantesPorIdoso.computeIfPresent(idosoId, (id, conjunto) -> {
+                conjunto.remove(assinante);
+                return conjunto.isEmpty() ? null : conjunto;
+            });
+        }
+    }
+
+    private record Mensagem(String evento, Object dados) {
+        static final Mensagem HEARTBEAT = new Mensagem("heartbeat", null);
+    }
+
+    /**
+     * Conexão aberta; escopo nulo significa todos os idosos
+     */
+    private static final class Assinante {
+        final Long usuarioId;
+        final Set<Long> escopo;
+        final SseEmitter emitter;
+        final BlockingQueue<Mensagem> fila;
+        final AtomicBoolean agendado = new AtomicBoolean();
+        final AtomicBoolean precisaSnapshot = new AtomicBoolean(true);
+        volatile long ultimoEnvio = System.nanoTime();
+
+        Assinante(Long usuarioId, Set<Long> escopo, SseEmitter emitter, int capacidadeFila) {
+            this.usuarioId = usuarioId;
+            this.escopo = escopo;
+            this.emitter = emitter;
+            this.fila = new LinkedBlockingQueue<>(capacidadeFila);
+        }
+    }
+}
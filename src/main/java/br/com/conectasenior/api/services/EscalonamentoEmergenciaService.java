@@ -0,0 +1,166 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.config.EscalonamentoEmergenciaProperties;
+import br.com.conectasenior.api.entities.Emergencia;
+import br.com.conectasenior.api.repositories.EmergenciaRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escalonamento automático de emergências não resolvidas
+ *
+ * Cada emergência em andamento tem um prazo (atualizadoEm + prazo da gravidade) em
+ * uma DelayQueue; uma única thread dorme até o próximo vencimento, sem varrer a
+ * tabela emergencias. Toda mudança de estado gera um novo prazo e invalida o
+ * anterior, que é descartado quando vence. A versão (atualizadoEm) é conferida de
+ * novo no EmergenciaService, com a linha bloqueada, antes de escalonar.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EscalonamentoEmergenciaService implements ApplicationRunner {
+
+    private final EmergenciaRepository emergenciaRepository;
+    private final EmergenciaService emergenciaService;
+    private final EscalonamentoEmergenciaProperties propriedades;
+
+    private final DelayQueue<Prazo> fila = new DelayQueue<>();
+    private final Map<Long, Prazo> vigentes = new ConcurrentHashMap<>();
+    private volatile Thread executor;
+
+    /**
+     * Vencimento agendado para uma versão da emergência
+     */
+    record Prazo(Long emergenciaId, Long idosoId, LocalDateTime versao, long venceEmNanos) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(venceEmNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed outro) {
+            return Long.compare(venceEmNanos, ((Prazo) outro).venceEmNanos);
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!propriedades.isHabilitado()) {
+            log.info("Escalonamento automático de emergências desabilitado");
+            return;
+        }
+
+        executor = new Thread(this::processar, "emergencia-escalonamento");
+        executor.setDaemon(true);
+        executor.start();
+
+        // Emergências que venceram com a aplicação parada são escalonadas logo em seguida
+        emergenciaRepository.findEmergenciasNaoResolvidasApos(LocalDateTime.now())
+                .forEach(emergencia -> agendar(emergencia.getId(), emergencia.getIdoso().getId(),
+                        emergencia.getGravidade(), emergencia.getStatus(), emergencia.getAtualizadoEm()));
+        log.info("Escalonamento de emergências iniciado: {} prazos agendados", vigentes.size());
+    }
+
+    @Order(2)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarEmergencia(EmergenciaAlteradaEvent evento) {
+        if (propriedades.isHabilitado()) {
+            agendar(evento.emergenciaId(), evento.idosoId(), evento.gravidade(), evento.status(),
+                    evento.atualizadoEm());
+        }
+    }
+
+    /**
+     * Idoso removido: as emergências dele foram apagadas em cascata, sem eventos
+     * próprios; os prazos saem de vigentes e são descartados quando vencem
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarIdoso(IdosoAlteradoEvent evento) {
+        if (evento.removido()) {
+            vigentes.values().removeIf(prazo -> evento.idosoId().equals(prazo.idosoId()));
+        }
+    }
+
+    public int totalAgendados() {
+        return vigentes.size();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (executor != null) {
+            executor.interrupt();
+        }
+    }
+
+    /**
+     * Agenda o prazo da versão informada, mantendo sempre a versão mais recente
+     * (eventos e a carga inicial podem chegar fora de ordem)
+     */
+    void agendar(Long emergenciaId, Long idosoId, Emergencia.NivelGravidade gravidade,
+                 Emergencia.StatusEmergencia status, LocalDateTime versao) {
+        if (!EmergenciaService.EM_ANDAMENTO.contains(status)) {
+            vigentes.remove(emergenciaId);
+            return;
+        }
+
+        LocalDateTime inicio = versao != null ? versao : LocalDateTime.now();
+        Duration espera = Duration.between(LocalDateTime.now(), inicio.plus(propriedades.prazo(gravidade)));
+        Prazo novo = new Prazo(emergenciaId, idosoId, versao, System.nanoTime() + Math.max(0, espera.toNanos()));
+
+        Prazo vigente = vigentes.compute(emergenciaId, (id, atual) ->
+                atual != null && atual.versao() != null && versao != null && atual.versao().isAfter(versao)
+                        ? atual
+                        : novo);
+        if (vigente == novo) {
+            fila.add(novo);
+        }
+    }
+
+    private void processar() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Prazo prazo;
+            try {
+                prazo = fila.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            // Substituído por uma versão mais nova ou emergência encerrada
+            if (!vigentes.remove(prazo.emergenciaId(), prazo)) {
+                continue;
+            }
+
+            try {
+                // Quando escalona, o evento publicado agenda o próximo prazo
+                if (!emergenciaService.escalarPorPrazo(prazo.emergenciaId(), prazo.versao())) {
+                    log.debug("Emergência ID: {} alterada ou encerrada antes do prazo", prazo.emergenciaId());
+                }
+            } catch (RuntimeException e) {
+                log.error("Falha ao escalonar emergência ID: {}; nova tentativa em {}",
+                        prazo.emergenciaId(), propriedades.getIntervaloNovaTentativa(), e);
+                Prazo novaTentativa = new Prazo(prazo.emergenciaId(), prazo.idosoId(), prazo.versao(),
+                        System.nanoTime() + propriedades.getIntervaloNovaTentativa().toNanos());
+                if (vigentes.putIfAbsent(prazo.emergenciaId(), novaTentativa) == null) {
+                    fila.add(novaTentativa);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.config.ExecucaoRotinaProperties;
+import br.com.conectasenior.api.entities.ExecucaoRotina;
+import br.com.conectasenior.api.entities.Rotina;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Gravação em segundo plano (write-behind) das execuções de rotina
+ *
+ * As requisições apenas enfileiram a execução; uma única thread espera a rajada se
+ * acumular (por exemplo, a medicação das 08:00 de uma instituição inteira) por até
+ * intervalo-descarga e grava até tamanho-lote execuções por transação, com INSERTs
+ * agrupados em lotes JDBC. Com a fila cheia, a própria requisição grava o que estiver
+ * pendente (contrapressão). No encerramento da aplicação a fila é gravada por
+ * completo antes de o pool de conexões ser fechado. Os contadores diários de adesão
+ * (AdesaoRotinaService) são atualizados na mesma transação de cada lote.
+ *
+ * A reconstrução da adesão (AdesaoRotinaBackfillService) suspende a gravação: as
+ * requisições seguem enfileirando e os lotes esperam a reconstrução terminar.
+ *
+ * Falhas transitórias do banco (conexão indisponível, failover, timeout, deadlock)
+ * não descartam nada: a thread de gravação tenta o mesmo lote de novo, com espera
+ * dobrada a cada falha até espera-maxima-reenvio, e as gravações feitas na
+ * requisição devolvem o lote à fila e repassam o erro. Um lote que falha por outro
+ * motivo é regravado item a item; execuções que ainda assim falham (por exemplo, de
+ * uma rotina removida nesse meio-tempo) são descartadas e descontadas dos contadores
+ * de adesão.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExecucaoRotinaBuffer {
+
+    private static final long ESPERA_ENCERRAMENTO_MS = 10_000;
+
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final AdesaoRotinaContadores adesaoRotinaContadores;
+    private final AdesaoRotinaService adesaoRotinaService;
+    private final ExecucaoRotinaProperties propriedades;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanhoLoteJdbc;
+
+    private BlockingDeque<Pendente> fila;
+    private TransactionTemplate transacao;
+    private Thread executor;
+    private volatile boolean encerrando;
+    private final LongAdder gravadas = new LongAdder();
+    private final ReentrantLock gravacao = new ReentrantLock();
+    private final LongAdder descartadas = new LongAdder();
+    private final LongAdder reenvios = new LongAdder();
+
+    /**
+     * Execução aguardando gravação
+     */
+    public record Pendente(Long rotinaId, ExecucaoRotina.StatusExecucao status,
+                           LocalDateTime executadoEm, String observacoes) {
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        fila = new LinkedBlockingDeque<>(propriedades.getCapacidadeBuffer());
+        // Transação própria também quando a gravação acontece na requisição (fila cheia)
+        transacao = new TransactionTemplate(transactionManager);
+        transacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        executor = new Thread(this::processar, "execucoes-rotina-gravacao");
+        executor.setDaemon(true);
+        executor.start();
+    }
+
+    /**
+     * Enfileira a execução e a soma aos contadores de adesão; se a execução precisar
+     * ser gravada na requisição e o banco estiver indisponível, ela não é registrada
+     * e o erro é repassado
+     */
+    public void registrar(Pendente execucao) {
+        adesaoRotinaContadores.registrar(execucao.rotinaId(), execucao.status());
+        try {
+            if (!encerrando) {
+                if (fila.offer(execucao)) {
+                    return;
+                }
+                log.warn("Buffer de execuções de rotina cheio ({}); gravando na requisição", fila.size());
+                descarregar();
+                if (fila.offer(execucao)) {
+                    return;
+                }
+            }
+            gravar(List.of(execucao), new ArrayList<>());
+        } catch (RuntimeException e) {
+            adesaoRotinaContadores.descontar(execucao.rotinaId(), execucao.status());
+            throw e;
+        }
+    }
+
+    /**
+     * Grava imediatamente todas as execuções pendentes; numa falha transitória do
+     * banco as execuções não gravadas voltam para o início da fila e o erro é repassado
+     *
+     * @return quantidade de execuções gravadas
+     */
+    public int descarregar() {
+        int gravadas = 0;
+        List<Pendente> lote = new ArrayList<>(propriedades.getTamanhoLote());
+        List<Pendente> reenviar = new ArrayList<>();
+        while (fila.drainTo(lote, propriedades.getTamanhoLote()) > 0) {
+            try {
+                gravadas += gravar(lote, reenviar);
+            } catch (RuntimeException e) {
+                devolver(reenviar);
+                throw e;
+            }
+            lote.clear();
+        }
+        return gravadas;
+    }
+
+    /**
+     * Grava o que estiver pendente e executa a ação sem nenhum lote sendo gravado;
+     * com a fila cheia, as requisições esperam a ação terminar
+     */
+    public <T> T comGravacaoSuspensa(Supplier<T> acao) {
+        gravacao.lock();
+        try {
+            descarregar();
+            return acao.get();
+        } finally {
+            gravacao.unlock();
+        }
+    }
+
+    public int pendentes() {
+        return fila.size();
+    }
+
+    public long totalGravadas() {
+        return gravadas.sum();
+    }
+
+    public long totalDescartadas() {
+        return descartadas.sum();
+    }
+
+    /**
+     * Lotes regravados depois de uma falha transitória do banco
+     */
+    public long totalReenvios() {
+        return reenvios.sum();
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        encerrando = true;
+        LockSupport.unpark(executor);
+        executor.join(ESPERA_ENCERRAMENTO_MS);
+        try {
+            int gravadas = descarregar();
+            log.info("Buffer de execuções de rotina encerrado: {} execuções gravadas no encerramento", gravadas);
+        } catch (RuntimeException e) {
+            log.error("Buffer de execuções de rotina encerrado com {} execuções não gravadas", fila.size(), e);
+        }
+    }
+
+    private void processar() {
+        List<Pendente> lote = new ArrayList<>(propriedades.getTamanhoLote());
+        long intervalo = propriedades.getIntervaloDescarga().toNanos();
+        long espera = intervalo;
+        while (!encerrando) {
+            try {
+                // Lote devolvido por falha transitória é regravado antes do restante da fila
+                if (lote.isEmpty()) {
+                    Pendente primeira = fila.poll(intervalo, TimeUnit.NANOSECONDS);
+                    if (primeira == null) {
+                        continue;
+                    }
+                    lote.add(primeira);
+                }
+
+                // Espera a rajada até o intervalo ou até completar o lote
+                long limite = System.nanoTime() + intervalo;
+                while (lote.size() < propriedades.getTamanhoLote() && !encerrando) {
+                    fila.drainTo(lote, propriedades.getTamanhoLote() - lote.size());
+                    long restante = limite - System.nanoTime();
+                    if (lote.size() >= propriedades.getTamanhoLote() || restante <= 0) {
+                        break;
+                    }
+                    Pendente proxima = fila.poll(restante, TimeUnit.NANOSECONDS);
+                    if (proxima != null) {
+                        lote.add(proxima);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                encerrando = true;
+            }
+
+            if (lote.isEmpty()) {
+                continue;
+            }
+            List<Pendente> reenviar = new ArrayList<>();
+            try {
+                gravar(lote, reenviar);
+                espera = intervalo;
+            } catch (RuntimeException e) {
+                log.warn("Falha transitória ao gravar {} execuções de rotina; nova tentativa em {} ms: {}",
+                        reenviar.size(), TimeUnit.NANOSECONDS.toMillis(espera), e.getMessage());
+                reenvios.increment();
+                aguardar(espera);
+                espera = Math.min(espera * 2, propriedades.getEsperaMaximaReenvio().toNanos());
+            }
+            lote.clear();
+            lote.addAll(reenviar);
+        }
+        // Gravado pelo encerrar(), depois da espera pela thread
+        devolver(lote);
+    }
+
+    /**
+     * Grava o lote; numa falha transitória do banco as execuções ainda não gravadas
+     * são acrescentadas a reenviar, na ordem, e o erro é repassado
+     *
+     * @return quantidade de execuções gravadas
+     */
+    private int gravar(List<Pendente> lote, List<Pendente> reenviar) {
+        try {
+            inserir(lote);
+            gravadas.add(lote.size());
+            log.debug("{} execuções de rotina gravadas", lote.size());
+            return lote.size();
+        } catch (RuntimeException e) {
+            if (transitoria(e)) {
+                reenviar.addAll(lote);
+                throw e;
+            }
+            if (lote.size() == 1) {
+                descartar(lote.get(0), e.getMessage());
+                return 0;
+            }
+            log.warn("Falha ao gravar lote de {} execuções de rotina; gravando individualmente", lote.size(), e);
+            int gravadas = 0;
+            for (int i = 0; i < lote.size(); i++) {
+                try {
+                    gravadas += gravar(List.of(lote.get(i)), reenviar);
+                } catch (RuntimeException transitoria) {
+                    reenviar.addAll(lote.subList(i + 1, lote.size()));
+                    throw transitoria;
+                }
+            }
+            return gravadas;
+        }
+    }
+
+    /**
+     * Falha que não depende das execuções gravadas e pode não se repetir: conexão
+     * indisponível ou perdida, timeout, deadlock, failover do banco
+     */
+    static boolean transitoria(Throwable erro) {
+        for (Throwable causa = erro; causa != null; causa = causa.getCause()) {
+            if (causa instanceof TransientDataAccessException
+                    || causa instanceof RecoverableDataAccessException
+                    || causa instanceof CannotGetJdbcConnectionException
+                    || causa instanceof CannotCreateTransactionException
+                    || causa instanceof SQLTransientException
+                    || causa instanceof SQLRecoverableException) {
+                return true;
+            }
+            // SQLSTATE classe 08: exceções de conexão
+            if (causa instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Devolve as execuções ao início da fila, na ordem original
+     */
+    private void devolver(List<Pendente> execucoes) {
+        for (int i = execucoes.size() - 1; i >= 0; i--) {
+            if (!fila.offerFirst(execucoes.get(i))) {
+                descartar(execucoes.get(i), "buffer cheio ao devolver após falha transitória");
+            }
+        }
+    }
+
+    private void descartar(Pendente execucao, String motivo) {
+        log.error("Execução da rotina ID: {} descartada: {}", execucao.rotinaId(), motivo);
+        adesaoRotinaContadores.descontar(execucao.rotinaId(), execucao.status());
+        descartadas.increment();
+    }
+
+    /**
+     * Espera antes de regravar um lote, interrompida pelo encerramento
+     */
+    private void aguardar(long nanos) {
+        long limite = System.nanoTime() + nanos;
+        long restante;
+        while (!encerrando && (restante = limite - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, restante);
+        }
+    }
+
+    private void inserir(List<Pendente> lote) {
+        gravacao.lock();
+        try {
+            transacao.executeWithoutResult(status -> {
+                int pendentes = 0;
+                for (Pendente pendente : lote) {
+                    ExecucaoRotina execucao = new ExecucaoRotina();
+                    execucao.setRotina(entityManager.getReference(Rotina.class, pendente.rotinaId()));
+                    execucao.setStatus(pendente.status());
+                    execucao.setExecutadoEm(pendente.executadoEm());
+                    execucao.setObservacoes(pendente.observacoes());
+                    entityManager.persist(execucao);
+
+                    if (++pendentes == tamanhoLoteJdbc) {
+                        entityManager.flush();
+                        entityManager.clear();
+                        pendentes = 0;
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+                adesaoRotinaService.registrarLote(lote);
+            });
+        } finally {
+            gravacao.unlock();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.dtos.RegistroSaudeDTO;
+import br.com.conectasenior.api.entities.RegistroSaude;
+import br.com.conectasenior.api.exceptions.ResourceNotFoundException;
+import br.com.conectasenior.api.mappers.RegistroSaudeMapper;
+import br.com.conectasenior.api.repositories.IdosoRepository;
+import br.com.conectasenior.api.repositories.RegistroSaudeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service para exportação de registros de saúde em streaming
+ *
+ * Os registros são lidos do banco em lotes e escritos na resposta à medida que
+ * chegam; cada entidade é desanexada do contexto de persistência após ser escrita,
+ * de modo que a memória usada não depende do tamanho do período exportado.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ExportacaoSaudeService {
+
+    private static final int LINHAS_POR_FLUSH = 500;
+    private static final String CABECALHO_CSV = "id,idosoId,tipo,valor,unidade,descricao,observacoes,dataRegistro,criadoEm";
+
+    private final RegistroSaudeRepository registroSaudeRepository;
+    private final IdosoRepository idosoRepository;
+    private final RegistroSaudeMapper registroSaudeMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    /**
+     * Formatos suportados na exportação
+     */
+    public enum Formato {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv;charset=UTF-8", "csv");
+
+        private final String contentType;
+        private final String extensao;
+
+        Formato(String contentType, String extensao) {
+            this.contentType = contentType;
+            this.extensao = extensao;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtensao() {
+            return extensao;
+        }
+    }
+
+    /**
+     * Garante que o idoso existe antes de a resposta começar a ser escrita
+     */
+    public void validarIdoso(Long idosoId) {
+        if (!idosoRepository.existsById(idosoId)) {
+            throw new ResourceNotFoundException("Idoso não encontrado com ID: " + idosoId);
+        }
+    }
+
+    /**
+     * Escreve os registros do período no formato pedido e retorna a quantidade exportada
+     */
+    public long exportar(Long idosoId, LocalDateTime inicio, LocalDateTime fim, Formato formato, OutputStream saida) {
+        log.debug("Exportando registros ({}) do idoso ID: {} entre {} e {}", formato, idosoId, inicio, fim);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), 64 * 1024);
+        ObjectWriter jsonWriter = objectMapper.writerFor(RegistroSaudeDTO.class);
+        long linhas = 0;
+
+        try (Stream<RegistroSaude> registros = registroSaudeRepository.streamRegistrosPorPeriodo(idosoId, inicio, fim)) {
+            if (formato == Formato.CSV) {
+                writer.write(CABECALHO_CSV);
+                writer.write('\n');
+            }
+
+            Iterator<RegistroSaude> iterator = registros.iterator();
+            while (iterator.hasNext()) {
+                RegistroSaude registro = iterator.next();
+                RegistroSaudeDTO dto = registroSaudeMapper.toDTO(registro);
+                entityManager.detach(registro);
+
+                if (formato == Formato.CSV) {
+                    escreverCsv(writer, dto);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(dto));
+                }
+                writer.write('\n');
+
+                if (++linhas % LINHAS_POR_FLUSH == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao escrever exportação de registros de saúde", e);
+        }
+
+        log.debug("Exportação do idoso ID: {} concluída com {} registros", idosoId, linhas);
+        return linhas;
+    }
+
+    private void escreverCsv(Writer writer, RegistroSaudeDTO dto) throws IOException {
+        writer.write(campoCsv(dto.getId()));
+        writer.write(',');
+        writer.write(campoCsv(dto.getIdosoId()));
+        writer.write(',');
+        writer.write(campoCsv(dto.getTipo()));
+        writer.write(',');
+        writer.write(dto.getValor() != null ? dto.getValor().toPlainString() : "");
+        writer.write(',');
+        writer.write(campoCsv(dto.getUnidade()));
+        writer.write(',');
+        writer.write(campoCsv(dto.getDescricao()));
+        writer.write(',');
+        writer.write(campoCsv(dto.getObservacoes()));
+        writer.write(',');
+        writer.write(campoCsv(dto.getDataRegistro()));
+        writer.write(',');
+        writer.write(campoCsv(dto.getCriadoEm()));
+    }
+
+    private static String campoCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.conectasenior.api.services;
+
+/**
+ * Evento publicado pelo IdosoService ao criar, alterar ou remover um idoso; os
+ * ouvintes o recebem após o commit da transação
+ */
+public record IdosoAlteradoEvent(Long idosoId, boolean removido) {
+}
@@ -1,12 +1,15 @@
 package br.com.conectasenior.api.services;
 
 import br.com.conectasenior.api.dtos.IdosoDTO;
+import br.com.conectasenior.api.dtos.responses.PaginaCursorResponse;
 import br.com.conectasenior.api.entities.Idoso;
 import br.com.conectasenior.api.exceptions.ResourceNotFoundException;
+import br.com.conectasenior.api.mappers.IdosoMapper;
 import br.com.conectasenior.api.repositories.IdosoRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -14,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Service para operações com Idoso
@@ -21,18 +25,35 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed("conecta.servicos")
 @Transactional(readOnly = true)
 public class IdosoService {
 
     private final IdosoRepository idosoRepository;
-    private final ModelMapper modelMapper;
+    private final IdosoMapper idosoMapper;
+    private final EmergenciaAtivaIndex emergenciaAtivaIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public Page<IdosoDTO> findAll(Pageable pageable) {
         log.debug("Buscando todos os idosos - Página: {}, Tamanho: {}", 
                   pageable.getPageNumber(), pageable.getPageSize());
         
         return idosoRepository.findAll(pageable)
-                .map(idoso -> modelMapper.map(idoso, IdosoDTO.class));
+                .map(idosoMapper::toDTO);
+    }
+
+    /**
+     * Idosos em ordem de nome, paginados por cursor
+     */
+    public PaginaCursorResponse<IdosoDTO> findAllCursor(String cursor, int tamanho, boolean total) {
+        log.debug("Buscando idosos por cursor - Tamanho: {}", tamanho);
+        Pageable limite = CursorPaginacao.limite(tamanho);
+        CursorPaginacao.Posicao posicao = CursorPaginacao.decodificar("idosos", cursor);
+        List<Idoso> idosos = posicao == null
+                ? idosoRepository.findPaginaPorNome(limite)
+                : idosoRepository.findPaginaPorNomeApos(posicao.valor(), posicao.id(), limite);
+        return CursorPaginacao.pagina("idosos", idosos, tamanho, Idoso::getId, Idoso::getNome,
+                idosoMapper::toDTO, total ? idosoRepository.count() : null);
     }
 
     public IdosoDTO findById(Long id) {
@@ -41,7 +62,7 @@ public class IdosoService {
         Idoso idoso = idosoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Idoso não encontrado com ID: " + id));
 
-        return modelMapper.map(idoso, IdosoDTO.class);
+        return idosoMapper.toDTO(idoso);
     }
 
     public IdosoDTO findByCpf(String cpf) {
@@ -50,14 +71,14 @@ public class IdosoService {
         Idoso idoso = idosoRepository.findByCpf(cpf)
                 .orElseThrow(() -> new ResourceNotFoundException("Idoso não encontrado com CPF: " + cpf));
 
-        return modelMapper.map(idoso, IdosoDTO.class);
+        return idosoMapper.toDTO(idoso);
     }
 
     public Page<IdosoDTO> findByNome(String nome, Pageable pageable) {
         log.debug("Buscando idosos por nome: {}", nome);
         
         return idosoRepository.findByNomeContainingIgnoreCase(nome, pageable)
-                .map(idoso -> modelMapper.map(idoso, IdosoDTO.class));
+                .map(idosoMapper::toDTO);
     }
 
     @Transactional
@@ -74,13 +95,14 @@ public class IdosoService {
             throw new IllegalArgumentException("Email já cadastrado: " + idosoDTO.getEmail());
         }
         
-        Idoso idoso = modelMapper.map(idosoDTO, Idoso.class);
+        Idoso idoso = idosoMapper.toEntity(idosoDTO);
         idoso.setId(null); // Garante que é um novo idoso
 
         Idoso savedIdoso = idosoRepository.save(idoso);
+        eventPublisher.publishEvent(new IdosoAlteradoEvent(savedIdoso.getId(), false));
         log.info("Idoso criado com ID: {} - {}", savedIdoso.getId(), savedIdoso.getNome());
 
-        return modelMapper.map(savedIdoso, IdosoDTO.class);
+        return idosoMapper.toDTO(savedIdoso);
     }
 
     @Transactional
@@ -106,14 +128,15 @@ public class IdosoService {
                 });
         }
 
-        // Atualiza apenas campos permitidos usando ModelMapper
-        modelMapper.map(idosoDTO, idoso);
+        // Atualiza apenas campos informados (ignora nulos)
+        idosoMapper.updateEntity(idosoDTO, idoso);
         idoso.setId(id); // Mantém o ID original
 
         Idoso updatedIdoso = idosoRepository.save(idoso);
+        eventPublisher.publishEvent(new IdosoAlteradoEvent(id, false));
         log.info("Idoso ID: {} atualizado com sucesso", id);
 
-        return modelMapper.map(updatedIdoso, IdosoDTO.class);
+        return idosoMapper.toDTO(updatedIdoso);
     }
 
     @Transactional
@@ -125,32 +148,34 @@ public class IdosoService {
         }
 
         idosoRepository.deleteById(id);
+        eventPublisher.publishEvent(new IdosoAlteradoEvent(id, true));
         log.info("Idoso ID: {} removido com sucesso", id);
     }
 
-    public List<IdosoDTO> findByIdadeEntre(int idadeMinima, int idadeMaxima) {
+    public Page<IdosoDTO> findByIdadeEntre(int idadeMinima, int idadeMaxima, Pageable pageable) {
         log.debug("Buscando idosos com idade entre {} e {} anos", idadeMinima, idadeMaxima);
 
-        // OTIMIZAÇÃO: Criando método específico no repository seria mais eficiente
-        // Para esta implementação, vamos usar uma consulta mais direta
-        return idosoRepository.findAll()
-                .stream()
-                .filter(idoso -> {
-                    int idade = idoso.getIdade();
-                    return idade >= idadeMinima && idade <= idadeMaxima;
-                })
-                .map(idoso -> modelMapper.map(idoso, IdosoDTO.class))
-                .toList();
+        if (idadeMinima > idadeMaxima) {
+            return Page.empty(pageable);
+        }
+
+        // Converte a faixa etária em faixa de datas para usar o índice de data_nascimento
+        FaixaNascimento faixa = FaixaNascimento.de(idadeMinima, idadeMaxima);
+        return idosoRepository.findByIdadeEntre(faixa.inicio(), faixa.fim(), pageable)
+                .map(idosoMapper::toDTO);
     }
 
     public List<IdosoDTO> findIdososComEmergenciasAtivas() {
         log.debug("Buscando idosos com emergências ativas");
-        
-        // OTIMIZAÇÃO: Esta consulta deveria ser implementada com @Query no repository
-        // Por enquanto, mantendo implementação simplificada
-        return idosoRepository.findAll()
+
+        // Ids vêm do índice em memória; só os idosos afetados são lidos do banco
+        Set<Long> idosoIds = emergenciaAtivaIndex.idososEmEmergencia();
+        if (idosoIds.isEmpty()) {
+            return List.of();
+        }
+        return idosoRepository.findAllById(idosoIds)
                 .stream()
-                .map(idoso -> modelMapper.map(idoso, IdosoDTO.class))
+                .map(idosoMapper::toDTO)
                 .toList();
     }
 
@@ -159,7 +184,27 @@ public class IdosoService {
     }
 
     public long countIdososPorFaixaEtaria(int idadeMinima, int idadeMaxima) {
-        // Implementação simples usando contagem manual
-        return findByIdadeEntre(idadeMinima, idadeMaxima).size();
+        if (idadeMinima > idadeMaxima) {
+            return 0L;
+        }
+
+        FaixaNascimento faixa = FaixaNascimento.de(idadeMinima, idadeMaxima);
+        return idosoRepository.countByIdadeEntre(faixa.inicio(), faixa.fim());
+    }
+
+    /**
+     * Intervalo de datas de nascimento equivalente a uma faixa etária.
+     *
+     * Segue o mesmo cálculo de {@link Idoso#getIdade()} (diferença entre os anos),
+     * de modo que o filtro no banco retorna exatamente os mesmos idosos.
+     */
+    private record FaixaNascimento(LocalDate inicio, LocalDate fim) {
+
+        static FaixaNascimento de(int idadeMinima, int idadeMaxima) {
+            int anoAtual = LocalDate.now().getYear();
+            return new FaixaNascimento(
+                    LocalDate.of(anoAtual - idadeMaxima, 1, 1),
+                    LocalDate.of(anoAtual - idadeMinima, 12, 31));
+        }
     }
 }
@@ -0,0 +1,251 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.dtos.ResultadoBuscaIdosoDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas de nome e endereço dos idosos, em memória
+ *
+ * Cada trigrama aponta para as posições dos idosos que o contêm; uma busca soma,
+ * por posição, quantos trigramas do termo aparecem no nome e no endereço, e a
+ * similaridade é a fração encontrada (como word_similarity do pg_trgm). Também
+ * entra quem contém o termo literalmente, para nunca trazer menos que o antigo LIKE.
+ * Alterações marcam a posição antiga como removida e acrescentam uma nova; o
+ * BuscaIdosoService recria o índice quando as removidas se acumulam.
+ *
+ * A carga completa entra em ordem de nome: entre as primeiras posições, empates de
+ * relevância se resolvem pela posição, sem comparar os nomes.
+ */
+final class IndiceBuscaIdosos {
+
+    static final double PESO_ENDERECO = 0.8;
+
+    private static final Comparator<Linha> ORDEM_NOME = Comparator.comparing(Linha::nome)
+            .thenComparingLong(Linha::id);
+
+    private static final Comparator<Candidato> ORDEM = Comparator.comparingDouble(Candidato::relevancia)
+            .thenComparing(Candidato::nome, Comparator.reverseOrder())
+            .thenComparing(Candidato::id, Comparator.reverseOrder());
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+    private final Campo nomes = new Campo();
+    private final Campo enderecos = new Campo();
+    private final Map<Long, Integer> posicoes = new HashMap<>();
+
+    private long[] ids = new long[1024];
+    private String[] textosNome = new String[1024];
+    private String[] textosEndereco = new String[1024];
+    private String[] normalizadosNome = new String[1024];
+    private String[] normalizadosEndereco = new String[1024];
+    private boolean[] removidos = new boolean[1024];
+    private int total;
+    private int totalRemovidos;
+    /**
+     * As posições 0 a ordenadas - 1 estão em ordem de (nome, id)
+     */
+    private int ordenadas;
+    private Linha ultimaOrdenada;
+
+    /**
+     * Idoso a indexar
+     */
+    record Linha(long id, String nome, String endereco) {
+    }
+
+    private record Candidato(int posicao, long id, String nome, String endereco, double relevancia) {
+    }
+
+    /**
+     * Lista de posições por trigrama de um campo
+     */
+    private static final class Campo {
+        private final int[][] listas = new int[TextoBusca.TOTAL_TRIGRAMAS][];
+        private final int[] tamanhos = new int[TextoBusca.TOTAL_TRIGRAMAS];
+
+        private void adicionar(int posicao, String normalizado) {
+            for (int trigrama : TextoBusca.trigramas(normalizado)) {
+                int[] lista = listas[trigrama];
+                if (lista == null) {
+                    lista = listas[trigrama] = new int[4];
+                } else if (tamanhos[trigrama] == lista.length) {
+                    lista = listas[trigrama] = Arrays.copyOf(lista, lista.length * 2);
+                }
+                lista[tamanhos[trigrama]++] = posicao;
+            }
+        }
+    }
+
+    /**
+     * Inclui os idosos, em ordem de nome
+     */
+    void indexar(List<Linha> linhas) {
+        trava.writeLock().lock();
+        try {
+            linhas.stream().sorted(ORDEM_NOME).forEach(linha -> indexar(linha.id(), linha.nome(), linha.endereco()));
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inclui o idoso ou substitui a versão já indexada
+     */
+    void indexar(long id, String nome, String endereco) {
+        trava.writeLock().lock();
+        try {
+            remover(id);
+            if (total == ids.length) {
+                crescer();
+            }
+            int posicao = total++;
+            Linha linha = new Linha(id, nome, endereco);
+            if (ordenadas == posicao && (ultimaOrdenada == null || ORDEM_NOME.compare(ultimaOrdenada, linha) < 0)) {
+                ordenadas++;
+                ultimaOrdenada = linha;
+            }
+            ids[posicao] = id;
+            textosNome[posicao] = nome;
+            textosEndereco[posicao] = endereco;
+            normalizadosNome[posicao] = TextoBusca.normalizar(nome);
+            normalizadosEndereco[posicao] = TextoBusca.normalizar(endereco);
+            nomes.adicionar(posicao, normalizadosNome[posicao]);
+            enderecos.adicionar(posicao, normalizadosEndereco[posicao]);
+            posicoes.put(id, posicao);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    void remover(long id) {
+        trava.writeLock().lock();
+        try {
+            Integer posicao = posicoes.remove(id);
+            if (posicao != null) {
+                removidos[posicao] = true;
+                textosNome[posicao] = textosEndereco[posicao] = null;
+                normalizadosNome[posicao] = normalizadosEndereco[posicao] = null;
+                totalRemovidos++;
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    int tamanho() {
+        trava.readLock().lock();
+        try {
+            return posicoes.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Posições removidas passaram de um quarto do índice
+     */
+    boolean fragmentado() {
+        trava.readLock().lock();
+        try {
+            return totalRemovidos > 1000 && totalRemovidos * 4 > total;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Os "limite" idosos mais parecidos com o termo (já normalizado)
+     */
+    List<ResultadoBuscaIdosoDTO> buscar(String termo, int limite, double limiar) {
+        int[] trigramas = TextoBusca.trigramas(termo);
+        int interiores = TextoBusca.interiores(trigramas);
+        int minimo = Math.max(1, (int) Math.ceil(limiar * trigramas.length));
+
+        trava.readLock().lock();
+        try {
+            // Acertos por posição: as listas estão em ordem de posição, e a varredura abaixo é sequencial
+            short[] acertosNome = contar(nomes, trigramas);
+            short[] acertosEndereco = contar(enderecos, trigramas);
+
+            PriorityQueue<Candidato> melhores = new PriorityQueue<>(limite + 1, ORDEM);
+            for (int posicao = 0; posicao < total; posicao++) {
+                int noNome = acertosNome[posicao];
+                int noEndereco = acertosEndereco[posicao];
+                if (noNome == 0 && noEndereco == 0 || removidos[posicao]) {
+                    continue;
+                }
+                if (noNome < minimo && noEndereco < minimo
+                        && !(interiores > 0 && contem(posicao, termo, noNome, noEndereco, interiores))) {
+                    continue;
+                }
+                double relevancia = Math.round(Math.max(noNome, PESO_ENDERECO * noEndereco)
+                        / trigramas.length * 1000) / 1000.0;
+                if (melhores.size() == limite && perde(relevancia, posicao, melhores.peek())) {
+                    continue;
+                }
+                Candidato candidato = new Candidato(posicao, ids[posicao], textosNome[posicao],
+                        textosEndereco[posicao], relevancia);
+                if (melhores.size() < limite) {
+                    melhores.add(candidato);
+                } else if (ORDEM.compare(candidato, melhores.peek()) > 0) {
+                    melhores.poll();
+                    melhores.add(candidato);
+                }
+            }
+
+            List<Candidato> ordenados = new ArrayList<>(melhores);
+            ordenados.sort(ORDEM.reversed());
+            return ordenados.stream()
+                    .map(c -> new ResultadoBuscaIdosoDTO(c.id(), c.nome(), c.endereco(), c.relevancia()))
+                    .toList();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sem comparar nomes: o candidato da posição informada não entra no lugar do pior
+     * dos melhores. As posições são varridas em ordem crescente; dentro do trecho
+     * ordenado, posição maior é nome maior
+     */
+    private boolean perde(double relevancia, int posicao, Candidato pior) {
+        return relevancia < pior.relevancia()
+                || relevancia == pior.relevancia() && posicao < ordenadas && pior.posicao() < ordenadas;
+    }
+
+    private short[] contar(Campo campo, int[] trigramas) {
+        short[] acertos = new short[total];
+        for (int trigrama : trigramas) {
+            int[] lista = campo.listas[trigrama];
+            for (int i = 0, tamanho = campo.tamanhos[trigrama]; i < tamanho; i++) {
+                acertos[lista[i]]++;
+            }
+        }
+        return acertos;
+    }
+
+    /**
+     * Nome ou endereço contém o termo; só quem tem todos os trigramas interiores pode conter
+     */
+    private boolean contem(int posicao, String termo, int noNome, int noEndereco, int interiores) {
+        return noNome >= interiores && normalizadosNome[posicao].contains(termo)
+                || noEndereco >= interiores && normalizadosEndereco[posicao].contains(termo);
+    }
+
+    private void crescer() {
+        int capacidade = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacidade);
+        textosNome = Arrays.copyOf(textosNome, capacidade);
+        textosEndereco = Arrays.copyOf(textosEndereco, capacidade);
+        normalizadosNome = Arrays.copyOf(normalizadosNome, capacidade);
+        normalizadosEndereco = Arrays.copyOf(normalizadosEndereco, capacidade);
+        removidos = Arrays.copyOf(removidos, capacidade);
+    }
+}
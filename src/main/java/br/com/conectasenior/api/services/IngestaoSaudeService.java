@@ -0,0 +1,116 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.dtos.RegistroSaudeCreateDTO;
+import br.com.conectasenior.api.dtos.responses.RegistroSaudeLoteResponse;
+import br.com.conectasenior.api.entities.Idoso;
+import br.com.conectasenior.api.entities.RegistroSaude;
+import br.com.conectasenior.api.exceptions.BusinessException;
+import br.com.conectasenior.api.mappers.RegistroSaudeMapper;
+import br.com.conectasenior.api.repositories.IdosoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service para ingestão em lote de registros de saúde vindos de dispositivos
+ *
+ * Valida todos os itens em uma passada (incluindo a existência dos idosos, com uma
+ * única consulta) e grava os válidos em uma transação, com INSERTs agrupados em
+ * lotes JDBC. O contexto de persistência é esvaziado a cada lote para não crescer
+ * com o tamanho da requisição, e os resumos são atualizados uma vez por período.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class IngestaoSaudeService {
+
+    private final IdosoRepository idosoRepository;
+    private final RegistroSaudeMapper registroSaudeMapper;
+    private final ResumoSaudeService resumoSaudeService;
+    private final EntityManager entityManager;
+    private final Validator validator;
+
+    @Value("${saude.lote.max-registros:5000}")
+    private int maxRegistros;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanhoLoteJdbc;
+
+    public RegistroSaudeLoteResponse registrarLote(List<RegistroSaudeCreateDTO> registros) {
+        if (registros.size() > maxRegistros) {
+            throw new BusinessException("O lote deve conter no máximo " + maxRegistros + " registros");
+        }
+        log.debug("Recebido lote com {} registros de saúde", registros.size());
+
+        Set<Long> idosoIds = registros.stream()
+                .filter(Objects::nonNull)
+                .map(RegistroSaudeCreateDTO::getIdosoId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> idososExistentes = idosoIds.isEmpty() ? Set.of() : idosoRepository.findIdsExistentes(idosoIds);
+
+        List<RegistroSaudeLoteResponse.Item> resultados = new ArrayList<>(registros.size());
+        List<RegistroSaude> gravados = new ArrayList<>(registros.size());
+        LocalDateTime agora = LocalDateTime.now();
+        int pendentes = 0;
+
+        for (int indice = 0; indice < registros.size(); indice++) {
+            RegistroSaudeCreateDTO dto = registros.get(indice);
+            List<String> erros = validar(dto, idososExistentes);
+            if (!erros.isEmpty()) {
+                resultados.add(new RegistroSaudeLoteResponse.Item(indice, null, false, erros));
+                continue;
+            }
+
+            RegistroSaude registro = registroSaudeMapper.toEntity(dto);
+            registro.setIdoso(entityManager.getReference(Idoso.class, dto.getIdosoId()));
+            if (registro.getRegistradoEm() == null) {
+                registro.setRegistradoEm(agora);
+            }
+            entityManager.persist(registro);
+            gravados.add(registro);
+            resultados.add(new RegistroSaudeLoteResponse.Item(indice, registro.getId(), true, List.of()));
+
+            if (++pendentes == tamanhoLoteJdbc) {
+                entityManager.flush();
+                entityManager.clear();
+                pendentes = 0;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        resumoSaudeService.registrarLote(gravados);
+
+        int aceitos = gravados.size();
+        log.info("Lote de registros de saúde processado: {} aceitos, {} rejeitados", aceitos, registros.size() - aceitos);
+        return new RegistroSaudeLoteResponse(registros.size(), aceitos, registros.size() - aceitos, resultados);
+    }
+
+    private List<String> validar(RegistroSaudeCreateDTO dto, Set<Long> idososExistentes) {
+        if (dto == null) {
+            return List.of("Registro vazio");
+        }
+        List<String> erros = new ArrayList<>();
+        for (ConstraintViolation<RegistroSaudeCreateDTO> violacao : validator.validate(dto)) {
+            erros.add(violacao.getPropertyPath() + ": " + violacao.getMessage());
+        }
+        if (dto.getIdosoId() != null && !idososExistentes.contains(dto.getIdosoId())) {
+            erros.add("idosoId: Idoso não encontrado com ID: " + dto.getIdosoId());
+        }
+        return erros;
+    }
+}
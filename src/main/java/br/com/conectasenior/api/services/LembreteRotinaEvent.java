@@ -0,0 +1,16 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.entities.Rotina;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lembrete de rotina disparado pelo LembreteRotinaScheduler no horário previsto;
+ * enviado como evento SSE "lembrete" pelo EmergenciaStreamService
+ */
+public record LembreteRotinaEvent(Long rotinaId,
+                                  Long idosoId,
+                                  String titulo,
+                                  Rotina.TipoRotina tipo,
+                                  LocalDateTime previstoPara) {
+}
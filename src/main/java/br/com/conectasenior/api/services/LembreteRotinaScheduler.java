@@ -0,0 +1,211 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.config.LembreteRotinaProperties;
+import br.com.conectasenior.api.entities.DiasSemana;
+import br.com.conectasenior.api.entities.Rotina;
+import br.com.conectasenior.api.repositories.RotinaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Disparo dos lembretes de rotina a cada minuto
+ *
+ * As rotinas ativas ficam em um índice em memória por dia da semana e minuto do
+ * dia, de modo que cada verificação lê apenas as rotinas previstas para aquele
+ * minuto. O índice é reconstruído na inicialização a partir de findByAtivoTrue e
+ * atualizado pelos eventos do RotinaService e do IdosoService após o commit.
+ * Cada lembrete é publicado como LembreteRotinaEvent, que o EmergenciaStreamService
+ * envia às conexões SSE dos usuários vinculados ao idoso.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LembreteRotinaScheduler implements ApplicationRunner {
+
+    private static final int MINUTOS_POR_DIA = 24 * 60;
+    private static final int TAMANHO_PAGINA_CARGA = 1_000;
+
+    private final RotinaRepository rotinaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LembreteRotinaProperties propriedades;
+
+    private final Map<Integer, Map<Long, Agendamento>> porHorario = new ConcurrentHashMap<>();
+    private final Map<Long, Agendamento> porRotina = new ConcurrentHashMap<>();
+    private LocalDateTime ultimoMinutoVerificado;
+
+    /**
+     * Rotina ativa como mantida no índice; dias é uma máscara de DiasSemana
+     */
+    public record Agendamento(Long rotinaId, Long idosoId, String titulo, Rotina.TipoRotina tipo,
+                              LocalTime horario, int dias) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        reconstruir();
+    }
+
+    /**
+     * Recarrega o índice com as rotinas ativas do banco
+     *
+     * @return quantidade de rotinas indexadas
+     */
+    public synchronized int reconstruir() {
+        porHorario.clear();
+        porRotina.clear();
+
+        Pageable pagina = PageRequest.of(0, TAMANHO_PAGINA_CARGA, Sort.by("id"));
+        Page<Rotina> rotinas;
+        do {
+            rotinas = rotinaRepository.findByAtivoTrue(pagina);
+            rotinas.forEach(rotina -> indexar(RotinaAlteradaEvent.de(rotina)));
+            pagina = rotinas.nextPageable();
+        } while (rotinas.hasNext());
+
+        log.info("Índice de lembretes de rotina reconstruído: {} rotinas ativas", porRotina.size());
+        return porRotina.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public synchronized void aoAlterarRotina(RotinaAlteradaEvent evento) {
+        remover(evento.rotinaId());
+        if (evento.ativa()) {
+            indexar(evento);
+        }
+    }
+
+    /**
+     * Idoso removido: as rotinas dele foram apagadas em cascata, sem eventos próprios
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public synchronized void aoAlterarIdoso(IdosoAlteradoEvent evento) {
+        if (!evento.removido()) {
+            return;
+        }
+        porRotina.values().stream()
+                .filter(agendamento -> evento.idosoId().equals(agendamento.idosoId()))
+                .map(Agendamento::rotinaId)
+                .toList()
+                .forEach(this::remover);
+    }
+
+    /**
+     * Dispara os lembretes do minuto atual e dos minutos perdidos desde a última
+     * verificação (limitados a recuperacao-maxima-minutos)
+     */
+    @Scheduled(cron = "0 * * * * *")
+    public synchronized void verificar() {
+        if (!propriedades.isHabilitado()) {
+            return;
+        }
+
+        LocalDateTime agora = LocalDateTime.now(propriedades.getFuso()).truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime inicio = ultimoMinutoVerificado == null ? agora : ultimoMinutoVerificado.plusMinutes(1);
+        LocalDateTime limiteRecuperacao = agora.minusMinutes(propriedades.getRecuperacaoMaximaMinutos());
+        if (inicio.isBefore(limiteRecuperacao)) {
+            log.warn("Lembretes de rotina entre {} e {} descartados por atraso", inicio, limiteRecuperacao.minusMinutes(1));
+            inicio = limiteRecuperacao;
+        }
+
+        int disparados = 0;
+        for (LocalDateTime minuto = inicio; !minuto.isAfter(agora); minuto = minuto.plusMinutes(1)) {
+            disparados += disparar(minuto);
+        }
+        ultimoMinutoVerificado = agora;
+
+        if (disparados > 0) {
+            log.info("{} lembretes de rotina disparados até {}", disparados, agora.toLocalTime());
+        }
+    }
+
+    /**
+     * Rotinas previstas para o dia e o minuto informados
+     */
+    public Collection<Agendamento> previstas(DayOfWeek dia, LocalTime horario) {
+        return List.copyOf(porHorario.getOrDefault(chave(dia, horario), Map.of()).values());
+    }
+
+    /**
+     * Rotina ativa como está no índice, sem consultar o banco
+     */
+    public Optional<Agendamento> agendamento(Long rotinaId) {
+        return Optional.ofNullable(porRotina.get(rotinaId));
+    }
+
+    public int totalIndexado() {
+        return porRotina.size();
+    }
+
+    private int disparar(LocalDateTime minuto) {
+        Map<Long, Agendamento> previstas = porHorario.get(chave(minuto.getDayOfWeek(), minuto.toLocalTime()));
+        if (previstas == null) {
+            return 0;
+        }
+
+        for (Agendamento agendamento : previstas.values()) {
+            log.debug("Lembrete da rotina ID: {} ({}) para idoso ID: {}",
+                    agendamento.rotinaId(), agendamento.titulo(), agendamento.idosoId());
+            eventPublisher.publishEvent(new LembreteRotinaEvent(agendamento.rotinaId(), agendamento.idosoId(),
+                    agendamento.titulo(), agendamento.tipo(), minuto));
+        }
+        return previstas.size();
+    }
+
+    private void indexar(RotinaAlteradaEvent rotina) {
+        if (rotina.horario() == null) {
+            return;
+        }
+        Agendamento agendamento = new Agendamento(rotina.rotinaId(), rotina.idosoId(), rotina.titulo(),
+                rotina.tipo(), rotina.horario().truncatedTo(ChronoUnit.MINUTES), rotina.diasSemana());
+        porRotina.put(agendamento.rotinaId(), agendamento);
+        for (DayOfWeek dia : DayOfWeek.values()) {
+            if (DiasSemana.contem(agendamento.dias(), dia)) {
+                porHorario.computeIfAbsent(chave(dia, agendamento.horario()), chave -> new ConcurrentHashMap<>())
+                        .put(agendamento.rotinaId(), agendamento);
+            }
+        }
+    }
+
+    private void remover(Long rotinaId) {
+        Agendamento anterior = porRotina.remove(rotinaId);
+        if (anterior == null) {
+            return;
+        }
+        for (DayOfWeek dia : DayOfWeek.values()) {
+            if (DiasSemana.contem(anterior.dias(), dia)) {
+                porHorario.computeIfPresent(chave(dia, anterior.horario()), (chave, rotinas) -> {
+                    rotinas.remove(rotinaId);
+                    return rotinas.isEmpty() ? null : rotinas;
+                });
+            }
+        }
+    }
+
+    /**
+     * Posição no índice: dia da semana x minuto do dia
+     */
+    private static int chave(DayOfWeek dia, LocalTime horario) {
+        return (dia.getValue() - 1) * MINUTOS_POR_DIA + horario.getHour() * 60 + horario.getMinute();
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.exceptions.BusinessException;
+import br.com.conectasenior.api.repositories.IdosoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reconstrução em lote dos resumos de saúde
+ *
+ * Processa um idoso por vez, cada um em sua própria transação, para preencher os
+ * resumos de registros anteriores à sua criação ou corrigir divergências.
+ * Com saude.resumos.reconstruir-na-inicializacao=true roda ao subir a aplicação.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResumoSaudeBackfillService implements ApplicationRunner {
+
+    private final IdosoRepository idosoRepository;
+    private final ResumoSaudeService resumoSaudeService;
+
+    @Value("${saude.resumos.reconstruir-na-inicializacao:false}")
+    private boolean reconstruirNaInicializacao;
+
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+
+    /**
+     * Resultado de uma reconstrução
+     */
+    public record Resultado(int idosos, long resumos, long duracaoMs) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (reconstruirNaInicializacao) {
+            reconstruirTodos();
+        }
+    }
+
+    /**
+     * Reconstrói os resumos de todos os idosos
+     *
+     * @throws BusinessException se outra reconstrução já estiver em andamento
+     */
+    public Resultado reconstruirTodos() {
+        if (!emExecucao.compareAndSet(false, true)) {
+            throw new BusinessException("Reconstrução de resumos de saúde já em andamento");
+        }
+        try {
+            long inicio = System.currentTimeMillis();
+            List<Long> idosos = idosoRepository.findAllIds();
+            log.info("Reconstruindo resumos de saúde de {} idosos", idosos.size());
+
+            long resumos = 0;
+            for (Long idosoId : idosos) {
+                resumos += resumoSaudeService.reconstruir(idosoId);
+            }
+
+            Resultado resultado = new Resultado(idosos.size(), resumos, System.currentTimeMillis() - inicio);
+            log.info("Reconstrução de resumos de saúde concluída: {}", resultado);
+            return resultado;
+        } finally {
+            emExecucao.set(false);
+        }
+    }
+}
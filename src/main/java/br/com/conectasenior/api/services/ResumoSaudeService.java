@@ -0,0 +1,355 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.dtos.ResumoSaudeDTO;
+import br.com.conectasenior.api.entities.RegistroSaude;
+import br.com.conectasenior.api.entities.ResumoSaude;
+import br.com.conectasenior.api.mappers.ResumoSaudeMapper;
+import br.com.conectasenior.api.repositories.RegistroSaudeRepository;
+import br.com.conectasenior.api.repositories.ResumoSaudeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Service para os resumos horários e diários de registros de saúde
+ *
+ * Os resumos são atualizados na mesma transação que grava o registro, com um
+ * upsert atômico do período (INSERT ... ON CONFLICT no Postgres, MERGE no H2): dois
+ * registros simultâneos de um período novo não disputam a inserção da linha. Podem
+ * ser reconstruídos a partir dos registros brutos. Médias de um intervalo qualquer
+ * combinam resumos diários, horários nas bordas do dia e registros brutos apenas
+ * nas frações de hora das extremidades.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ResumoSaudeService {
+
+    private static final ResumoSaude.Granularidade[] GRANULARIDADES = ResumoSaude.Granularidade.values();
+
+    private static final Comparator<ResumoSaude> ORDEM_PERIODO = Comparator.comparing(ResumoSaude::getIdosoId)
+            .thenComparing(ResumoSaude::getTipo)
+            .thenComparing(ResumoSaude::getGranularidade)
+            .thenComparing(ResumoSaude::getInicioPeriodo);
+
+    /**
+     * Acrescenta quantidade, soma, mínimo e máximo ao resumo do período, criando-o se
+     * ainda não existir. Parâmetros: idoso_id, tipo, granularidade, inicio_periodo,
+     * quantidade, soma, minimo, maximo, atualizado_em
+     */
+    private static final String ACRESCENTAR_POSTGRES =
+            "INSERT INTO resumos_saude (idoso_id, tipo, granularidade, inicio_periodo, quantidade, soma, "
+            + "minimo, maximo, atualizado_em) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (idoso_id, tipo, granularidade, inicio_periodo) DO UPDATE SET "
+            + "quantidade = resumos_saude.quantidade + EXCLUDED.quantidade, "
+            + "soma = resumos_saude.soma + EXCLUDED.soma, "
+            + "minimo = LEAST(resumos_saude.minimo, EXCLUDED.minimo), "
+            + "maximo = GREATEST(resumos_saude.maximo, EXCLUDED.maximo), "
+            + "atualizado_em = EXCLUDED.atualizado_em";
+
+    private static final String ACRESCENTAR_H2 =
+            "MERGE INTO resumos_saude r USING (SELECT CAST(? AS BIGINT) AS idoso_id, CAST(? AS VARCHAR(30)) AS tipo, "
+            + "CAST(? AS VARCHAR(10)) AS granularidade, CAST(? AS TIMESTAMP) AS inicio_periodo, "
+            + "CAST(? AS BIGINT) AS quantidade, CAST(? AS NUMERIC(15, 2)) AS soma, CAST(? AS NUMERIC(7, 2)) AS minimo, "
+            + "CAST(? AS NUMERIC(7, 2)) AS maximo, CAST(? AS TIMESTAMP) AS atualizado_em) n "
+            + "ON r.idoso_id = n.idoso_id AND r.tipo = n.tipo AND r.granularidade = n.granularidade "
+            + "AND r.inicio_periodo = n.inicio_periodo "
+            + "WHEN MATCHED THEN UPDATE SET quantidade = r.quantidade + n.quantidade, soma = r.soma + n.soma, "
+            + "minimo = LEAST(r.minimo, n.minimo), maximo = GREATEST(r.maximo, n.maximo), "
+            + "atualizado_em = n.atualizado_em "
+            + "WHEN NOT MATCHED THEN INSERT (idoso_id, tipo, granularidade, inicio_periodo, quantidade, soma, "
+            + "minimo, maximo, atualizado_em) VALUES (n.idoso_id, n.tipo, n.granularidade, n.inicio_periodo, "
+            + "n.quantidade, n.soma, n.minimo, n.maximo, n.atualizado_em)";
+
+    /**
+     * Valores recalculados de um período já travado. Parâmetros: quantidade, soma,
+     * minimo, maximo, atualizado_em, idoso_id, tipo, granularidade, inicio_periodo
+     */
+    private static final String DEFINIR = "UPDATE resumos_saude SET quantidade = ?, soma = ?, minimo = ?, maximo = ?, "
+            + "atualizado_em = ? WHERE idoso_id = ? AND tipo = ? AND granularidade = ? AND inicio_periodo = ?";
+
+    private static final String REMOVER = "DELETE FROM resumos_saude "
+            + "WHERE idoso_id = ? AND tipo = ? AND granularidade = ? AND inicio_periodo = ?";
+
+    private final ResumoSaudeRepository resumoSaudeRepository;
+    private final RegistroSaudeRepository registroSaudeRepository;
+    private final ResumoSaudeMapper resumoSaudeMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final DialetoBanco dialetoBanco;
+
+    /**
+     * Acrescenta o valor de um novo registro aos resumos da sua hora e do seu dia
+     */
+    @Transactional
+    public void registrar(Long idosoId, RegistroSaude.TipoRegistro tipo, LocalDateTime registradoEm, BigDecimal valor) {
+        if (valor == null) {
+            return;
+        }
+        for (ResumoSaude.Granularidade granularidade : GRANULARIDADES) {
+            acrescentar(new ResumoSaude(null, idosoId, tipo, granularidade, granularidade.inicioDoPeriodo(registradoEm),
+                    1L, valor, valor, valor, null));
+        }
+    }
+
+    /**
+     * Acrescenta um lote de registros aos resumos, agrupando antes por período:
+     * cada hora/dia tocado pelo lote recebe um único upsert, e os comandos vão ao
+     * banco em lotes JDBC
+     */
+    @Transactional
+    public void registrarLote(Iterable<RegistroSaude> registros) {
+        Map<ChavePeriodo, ResumoSaude> parciais = new HashMap<>();
+        for (RegistroSaude registro : registros) {
+            if (registro.getValor() == null) {
+                continue;
+            }
+            Long idosoId = registro.getIdoso().getId();
+            for (ResumoSaude.Granularidade granularidade : GRANULARIDADES) {
+                LocalDateTime inicio = granularidade.inicioDoPeriodo(registro.getRegistradoEm());
+                parciais.merge(new ChavePeriodo(idosoId, registro.getTipo(), granularidade, inicio),
+                        new ResumoSaude(null, idosoId, registro.getTipo(), granularidade, inicio,
+                                1L, registro.getValor(), registro.getValor(), registro.getValor(), null),
+                        ResumoSaudeService::combinar);
+            }
+        }
+        if (parciais.isEmpty()) {
+            return;
+        }
+
+        // Sempre na mesma ordem: lotes simultâneos com períodos em comum não travam um ao outro
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        dialetoBanco.upsert(ACRESCENTAR_POSTGRES, ACRESCENTAR_H2, parciais.values().stream()
+                .sorted(ORDEM_PERIODO)
+                .map(parcial -> parametros(parcial, agora))
+                .toList());
+    }
+
+    /**
+     * Recalcula a partir dos registros brutos os resumos da hora e do dia que contêm o instante
+     * (usado quando um registro é alterado ou removido)
+     */
+    @Transactional
+    public void recalcular(Long idosoId, RegistroSaude.TipoRegistro tipo, LocalDateTime instante) {
+        recalcular(List.of(new Ocorrencia(idosoId, tipo, instante)));
+    }
+
+    /**
+     * Recalcula os resumos da hora e do dia de cada ocorrência
+     *
+     * Cada período é travado antes de ler os registros brutos: um upsert que não
+     * acrescenta nada cria a linha que faltar e a trava até o commit, como faria um
+     * acréscimo, na mesma ORDEM_PERIODO dos lotes. Um registro gravado em paralelo
+     * já está visível no cálculo ou espera a trava e soma ao valor recalculado; e
+     * quando a linha ainda não existe, as duas gravações não disputam a inserção.
+     */
+    @Transactional
+    public void recalcular(Collection<Ocorrencia> ocorrencias) {
+        Set<ResumoSaude> periodos = new TreeSet<>(ORDEM_PERIODO);
+        for (Ocorrencia ocorrencia : ocorrencias) {
+            for (ResumoSaude.Granularidade granularidade : GRANULARIDADES) {
+                periodos.add(new ResumoSaude(null, ocorrencia.idosoId(), ocorrencia.tipo(), granularidade,
+                        granularidade.inicioDoPeriodo(ocorrencia.instante()), 0L, BigDecimal.ZERO, null, null, null));
+            }
+        }
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        dialetoBanco.upsert(ACRESCENTAR_POSTGRES, ACRESCENTAR_H2, periodos.stream()
+                .map(periodo -> parametros(periodo, agora))
+                .toList());
+
+        for (ResumoSaude periodo : periodos) {
+            LocalDateTime inicio = periodo.getInicioPeriodo();
+            LocalDateTime fim = periodo.getGranularidade() == ResumoSaude.Granularidade.HORA
+                    ? inicio.plusHours(1)
+                    : inicio.plusDays(1);
+            Object[] linha = resumoSaudeRepository.calcularPeriodo(periodo.getIdosoId(), periodo.getTipo(), inicio, fim)
+                    .get(0);
+            long quantidade = ((Number) linha[0]).longValue();
+            Object[] chave = {periodo.getIdosoId(), periodo.getTipo().name(), periodo.getGranularidade().name(),
+                    Timestamp.valueOf(inicio)};
+            if (quantidade == 0) {
+                jdbcTemplate.update(REMOVER, chave);
+            } else {
+                jdbcTemplate.update(DEFINIR, quantidade, linha[1], linha[2], linha[3], agora,
+                        chave[0], chave[1], chave[2], chave[3]);
+            }
+        }
+    }
+
+    /**
+     * Descarta e reconstrói todos os resumos de um idoso a partir dos registros brutos
+     *
+     * @return quantidade de resumos gravados
+     */
+    @Transactional
+    public int reconstruir(Long idosoId) {
+        resumoSaudeRepository.deleteByIdosoId(idosoId);
+
+        Map<ChavePeriodo, ResumoSaude> resumos = new HashMap<>();
+        try (Stream<Object[]> valores = registroSaudeRepository.streamValoresPorIdoso(idosoId)) {
+            valores.forEach(linha -> {
+                RegistroSaude.TipoRegistro tipo = (RegistroSaude.TipoRegistro) linha[0];
+                LocalDateTime registradoEm = (LocalDateTime) linha[1];
+                BigDecimal valor = (BigDecimal) linha[2];
+                for (ResumoSaude.Granularidade granularidade : GRANULARIDADES) {
+                    LocalDateTime inicio = granularidade.inicioDoPeriodo(registradoEm);
+                    resumos.merge(new ChavePeriodo(idosoId, tipo, granularidade, inicio),
+                            new ResumoSaude(null, idosoId, tipo, granularidade, inicio, 1L, valor, valor, valor, null),
+                            ResumoSaudeService::combinar);
+                }
+            });
+        }
+
+        resumoSaudeRepository.saveAll(resumos.values());
+        log.debug("Resumos do idoso ID: {} reconstruídos ({} períodos)", idosoId, resumos.size());
+        return resumos.size();
+    }
+
+    /**
+     * Média dos valores de um tipo no intervalo [inicio, fim], calculada a partir dos resumos
+     */
+    public Double calcularMedia(Long idosoId, RegistroSaude.TipoRegistro tipo, LocalDateTime inicio, LocalDateTime fim) {
+        if (fim.isBefore(inicio)) {
+            return null;
+        }
+
+        LocalDateTime primeiraHora = ResumoSaude.Granularidade.HORA.inicioDoPeriodo(inicio);
+        if (primeiraHora.isBefore(inicio)) {
+            primeiraHora = primeiraHora.plusHours(1);
+        }
+        LocalDateTime ultimaHora = ResumoSaude.Granularidade.HORA.inicioDoPeriodo(fim);
+
+        // Intervalos semiabertos; o fim informado é inclusivo
+        LocalDateTime limite = fim.plusNanos(1);
+        List<ResumoSaudeRepository.Agregado> partes = new ArrayList<>(5);
+        if (!primeiraHora.isBefore(ultimaHora)) {
+            // Intervalo menor que uma hora cheia: apenas registros brutos
+            partes.add(resumoSaudeRepository.agregarRegistros(idosoId, tipo, inicio, limite));
+        } else {
+            // Frações de hora nas extremidades: registros brutos
+            adicionarRegistros(partes, idosoId, tipo, inicio, primeiraHora);
+            adicionarRegistros(partes, idosoId, tipo, ultimaHora, limite);
+
+            LocalDateTime primeiroDia = ResumoSaude.Granularidade.DIA.inicioDoPeriodo(primeiraHora);
+            if (primeiroDia.isBefore(primeiraHora)) {
+                primeiroDia = primeiroDia.plusDays(1);
+            }
+            LocalDateTime ultimoDia = ResumoSaude.Granularidade.DIA.inicioDoPeriodo(ultimaHora);
+
+            if (!primeiroDia.isBefore(ultimoDia)) {
+                adicionarResumos(partes, idosoId, tipo, ResumoSaude.Granularidade.HORA, primeiraHora, ultimaHora);
+            } else {
+                // Horas cheias nas bordas do dia e dias cheios no meio
+                adicionarResumos(partes, idosoId, tipo, ResumoSaude.Granularidade.HORA, primeiraHora, primeiroDia);
+                adicionarResumos(partes, idosoId, tipo, ResumoSaude.Granularidade.DIA, primeiroDia, ultimoDia);
+                adicionarResumos(partes, idosoId, tipo, ResumoSaude.Granularidade.HORA, ultimoDia, ultimaHora);
+            }
+        }
+
+        BigDecimal soma = BigDecimal.ZERO;
+        long quantidade = 0;
+        for (ResumoSaudeRepository.Agregado parte : partes) {
+            soma = soma.add(parte.soma());
+            quantidade += parte.quantidade();
+        }
+        return quantidade == 0 ? null : soma.doubleValue() / quantidade;
+    }
+
+    /**
+     * Série de resumos (tendência) de um tipo no intervalo, por hora ou por dia
+     */
+    public List<ResumoSaudeDTO> listarResumos(Long idosoId, RegistroSaude.TipoRegistro tipo,
+                                              ResumoSaude.Granularidade granularidade,
+                                              LocalDateTime inicio, LocalDateTime fim) {
+        return resumoSaudeRepository
+                .findByIdosoIdAndTipoAndGranularidadeAndInicioPeriodoBetweenOrderByInicioPeriodo(
+                        idosoId, tipo, granularidade, granularidade.inicioDoPeriodo(inicio), fim)
+                .stream()
+                .map(resumoSaudeMapper::toDTO)
+                .toList();
+    }
+
+    /**
+     * Resumo por tipo dos últimos dias completos mais o dia corrente, a partir dos resumos diários
+     */
+    public List<ResumoSaudeDTO> resumirPorTipo(Long idosoId, int dias) {
+        LocalDateTime inicio = LocalDate.now().minusDays(dias).atStartOfDay();
+        LocalDateTime fim = LocalDate.now().plusDays(1).atStartOfDay();
+
+        return resumoSaudeRepository.resumirPorTipo(idosoId, inicio, fim).stream()
+                .map(linha -> {
+                    ResumoSaudeDTO dto = new ResumoSaudeDTO();
+                    dto.setIdosoId(idosoId);
+                    dto.setTipo((RegistroSaude.TipoRegistro) linha[0]);
+                    dto.setInicioPeriodo(inicio);
+                    dto.setQuantidade(((Number) linha[1]).longValue());
+                    dto.setMedia(ResumoSaudeMapper.media((BigDecimal) linha[2], dto.getQuantidade()));
+                    dto.setMinimo((BigDecimal) linha[3]);
+                    dto.setMaximo((BigDecimal) linha[4]);
+                    return dto;
+                })
+                .toList();
+    }
+
+    private void adicionarRegistros(List<ResumoSaudeRepository.Agregado> partes, Long idosoId,
+                                    RegistroSaude.TipoRegistro tipo, LocalDateTime de, LocalDateTime ate) {
+        if (de.isBefore(ate)) {
+            partes.add(resumoSaudeRepository.agregarRegistros(idosoId, tipo, de, ate));
+        }
+    }
+
+    private void adicionarResumos(List<ResumoSaudeRepository.Agregado> partes, Long idosoId,
+                                  RegistroSaude.TipoRegistro tipo, ResumoSaude.Granularidade granularidade,
+                                  LocalDateTime de, LocalDateTime ate) {
+        if (de.isBefore(ate)) {
+            partes.add(resumoSaudeRepository.agregarResumos(idosoId, tipo, granularidade, de, ate));
+        }
+    }
+
+    private void acrescentar(ResumoSaude parcial) {
+        dialetoBanco.upsert(ACRESCENTAR_POSTGRES, ACRESCENTAR_H2,
+                List.<Object[]>of(parametros(parcial, Timestamp.valueOf(LocalDateTime.now()))));
+    }
+
+    private static Object[] parametros(ResumoSaude parcial, Timestamp agora) {
+        return new Object[] {
+                parcial.getIdosoId(), parcial.getTipo().name(), parcial.getGranularidade().name(),
+                Timestamp.valueOf(parcial.getInicioPeriodo()), parcial.getQuantidade(), parcial.getSoma(),
+                parcial.getMinimo(), parcial.getMaximo(), agora
+        };
+    }
+
+    private static ResumoSaude combinar(ResumoSaude atual, ResumoSaude novo) {
+        atual.setQuantidade(atual.getQuantidade() + novo.getQuantidade());
+        atual.setSoma(atual.getSoma().add(novo.getSoma()));
+        atual.setMinimo(atual.getMinimo().min(novo.getMinimo()));
+        atual.setMaximo(atual.getMaximo().max(novo.getMaximo()));
+        return atual;
+    }
+
+    /**
+     * Registro cujo período precisa ser recalculado
+     */
+    public record Ocorrencia(Long idosoId, RegistroSaude.TipoRegistro tipo, LocalDateTime instante) {
+    }
+
+    private record ChavePeriodo(Long idosoId, RegistroSaude.TipoRegistro tipo,
+                                ResumoSaude.Granularidade granularidade, LocalDateTime inicio) {
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.entities.DiasSemana;
+import br.com.conectasenior.api.entities.Rotina;
+
+import java.time.LocalTime;
+
+/**
+ * Evento publicado pelo RotinaService ao criar, alterar, desativar ou remover
+ * uma rotina; os ouvintes o recebem após o commit da transação
+ *
+ * diasSemana é a máscara de bits de DiasSemana.
+ */
+public record RotinaAlteradaEvent(Long rotinaId,
+                                  Long idosoId,
+                                  String titulo,
+                                  Rotina.TipoRotina tipo,
+                                  LocalTime horario,
+                                  int diasSemana,
+                                  boolean ativa) {
+
+    public static RotinaAlteradaEvent de(Rotina rotina) {
+        return new RotinaAlteradaEvent(rotina.getId(), rotina.getIdoso().getId(), rotina.getTitulo(),
+                rotina.getTipo(), rotina.getHorario(), rotina.getDiasSemanaMascara(), Boolean.TRUE.equals(rotina.getAtivo()));
+    }
+
+    public static RotinaAlteradaEvent removida(Long rotinaId) {
+        return new RotinaAlteradaEvent(rotinaId, null, null, null, null, DiasSemana.NENHUM, false);
+    }
+}
@@ -1,47 +1,95 @@
 package br.com.conectasenior.api.services;
 
+import br.com.conectasenior.api.config.ExecucaoRotinaProperties;
+import br.com.conectasenior.api.config.LembreteRotinaProperties;
+import br.com.conectasenior.api.dtos.AdesaoRotinaDTO;
+import br.com.conectasenior.api.dtos.ExecucaoRotinaDTO;
 import br.com.conectasenior.api.dtos.RotinaCreateDTO;
 import br.com.conectasenior.api.dtos.RotinaDTO;
+import br.com.conectasenior.api.dtos.requests.ExecucaoRotinaRequest;
+import br.com.conectasenior.api.dtos.responses.PaginaCursorResponse;
+import br.com.conectasenior.api.entities.DiasSemana;
+import br.com.conectasenior.api.entities.ExecucaoRotina;
 import br.com.conectasenior.api.entities.Rotina;
+import br.com.conectasenior.api.exceptions.BusinessException;
 import br.com.conectasenior.api.exceptions.ResourceNotFoundException;
+import br.com.conectasenior.api.mappers.ExecucaoRotinaMapper;
+import br.com.conectasenior.api.mappers.RotinaMapper;
+import br.com.conectasenior.api.repositories.AdesaoRotinaDiariaRepository;
+import br.com.conectasenior.api.repositories.ExecucaoRotinaRepository;
+import br.com.conectasenior.api.repositories.IdosoRepository;
 import br.com.conectasenior.api.repositories.RotinaRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service para operações com Rotinas
  *
  * Gerencia CRUD e operações específicas do domínio de rotinas,
- * seguindo as melhores práticas do Spring Boot.
+ * seguindo as melhores práticas do Spring Boot. Alterações publicam um
+ * RotinaAlteradaEvent, que mantém o índice de lembretes (LembreteRotinaScheduler).
+ * Execuções são gravadas em lote pelo ExecucaoRotinaBuffer.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed("conecta.servicos")
 @Transactional(readOnly = true)
 public class RotinaService {
 
+    private static final int MINUTOS_POR_DIA = 24 * 60;
+
     private final RotinaRepository rotinaRepository;
-    private final ModelMapper modelMapper;
+    private final IdosoRepository idosoRepository;
+    private final RotinaMapper rotinaMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecucaoRotinaRepository execucaoRotinaRepository;
+    private final AdesaoRotinaDiariaRepository adesaoRotinaDiariaRepository;
+    private final ExecucaoRotinaMapper execucaoRotinaMapper;
+    private final ExecucaoRotinaBuffer execucaoRotinaBuffer;
+    private final AdesaoRotinaContadores adesaoRotinaContadores;
+    private final LembreteRotinaScheduler lembreteRotinaScheduler;
+    private final LembreteRotinaProperties lembreteRotinaProperties;
+    private final ExecucaoRotinaProperties execucaoRotinaProperties;
 
     public Page<RotinaDTO> findAll(Pageable pageable) {
         log.debug("Buscando todas as rotinas - Página: {}", pageable.getPageNumber());
         return rotinaRepository.findByAtivoTrue(pageable)
-                .map(rotina -> modelMapper.map(rotina, RotinaDTO.class));
+                .map(rotinaMapper::toDTO);
+    }
+
+    /**
+     * Rotinas ativas em ordem de título, paginadas por cursor
+     */
+    public PaginaCursorResponse<RotinaDTO> findAllCursor(String cursor, int tamanho, boolean total) {
+        log.debug("Buscando rotinas por cursor - Tamanho: {}", tamanho);
+        Pageable limite = CursorPaginacao.limite(tamanho);
+        CursorPaginacao.Posicao posicao = CursorPaginacao.decodificar("rotinas", cursor);
+        List<Rotina> rotinas = posicao == null
+                ? rotinaRepository.findAtivasPaginaPorTitulo(limite)
+                : rotinaRepository.findAtivasPaginaPorTituloApos(posicao.valor(), posicao.id(), limite);
+        return CursorPaginacao.pagina("rotinas", rotinas, tamanho, Rotina::getId, Rotina::getTitulo,
+                rotinaMapper::toDTO, total ? rotinaRepository.countByAtivoTrue() : null);
     }
 
     public RotinaDTO findById(Long id) {
         log.debug("Buscando rotina por ID: {}", id);
         Rotina rotina = rotinaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Rotina não encontrada com ID: " + id));
-        return modelMapper.map(rotina, RotinaDTO.class);
+        return rotinaMapper.toDTO(rotina);
     }
 
     public List<RotinaDTO> findByIdoso(Long idosoId) {
@@ -49,7 +97,7 @@ public class RotinaService {
         // OTIMIZAÇÃO: Usando consulta específica do banco ao invés de findAll().stream().filter()
         return rotinaRepository.findByIdosoIdAndAtivoTrueOrderByHorarioAsc(idosoId)
                 .stream()
-                .map(rotina -> modelMapper.map(rotina, RotinaDTO.class))
+                .map(rotinaMapper::toDTO)
                 .toList();
     }
 
@@ -60,7 +108,7 @@ public class RotinaService {
             // OTIMIZAÇÃO: Agora usando consulta específica do banco
             return rotinaRepository.findByTipoAndAtivoTrueOrderByHorarioAsc(tipoEnum)
                     .stream()
-                    .map(rotina -> modelMapper.map(rotina, RotinaDTO.class))
+                    .map(rotinaMapper::toDTO)
                     .toList();
         } catch (IllegalArgumentException e) {
             log.warn("Tipo de rotina inválido: {}", tipo);
@@ -75,7 +123,7 @@ public class RotinaService {
             // OTIMIZAÇÃO: Usando consulta específica do banco
             return rotinaRepository.findByIdosoIdAndTipoAndAtivoTrue(idosoId, tipoEnum)
                     .stream()
-                    .map(rotina -> modelMapper.map(rotina, RotinaDTO.class))
+                    .map(rotinaMapper::toDTO)
                     .toList();
         } catch (IllegalArgumentException e) {
             log.warn("Tipo de rotina inválido: {}", tipo);
@@ -88,16 +136,25 @@ public class RotinaService {
         // OTIMIZAÇÃO: Usando consulta específica do banco
         return rotinaRepository.findRotinasPorIntervaloHorario(idosoId, horarioInicio, horarioFim)
                 .stream()
-                .map(rotina -> modelMapper.map(rotina, RotinaDTO.class))
+                .map(rotinaMapper::toDTO)
                 .toList();
     }
 
     public List<RotinaDTO> findRotinasPorDiaSemana(Long idosoId, String diaSemana) {
         log.debug("Buscando rotinas do idoso ID: {} para o dia: {}", idosoId, diaSemana);
-        // OTIMIZAÇÃO: Usando consulta específica do banco
-        return rotinaRepository.findRotinasPorDiaSemana(idosoId, diaSemana)
+        int dias;
+        try {
+            dias = DiasSemana.mascara(diaSemana);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(e.getMessage());
+        }
+        if (dias == DiasSemana.NENHUM) {
+            throw new BusinessException("Dia da semana inválido: " + diaSemana);
+        }
+        // OTIMIZAÇÃO: igualdade sobre a máscara indexada em vez de LIKE no texto
+        return rotinaRepository.findRotinasPorDiasSemana(idosoId, DiasSemana.mascarasQueIntersectam(dias))
                 .stream()
-                .map(rotina -> modelMapper.map(rotina, RotinaDTO.class))
+                .map(rotinaMapper::toDTO)
                 .toList();
     }
 
@@ -105,28 +162,32 @@ public class RotinaService {
     public RotinaDTO create(RotinaDTO rotinaDTO) {
         log.debug("Criando nova rotina para idoso ID: {}", rotinaDTO.getIdosoId());
 
-        Rotina rotina = modelMapper.map(rotinaDTO, Rotina.class);
+        Rotina rotina = rotinaMapper.toEntity(rotinaDTO);
         rotina.setId(null); // Garante que é uma nova rotina
         rotina.setAtivo(true); // Define como ativo por padrão
+        rotina.setIdoso(idosoRepository.getReferenceById(rotinaDTO.getIdosoId()));
 
         Rotina savedRotina = rotinaRepository.save(rotina);
+        eventPublisher.publishEvent(RotinaAlteradaEvent.de(savedRotina));
         log.info("Rotina criada com ID: {} para idoso ID: {}", savedRotina.getId(), rotinaDTO.getIdosoId());
 
-        return modelMapper.map(savedRotina, RotinaDTO.class);
+        return rotinaMapper.toDTO(savedRotina);
     }
 
     @Transactional
     public RotinaDTO create(RotinaCreateDTO rotinaCreateDTO) {
         log.debug("Criando nova rotina para idoso ID: {}", rotinaCreateDTO.getIdosoId());
 
-        Rotina rotina = modelMapper.map(rotinaCreateDTO, Rotina.class);
+        Rotina rotina = rotinaMapper.toEntity(rotinaCreateDTO);
         rotina.setId(null);
         rotina.setAtivo(true);
+        rotina.setIdoso(idosoRepository.getReferenceById(rotinaCreateDTO.getIdosoId()));
 
         Rotina savedRotina = rotinaRepository.save(rotina);
+        eventPublisher.publishEvent(RotinaAlteradaEvent.de(savedRotina));
         log.info("Rotina criada com ID: {} para idoso ID: {}", savedRotina.getId(), rotinaCreateDTO.getIdosoId());
 
-        return modelMapper.map(savedRotina, RotinaDTO.class);
+        return rotinaMapper.toDTO(savedRotina);
     }
 
     @Transactional
@@ -136,13 +197,17 @@ public class RotinaService {
         Rotina rotina = rotinaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Rotina não encontrada com ID: " + id));
 
-        modelMapper.map(rotinaDTO, rotina);
+        rotinaMapper.updateEntity(rotinaDTO, rotina);
         rotina.setId(id); // Mantém o ID original
+        if (rotinaDTO.getIdosoId() != null) {
+            rotina.setIdoso(idosoRepository.getReferenceById(rotinaDTO.getIdosoId()));
+        }
 
         Rotina updatedRotina = rotinaRepository.save(rotina);
+        eventPublisher.publishEvent(RotinaAlteradaEvent.de(updatedRotina));
         log.info("Rotina ID: {} atualizada com sucesso", id);
 
-        return modelMapper.map(updatedRotina, RotinaDTO.class);
+        return rotinaMapper.toDTO(updatedRotina);
     }
 
     @Transactional
@@ -153,7 +218,9 @@ public class RotinaService {
             throw new ResourceNotFoundException("Rotina não encontrada com ID: " + id);
         }
 
+        adesaoRotinaDiariaRepository.deleteByRotinaId(id);
         rotinaRepository.deleteById(id);
+        eventPublisher.publishEvent(RotinaAlteradaEvent.removida(id));
         log.info("Rotina ID: {} removida com sucesso", id);
     }
 
@@ -166,6 +233,7 @@ public class RotinaService {
 
         rotina.setAtivo(false);
         rotinaRepository.save(rotina);
+        eventPublisher.publishEvent(RotinaAlteradaEvent.de(rotina));
         log.info("Rotina ID: {} desativada com sucesso", id);
     }
 
@@ -177,32 +245,123 @@ public class RotinaService {
         log.debug("Buscando rotinas no horário: {}", horario);
         return rotinaRepository.findRotinasNoHorario(horario)
                 .stream()
-                .map(rotina -> modelMapper.map(rotina, RotinaDTO.class))
+                .map(rotinaMapper::toDTO)
                 .toList();
     }
 
-    @Transactional
-    public RotinaDTO marcarExecucao(Long id) {
+    /**
+     * Registra a execução da rotina pelo ExecucaoRotinaBuffer, que a grava em lote
+     * logo em seguida; os contadores de adesão já a consideram no retorno
+     *
+     * Sem status informado, a execução é ATRASADA quando ocorre mais de
+     * tolerancia-atraso depois do horário da rotina.
+     */
+    public ExecucaoRotinaDTO marcarExecucao(Long id, ExecucaoRotinaRequest request) {
         log.debug("Marcando execução da rotina ID: {}", id);
 
+        // Rotinas ativas estão no índice de lembretes; o banco só é consultado para dar o erro certo
+        LocalTime horario = lembreteRotinaScheduler.agendamento(id)
+                .map(LembreteRotinaScheduler.Agendamento::horario)
+                .orElseGet(() -> horarioRotinaAtiva(id));
+
+        LocalDateTime executadoEm = request.getExecutadoEm() != null
+                ? request.getExecutadoEm()
+                : LocalDateTime.now(lembreteRotinaProperties.getFuso());
+        ExecucaoRotina.StatusExecucao status = request.getStatus() != null
+                ? request.getStatus()
+                : classificar(horario, executadoEm.toLocalTime());
+
+        execucaoRotinaBuffer.registrar(new ExecucaoRotinaBuffer.Pendente(id, status, executadoEm, request.getObservacoes()));
+        log.info("Rotina ID: {} marcada como {}", id, status);
+
+        ExecucaoRotinaDTO dto = new ExecucaoRotinaDTO();
+        dto.setRotinaId(id);
+        dto.setStatus(status);
+        dto.setExecutadoEm(executadoEm);
+        dto.setObservacoes(request.getObservacoes());
+        return dto;
+    }
+
+    /**
+     * Execuções já gravadas da rotina, das mais recentes para as mais antigas
+     */
+    public List<ExecucaoRotinaDTO> findExecucoes(Long id) {
+        log.debug("Buscando execuções da rotina ID: {}", id);
+        verificarExistencia(id);
+        return execucaoRotinaRepository.findByRotinaIdOrderByExecutadoEmDesc(id)
+                .stream()
+                .map(execucaoRotinaMapper::toDTO)
+                .toList();
+    }
+
+    public AdesaoRotinaDTO findAdesao(Long id) {
+        log.debug("Buscando adesão da rotina ID: {}", id);
+        verificarExistencia(id);
+
+        Map<ExecucaoRotina.StatusExecucao, Long> contagens = adesaoRotinaContadores.contagens(id);
+        AdesaoRotinaDTO dto = new AdesaoRotinaDTO();
+        dto.setRotinaId(id);
+        dto.setExecucoesPorStatus(contagens);
+        dto.setTotal(contagens.values().stream().mapToLong(Long::longValue).sum());
+        return dto;
+    }
+
+    /**
+     * Execuções com status EXECUTADA, pelos contadores em memória (sem COUNT no banco)
+     */
+    public long countExecucoesRealizadas(Long id) {
+        return adesaoRotinaContadores.contar(id, ExecucaoRotina.StatusExecucao.EXECUTADA);
+    }
+
+    private LocalTime horarioRotinaAtiva(Long id) {
         Rotina rotina = rotinaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Rotina não encontrada com ID: " + id));
+        if (!Boolean.TRUE.equals(rotina.getAtivo())) {
+            throw new BusinessException("Rotina ID: " + id + " está inativa");
+        }
+        return rotina.getHorario();
+    }
 
-        // Aqui você poderia criar uma entidade ExecucaoRotina para registrar execuções
-        // Por enquanto, vamos apenas logar a execução
-        log.info("Rotina ID: {} marcada como executada", id);
+    private void verificarExistencia(Long id) {
+        if (lembreteRotinaScheduler.agendamento(id).isEmpty() && !rotinaRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Rotina não encontrada com ID: " + id);
+        }
+    }
 
-        return modelMapper.map(rotina, RotinaDTO.class);
+    private ExecucaoRotina.StatusExecucao classificar(LocalTime horario, LocalTime executadoEm) {
+        // Atraso no relógio de 24h: 23:50 executada às 00:10 são 20 minutos de atraso,
+        // e mais de 12h "de atraso" é uma execução adiantada
+        long atrasoMinutos = Math.floorMod(Duration.between(horario, executadoEm).toMinutes(), MINUTOS_POR_DIA);
+        boolean atrasada = atrasoMinutos > execucaoRotinaProperties.getToleranciaAtraso().toMinutes()
+                && atrasoMinutos <= MINUTOS_POR_DIA / 2;
+        return atrasada ? ExecucaoRotina.StatusExecucao.ATRASADA : ExecucaoRotina.StatusExecucao.EXECUTADA;
     }
 
-    public List<RotinaDTO> findRotinasPendentes(String data) {
-        log.debug("Buscando rotinas pendentes para a data: {}", data);
+    /**
+     * Rotinas previstas para a data que ainda não têm execução registrada, de todos
+     * os idosos, de um idoso ou dos idosos vinculados a um usuário (cuidador)
+     *
+     * Uma única consulta paginada com anti-join em execucoes_rotina; execuções ainda
+     * no ExecucaoRotinaBuffer aparecem em até rotinas.execucoes.intervalo-descarga.
+     */
+    public Page<RotinaDTO> findRotinasPendentes(LocalDate data, Long idosoId, Long cuidadorId, Pageable pageable) {
+        log.debug("Buscando rotinas pendentes para a data: {} (idoso: {}, cuidador: {})", data, idosoId, cuidadorId);
+        if (idosoId != null && cuidadorId != null) {
+            throw new BusinessException("Informe o idoso ou o cuidador, não ambos");
+        }
 
-        // Implementação simplificada - retorna todas as rotinas ativas
-        // Em uma implementação completa, seria necessário verificar as execuções
-        return rotinaRepository.findByAtivoTrue(null)
-                .stream()
-                .map(rotina -> modelMapper.map(rotina, RotinaDTO.class))
-                .toList();
+        List<Integer> mascaras = DiasSemana.mascarasQueIntersectam(DiasSemana.bit(data.getDayOfWeek()));
+        LocalDateTime inicio = data.atStartOfDay();
+        LocalDateTime fim = data.plusDays(1).atStartOfDay();
+
+        Page<Rotina> pendentes;
+        if (idosoId != null) {
+            pendentes = rotinaRepository.findPendentesPorIdoso(idosoId, mascaras, inicio, fim, pageable);
+        } else if (cuidadorId != null) {
+            pendentes = rotinaRepository.findPendentesPorUsuario(cuidadorId, mascaras, inicio, fim, pageable);
+        } else {
+            pendentes = rotinaRepository.findPendentes(mascaras, inicio, fim, pageable);
+        }
+        return pendentes.map(rotinaMapper::toDTO);
     }
 }
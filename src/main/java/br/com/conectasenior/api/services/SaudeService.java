@@ -1,21 +1,31 @@
 package br.com.conectasenior.api.services;
 
+import br.com.conectasenior.api.config.LimitesSaudeProperties;
 import br.com.conectasenior.api.dtos.RegistroSaudeCreateDTO;
 import br.com.conectasenior.api.dtos.RegistroSaudeDTO;
+import br.com.conectasenior.api.dtos.responses.PaginaCursorResponse;
 import br.com.conectasenior.api.entities.RegistroSaude;
+import br.com.conectasenior.api.exceptions.BusinessException;
 import br.com.conectasenior.api.exceptions.ResourceNotFoundException;
+import br.com.conectasenior.api.mappers.RegistroSaudeMapper;
+import br.com.conectasenior.api.repositories.IdosoRepository;
 import br.com.conectasenior.api.repositories.RegistroSaudeRepository;
+import jakarta.persistence.criteria.Predicate;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -27,30 +37,65 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed("conecta.servicos")
 @Transactional(readOnly = true)
 public class SaudeService {
 
     private final RegistroSaudeRepository registroSaudeRepository;
-    private final ModelMapper modelMapper;
+    private final IdosoRepository idosoRepository;
+    private final RegistroSaudeMapper registroSaudeMapper;
+    private final LimitesSaudeProperties limitesSaude;
+    private final ResumoSaudeService resumoSaudeService;
 
     public Page<RegistroSaudeDTO> findAll(Pageable pageable) {
         log.debug("Buscando todos os registros de saúde - Página: {}", pageable.getPageNumber());
         return registroSaudeRepository.findAll(pageable)
-                .map(registro -> modelMapper.map(registro, RegistroSaudeDTO.class));
+                .map(registroSaudeMapper::toDTO);
+    }
+
+    /**
+     * Todos os registros, do mais recente ao mais antigo, paginados por cursor
+     */
+    public PaginaCursorResponse<RegistroSaudeDTO> findAllCursor(String cursor, int tamanho, boolean total) {
+        log.debug("Buscando registros de saúde por cursor - Tamanho: {}", tamanho);
+        Pageable limite = CursorPaginacao.limite(tamanho);
+        CursorPaginacao.Posicao posicao = CursorPaginacao.decodificar("saude", cursor);
+        List<RegistroSaude> registros = posicao == null
+                ? registroSaudeRepository.findPaginaPorData(limite)
+                : registroSaudeRepository.findPaginaPorDataApos(posicao.valorDataHora(), posicao.id(), limite);
+        return CursorPaginacao.pagina("saude", registros, tamanho, RegistroSaude::getId,
+                RegistroSaude::getRegistradoEm, registroSaudeMapper::toDTO,
+                total ? registroSaudeRepository.count() : null);
     }
 
     public RegistroSaudeDTO findById(Long id) {
         log.debug("Buscando registro de saúde por ID: {}", id);
         RegistroSaude registro = registroSaudeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Registro de saúde não encontrado com ID: " + id));
-        return modelMapper.map(registro, RegistroSaudeDTO.class);
+        return registroSaudeMapper.toDTO(registro);
     }
 
     public Page<RegistroSaudeDTO> findByIdoso(Long idosoId, Pageable pageable) {
         log.debug("Buscando registros de saúde do idoso ID: {}", idosoId);
         // OTIMIZAÇÃO: Usando consulta específica do banco ao invés de findAll().stream().filter()
         return registroSaudeRepository.findByIdosoIdOrderByRegistradoEmDesc(idosoId, pageable)
-                .map(registro -> modelMapper.map(registro, RegistroSaudeDTO.class));
+                .map(registroSaudeMapper::toDTO);
+    }
+
+    /**
+     * Registros de um idoso, do mais recente ao mais antigo, paginados por cursor
+     */
+    public PaginaCursorResponse<RegistroSaudeDTO> findByIdosoCursor(Long idosoId, String cursor, int tamanho, boolean total) {
+        log.debug("Buscando registros de saúde do idoso ID: {} por cursor", idosoId);
+        String escopo = "saude-idoso-" + idosoId;
+        Pageable limite = CursorPaginacao.limite(tamanho);
+        CursorPaginacao.Posicao posicao = CursorPaginacao.decodificar(escopo, cursor);
+        List<RegistroSaude> registros = posicao == null
+                ? registroSaudeRepository.findPaginaPorIdoso(idosoId, limite)
+                : registroSaudeRepository.findPaginaPorIdosoApos(idosoId, posicao.valorDataHora(), posicao.id(), limite);
+        return CursorPaginacao.pagina(escopo, registros, tamanho, RegistroSaude::getId,
+                RegistroSaude::getRegistradoEm, registroSaudeMapper::toDTO,
+                total ? registroSaudeRepository.countByIdosoId(idosoId) : null);
     }
 
     public List<RegistroSaudeDTO> findByTipo(String tipo) {
@@ -60,7 +105,7 @@ public class SaudeService {
             // OTIMIZAÇÃO: Usando consulta específica do banco
             return registroSaudeRepository.findByTipoOrderByRegistradoEmDesc(tipoEnum, null)
                     .stream()
-                    .map(registro -> modelMapper.map(registro, RegistroSaudeDTO.class))
+                    .map(registroSaudeMapper::toDTO)
                     .toList();
         } catch (IllegalArgumentException e) {
             log.warn("Tipo de registro inválido: {}", tipo);
@@ -75,7 +120,7 @@ public class SaudeService {
             // OTIMIZAÇÃO: Usando consulta específica do banco
             return registroSaudeRepository.findByIdosoIdAndTipoOrderByRegistradoEmDesc(idosoId, tipoEnum)
                     .stream()
-                    .map(registro -> modelMapper.map(registro, RegistroSaudeDTO.class))
+                    .map(registroSaudeMapper::toDTO)
                     .toList();
         } catch (IllegalArgumentException e) {
             log.warn("Tipo de registro inválido: {}", tipo);
@@ -88,7 +133,7 @@ public class SaudeService {
         // OTIMIZAÇÃO: Usando consulta específica do banco
         return registroSaudeRepository.findRegistrosPorPeriodo(idosoId, inicio, fim)
                 .stream()
-                .map(registro -> modelMapper.map(registro, RegistroSaudeDTO.class))
+                .map(registroSaudeMapper::toDTO)
                 .toList();
     }
 
@@ -98,7 +143,7 @@ public class SaudeService {
         // OTIMIZAÇÃO: Usando consulta específica do banco
         return registroSaudeRepository.findRegistrosRecentes(idosoId, dataLimite)
                 .stream()
-                .map(registro -> modelMapper.map(registro, RegistroSaudeDTO.class))
+                .map(registroSaudeMapper::toDTO)
                 .toList();
     }
 
@@ -107,7 +152,7 @@ public class SaudeService {
         // OTIMIZAÇÃO: Usando consulta específica do banco
         return registroSaudeRepository.findRegistrosForaDaFaixa(idosoId, tipo, minimo, maximo)
                 .stream()
-                .map(registro -> modelMapper.map(registro, RegistroSaudeDTO.class))
+                .map(registroSaudeMapper::toDTO)
                 .toList();
     }
 
@@ -117,7 +162,7 @@ public class SaudeService {
             RegistroSaude.TipoRegistro tipoEnum = RegistroSaude.TipoRegistro.valueOf(tipo.toUpperCase());
             // OTIMIZAÇÃO: Usando consulta específica do banco
             return registroSaudeRepository.findUltimoRegistroPorTipo(idosoId, tipoEnum)
-                    .map(registro -> modelMapper.map(registro, RegistroSaudeDTO.class));
+                    .map(registroSaudeMapper::toDTO);
         } catch (IllegalArgumentException e) {
             log.warn("Tipo de registro inválido: {}", tipo);
             return Optional.empty();
@@ -128,8 +173,8 @@ public class SaudeService {
         log.debug("Calculando média do tipo: {} para idoso ID: {} entre {} e {}", tipo, idosoId, inicio, fim);
         try {
             RegistroSaude.TipoRegistro tipoEnum = RegistroSaude.TipoRegistro.valueOf(tipo.toUpperCase());
-            // OTIMIZAÇÃO: Usando consulta específica do banco para calcular média
-            return registroSaudeRepository.findMediaValoresPorTipoEPeriodo(idosoId, tipoEnum, inicio, fim);
+            // OTIMIZAÇÃO: média calculada a partir dos resumos horários/diários
+            return resumoSaudeService.calcularMedia(idosoId, tipoEnum, inicio, fim);
         } catch (IllegalArgumentException e) {
             log.warn("Tipo de registro inválido: {}", tipo);
             return null;
@@ -152,34 +197,40 @@ public class SaudeService {
     public RegistroSaudeDTO create(RegistroSaudeDTO registroDTO) {
         log.debug("Criando novo registro de saúde para idoso ID: {}", registroDTO.getIdosoId());
 
-        RegistroSaude registro = modelMapper.map(registroDTO, RegistroSaude.class);
+        RegistroSaude registro = registroSaudeMapper.toEntity(registroDTO);
         registro.setId(null); // Garante que é um novo registro
+        registro.setIdoso(idosoRepository.getReferenceById(registroDTO.getIdosoId()));
         if (registro.getRegistradoEm() == null) {
             registro.setRegistradoEm(LocalDateTime.now());
         }
 
         RegistroSaude savedRegistro = registroSaudeRepository.save(registro);
+        resumoSaudeService.registrar(registroDTO.getIdosoId(), savedRegistro.getTipo(),
+                savedRegistro.getRegistradoEm(), savedRegistro.getValor());
         log.info("Registro de saúde criado com ID: {} para idoso ID: {}",
                 savedRegistro.getId(), registroDTO.getIdosoId());
 
-        return modelMapper.map(savedRegistro, RegistroSaudeDTO.class);
+        return registroSaudeMapper.toDTO(savedRegistro);
     }
 
     @Transactional
     public RegistroSaudeDTO create(RegistroSaudeCreateDTO registroCreateDTO) {
         log.debug("Criando novo registro de saúde para idoso ID: {}", registroCreateDTO.getIdosoId());
 
-        RegistroSaude registro = modelMapper.map(registroCreateDTO, RegistroSaude.class);
+        RegistroSaude registro = registroSaudeMapper.toEntity(registroCreateDTO);
         registro.setId(null);
+        registro.setIdoso(idosoRepository.getReferenceById(registroCreateDTO.getIdosoId()));
         if (registro.getRegistradoEm() == null) {
             registro.setRegistradoEm(LocalDateTime.now());
         }
 
         RegistroSaude savedRegistro = registroSaudeRepository.save(registro);
+        resumoSaudeService.registrar(registroCreateDTO.getIdosoId(), savedRegistro.getTipo(),
+                savedRegistro.getRegistradoEm(), savedRegistro.getValor());
         log.info("Registro de saúde criado com ID: {} para idoso ID: {}",
                 savedRegistro.getId(), registroCreateDTO.getIdosoId());
 
-        return modelMapper.map(savedRegistro, RegistroSaudeDTO.class);
+        return registroSaudeMapper.toDTO(savedRegistro);
     }
 
     @Transactional
@@ -189,24 +240,36 @@ public class SaudeService {
         RegistroSaude registro = registroSaudeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Registro de saúde não encontrado com ID: " + id));
 
-        modelMapper.map(registroDTO, registro);
+        Long idosoAnterior = registro.getIdoso().getId();
+        RegistroSaude.TipoRegistro tipoAnterior = registro.getTipo();
+        LocalDateTime registradoEmAnterior = registro.getRegistradoEm();
+
+        registroSaudeMapper.updateEntity(registroDTO, registro);
         registro.setId(id); // Mantém o ID original
+        if (registroDTO.getIdosoId() != null) {
+            registro.setIdoso(idosoRepository.getReferenceById(registroDTO.getIdosoId()));
+        }
 
         RegistroSaude updatedRegistro = registroSaudeRepository.save(registro);
+        // Períodos anterior e novo travados juntos, na ordem dos demais acréscimos
+        resumoSaudeService.recalcular(List.of(
+                new ResumoSaudeService.Ocorrencia(idosoAnterior, tipoAnterior, registradoEmAnterior),
+                new ResumoSaudeService.Ocorrencia(updatedRegistro.getIdoso().getId(), updatedRegistro.getTipo(),
+                        updatedRegistro.getRegistradoEm())));
         log.info("Registro de saúde ID: {} atualizado com sucesso", id);
 
-        return modelMapper.map(updatedRegistro, RegistroSaudeDTO.class);
+        return registroSaudeMapper.toDTO(updatedRegistro);
     }
 
     @Transactional
     public void delete(Long id) {
         log.debug("Removendo registro de saúde ID: {}", id);
 
-        if (!registroSaudeRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Registro de saúde não encontrado com ID: " + id);
-        }
+        RegistroSaude registro = registroSaudeRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Registro de saúde não encontrado com ID: " + id));
 
-        registroSaudeRepository.deleteById(id);
+        registroSaudeRepository.delete(registro);
+        resumoSaudeService.recalcular(registro.getIdoso().getId(), registro.getTipo(), registro.getRegistradoEm());
         log.info("Registro de saúde ID: {} removido com sucesso", id);
     }
 
@@ -222,18 +285,55 @@ public class SaudeService {
         return findAll(null).getContent();
     }
 
-    // Sobrecarga para compatibilidade - versão simplificada para alertas
-    public List<RegistroSaudeDTO> findRegistrosCriticos() {
-        log.debug("Buscando registros críticos (versão simplificada)");
+    /**
+     * Busca registros fora da faixa de normalidade do seu tipo nas últimas horas
+     *
+     * O filtro (tipo, período e faixa) é resolvido no banco pelo índice
+     * (tipo, registrado_em, valor); as faixas vêm de LimitesSaudeProperties.
+     *
+     * @param tipo  restringe a um tipo de registro; null considera todos os tipos com faixa configurada
+     * @param horas janela de busca; null usa a janela padrão configurada
+     */
+    public Page<RegistroSaudeDTO> findRegistrosCriticos(RegistroSaude.TipoRegistro tipo, Integer horas, Pageable pageable) {
+        int janela = horas != null ? horas : limitesSaude.getJanelaPadraoHoras();
+        log.debug("Buscando registros críticos - tipo: {}, últimas {} horas", tipo, janela);
+
+        Map<RegistroSaude.TipoRegistro, LimitesSaudeProperties.Faixa> faixas = limitesSaude.getFaixas();
+        if (tipo != null && !faixas.containsKey(tipo)) {
+            throw new BusinessException("Não há faixa de normalidade configurada para o tipo: " + tipo);
+        }
+        if (janela <= 0) {
+            throw new BusinessException("A janela de busca deve ser de pelo menos 1 hora");
+        }
 
-        // Implementação básica - busca registros de pressão arterial com valores críticos
-        return registroSaudeRepository.findAll()
-                .stream()
-                .filter(registro -> registro.getTipo() == RegistroSaude.TipoRegistro.PRESSAO_ARTERIAL)
-                .filter(registro -> registro.getValor() != null &&
-                        (registro.getValor().compareTo(new BigDecimal("140")) > 0 || registro.getValor().compareTo(new BigDecimal("90")) < 0))
-                .map(registro -> modelMapper.map(registro, RegistroSaudeDTO.class))
-                .toList();
+        Pageable pagina = pageable.getSort().isSorted()
+                ? pageable
+                : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "registradoEm"));
+
+        return registroSaudeRepository.findAll(foraDaFaixa(tipo, LocalDateTime.now().minusHours(janela), faixas), pagina)
+                .map(registroSaudeMapper::toDTO);
+    }
+
+    private static Specification<RegistroSaude> foraDaFaixa(RegistroSaude.TipoRegistro tipo, LocalDateTime desde,
+                                                            Map<RegistroSaude.TipoRegistro, LimitesSaudeProperties.Faixa> faixas) {
+        return (root, query, cb) -> {
+            List<RegistroSaude.TipoRegistro> tipos = new ArrayList<>();
+            List<Predicate> porTipo = new ArrayList<>();
+            faixas.forEach((tipoFaixa, faixa) -> {
+                if (tipo == null || tipo == tipoFaixa) {
+                    tipos.add(tipoFaixa);
+                    porTipo.add(cb.and(
+                            cb.equal(root.get("tipo"), tipoFaixa),
+                            cb.or(cb.lessThan(root.get("valor"), faixa.getMinimo()),
+                                  cb.greaterThan(root.get("valor"), faixa.getMaximo()))));
+                }
+            });
+            // O IN redundante permite ao otimizador usar o índice pela coluna inicial (tipo)
+            return cb.and(
+                    root.get("tipo").in(tipos),
+                    cb.greaterThanOrEqualTo(root.get("registradoEm"), desde),
+                    cb.or(porTipo.toArray(Predicate[]::new)));
+        };
     }
 
     public List<RegistroSaudeDTO> gerarRelatorio(Long idosoId, int dias) {
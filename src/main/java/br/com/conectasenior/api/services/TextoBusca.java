@@ -0,0 +1,83 @@
+package br.com.conectasenior.api.services;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalização e trigramas dos textos pesquisáveis, nos moldes do pg_trgm
+ *
+ * O texto perde acentos e caixa e fica só com letras, dígitos e espaços simples,
+ * como busca_normalizar() no Postgres. Cada palavra gera os trigramas de
+ * "  palavra ", codificados em um int (37 símbolos: espaço, a-z, 0-9).
+ */
+final class TextoBusca {
+
+    static final int TOTAL_TRIGRAMAS = 37 * 37 * 37;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    private TextoBusca() {
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        String semAcentos = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Trigramas distintos de um texto já normalizado, em ordem crescente
+     */
+    static int[] trigramas(String normalizado) {
+        int[] codigos = new int[normalizado.length() * 3 + 3];
+        int total = 0;
+        int inicio = 0;
+        while (inicio < normalizado.length()) {
+            int fim = normalizado.indexOf(' ', inicio);
+            if (fim < 0) {
+                fim = normalizado.length();
+            }
+            // "  palavra ": dois espaços antes e um depois
+            int a = 0;
+            int b = 0;
+            for (int i = inicio; i <= fim; i++) {
+                int c = i < fim ? simbolo(normalizado.charAt(i)) : 0;
+                codigos[total++] = (a * 37 + b) * 37 + c;
+                a = b;
+                b = c;
+            }
+            inicio = fim + 1;
+        }
+        int[] distintos = Arrays.copyOf(codigos, total);
+        Arrays.sort(distintos);
+        int unicos = 0;
+        for (int i = 0; i < distintos.length; i++) {
+            if (i == 0 || distintos[i] != distintos[i - 1]) {
+                distintos[unicos++] = distintos[i];
+            }
+        }
+        return Arrays.copyOf(distintos, unicos);
+    }
+
+    /**
+     * Quantos trigramas não têm espaço: todo texto que contém o termo tem todos eles
+     */
+    static int interiores(int[] trigramas) {
+        int total = 0;
+        for (int codigo : trigramas) {
+            if (codigo / (37 * 37) != 0 && codigo / 37 % 37 != 0 && codigo % 37 != 0) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    private static int simbolo(char c) {
+        return c >= 'a' && c <= 'z' ? c - 'a' + 1 : c - '0' + 27;
+    }
+}
@@ -0,0 +1,160 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.config.LimiteConexoesDataSource;
+import br.com.conectasenior.api.config.ThreadsVirtuaisProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Observa o modo de execução em threads virtuais
+ *
+ * Fixações (thread virtual presa ao carrier durante um bloqueio) são lidas do
+ * evento JFR jdk.VirtualThreadPinned acima do limiar configurado; cada local de
+ * fixação é registrado no log uma vez. A ocupação dos carriers vem do MXBean do
+ * agendador de threads virtuais (Java 24+); em versões anteriores esses campos
+ * ficam nulos.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ThreadsVirtuaisMonitor {
+
+    private static final String EVENTO_FIXACAO = "jdk.VirtualThreadPinned";
+    private static final String AGENDADOR = "jdk.management:type=VirtualThreadScheduler";
+    private static final int VERSAO_SEM_FIXACAO_EM_SYNCHRONIZED = 24;
+
+    private final Environment environment;
+    private final ThreadsVirtuaisProperties propriedades;
+    private final DataSource dataSource;
+
+    private final LongAdder fixacoes = new LongAdder();
+    private final LongAdder fixacaoTotalNanos = new LongAdder();
+    private final Set<String> locaisRegistrados = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream gravacao;
+
+    public record Estatisticas(boolean virtuais, int versaoJava,
+                               Integer carriers, Integer carriersCriados, Integer threadsMontadas,
+                               Long threadsNaFila, Double utilizacaoCarriers,
+                               long fixacoes, long fixacaoTotalMs,
+                               LimiteConexoesDataSource.Estatisticas conexoes) {
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!isVirtuais()) {
+            return;
+        }
+        if (Runtime.version().feature() < VERSAO_SEM_FIXACAO_EM_SYNCHRONIZED) {
+            log.warn("Threads virtuais no Java {}: blocos synchronized (driver JDBC, H2) ainda prendem o carrier",
+                    Runtime.version().feature());
+        }
+        if (propriedades.isMonitorarFixacao()) {
+            gravacao = new RecordingStream();
+            gravacao.enable(EVENTO_FIXACAO).withThreshold(propriedades.getLimiarFixacao()).withStackTrace();
+            gravacao.onEvent(EVENTO_FIXACAO, this::registrarFixacao);
+            gravacao.startAsync();
+        }
+        log.info("Execução em threads virtuais habilitada");
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (gravacao != null) {
+            gravacao.close();
+        }
+    }
+
+    public boolean isVirtuais() {
+        return Threading.VIRTUAL.isActive(environment);
+    }
+
+    public Estatisticas estatisticas() {
+        Integer carriers = atributo("Parallelism", Integer.class);
+        Integer threadsMontadas = atributo("MountedVirtualThreadCount", Integer.class);
+        Double utilizacao = carriers != null && threadsMontadas != null && carriers > 0
+                ? Math.min(1.0, threadsMontadas / (double) carriers)
+                : null;
+        LimiteConexoesDataSource limitado = limiteConexoes();
+        LimiteConexoesDataSource.Estatisticas conexoes = limitado != null ? limitado.estatisticas() : null;
+        return new Estatisticas(isVirtuais(), Runtime.version().feature(),
+                carriers, atributo("PoolSize", Integer.class), threadsMontadas,
+                atributo("QueuedVirtualThreadCount", Long.class), utilizacao,
+                fixacoes.sum(), fixacaoTotalNanos.sum() / 1_000_000, conexoes);
+    }
+
+    /**
+     * Limite de conexões por trás do DataSource injetado, mesmo que outro proxy
+     * (métricas, rastreamento) o tenha envolvido depois; nulo se não estiver ativo
+     */
+    private LimiteConexoesDataSource limiteConexoes() {
+        try {
+            return dataSource.isWrapperFor(LimiteConexoesDataSource.class)
+                    ? dataSource.unwrap(LimiteConexoesDataSource.class)
+                    : null;
+        } catch (SQLException e) {
+            log.debug("DataSource não informa o limite de conexões: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void registrarFixacao(RecordedEvent evento) {
+        fixacoes.increment();
+        fixacaoTotalNanos.add(evento.getDuration().toNanos());
+        String local = local(evento);
+        if (locaisRegistrados.add(local)) {
+            log.warn("Thread virtual presa ao carrier por {}ms em {}", evento.getDuration().toMillis(), local);
+        }
+    }
+
+    private static String local(RecordedEvent evento) {
+        if (evento.getStackTrace() == null) {
+            return "(sem pilha)";
+        }
+        List<RecordedFrame> quadros = evento.getStackTrace().getFrames();
+        // Primeiro quadro da aplicação; na falta dele, o topo da pilha
+        return quadros.stream()
+                .filter(quadro -> quadro.getMethod().getType().getName().startsWith("br.com.conectasenior"))
+                .findFirst()
+                .or(() -> quadros.stream().findFirst())
+                .map(quadro -> quadro.getMethod().getType().getName() + "." + quadro.getMethod().getName()
+                        + ":" + quadro.getLineNumber())
+                .orElse("(sem pilha)");
+    }
+
+    private static <T> T atributo(String nome, Class<T> tipo) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName agendador = new ObjectName(AGENDADOR);
+            if (!servidor.isRegistered(agendador)) {
+                return null;
+            }
+            Object valor = servidor.getAttribute(agendador, nome);
+            return tipo.isInstance(valor) ? tipo.cast(valor) : null;
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException(e);
+        } catch (JMException e) {
+            return null;
+        }
+    }
+}
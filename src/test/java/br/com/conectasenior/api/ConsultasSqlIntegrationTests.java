@@ -0,0 +1,96 @@
+package br.com.conectasenior.api;
+
+import br.com.conectasenior.api.config.ConsultasSql;
+import br.com.conectasenior.api.entities.Usuario;
+import br.com.conectasenior.api.repositories.UsuarioRepository;
+import br.com.conectasenior.api.security.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Orçamento de consultas SQL das listagens: o número de comandos por requisição não
+ * pode crescer com o tamanho da página (N+1 em associações lazy)
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:consultas-sql")
+@AutoConfigureMockMvc
+class ConsultasSqlIntegrationTests {
+
+	private static final int IDOSOS = 30;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	private String authorization;
+
+	@BeforeEach
+	void popular() {
+		Usuario usuario = usuarioRepository.findByEmail("consultas@teste.com").orElseGet(() -> {
+			Usuario novo = new Usuario();
+			novo.setNome("Administrador Consultas");
+			novo.setEmail("consultas@teste.com");
+			novo.setSenha(passwordEncoder.encode("consultas123"));
+			novo.setTipo(Usuario.TipoUsuario.ADMINISTRADOR);
+			novo.setAtivo(true);
+			return usuarioRepository.save(novo);
+		});
+		authorization = "Bearer " + jwtService.generateToken(usuario);
+
+		if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idosos", Integer.class) > 0) {
+			return;
+		}
+		for (int i = 1; i <= IDOSOS; i++) {
+			jdbcTemplate.update("INSERT INTO idosos (id, nome, data_nascimento, cpf, criado_em) "
+					+ "VALUES (?, ?, DATE '1940-01-01', ?, CURRENT_TIMESTAMP)", i, "Idoso " + i, String.format("%011d", i));
+			jdbcTemplate.update("INSERT INTO rotinas (id, titulo, tipo, horario, dias_semana_mascara, ativo, criado_em, idoso_id) "
+					+ "VALUES (NEXT VALUE FOR rotinas_seq, ?, 'MEDICAMENTO', TIME '08:00:00', 127, TRUE, CURRENT_TIMESTAMP, ?)",
+					"Rotina " + i, i);
+			jdbcTemplate.update("INSERT INTO registros_saude (id, tipo, valor, registrado_em, criado_em, idoso_id) "
+					+ "VALUES (NEXT VALUE FOR registros_saude_seq, 'PRESSAO_ARTERIAL', 120, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, ?)", i);
+		}
+		jdbcTemplate.execute("ALTER SEQUENCE idosos_seq RESTART WITH " + (IDOSOS + 1));
+	}
+
+	@Test
+	void listagensNaoCrescemComOTamanhoDaPagina() throws Exception {
+		for (String uri : List.of("/api/idosos", "/api/rotinas", "/api/saude")) {
+			// Primeira chamada aquece o cache de segundo nível (usuário autenticado)
+			consultas(uri + "?size=1");
+			ConsultasSql.Medicao pequena = consultas(uri + "?size=5");
+			ConsultasSql.Medicao grande = consultas(uri + "?size=" + IDOSOS);
+
+			assertThat(grande.total()).as(uri + "\n" + grande.descrever()).isEqualTo(pequena.total());
+			grande.verificarMaximo(3).verificarRepeticoes(1);
+		}
+	}
+
+	private ConsultasSql.Medicao consultas(String uri) throws Exception {
+		try (ConsultasSql.Medicao medicao = ConsultasSql.medir()) {
+			mockMvc.perform(get(uri).header("Authorization", authorization)).andExpect(status().isOk());
+			return medicao;
+		}
+	}
+}
@@ -0,0 +1,225 @@
+package br.com.conectasenior.api;
+
+import br.com.conectasenior.api.dtos.RegistroSaudeCreateDTO;
+import br.com.conectasenior.api.entities.ExecucaoRotina;
+import br.com.conectasenior.api.entities.Idoso;
+import br.com.conectasenior.api.entities.RegistroSaude;
+import br.com.conectasenior.api.services.AdesaoRotinaService;
+import br.com.conectasenior.api.services.ExecucaoRotinaBuffer;
+import br.com.conectasenior.api.services.ResumoSaudeService;
+import br.com.conectasenior.api.services.SaudeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contadores agregados gravados por upsert: gravações simultâneas no mesmo período
+ * ainda sem linha não podem falhar na restrição única nem perder incrementos
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:contadores-concorrentes")
+class ContadoresConcorrentesIntegrationTests {
+
+	private static final int THREADS = 8;
+	private static final long IDOSO_ID = 1;
+	private static final long ROTINA_ID = 1;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ResumoSaudeService resumoSaudeService;
+
+	@Autowired
+	private AdesaoRotinaService adesaoRotinaService;
+
+	@Autowired
+	private SaudeService saudeService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	void popular() {
+		if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idosos", Integer.class) == 0) {
+			jdbcTemplate.update("INSERT INTO idosos (id, nome, data_nascimento, cpf, criado_em) "
+					+ "VALUES (?, 'Idoso Contadores', DATE '1940-01-01', '00000000001', CURRENT_TIMESTAMP)", IDOSO_ID);
+			jdbcTemplate.update("INSERT INTO rotinas (id, titulo, tipo, horario, dias_semana_mascara, ativo, criado_em, idoso_id) "
+					+ "VALUES (?, 'Rotina Contadores', 'MEDICAMENTO', TIME '08:00:00', 127, TRUE, CURRENT_TIMESTAMP, ?)",
+					ROTINA_ID, IDOSO_ID);
+		}
+	}
+
+	@Test
+	void registrosSimultaneosNoMesmoPeriodoSomamNoResumo() throws Exception {
+		LocalDateTime instante = LocalDateTime.of(2024, 3, 10, 8, 15);
+		simultaneamente(i -> resumoSaudeService.registrar(IDOSO_ID, RegistroSaude.TipoRegistro.PESO, instante,
+				BigDecimal.valueOf(60 + i)));
+
+		List<Object[]> resumos = jdbcTemplate.query(
+				"SELECT granularidade, quantidade, soma, minimo, maximo FROM resumos_saude "
+						+ "WHERE idoso_id = ? AND tipo = 'PESO' ORDER BY granularidade",
+				(rs, linha) -> new Object[] {rs.getString(1), rs.getLong(2), rs.getBigDecimal(3),
+						rs.getBigDecimal(4), rs.getBigDecimal(5)},
+				IDOSO_ID);
+		assertThat(resumos).hasSize(2);
+		for (Object[] resumo : resumos) {
+			assertThat(resumo[1]).isEqualTo((long) THREADS);
+			assertThat((BigDecimal) resumo[2]).isEqualByComparingTo(BigDecimal.valueOf(60L * THREADS + THREADS * (THREADS - 1) / 2));
+			assertThat((BigDecimal) resumo[3]).isEqualByComparingTo("60");
+			assertThat((BigDecimal) resumo[4]).isEqualByComparingTo(BigDecimal.valueOf(60 + THREADS - 1));
+		}
+	}
+
+	@Test
+	void lotesSimultaneosComPeriodosEmComumSomamNosResumos() throws Exception {
+		Idoso idoso = new Idoso();
+		idoso.setId(IDOSO_ID);
+		LocalDateTime inicio = LocalDateTime.of(2024, 3, 11, 0, 0);
+		simultaneamente(i -> {
+			List<RegistroSaude> lote = new ArrayList<>();
+			for (int hora = 0; hora < 24; hora++) {
+				RegistroSaude registro = new RegistroSaude();
+				registro.setIdoso(idoso);
+				registro.setTipo(RegistroSaude.TipoRegistro.TEMPERATURA);
+				registro.setRegistradoEm(inicio.plusHours(hora).plusMinutes(i));
+				registro.setValor(BigDecimal.valueOf(36));
+				lote.add(registro);
+			}
+			resumoSaudeService.registrarLote(lote);
+		});
+
+		assertThat(jdbcTemplate.queryForList("SELECT quantidade FROM resumos_saude "
+				+ "WHERE idoso_id = ? AND tipo = 'TEMPERATURA' AND granularidade = 'HORA'", Long.class, IDOSO_ID))
+				.hasSize(24)
+				.containsOnly((long) THREADS);
+		assertThat(jdbcTemplate.queryForObject("SELECT quantidade FROM resumos_saude "
+				+ "WHERE idoso_id = ? AND tipo = 'TEMPERATURA' AND granularidade = 'DIA'", Long.class, IDOSO_ID))
+				.isEqualTo(24L * THREADS);
+	}
+
+	@Test
+	void lotesSimultaneosDeExecucoesSomamNoContadorDoDia() throws Exception {
+		LocalDateTime dia = LocalDateTime.of(2024, 3, 12, 8, 0);
+		TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+		simultaneamente(i -> transacao.executeWithoutResult(status -> adesaoRotinaService.registrarLote(List.of(
+				new ExecucaoRotinaBuffer.Pendente(ROTINA_ID, ExecucaoRotina.StatusExecucao.EXECUTADA, dia.plusMinutes(i), null),
+				new ExecucaoRotinaBuffer.Pendente(ROTINA_ID, ExecucaoRotina.StatusExecucao.PULADA, dia.plusHours(1), null)))));
+
+		assertThat(jdbcTemplate.queryForMap("SELECT executadas, puladas, atrasadas FROM adesao_rotina_diaria "
+				+ "WHERE rotina_id = ? AND dia = DATE '2024-03-12'", ROTINA_ID))
+				.containsEntry("EXECUTADAS", THREADS)
+				.containsEntry("PULADAS", THREADS)
+				.containsEntry("ATRASADAS", 0);
+	}
+
+	@Test
+	void remocoesEInclusoesSimultaneasMantemOResumoIgualAosRegistros() throws Exception {
+		LocalDateTime hora = LocalDateTime.of(2024, 3, 13, 9, 0);
+		List<Long> existentes = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			existentes.add(saudeService.create(glicemia(hora.plusMinutes(i), 100 + i)).getId());
+		}
+
+		simultaneamente(i -> {
+			if (i % 2 == 0) {
+				saudeService.delete(existentes.get(i));
+			} else {
+				saudeService.create(glicemia(hora.plusMinutes(30 + i), 140 + i));
+			}
+		});
+
+		assertResumosIguaisAosRegistros(hora);
+	}
+
+	@Test
+	void recalculoSimultaneoAInclusaoDePeriodoSemResumo() throws Exception {
+		LocalDateTime hora = LocalDateTime.of(2024, 3, 14, 9, 0);
+
+		simultaneamente(i -> {
+			if (i % 2 == 0) {
+				resumoSaudeService.recalcular(IDOSO_ID, RegistroSaude.TipoRegistro.GLICEMIA, hora);
+			} else {
+				saudeService.create(glicemia(hora.plusMinutes(i), 90 + i));
+			}
+		});
+
+		assertResumosIguaisAosRegistros(hora);
+	}
+
+	private static RegistroSaudeCreateDTO glicemia(LocalDateTime registradoEm, int valor) {
+		RegistroSaudeCreateDTO registro = new RegistroSaudeCreateDTO();
+		registro.setIdosoId(IDOSO_ID);
+		registro.setTipo(RegistroSaude.TipoRegistro.GLICEMIA);
+		registro.setValor(BigDecimal.valueOf(valor));
+		registro.setDataRegistro(registradoEm);
+		return registro;
+	}
+
+	/**
+	 * Resumos da hora e do dia iguais ao agregado dos registros brutos
+	 */
+	private void assertResumosIguaisAosRegistros(LocalDateTime hora) {
+		LocalDateTime dia = hora.toLocalDate().atStartOfDay();
+		for (Object[] periodo : new Object[][] {{"HORA", hora, hora.plusHours(1)}, {"DIA", dia, dia.plusDays(1)}}) {
+			Map<String, Object> registros = jdbcTemplate.queryForMap("SELECT COUNT(valor) AS quantidade, SUM(valor) AS soma, "
+							+ "MIN(valor) AS minimo, MAX(valor) AS maximo FROM registros_saude "
+							+ "WHERE idoso_id = ? AND tipo = 'GLICEMIA' AND registrado_em >= ? AND registrado_em < ?",
+					IDOSO_ID, Timestamp.valueOf((LocalDateTime) periodo[1]), Timestamp.valueOf((LocalDateTime) periodo[2]));
+			Map<String, Object> resumo = jdbcTemplate.queryForMap("SELECT quantidade, soma, minimo, maximo FROM resumos_saude "
+							+ "WHERE idoso_id = ? AND tipo = 'GLICEMIA' AND granularidade = ? AND inicio_periodo = ?",
+					IDOSO_ID, periodo[0], Timestamp.valueOf((LocalDateTime) periodo[1]));
+			assertThat(((Number) resumo.get("QUANTIDADE")).longValue()).as("%s", periodo[0])
+					.isEqualTo(((Number) registros.get("QUANTIDADE")).longValue());
+			for (String coluna : List.of("SOMA", "MINIMO", "MAXIMO")) {
+				assertThat((BigDecimal) resumo.get(coluna)).as("%s %s", periodo[0], coluna)
+						.isEqualByComparingTo((BigDecimal) registros.get(coluna));
+			}
+		}
+	}
+
+	private interface Gravacao {
+		void executar(int indice) throws Exception;
+	}
+
+	/**
+	 * Executa a gravação em THREADS threads liberadas ao mesmo tempo
+	 */
+	private static void simultaneamente(Gravacao gravacao) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			CountDownLatch largada = new CountDownLatch(1);
+			List<Future<?>> tarefas = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				int indice = i;
+				tarefas.add(executor.submit(() -> {
+					largada.await();
+					gravacao.executar(indice);
+					return null;
+				}));
+			}
+			largada.countDown();
+			for (Future<?> tarefa : tarefas) {
+				tarefa.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package br.com.conectasenior.api;
+
+import br.com.conectasenior.api.config.ExecucaoRotinaProperties;
+import br.com.conectasenior.api.entities.ExecucaoRotina;
+import br.com.conectasenior.api.services.AdesaoRotinaContadores;
+import br.com.conectasenior.api.services.AdesaoRotinaService;
+import br.com.conectasenior.api.services.ExecucaoRotinaBuffer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import java.sql.SQLTransientConnectionException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Banco indisponível por alguns instantes não descarta execuções enfileiradas: o lote
+ * é regravado depois da espera e só a execução com erro próprio é descartada
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:execucao-rotina-buffer")
+class ExecucaoRotinaBufferIntegrationTests {
+
+	private static final long IDOSO_ID = 1;
+	private static final long ROTINA_ID = 1;
+	private static final long ROTINA_REMOVIDA_ID = 999;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private AdesaoRotinaContadores adesaoRotinaContadores;
+
+	@Autowired
+	private AdesaoRotinaService adesaoRotinaService;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@BeforeEach
+	void popular() {
+		if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idosos", Integer.class) == 0) {
+			jdbcTemplate.update("INSERT INTO idosos (id, nome, data_nascimento, cpf, criado_em) "
+					+ "VALUES (?, 'Idoso Buffer', DATE '1940-01-01', '00000000031', CURRENT_TIMESTAMP)", IDOSO_ID);
+			jdbcTemplate.update("INSERT INTO rotinas (id, titulo, tipo, horario, dias_semana_mascara, ativo, criado_em, idoso_id) "
+					+ "VALUES (?, 'Rotina Buffer', 'MEDICAMENTO', TIME '08:00:00', 127, TRUE, CURRENT_TIMESTAMP, ?)",
+					ROTINA_ID, IDOSO_ID);
+		}
+	}
+
+	@Test
+	void falhaTransitoriaRegravaOLoteSemDescartar() throws Exception {
+		LocalDateTime dia = LocalDateTime.of(2024, 3, 20, 8, 0);
+		long executadas = adesaoRotinaContadores.contar(ROTINA_ID, ExecucaoRotina.StatusExecucao.EXECUTADA);
+		ExecucaoRotinaBuffer buffer = buffer(new IndisponivelNasPrimeiras(3));
+		try {
+			for (int i = 0; i < 5; i++) {
+				buffer.registrar(executada(ROTINA_ID, dia.plusMinutes(i)));
+			}
+
+			aguardar(() -> buffer.totalGravadas() == 5);
+			assertThat(buffer.totalDescartadas()).isZero();
+			assertThat(buffer.totalReenvios()).isEqualTo(3);
+			assertThat(execucoesNoDia(dia)).isEqualTo(5);
+			assertThat(adesaoRotinaContadores.contar(ROTINA_ID, ExecucaoRotina.StatusExecucao.EXECUTADA))
+					.isEqualTo(executadas + 5);
+		} finally {
+			buffer.encerrar();
+		}
+	}
+
+	@Test
+	void depoisDaFalhaTransitoriaSoAExecucaoComErroProprioEhDescartada() throws Exception {
+		LocalDateTime dia = LocalDateTime.of(2024, 3, 21, 8, 0);
+		ExecucaoRotinaBuffer buffer = buffer(new IndisponivelNasPrimeiras(1));
+		try {
+			buffer.registrar(executada(ROTINA_ID, dia));
+			buffer.registrar(executada(ROTINA_REMOVIDA_ID, dia.plusMinutes(1)));
+			buffer.registrar(executada(ROTINA_ID, dia.plusMinutes(2)));
+
+			aguardar(() -> buffer.totalGravadas() + buffer.totalDescartadas() == 3);
+			assertThat(buffer.totalGravadas()).isEqualTo(2);
+			assertThat(buffer.totalDescartadas()).isEqualTo(1);
+			assertThat(buffer.totalReenvios()).isEqualTo(1);
+			assertThat(execucoesNoDia(dia)).isEqualTo(2);
+			assertThat(adesaoRotinaContadores.contar(ROTINA_REMOVIDA_ID, ExecucaoRotina.StatusExecucao.EXECUTADA))
+					.isZero();
+		} finally {
+			buffer.encerrar();
+		}
+	}
+
+	/**
+	 * Buffer próprio do teste, com gravação pelo gerenciador de transações informado
+	 */
+	private ExecucaoRotinaBuffer buffer(PlatformTransactionManager gerenciador) {
+		ExecucaoRotinaProperties propriedades = new ExecucaoRotinaProperties();
+		propriedades.setIntervaloDescarga(Duration.ofMillis(200));
+		propriedades.setEsperaMaximaReenvio(Duration.ofMillis(400));
+		ExecucaoRotinaBuffer buffer = new ExecucaoRotinaBuffer(entityManager, gerenciador, adesaoRotinaContadores,
+				adesaoRotinaService, propriedades);
+		buffer.iniciar();
+		return buffer;
+	}
+
+	private static ExecucaoRotinaBuffer.Pendente executada(long rotinaId, LocalDateTime executadoEm) {
+		return new ExecucaoRotinaBuffer.Pendente(rotinaId, ExecucaoRotina.StatusExecucao.EXECUTADA, executadoEm, null);
+	}
+
+	private int execucoesNoDia(LocalDateTime dia) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM execucoes_rotina WHERE executado_em >= ? AND executado_em < ?",
+				Integer.class, Timestamp.valueOf(dia), Timestamp.valueOf(dia.plusDays(1)));
+	}
+
+	private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+		long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		while (!condicao.getAsBoolean() && System.nanoTime() < limite) {
+			Thread.sleep(20);
+		}
+		assertThat(condicao.getAsBoolean()).as("gravação concluída em 10s").isTrue();
+	}
+
+	/**
+	 * Recusa as primeiras transações como o pool sem conexão disponível
+	 */
+	private class IndisponivelNasPrimeiras implements PlatformTransactionManager {
+
+		private final AtomicInteger falhas;
+
+		IndisponivelNasPrimeiras(int falhas) {
+			this.falhas = new AtomicInteger(falhas);
+		}
+
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definicao) {
+			if (falhas.getAndDecrement() > 0) {
+				throw new CannotCreateTransactionException("Could not open JPA EntityManager for transaction",
+						new SQLTransientConnectionException("HikariPool-1 - Connection is not available, request timed out"));
+			}
+			return transactionManager.getTransaction(definicao);
+		}
+
+		@Override
+		public void commit(TransactionStatus status) {
+			transactionManager.commit(status);
+		}
+
+		@Override
+		public void rollback(TransactionStatus status) {
+			transactionManager.rollback(status);
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package br.com.conectasenior.api;
+
+import br.com.conectasenior.api.entities.Rotina;
+import br.com.conectasenior.api.entities.Usuario;
+import br.com.conectasenior.api.repositories.UsuarioRepository;
+import br.com.conectasenior.api.security.JwtService;
+import br.com.conectasenior.api.services.LembreteRotinaEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Lembretes de rotina chegam às conexões SSE de acompanhamento
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:lembretes-stream")
+@AutoConfigureMockMvc
+class LembreteRotinaStreamIntegrationTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Test
+	void lembreteDisparadoEhEnviadoAoAssinante() throws Exception {
+		Usuario administrador = new Usuario();
+		administrador.setNome("Administrador Lembretes");
+		administrador.setEmail("lembretes@teste.com");
+		administrador.setSenha(passwordEncoder.encode("lembretes123"));
+		administrador.setTipo(Usuario.TipoUsuario.ADMINISTRADOR);
+		administrador.setAtivo(true);
+		usuarioRepository.save(administrador);
+
+		MockHttpServletResponse resposta = mockMvc.perform(get("/api/emergencias/stream")
+						.header("Authorization", "Bearer " + jwtService.generateToken(administrador)))
+				.andExpect(request().asyncStarted())
+				.andReturn().getResponse();
+		await().until(() -> resposta.getContentAsString().contains("event:snapshot"));
+
+		eventPublisher.publishEvent(new LembreteRotinaEvent(7L, 3L, "Losartana 50mg",
+				Rotina.TipoRotina.MEDICAMENTO, LocalDateTime.of(2024, 3, 10, 8, 0)));
+
+		await().until(() -> resposta.getContentAsString().contains("event:lembrete"));
+		assertThat(resposta.getContentAsString()).contains("\"rotinaId\":7", "\"titulo\":\"Losartana 50mg\"");
+	}
+}
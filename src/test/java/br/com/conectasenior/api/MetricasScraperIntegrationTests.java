@@ -0,0 +1,80 @@
+package br.com.conectasenior.api;
+
+import br.com.conectasenior.api.entities.Usuario;
+import br.com.conectasenior.api.repositories.UsuarioRepository;
+import br.com.conectasenior.api.security.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * O Prometheus coleta /actuator/prometheus com a própria credencial (HTTP Basic),
+ * sem depender de um token de usuário que expira
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:metricas-scraper",
+		"metricas.scraper.usuario=prometheus",
+		"metricas.scraper.senha=coleta-teste"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricasScraperIntegrationTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Test
+	void scraperColetaComACredencialPropria() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "coleta-teste")))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("conecta_execucoes_pendentes")));
+	}
+
+	@Test
+	void semCredencialOuComSenhaErradaRecebe401() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "outra")))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void tokenDeUsuarioNaoServeParaAsMetricas() throws Exception {
+		Usuario administrador = new Usuario();
+		administrador.setNome("Administrador Metricas");
+		administrador.setEmail("metricas@teste.com");
+		administrador.setSenha(passwordEncoder.encode("metricas123"));
+		administrador.setTipo(Usuario.TipoUsuario.ADMINISTRADOR);
+		administrador.setAtivo(true);
+		usuarioRepository.save(administrador);
+
+		mockMvc.perform(get("/actuator/prometheus")
+						.header("Authorization", "Bearer " + jwtService.generateToken(administrador)))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void credencialDoScraperNaoDaAcessoAApi() throws Exception {
+		mockMvc.perform(get("/api/idosos").with(httpBasic("prometheus", "coleta-teste")))
+				.andExpect(status().isForbidden());
+	}
+}
@@ -0,0 +1,130 @@
+package br.com.conectasenior.api;
+
+import br.com.conectasenior.api.dtos.RegistroSaudeDTO;
+import br.com.conectasenior.api.dtos.RotinaDTO;
+import br.com.conectasenior.api.dtos.responses.PaginaCursorResponse;
+import br.com.conectasenior.api.exceptions.BusinessException;
+import br.com.conectasenior.api.services.RotinaService;
+import br.com.conectasenior.api.services.SaudeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Percorrer uma listagem página a página pelo cursor entrega cada linha uma única
+ * vez, na ordem da listagem, mesmo com muitas linhas empatadas no valor ordenado
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:paginacao-cursor")
+class PaginacaoCursorIntegrationTests {
+
+	private static final String[] TITULOS = {"Caminhada", "Jantar", "Losartana 50mg"};
+	private static final LocalDateTime INICIO = LocalDateTime.of(2024, 3, 10, 8, 0);
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private RotinaService rotinaService;
+
+	@Autowired
+	private SaudeService saudeService;
+
+	@BeforeEach
+	void popular() {
+		if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idosos", Integer.class) > 0) {
+			return;
+		}
+		for (long idosoId = 1; idosoId <= 2; idosoId++) {
+			jdbcTemplate.update("INSERT INTO idosos (id, nome, data_nascimento, cpf, criado_em) "
+					+ "VALUES (?, ?, DATE '1940-01-01', ?, CURRENT_TIMESTAMP)", idosoId, "Idoso " + idosoId, "0000000002" + idosoId);
+		}
+		// Ids fora da ordem dos títulos e títulos repetidos: o desempate é pelo id
+		for (long id = 1; id <= 14; id++) {
+			jdbcTemplate.update("INSERT INTO rotinas (id, titulo, tipo, horario, dias_semana_mascara, ativo, criado_em, idoso_id) "
+							+ "VALUES (?, ?, 'MEDICAMENTO', TIME '08:00:00', 127, ?, CURRENT_TIMESTAMP, 1)",
+					id, TITULOS[(int) (id * 7 % TITULOS.length)], id % 5 != 0);
+		}
+		// Três instantes para vinte registros, alternando entre os dois idosos
+		for (long id = 1; id <= 20; id++) {
+			jdbcTemplate.update("INSERT INTO registros_saude (id, tipo, valor, registrado_em, criado_em, idoso_id) "
+							+ "VALUES (?, 'PESO', 60, ?, CURRENT_TIMESTAMP, ?)",
+					id, Timestamp.valueOf(INICIO.plusHours(id * 5 % 3)), id % 2 + 1);
+		}
+	}
+
+	@Test
+	void rotinasPorTituloSemRepetirNemPularLinhas() {
+		List<Long> esperado = jdbcTemplate.queryForList(
+				"SELECT id FROM rotinas WHERE ativo = TRUE ORDER BY titulo, id", Long.class);
+
+		for (int tamanho = 1; tamanho <= esperado.size() + 1; tamanho++) {
+			int porPagina = tamanho;
+			assertThat(percorrer(cursor -> rotinaService.findAllCursor(cursor, porPagina, false), RotinaDTO::getId))
+					.as("páginas de %d", tamanho)
+					.containsExactlyElementsOf(esperado);
+		}
+	}
+
+	@Test
+	void registrosPorDataSemRepetirNemPularLinhas() {
+		List<Long> esperado = jdbcTemplate.queryForList(
+				"SELECT id FROM registros_saude ORDER BY registrado_em DESC, id DESC", Long.class);
+		List<Long> esperadoIdoso = jdbcTemplate.queryForList(
+				"SELECT id FROM registros_saude WHERE idoso_id = 2 ORDER BY registrado_em DESC, id DESC", Long.class);
+
+		for (int tamanho = 1; tamanho <= 7; tamanho++) {
+			int porPagina = tamanho;
+			assertThat(percorrer(cursor -> saudeService.findAllCursor(cursor, porPagina, false), RegistroSaudeDTO::getId))
+					.as("páginas de %d", tamanho)
+					.containsExactlyElementsOf(esperado);
+			assertThat(percorrer(cursor -> saudeService.findByIdosoCursor(2L, cursor, porPagina, false), RegistroSaudeDTO::getId))
+					.as("páginas de %d do idoso", tamanho)
+					.containsExactlyElementsOf(esperadoIdoso);
+		}
+	}
+
+	@Test
+	void cursorDeOutraListagemEhRecusado() {
+		String cursorIdoso = saudeService.findByIdosoCursor(1L, null, 2, false).getProximoCursor();
+		String cursorRotinas = rotinaService.findAllCursor(null, 2, false).getProximoCursor();
+
+		assertThatThrownBy(() -> saudeService.findByIdosoCursor(2L, cursorIdoso, 2, false))
+				.isInstanceOf(BusinessException.class);
+		assertThatThrownBy(() -> saudeService.findAllCursor(cursorIdoso, 2, false))
+				.isInstanceOf(BusinessException.class);
+		assertThatThrownBy(() -> saudeService.findAllCursor(cursorRotinas, 2, false))
+				.isInstanceOf(BusinessException.class);
+	}
+
+	@Test
+	void totalSoQuandoPedido() {
+		assertThat(rotinaService.findAllCursor(null, 5, false).getTotal()).isNull();
+		assertThat(rotinaService.findAllCursor(null, 5, true).getTotal())
+				.isEqualTo(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rotinas WHERE ativo = TRUE", Long.class));
+	}
+
+	/**
+	 * Ids de todas as páginas, seguindo o cursor até a última
+	 */
+	private static <D> List<Long> percorrer(Function<String, PaginaCursorResponse<D>> buscar, Function<D, Long> id) {
+		List<Long> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			PaginaCursorResponse<D> pagina = buscar.apply(cursor);
+			pagina.getConteudo().forEach(linha -> ids.add(id.apply(linha)));
+			cursor = pagina.getProximoCursor();
+		} while (cursor != null);
+		return ids;
+	}
+}
@@ -0,0 +1,161 @@
+package br.com.conectasenior.api;
+
+import br.com.conectasenior.api.dtos.EmergenciaCreateDTO;
+import br.com.conectasenior.api.dtos.IdosoDTO;
+import br.com.conectasenior.api.dtos.RotinaCreateDTO;
+import br.com.conectasenior.api.entities.Emergencia;
+import br.com.conectasenior.api.entities.Rotina;
+import br.com.conectasenior.api.exceptions.ResourceNotFoundException;
+import br.com.conectasenior.api.services.EmergenciaAtivaIndex;
+import br.com.conectasenior.api.services.EmergenciaService;
+import br.com.conectasenior.api.services.EscalonamentoEmergenciaService;
+import br.com.conectasenior.api.services.IdosoService;
+import br.com.conectasenior.api.services.LembreteRotinaScheduler;
+import br.com.conectasenior.api.services.RotinaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A remoção de um idoso apaga rotinas e emergências em cascata no banco; os índices
+ * em memória precisam descartá-las a partir do IdosoAlteradoEvent
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:remocao-idoso")
+class RemocaoIdosoIntegrationTests {
+
+	@Autowired
+	private IdosoService idosoService;
+
+	@Autowired
+	private RotinaService rotinaService;
+
+	@Autowired
+	private LembreteRotinaScheduler lembreteRotinaScheduler;
+
+	@Autowired
+	private EmergenciaService emergenciaService;
+
+	@Autowired
+	private EmergenciaAtivaIndex emergenciaAtivaIndex;
+
+	@Autowired
+	private EscalonamentoEmergenciaService escalonamentoEmergenciaService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void remocaoDoIdosoTiraAsRotinasDosLembretes() {
+		Long idosoId = criarIdoso("00000000101");
+		Long rotinaId = criarRotina(idosoId);
+		Long outroIdosoId = criarIdoso("00000000102");
+		Long outraRotinaId = criarRotina(outroIdosoId);
+		assertThat(lembreteRotinaScheduler.agendamento(rotinaId)).isPresent();
+
+		idosoService.delete(idosoId);
+
+		assertThat(lembreteRotinaScheduler.agendamento(rotinaId)).isEmpty();
+		assertThat(lembreteRotinaScheduler.agendamento(outraRotinaId)).isPresent();
+	}
+
+	@Test
+	void remocaoDoIdosoTiraAsEmergenciasDoIndice() {
+		Long idosoId = criarIdoso("00000000201");
+		Long emergenciaId = abrirEmergencia(idosoId);
+		Long outroIdosoId = criarIdoso("00000000202");
+		abrirEmergencia(outroIdosoId);
+		assertThat(emergenciaAtivaIndex.isEmEmergencia(idosoId)).isTrue();
+
+		idosoService.delete(idosoId);
+
+		assertThat(emergenciaAtivaIndex.isEmEmergencia(idosoId)).isFalse();
+		assertThat(emergenciaAtivaIndex.listar(null)).extracting(EmergenciaAtivaIndex.EmergenciaAtiva::id)
+				.doesNotContain(emergenciaId);
+		assertThat(emergenciaAtivaIndex.isEmEmergencia(outroIdosoId)).isTrue();
+	}
+
+	@Test
+	void remocaoDoIdosoCancelaOsPrazosDeEscalonamento() {
+		Long idosoId = criarIdoso("00000000301");
+		abrirEmergencia(idosoId);
+		abrirEmergencia(idosoId);
+		abrirEmergencia(criarIdoso("00000000302"));
+		int agendados = escalonamentoEmergenciaService.totalAgendados();
+
+		idosoService.delete(idosoId);
+
+		assertThat(escalonamentoEmergenciaService.totalAgendados()).isEqualTo(agendados - 2);
+	}
+
+	@Test
+	void emergenciaDeIdosoInexistenteNaoEhEncontrada() {
+		assertThatThrownBy(() -> abrirEmergencia(999_999L)).isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	@Test
+	void emergenciaAbertaDuranteARemocaoDoIdosoNaoEhEncontrada() throws Exception {
+		Long idosoId = criarIdoso("00000000401");
+		CountDownLatch removido = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			// Remoção já executada no banco e ainda não confirmada quando a emergência é aberta
+			Future<?> remocao = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+				jdbcTemplate.update("DELETE FROM idosos WHERE id = ?", idosoId);
+				removido.countDown();
+				try {
+					Thread.sleep(300);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}));
+			removido.await();
+
+			assertThatThrownBy(() -> abrirEmergencia(idosoId)).isInstanceOf(ResourceNotFoundException.class);
+			remocao.get();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private Long criarIdoso(String cpf) {
+		IdosoDTO idoso = new IdosoDTO();
+		idoso.setNome("Idoso " + cpf);
+		idoso.setDataNascimento(LocalDate.of(1940, 1, 1));
+		idoso.setCpf(cpf);
+		return idosoService.create(idoso).getId();
+	}
+
+	private Long abrirEmergencia(Long idosoId) {
+		EmergenciaCreateDTO emergencia = new EmergenciaCreateDTO();
+		emergencia.setTipo(Emergencia.TipoEmergencia.QUEDA);
+		emergencia.setDescricao("Queda no banheiro");
+		emergencia.setGravidade(Emergencia.NivelGravidade.ALTA);
+		emergencia.setIdosoId(idosoId);
+		return emergenciaService.abrir(emergencia).getId();
+	}
+
+	private Long criarRotina(Long idosoId) {
+		RotinaCreateDTO rotina = new RotinaCreateDTO();
+		rotina.setNome("Caminhada");
+		rotina.setHorario(LocalDateTime.of(2024, 1, 1, 9, 30));
+		rotina.setTipo(Rotina.TipoRotina.EXERCICIO);
+		rotina.setIdosoId(idosoId);
+		return rotinaService.create(rotina).getId();
+	}
+}
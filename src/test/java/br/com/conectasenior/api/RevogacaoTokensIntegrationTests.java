@@ -0,0 +1,130 @@
+package br.com.conectasenior.api;
+
+import br.com.conectasenior.api.entities.Usuario;
+import br.com.conectasenior.api.repositories.UsuarioRepository;
+import br.com.conectasenior.api.security.JwtService;
+import br.com.conectasenior.api.security.TokenRevogacaoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * No modo jwt.stateless o token não é conferido contra o banco: troca de senha e
+ * desativação precisam revogar os tokens já emitidos
+ */
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:revogacao-tokens",
+	"jwt.stateless=true"
+})
+@AutoConfigureMockMvc
+class RevogacaoTokensIntegrationTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private TokenRevogacaoService tokenRevogacaoService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void trocaDeSenhaRevogaOsTokensAnteriores() throws Exception {
+		Usuario cuidador = criarUsuario("senha@teste.com", Usuario.TipoUsuario.CUIDADOR);
+		String antigo = "Bearer " + jwtService.generateToken(cuidador);
+		listarIdosos(antigo).andExpect(status().isOk());
+
+		String resposta = mockMvc.perform(post("/api/auth/senha").header("Authorization", antigo)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(Map.of("senhaAtual", "senha123", "novaSenha", "nova123"))))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		String novo = "Bearer " + objectMapper.readTree(resposta).get("token").asText();
+
+		listarIdosos(antigo).andExpect(status().is4xxClientError());
+		listarIdosos(novo).andExpect(status().isOk());
+	}
+
+	@Test
+	void desativacaoRevogaOsTokensDoUsuario() throws Exception {
+		Usuario administrador = criarUsuario("admin-revogacao@teste.com", Usuario.TipoUsuario.ADMINISTRADOR);
+		Usuario cuidador = criarUsuario("desativado@teste.com", Usuario.TipoUsuario.CUIDADOR);
+		String token = "Bearer " + jwtService.generateToken(cuidador);
+		listarIdosos(token).andExpect(status().isOk());
+
+		mockMvc.perform(patch("/api/admin/usuarios/" + cuidador.getId() + "/desativar")
+						.header("Authorization", "Bearer " + jwtService.generateToken(administrador)))
+				.andExpect(status().isNoContent());
+
+		listarIdosos(token).andExpect(status().is4xxClientError());
+	}
+
+	@Test
+	void revogacaoGravadaNoBancoValeAposRestart() throws Exception {
+		Usuario administrador = criarUsuario("admin-restart@teste.com", Usuario.TipoUsuario.ADMINISTRADOR);
+		Usuario cuidador = criarUsuario("restart@teste.com", Usuario.TipoUsuario.CUIDADOR);
+		String token = jwtService.generateToken(cuidador);
+
+		mockMvc.perform(patch("/api/admin/usuarios/" + cuidador.getId() + "/desativar")
+						.header("Authorization", "Bearer " + jwtService.generateToken(administrador)))
+				.andExpect(status().isNoContent());
+
+		// Instância nova, sem nada em memória: a versão vem do banco
+		TokenRevogacaoService reiniciado = new TokenRevogacaoService(usuarioRepository);
+		reiniciado.sincronizar();
+		assertThat(reiniciado.isRevogado(jwtService.parseToken(token))).isTrue();
+	}
+
+	@Test
+	void revogacaoFeitaEmOutroNoValeAposSincronizar() throws Exception {
+		Usuario cuidador = criarUsuario("outro-no@teste.com", Usuario.TipoUsuario.CUIDADOR);
+		String token = "Bearer " + jwtService.generateToken(cuidador);
+		listarIdosos(token).andExpect(status().isOk());
+
+		jdbcTemplate.update("UPDATE usuarios SET versao_token = versao_token + 1, ativo = FALSE WHERE id = ?", cuidador.getId());
+		tokenRevogacaoService.sincronizar();
+
+		listarIdosos(token).andExpect(status().is4xxClientError());
+	}
+
+	private ResultActions listarIdosos(String authorization) throws Exception {
+		return mockMvc.perform(get("/api/idosos").header("Authorization", authorization));
+	}
+
+	private Usuario criarUsuario(String email, Usuario.TipoUsuario tipo) {
+		Usuario usuario = new Usuario();
+		usuario.setNome("Usuário " + tipo);
+		usuario.setEmail(email);
+		usuario.setSenha(passwordEncoder.encode("senha123"));
+		usuario.setTipo(tipo);
+		usuario.setAtivo(true);
+		return usuarioRepository.save(usuario);
+	}
+}
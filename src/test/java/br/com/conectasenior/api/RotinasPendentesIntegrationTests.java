@@ -0,0 +1,129 @@
+package br.com.conectasenior.api;
+
+import br.com.conectasenior.api.dtos.RotinaDTO;
+import br.com.conectasenior.api.entities.DiasSemana;
+import br.com.conectasenior.api.exceptions.BusinessException;
+import br.com.conectasenior.api.services.RotinaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Rotinas pendentes numa data: previstas para o dia da semana, ativas, já criadas
+ * no dia e sem execução registrada dentro do dia
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:rotinas-pendentes")
+class RotinasPendentesIntegrationTests {
+
+	private static final LocalDate QUARTA = LocalDate.of(2024, 3, 13);
+	private static final LocalDateTime ANTES = LocalDateTime.of(2024, 3, 1, 8, 0);
+
+	private static final long IDOSO_ID = 1;
+	private static final long OUTRO_IDOSO_ID = 2;
+
+	private static final long SEM_EXECUCAO = 1;
+	private static final long EXECUTADA_NO_DIA = 2;
+	private static final long EXECUTADA_NOS_DIAS_VIZINHOS = 3;
+	private static final long SO_SEGUNDA = 4;
+	private static final long INATIVA = 5;
+	private static final long CRIADA_DEPOIS = 6;
+	private static final long DE_OUTRO_IDOSO = 7;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private RotinaService rotinaService;
+
+	@BeforeEach
+	void popular() {
+		if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idosos", Integer.class) > 0) {
+			return;
+		}
+		inserirIdoso(IDOSO_ID, "00000000011");
+		inserirIdoso(OUTRO_IDOSO_ID, "00000000012");
+
+		int quarta = DiasSemana.mascara("SEG,QUA");
+		inserirRotina(SEM_EXECUCAO, IDOSO_ID, quarta, true, ANTES);
+		inserirRotina(EXECUTADA_NO_DIA, IDOSO_ID, DiasSemana.TODOS, true, ANTES);
+		inserirRotina(EXECUTADA_NOS_DIAS_VIZINHOS, IDOSO_ID, DiasSemana.TODOS, true, ANTES);
+		inserirRotina(SO_SEGUNDA, IDOSO_ID, DiasSemana.mascara("SEG"), true, ANTES);
+		inserirRotina(INATIVA, IDOSO_ID, quarta, false, ANTES);
+		inserirRotina(CRIADA_DEPOIS, IDOSO_ID, DiasSemana.TODOS, true, QUARTA.plusDays(1).atTime(7, 0));
+		inserirRotina(DE_OUTRO_IDOSO, OUTRO_IDOSO_ID, DiasSemana.TODOS, true, ANTES);
+
+		inserirExecucao(1, EXECUTADA_NO_DIA, QUARTA.atTime(23, 59, 59));
+		inserirExecucao(2, EXECUTADA_NOS_DIAS_VIZINHOS, QUARTA.atStartOfDay().minusNanos(1_000));
+		inserirExecucao(3, EXECUTADA_NOS_DIAS_VIZINHOS, QUARTA.plusDays(1).atStartOfDay());
+	}
+
+	@Test
+	void pendentesDoDiaExcluemAsRotinasExecutadasNoDia() {
+		assertThat(pendentes(QUARTA, null))
+				.containsExactlyInAnyOrder(SEM_EXECUCAO, EXECUTADA_NOS_DIAS_VIZINHOS, DE_OUTRO_IDOSO);
+		assertThat(pendentes(QUARTA, IDOSO_ID))
+				.containsExactlyInAnyOrder(SEM_EXECUCAO, EXECUTADA_NOS_DIAS_VIZINHOS);
+	}
+
+	@Test
+	void execucaoSoContaNoProprioDia() {
+		// A execução de quarta 23:59:59 não cobre a quinta; a de quinta 00:00 cobre
+		assertThat(pendentes(QUARTA.plusDays(1), IDOSO_ID))
+				.containsExactlyInAnyOrder(EXECUTADA_NO_DIA, CRIADA_DEPOIS);
+		assertThat(pendentes(QUARTA.minusDays(2), IDOSO_ID))
+				.containsExactlyInAnyOrder(SEM_EXECUCAO, EXECUTADA_NO_DIA, EXECUTADA_NOS_DIAS_VIZINHOS, SO_SEGUNDA);
+	}
+
+	@Test
+	void diaDaSemanaNaoReconhecidoEhRecusado() {
+		assertThatThrownBy(() -> rotinaService.findRotinasPorDiaSemana(IDOSO_ID, "SEG,XYZ"))
+				.isInstanceOf(BusinessException.class)
+				.hasMessageContaining("XYZ");
+
+		RotinaDTO rotina = rotinaService.findById(SEM_EXECUCAO);
+		rotina.setDiasSemana("QUA,feriado");
+		assertThatThrownBy(() -> rotinaService.update(SEM_EXECUCAO, rotina))
+				.isInstanceOf(BusinessException.class)
+				.hasMessageContaining("feriado");
+		assertThat(rotinaService.findById(SEM_EXECUCAO).getDiasSemana()).isEqualTo("SEG,QUA");
+	}
+
+	@Test
+	void idosoECuidadorJuntosSaoRecusados() {
+		assertThatThrownBy(() -> rotinaService.findRotinasPendentes(QUARTA, IDOSO_ID, 1L, PageRequest.of(0, 10)))
+				.isInstanceOf(BusinessException.class);
+	}
+
+	private List<Long> pendentes(LocalDate data, Long idosoId) {
+		return rotinaService.findRotinasPendentes(data, idosoId, null, PageRequest.of(0, 20))
+				.map(RotinaDTO::getId)
+				.getContent();
+	}
+
+	private void inserirIdoso(long id, String cpf) {
+		jdbcTemplate.update("INSERT INTO idosos (id, nome, data_nascimento, cpf, criado_em) "
+				+ "VALUES (?, ?, DATE '1940-01-01', ?, CURRENT_TIMESTAMP)", id, "Idoso " + cpf, cpf);
+	}
+
+	private void inserirRotina(long id, long idosoId, int mascara, boolean ativo, LocalDateTime criadoEm) {
+		jdbcTemplate.update("INSERT INTO rotinas (id, titulo, tipo, horario, dias_semana_mascara, ativo, criado_em, idoso_id) "
+						+ "VALUES (?, ?, 'MEDICAMENTO', TIME '08:00:00', ?, ?, ?, ?)",
+				id, "Rotina " + id, mascara, ativo, Timestamp.valueOf(criadoEm), idosoId);
+	}
+
+	private void inserirExecucao(long id, long rotinaId, LocalDateTime executadoEm) {
+		jdbcTemplate.update("INSERT INTO execucoes_rotina (id, rotina_id, executado_em, status, criado_em) "
+				+ "VALUES (?, ?, ?, 'EXECUTADA', CURRENT_TIMESTAMP)", id, rotinaId, Timestamp.valueOf(executadoEm));
+	}
+}
@@ -0,0 +1,98 @@
+package br.com.conectasenior.api.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DiasSemanaTests {
+
+	private static final int SEG = DiasSemana.bit(DayOfWeek.MONDAY);
+	private static final int QUA = DiasSemana.bit(DayOfWeek.WEDNESDAY);
+	private static final int SEX = DiasSemana.bit(DayOfWeek.FRIDAY);
+	private static final int SAB = DiasSemana.bit(DayOfWeek.SATURDAY);
+	private static final int DOM = DiasSemana.bit(DayOfWeek.SUNDAY);
+
+	@Test
+	void mascaraAceitaSiglasNomesPorExtensoEAcentos() {
+		assertThat(DiasSemana.mascara("SEG,QUA,SEX")).isEqualTo(SEG | QUA | SEX);
+		assertThat(DiasSemana.mascara("segunda; quarta sexta")).isEqualTo(SEG | QUA | SEX);
+		assertThat(DiasSemana.mascara("S\u00e1bado, Domingo")).isEqualTo(SAB | DOM);
+		assertThat(DiasSemana.mascara(" sab ")).isEqualTo(SAB);
+	}
+
+	@Test
+	void mascaraVaziaOuTodosSaoTodosOsDias() {
+		assertThat(DiasSemana.mascara(null)).isEqualTo(DiasSemana.TODOS);
+		assertThat(DiasSemana.mascara("  ")).isEqualTo(DiasSemana.TODOS);
+		assertThat(DiasSemana.mascara("todos")).isEqualTo(DiasSemana.TODOS);
+		assertThat(DiasSemana.mascara("SEG,TODOS")).isEqualTo(DiasSemana.TODOS);
+	}
+
+	@Test
+	void mascaraRecusaTermosNaoReconhecidos() {
+		assertThatThrownBy(() -> DiasSemana.mascara("SEG,feriado,QU"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageEndingWith("feriado, QU");
+		assertThatThrownBy(() -> DiasSemana.mascara("SEG,XYZ")).hasMessageEndingWith("XYZ");
+		assertThatThrownBy(() -> DiasSemana.mascara("nunca")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> DiasSemana.mascara("TODOS,XYZ")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void mascaraSemNenhumTermoEhNenhumDia() {
+		assertThat(DiasSemana.mascara(" , ;")).isEqualTo(DiasSemana.NENHUM);
+		assertThat(DiasSemana.mascara(",SEG,")).isEqualTo(SEG);
+	}
+
+	@Test
+	void descreverEhOInversoDeMascara() {
+		assertThat(DiasSemana.descrever(SEG | QUA | SEX)).isEqualTo("SEG,QUA,SEX");
+		assertThat(DiasSemana.descrever(DiasSemana.TODOS)).isEqualTo("TODOS");
+		for (int mascara = 1; mascara <= DiasSemana.TODOS; mascara++) {
+			assertThat(DiasSemana.mascara(DiasSemana.descrever(mascara))).isEqualTo(mascara);
+		}
+	}
+
+	@Test
+	void mascarasQueIntersectamTemExatamenteAsMascarasComDiaEmComum() {
+		List<Integer> comSegunda = DiasSemana.mascarasQueIntersectam(SEG);
+		// Metade das 127 máscaras válidas tem o bit da segunda
+		assertThat(comSegunda).hasSize(64).allMatch(mascara -> (mascara & SEG) != 0);
+
+		List<Integer> comFimDeSemana = DiasSemana.mascarasQueIntersectam(SAB | DOM);
+		assertThat(comFimDeSemana).hasSize(127 - 31)
+				.doesNotContain(SEG | QUA | SEX)
+				.contains(SAB, DOM, SAB | DOM, DiasSemana.TODOS);
+
+		assertThat(DiasSemana.mascarasQueIntersectam(DiasSemana.TODOS)).hasSize(127);
+		assertThat(DiasSemana.mascarasQueIntersectam(DiasSemana.NENHUM)).isEmpty();
+	}
+
+	@Test
+	void contarDiasConfereComAContagemDiaADia() {
+		LocalDate inicio = LocalDate.of(2024, 2, 26);
+		for (int mascara : new int[] {SEG, SEG | QUA | SEX, SAB | DOM, DiasSemana.TODOS}) {
+			for (int dias = 0; dias < 40; dias++) {
+				LocalDate fim = inicio.plusDays(dias);
+				long esperado = inicio.datesUntil(fim.plusDays(1))
+						.filter(dia -> DiasSemana.contem(mascara, dia.getDayOfWeek()))
+						.count();
+				assertThat(DiasSemana.contarDias(mascara, inicio, fim)).as("máscara %d, %d dias", mascara, dias + 1)
+						.isEqualTo(esperado);
+			}
+		}
+	}
+
+	@Test
+	void contarDiasDeIntervaloInvertidoEhZero() {
+		LocalDate dia = LocalDate.of(2024, 3, 1);
+		assertThat(DiasSemana.contarDias(DiasSemana.TODOS, dia, dia.minusDays(1))).isZero();
+		assertThat(DiasSemana.contarDias(SEX, dia, dia)).isEqualTo(1);
+		assertThat(DiasSemana.contarDias(SEG, dia, dia)).isZero();
+	}
+}
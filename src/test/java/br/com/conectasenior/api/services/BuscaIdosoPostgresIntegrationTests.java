@@ -0,0 +1,145 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.config.BuscaIdososProperties;
+import br.com.conectasenior.api.dtos.ResultadoBuscaIdosoDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Busca de idosos no Postgres com sql/migracoes/010 aplicada: operador <%,
+ * word_similarity, limiar por set_config, busca_normalizar e índices GIN.
+ * Precisa de Docker; sem ele os testes são ignorados.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+		"spring.datasource.driver-class-name=org.postgresql.Driver",
+		"spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		// Migração aplicada depois de o Hibernate criar as tabelas e antes da detecção do modo
+		"spring.jpa.defer-datasource-initialization=true",
+		"spring.sql.init.mode=always",
+		"spring.sql.init.schema-locations=file:sql/migracoes/010_busca_idosos_trigramas.sql"
+})
+class BuscaIdosoPostgresIntegrationTests {
+
+	@Container
+	static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+	private static final long JOSE_DA_SILVA = 1;
+	private static final long MARIA_JOSE = 2;
+	private static final long JOSELITO = 3;
+	private static final long ANA_CONCEICAO = 4;
+	private static final long PEDRO_SILVEIRA = 5;
+	private static final long ANTONIO_PEREIRA = 6;
+
+	@DynamicPropertySource
+	static void banco(DynamicPropertyRegistry registro) {
+		registro.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+		registro.add("spring.datasource.username", POSTGRES::getUsername);
+		registro.add("spring.datasource.password", POSTGRES::getPassword);
+	}
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private BuscaIdosoService buscaIdosoService;
+
+	@BeforeEach
+	void popular() {
+		if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idosos", Integer.class) > 0) {
+			return;
+		}
+		inserirIdoso(JOSE_DA_SILVA, "Jos\u00e9 da Silva", "Rua das Flores, 10");
+		inserirIdoso(MARIA_JOSE, "Maria Jos\u00e9 Souza", "Avenida Brasil, 200");
+		inserirIdoso(JOSELITO, "Joselito Andrade", "Rua Sete, 7");
+		inserirIdoso(ANA_CONCEICAO, "Ana Concei\u00e7\u00e3o Lima", "Rua Jos\u00e9 Bonif\u00e1cio, 5");
+		inserirIdoso(PEDRO_SILVEIRA, "Pedro Silveira", null);
+		inserirIdoso(ANTONIO_PEREIRA, "Antonio Pereira", "Travessa Silva Jardim, 3");
+	}
+
+	@Test
+	void migracaoAplicadaAtivaOModoPostgres() {
+		assertThat(buscaIdosoService.estado().modo()).isEqualTo(BuscaIdososProperties.Modo.POSTGRES);
+		assertThat(jdbcTemplate.queryForObject("SELECT busca_normalizar(?)", String.class,
+				"  Jos\u00e9 da-Silva,  CONCEI\u00c7\u00c3O!! "))
+				.isEqualTo(TextoBusca.normalizar("  Jos\u00e9 da-Silva,  CONCEI\u00c7\u00c3O!! "));
+	}
+
+	@Test
+	void nomeComPalavraInteiraVemAntesDePrefixoEEndereco() {
+		List<ResultadoBuscaIdosoDTO> resultado = buscaIdosoService.buscar("jose", 10);
+
+		assertThat(ids(resultado)).hasSize(4);
+		assertThat(ids(resultado).subList(0, 2)).containsExactly(JOSE_DA_SILVA, MARIA_JOSE);
+		assertThat(ids(resultado).subList(2, 4)).containsExactlyInAnyOrder(JOSELITO, ANA_CONCEICAO);
+		assertThat(resultado.get(0).getRelevancia()).isEqualTo(1.0);
+		// Joselito: 4 dos 5 trigramas; Ana: "José" no endereço, com peso 0,8
+		assertThat(resultado.subList(2, 4)).allSatisfy(idoso -> assertThat(idoso.getRelevancia()).isCloseTo(0.8, within(0.001)));
+	}
+
+	@Test
+	void acentosECaixaNaoImportam() {
+		assertThat(ids(buscaIdosoService.buscar("conceicao", 10))).containsExactly(ANA_CONCEICAO);
+		assertThat(ids(buscaIdosoService.buscar("CONCEI\u00c7\u00c3O", 10))).containsExactly(ANA_CONCEICAO);
+		assertThat(ids(buscaIdosoService.buscar("Jos\u00c9 DA SILVA", 10))).first().isEqualTo(JOSE_DA_SILVA);
+	}
+
+	@Test
+	void errosDeDigitacaoAcimaDoLimiarSaoEncontrados() {
+		assertThat(ids(buscaIdosoService.buscar("conseicao", 10))).containsExactly(ANA_CONCEICAO);
+
+		List<Long> silvva = ids(buscaIdosoService.buscar("silvva", 10));
+		assertThat(silvva).first().isEqualTo(JOSE_DA_SILVA);
+		assertThat(silvva).contains(PEDRO_SILVEIRA, ANTONIO_PEREIRA).doesNotContain(MARIA_JOSE, JOSELITO);
+	}
+
+	@Test
+	void enderecoPesaMenosQueONome() {
+		List<ResultadoBuscaIdosoDTO> flores = buscaIdosoService.buscar("flores", 10);
+
+		assertThat(ids(flores)).containsExactly(JOSE_DA_SILVA);
+		assertThat(flores.get(0).getRelevancia()).isCloseTo(IndiceBuscaIdosos.PESO_ENDERECO, within(0.001));
+	}
+
+	@Test
+	void planoUsaOsIndicesDeTrigramas() {
+		// Com seis linhas o planejador prefere ler a tabela; desligado o seq scan,
+		// o plano só usa os índices se as expressões da consulta forem as indexadas
+		String plano = new TransactionTemplate(transactionManager).execute(status -> {
+			jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+			jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.word_similarity_threshold', '0.5', true)", String.class);
+			return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + BuscaIdosoService.BUSCAR_POSTGRES,
+					String.class, "silva", "silva", "%silva%", "silva", "%silva%", "silva", 10));
+		});
+
+		assertThat(plano).contains("idx_idosos_nome_trgm", "idx_idosos_endereco_trgm").doesNotContain("Seq Scan");
+	}
+
+	private void inserirIdoso(long id, String nome, String endereco) {
+		jdbcTemplate.update("INSERT INTO idosos (id, nome, endereco, data_nascimento, cpf, criado_em) "
+				+ "VALUES (?, ?, ?, DATE '1940-01-01', ?, CURRENT_TIMESTAMP)", id, nome, endereco, "0000000004" + id);
+	}
+
+	private static List<Long> ids(List<ResultadoBuscaIdosoDTO> resultado) {
+		return resultado.stream().map(ResultadoBuscaIdosoDTO::getId).toList();
+	}
+}
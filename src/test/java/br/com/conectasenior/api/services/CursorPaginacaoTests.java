@@ -0,0 +1,96 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.dtos.responses.PaginaCursorResponse;
+import br.com.conectasenior.api.exceptions.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorPaginacaoTests {
+
+	private record Linha(Long id, Object valor) {
+	}
+
+	@Test
+	void cursorDaPaginaDevolveAChaveDaUltimaLinhaEntregue() {
+		List<Linha> linhas = List.of(new Linha(4L, "Ana"), new Linha(9L, "Ana"), new Linha(2L, "Bia"));
+
+		PaginaCursorResponse<Long> pagina = pagina("idosos", linhas, 2);
+
+		assertThat(pagina.getConteudo()).containsExactly(4L, 9L);
+		assertThat(pagina.getTamanho()).isEqualTo(2);
+		assertThat(CursorPaginacao.decodificar("idosos", pagina.getProximoCursor()))
+				.isEqualTo(new CursorPaginacao.Posicao(9L, "Ana"));
+	}
+
+	@Test
+	void valorComSeparadoresEDataHoraSobrevivemAoCursor() {
+		LocalDateTime registradoEm = LocalDateTime.of(2024, 3, 10, 8, 15, 30, 123_000_000);
+		String comQuebra = "Caminhada\nmatinal, 30 min";
+
+		String cursorData = pagina("saude", List.of(new Linha(1L, registradoEm), new Linha(2L, registradoEm)), 1)
+				.getProximoCursor();
+		String cursorTexto = pagina("rotinas", List.of(new Linha(1L, comQuebra), new Linha(2L, comQuebra)), 1)
+				.getProximoCursor();
+
+		assertThat(CursorPaginacao.decodificar("saude", cursorData).valorDataHora()).isEqualTo(registradoEm);
+		assertThat(CursorPaginacao.decodificar("rotinas", cursorTexto).valor()).isEqualTo(comQuebra);
+		assertThat(cursorTexto).doesNotContain("+", "/", "=");
+	}
+
+	@Test
+	void ultimaPaginaNaoTemCursor() {
+		PaginaCursorResponse<Long> pagina = pagina("idosos", List.of(new Linha(1L, "Ana"), new Linha(2L, "Bia")), 2);
+
+		assertThat(pagina.getConteudo()).containsExactly(1L, 2L);
+		assertThat(pagina.getProximoCursor()).isNull();
+		assertThat(CursorPaginacao.decodificar("idosos", null)).isNull();
+		assertThat(CursorPaginacao.decodificar("idosos", " ")).isNull();
+	}
+
+	@Test
+	void cursorDeOutraListagemEhRecusado() {
+		String cursor = pagina("saude-idoso-1", List.of(new Linha(1L, "x"), new Linha(2L, "y")), 1).getProximoCursor();
+
+		assertThatThrownBy(() -> CursorPaginacao.decodificar("saude-idoso-2", cursor))
+				.isInstanceOf(BusinessException.class);
+		assertThatThrownBy(() -> CursorPaginacao.decodificar("saude", cursor))
+				.isInstanceOf(BusinessException.class);
+	}
+
+	@Test
+	void cursorCorrompidoEhRecusado() {
+		assertThatThrownBy(() -> CursorPaginacao.decodificar("idosos", "#sem base64#"))
+				.isInstanceOf(BusinessException.class);
+		assertThatThrownBy(() -> CursorPaginacao.decodificar("idosos", base64("idosos\n7")))
+				.isInstanceOf(BusinessException.class);
+		assertThatThrownBy(() -> CursorPaginacao.decodificar("idosos", base64("idosos\nsete\nAna")))
+				.isInstanceOf(BusinessException.class);
+		assertThatThrownBy(() -> CursorPaginacao.decodificar("saude", base64("saude\n7\nontem")).valorDataHora())
+				.isInstanceOf(BusinessException.class);
+	}
+
+	@Test
+	void limiteLeUmaLinhaAMaisDentroDoTamanhoMaximo() {
+		assertThat(CursorPaginacao.limite(1).getPageSize()).isEqualTo(2);
+		assertThat(CursorPaginacao.limite(CursorPaginacao.TAMANHO_MAXIMO).getPageSize())
+				.isEqualTo(CursorPaginacao.TAMANHO_MAXIMO + 1);
+		assertThatThrownBy(() -> CursorPaginacao.limite(0)).isInstanceOf(BusinessException.class);
+		assertThatThrownBy(() -> CursorPaginacao.limite(CursorPaginacao.TAMANHO_MAXIMO + 1))
+				.isInstanceOf(BusinessException.class);
+	}
+
+	private static PaginaCursorResponse<Long> pagina(String escopo, List<Linha> linhas, int tamanho) {
+		return CursorPaginacao.pagina(escopo, linhas, tamanho, Linha::id, Linha::valor, Linha::id, null);
+	}
+
+	private static String base64(String texto) {
+		return Base64.getUrlEncoder().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+	}
+}
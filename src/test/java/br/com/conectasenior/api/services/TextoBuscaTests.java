@@ -0,0 +1,66 @@
+package br.com.conectasenior.api.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextoBuscaTests {
+
+	private static final String SIMBOLOS = " abcdefghijklmnopqrstuvwxyz0123456789";
+
+	@Test
+	void normalizarTiraAcentosCaixaEPontuacao() {
+		assertThat(TextoBusca.normalizar("  Jos\u00e9 da-Silva,  CONCEI\u00c7\u00c3O!! ")).isEqualTo("jose da silva conceicao");
+		assertThat(TextoBusca.normalizar("Losartana 50mg / 2x ao dia")).isEqualTo("losartana 50mg 2x ao dia");
+		assertThat(TextoBusca.normalizar("MA\u0301RIO")).isEqualTo("mario");
+	}
+
+	@Test
+	void normalizarTextoVazioOuSoPontuacao() {
+		assertThat(TextoBusca.normalizar(null)).isEmpty();
+		assertThat(TextoBusca.normalizar("")).isEmpty();
+		assertThat(TextoBusca.normalizar(" -- !? ")).isEmpty();
+	}
+
+	@Test
+	void trigramasSeguemOPgTrgm() {
+		// show_trgm('cat') e show_trgm('foo bar') no Postgres
+		assertThat(texto(TextoBusca.trigramas("cat"))).containsExactly("  c", " ca", "at ", "cat");
+		assertThat(texto(TextoBusca.trigramas("foo bar")))
+				.containsExactly("  b", "  f", " ba", " fo", "ar ", "bar", "foo", "oo ");
+		assertThat(texto(TextoBusca.trigramas("a"))).containsExactly("  a", " a ");
+		assertThat(TextoBusca.trigramas("")).isEmpty();
+	}
+
+	@Test
+	void trigramasSaoDistintosEmOrdemCrescente() {
+		int[] trigramas = TextoBusca.trigramas("ana ana banana 2024");
+
+		assertThat(trigramas).isSorted().doesNotHaveDuplicates();
+		assertThat(Arrays.stream(trigramas)).allMatch(codigo -> codigo >= 0 && codigo < TextoBusca.TOTAL_TRIGRAMAS);
+		assertThat(texto(trigramas)).contains("ana", "nan", "ban", "202", "024", "24 ");
+	}
+
+	@Test
+	void trigramasInterioresDoTermoEstaoEmTodoTextoQueOContem() {
+		int[] termo = TextoBusca.trigramas(TextoBusca.normalizar("Silva"));
+		List<String> texto = texto(TextoBusca.trigramas(TextoBusca.normalizar("Maria da Silvana")));
+
+		assertThat(TextoBusca.interiores(termo)).isEqualTo(3);
+		assertThat(texto(termo).stream().filter(trigrama -> !trigrama.contains(" ")))
+				.containsExactly("ilv", "lva", "sil")
+				.allMatch(texto::contains);
+		assertThat(TextoBusca.interiores(TextoBusca.trigramas("foo bar"))).isEqualTo(2);
+		assertThat(TextoBusca.interiores(TextoBusca.trigramas("ab"))).isZero();
+	}
+
+	private static List<String> texto(int[] trigramas) {
+		return Arrays.stream(trigramas)
+				.mapToObj(codigo -> new String(new char[] {SIMBOLOS.charAt(codigo / (37 * 37)),
+						SIMBOLOS.charAt(codigo / 37 % 37), SIMBOLOS.charAt(codigo % 37)}))
+				.toList();
+	}
+}
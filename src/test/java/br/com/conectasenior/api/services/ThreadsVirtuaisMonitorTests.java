@@ -0,0 +1,33 @@
+package br.com.conectasenior.api.services;
+
+import br.com.conectasenior.api.config.LimiteConexoesDataSource;
+import br.com.conectasenior.api.config.ThreadsVirtuaisProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThreadsVirtuaisMonitorTests {
+
+	@Test
+	void estatisticasDoLimiteMesmoComOutroProxyPorFora() {
+		DataSource limitado = new LimiteConexoesDataSource(new DriverManagerDataSource(), 4, Duration.ofSeconds(1));
+
+		assertThat(monitor(limitado).estatisticas().conexoes().limite()).isEqualTo(4);
+		assertThat(monitor(new DelegatingDataSource(limitado)).estatisticas().conexoes().limite()).isEqualTo(4);
+	}
+
+	@Test
+	void semLimiteAsEstatisticasDeConexaoSaoNulas() {
+		assertThat(monitor(new DriverManagerDataSource()).estatisticas().conexoes()).isNull();
+	}
+
+	private static ThreadsVirtuaisMonitor monitor(DataSource dataSource) {
+		return new ThreadsVirtuaisMonitor(new MockEnvironment(), new ThreadsVirtuaisProperties(), dataSource);
+	}
+}